@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.builder.maven;
+
+/**
+ * Describes one file copied by the dependency plugin. Clients use the SHA-1 of the file to download only the
+ * dependencies which they don't have yet, and the path to download the file from the build results.
+ */
+public class DependencyManifestEntry {
+    private String path;
+    private String name;
+    private String groupId;
+    private String artifactId;
+    private String version;
+    private String classifier;
+    private String sha1;
+
+    public DependencyManifestEntry(String path, String name, String groupId, String artifactId, String version, String classifier,
+                                   String sha1) {
+        this.path = path;
+        this.name = name;
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.classifier = classifier;
+        this.sha1 = sha1;
+    }
+
+    public DependencyManifestEntry() {
+    }
+
+    /** Path of the file relative to the working directory of the build. */
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /** Name of the file. */
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getClassifier() {
+        return classifier;
+    }
+
+    public void setClassifier(String classifier) {
+        this.classifier = classifier;
+    }
+
+    /** SHA-1 of the file content as lowercase hex string. */
+    public String getSha1() {
+        return sha1;
+    }
+
+    public void setSha1(String sha1) {
+        this.sha1 = sha1;
+    }
+}
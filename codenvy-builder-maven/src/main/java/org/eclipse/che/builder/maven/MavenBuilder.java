@@ -26,13 +26,13 @@ import org.eclipse.che.api.builder.internal.SourcesManager;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.util.CommandLine;
 import org.eclipse.che.commons.json.JsonHelper;
-import org.eclipse.che.commons.lang.IoUtil;
-import org.eclipse.che.commons.lang.ZipUtils;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.ide.maven.tools.MavenArtifact;
 import org.eclipse.che.ide.maven.tools.MavenUtils;
 import org.eclipse.che.ide.maven.tools.Model;
 
+import com.google.common.hash.Hashing;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,7 +44,10 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -193,6 +196,8 @@ public class MavenBuilder extends Builder {
                     LOG.warn("Targets {} ignored when copy dependencies", targets);
                 }
                 commandLine.add("clean", "dependency:copy-dependencies").addPair("-Dmdep.failOnMissingClassifierArtifact", "false");
+                // keep repository layout so coordinates of each copied file may be restored from its path
+                commandLine.addPair("-Dmdep.useRepositoryLayout", "true");
                 break;
         }
         commandLine.add(config.getOptions());
@@ -294,13 +299,13 @@ public class MavenBuilder extends Builder {
                 final java.io.File target = new java.io.File(workDir, "target");
                 final java.io.File dependencies = new java.io.File(target, "dependency");
                 if (dependencies.isDirectory() && dependencies.list().length > 0) {
-                    final java.io.File zip = new java.io.File(target, "dependencies.zip");
+                    final java.io.File manifest = new java.io.File(target, MavenUtils.DEPENDENCIES_MANIFEST_FILE);
                     try {
-                        ZipUtils.zipDir(dependencies.getAbsolutePath(), dependencies, zip, IoUtil.ANY_FILTER);
+                        writeDependenciesManifest(workDir, dependencies, manifest);
                     } catch (IOException e) {
                         throw new BuilderException(e);
                     }
-                    files = new java.io.File[]{zip};
+                    files = new java.io.File[]{manifest};
                 }
                 break;
         }
@@ -312,6 +317,60 @@ public class MavenBuilder extends Builder {
         return result;
     }
 
+    /**
+     * Writes manifest of the copied dependencies instead of packing them in one zip. The manifest lists path, coordinates and
+     * SHA-1 of each file, so clients which already have the same file don't download it again.
+     */
+    private void writeDependenciesManifest(java.io.File workDir, final java.io.File dependencies, java.io.File manifest)
+            throws IOException {
+        final java.nio.file.Path workPath = workDir.toPath();
+        final java.nio.file.Path dependenciesPath = dependencies.toPath();
+        final List<DependencyManifestEntry> entries = new LinkedList<>();
+        Files.walkFileTree(dependenciesPath, new SimpleFileVisitor<java.nio.file.Path>() {
+            @Override
+            public FileVisitResult visitFile(java.nio.file.Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile()) {
+                    entries.add(createManifestEntry(workPath.relativize(file), dependenciesPath.relativize(file), file));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        try (Writer writer = Files.newBufferedWriter(manifest.toPath(), Charset.forName("UTF-8"))) {
+            writer.write(JsonHelper.toJson(entries));
+        }
+    }
+
+    /** Restores coordinates of the file from repository layout: group/path/artifactId/version/artifactId-version[-classifier].ext */
+    private static DependencyManifestEntry createManifestEntry(java.nio.file.Path path, java.nio.file.Path repositoryPath,
+                                                               java.nio.file.Path file) throws IOException {
+        final String name = file.getFileName().toString();
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
+        String classifier = null;
+        final int count = repositoryPath.getNameCount();
+        if (count >= 4) {
+            version = repositoryPath.getName(count - 2).toString();
+            artifactId = repositoryPath.getName(count - 3).toString();
+            final StringBuilder group = new StringBuilder();
+            for (int i = 0; i < count - 3; i++) {
+                if (i > 0) {
+                    group.append('.');
+                }
+                group.append(repositoryPath.getName(i));
+            }
+            groupId = group.toString();
+            final String prefix = artifactId + '-' + version + '-';
+            final int dot = name.lastIndexOf('.');
+            if (name.startsWith(prefix) && dot > prefix.length()) {
+                classifier = name.substring(prefix.length(), dot);
+            }
+        }
+        final String relative = path.toString().replace(java.io.File.separatorChar, '/');
+        return new DependencyManifestEntry(relative, name, groupId, artifactId, version, classifier,
+                                           com.google.common.io.Files.hash(file.toFile(), Hashing.sha1()).toString());
+    }
+
     private boolean isMavenTaskSuccess(FutureBuildTask task) throws BuilderException {
         boolean mavenSuccess = false;
         BufferedReader logReader = null;
@@ -47,6 +47,18 @@ public class BinaryTypeConvector {
     private static final Gson gson = new GsonBuilder().disableHtmlEscaping().serializeNulls().create();
 
     public static String toJsonBinaryType(IBinaryType type) {
+        return toJsonBinaryType(type, null);
+    }
+
+    /**
+     * Converts binary type to JSON.
+     *
+     * @param type
+     *         binary type
+     * @param jarHash
+     *         hash of the library jar which contains the type, or <code>null</code> if the type isn't loaded from a jar
+     */
+    public static String toJsonBinaryType(IBinaryType type, String jarHash) {
         JsonObject object = new JsonObject();
         object.add("annotations", toJsonAnnotations(type.getAnnotations()));
         object.add("enclosingMethod",
@@ -73,6 +85,9 @@ public class BinaryTypeConvector {
         object.add("modifiers", new JsonPrimitive(type.getModifiers()));
         object.add("binaryType", new JsonPrimitive(type.isBinaryType()));
         object.add("fileName", type.getFileName() == null ? JsonNull.INSTANCE : new JsonPrimitive(new String(type.getFileName())));
+        if (jarHash != null) {
+            object.add("jar", new JsonPrimitive(jarHash));
+        }
         return gson.toJson(object);
     }
 
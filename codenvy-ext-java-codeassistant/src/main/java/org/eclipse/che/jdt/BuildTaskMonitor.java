@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt;
+
+import org.eclipse.che.api.builder.BuildStatus;
+import org.eclipse.che.api.builder.dto.BuildTaskDescriptor;
+import org.eclipse.che.api.core.rest.HttpJsonHelper;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches builder tasks until they are finished.
+ * <p/>
+ * Status of all watched tasks is checked by one thread, so waiting for many dependency builds doesn't hold a thread
+ * per build. Status of each task is requested in the environment context of the caller which started to watch it.
+ */
+@Singleton
+public class BuildTaskMonitor {
+    private static final Logger LOG = LoggerFactory.getLogger(BuildTaskMonitor.class);
+
+    private static final long CHECK_PERIOD_MS = 500;
+
+    private final Map<SettableFuture<BuildTaskDescriptor>, WatchedTask> tasks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    @Inject
+    public BuildTaskMonitor() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("BuildTaskMonitor-%d")
+                                                                                         .setDaemon(true).build());
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                checkTasks();
+            }
+        }, CHECK_PERIOD_MS, CHECK_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts to watch the task.
+     *
+     * @param descriptor
+     *         descriptor of the launched task
+     * @return future which is completed with the descriptor of the finished task, cancel it to stop watching
+     */
+    public ListenableFuture<BuildTaskDescriptor> watch(BuildTaskDescriptor descriptor) {
+        SettableFuture<BuildTaskDescriptor> future = SettableFuture.create();
+        Link statusLink = findStatusLink(descriptor);
+        if (statusLink == null || !isRunning(descriptor)) {
+            future.set(descriptor);
+        } else {
+            tasks.put(future, new WatchedTask(statusLink, EnvironmentContext.getCurrent()));
+        }
+        return future;
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        for (SettableFuture<BuildTaskDescriptor> future : tasks.keySet()) {
+            future.cancel(false);
+        }
+        tasks.clear();
+    }
+
+    private void checkTasks() {
+        for (Iterator<Map.Entry<SettableFuture<BuildTaskDescriptor>, WatchedTask>> iterator = tasks.entrySet().iterator();
+             iterator.hasNext(); ) {
+            Map.Entry<SettableFuture<BuildTaskDescriptor>, WatchedTask> entry = iterator.next();
+            SettableFuture<BuildTaskDescriptor> future = entry.getKey();
+            if (future.isDone()) {
+                iterator.remove();
+                continue;
+            }
+            WatchedTask task = entry.getValue();
+            EnvironmentContext.setCurrent(task.context);
+            try {
+                BuildTaskDescriptor descriptor = HttpJsonHelper.request(BuildTaskDescriptor.class, task.statusLink);
+                if (!isRunning(descriptor)) {
+                    iterator.remove();
+                    future.set(descriptor);
+                }
+            } catch (Exception e) {
+                LOG.warn("Can't get status of build task " + task.statusLink.getHref(), e);
+                iterator.remove();
+                future.setException(e);
+            } finally {
+                EnvironmentContext.reset();
+            }
+        }
+    }
+
+    private static boolean isRunning(BuildTaskDescriptor descriptor) {
+        return descriptor.getStatus() == BuildStatus.IN_PROGRESS || descriptor.getStatus() == BuildStatus.IN_QUEUE;
+    }
+
+    private static Link findStatusLink(BuildTaskDescriptor descriptor) {
+        for (Link link : descriptor.getLinks()) {
+            if ("get status".equals(link.getRel())) {
+                return link;
+            }
+        }
+        return null;
+    }
+
+    private static class WatchedTask {
+        final Link               statusLink;
+        final EnvironmentContext context;
+
+        WatchedTask(Link statusLink, EnvironmentContext context) {
+            this.statusLink = statusLink;
+            this.context = context;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store of dependency jars shared by all projects.
+ * <p/>
+ * Jars are addressed by the SHA-1 of their content, which the builder publishes in the dependencies manifest, so the
+ * same jar used by many projects and workspaces is downloaded and kept on disk only once. Projects get hard links to the
+ * stored jars, or copies if the file system doesn't support links. A stored jar is deleted when the last link to it is
+ * removed together with the project dependencies. The paths of the copies are recorded next to the stored jar, which is
+ * kept while any of them still holds the copy.
+ */
+public class DependencyStore {
+    private static final Logger LOG = LoggerFactory.getLogger(DependencyStore.class);
+
+    private static final String JAR_SUFFIX    = ".jar";
+    private static final String COPIES_SUFFIX = ".copies";
+
+    private final File                 storeDir;
+    /** key = content hash, value = number of installs which are downloading or linking the jar */
+    private final Map<String, Integer> pending   = new HashMap<>();
+    private final AtomicLong           hits      = new AtomicLong();
+    private final AtomicLong           downloads = new AtomicLong();
+
+    public DependencyStore(File storeDir) {
+        this.storeDir = storeDir;
+        storeDir.mkdirs();
+    }
+
+    /**
+     * Installs dependencies listed in the manifest into the directory. Only jars which aren't in the store are downloaded.
+     *
+     * @param entries
+     *         entries of the dependencies manifest
+     * @param targetDir
+     *         directory of the project dependencies
+     * @param downloader
+     *         downloads content of the manifest entry
+     */
+    public void install(List<Entry> entries, File targetDir, Downloader downloader) throws IOException {
+        Set<String> reserved = new HashSet<>();
+        try {
+            for (Entry entry : entries) {
+                if (entry.getSha1() == null || entry.getName() == null) {
+                    continue;
+                }
+                String hash = entry.getSha1().toLowerCase();
+                if (reserved.add(hash)) {
+                    reserve(hash);
+                }
+                File stored = getJarFile(hash);
+                if (stored.isFile()) {
+                    hits.incrementAndGet();
+                } else {
+                    download(entry, hash, stored, downloader);
+                }
+                link(stored, new File(targetDir, entry.getName()));
+            }
+        } finally {
+            for (String hash : reserved) {
+                release(hash);
+            }
+        }
+    }
+
+    /**
+     * Deletes stored jars which aren't linked or copied to any project. Does nothing if the file system doesn't count links.
+     */
+    public void collectGarbage() {
+        File[] files = storeDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.endsWith(JAR_SUFFIX)) {
+                continue;
+            }
+            synchronized (this) {
+                if (pending.containsKey(name.substring(0, name.length() - JAR_SUFFIX.length()))) {
+                    continue;
+                }
+                Integer links = getLinkCount(file);
+                if (links == null) {
+                    return;
+                }
+                if (links <= 1 && !isCopied(file) && !file.delete()) {
+                    LOG.warn("Can't delete unused dependency {}", file);
+                }
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getDownloads() {
+        return downloads.get();
+    }
+
+    private void download(Entry entry, String hash, File stored, Downloader downloader) throws IOException {
+        File tmp = File.createTempFile(hash, ".tmp", storeDir);
+        try {
+            try (InputStream in = downloader.download(entry)) {
+                java.nio.file.Files.copy(in, tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            HashCode actual = Files.hash(tmp, Hashing.sha1());
+            if (!hash.equals(actual.toString())) {
+                throw new IOException("Checksum mismatch of dependency " + entry.getName() + ", expected " + hash + " but was " + actual);
+            }
+            try {
+                java.nio.file.Files.move(tmp.toPath(), stored.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // stored concurrently by other project
+            }
+            downloads.incrementAndGet();
+        } finally {
+            if (tmp.exists() && !tmp.delete()) {
+                LOG.warn("Can't delete temporary file {}", tmp);
+            }
+        }
+    }
+
+    private void link(File stored, File target) throws IOException {
+        target.getParentFile().mkdirs();
+        java.nio.file.Files.deleteIfExists(target.toPath());
+        try {
+            java.nio.file.Files.createLink(target.toPath(), stored.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            // the copy keeps the modification time of the stored jar, so it is told apart from a file written to its place later
+            java.nio.file.Files.copy(stored.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                                     StandardCopyOption.COPY_ATTRIBUTES);
+            addCopy(stored, target);
+        }
+    }
+
+    private synchronized void addCopy(File stored, File target) throws IOException {
+        Files.append(target.getAbsolutePath() + '\n', getCopiesFile(stored), Charsets.UTF_8);
+    }
+
+    /**
+     * Checks whether any recorded copy of the stored jar still exists. Copies which are removed or replaced are forgotten.
+     * Must be called with the lock of the store.
+     */
+    private boolean isCopied(File stored) {
+        File copiesFile = getCopiesFile(stored);
+        if (!copiesFile.isFile()) {
+            return false;
+        }
+        try {
+            List<String> copies = Files.readLines(copiesFile, Charsets.UTF_8);
+            List<String> existing = new ArrayList<>();
+            for (String path : copies) {
+                File copy = new File(path);
+                if (copy.isFile() && copy.length() == stored.length() && copy.lastModified() == stored.lastModified()
+                    && !existing.contains(path)) {
+                    existing.add(path);
+                }
+            }
+            if (existing.isEmpty()) {
+                if (!copiesFile.delete()) {
+                    LOG.warn("Can't delete {}", copiesFile);
+                }
+                return false;
+            }
+            if (existing.size() < copies.size()) {
+                Files.write(Joiner.on('\n').join(existing) + '\n', copiesFile, Charsets.UTF_8);
+            }
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Can't read copies of dependency " + stored, e);
+            return true;
+        }
+    }
+
+    private static File getCopiesFile(File stored) {
+        String name = stored.getName();
+        return new File(stored.getParentFile(), name.substring(0, name.length() - JAR_SUFFIX.length()) + COPIES_SUFFIX);
+    }
+
+    private static Integer getLinkCount(File file) {
+        try {
+            return (Integer)java.nio.file.Files.getAttribute(file.toPath(), "unix:nlink");
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private synchronized void reserve(String hash) {
+        Integer count = pending.get(hash);
+        pending.put(hash, count == null ? 1 : count + 1);
+    }
+
+    private synchronized void release(String hash) {
+        Integer count = pending.get(hash);
+        if (count == null || count <= 1) {
+            pending.remove(hash);
+        } else {
+            pending.put(hash, count - 1);
+        }
+    }
+
+    private File getJarFile(String hash) {
+        return new File(storeDir, hash + JAR_SUFFIX);
+    }
+
+    /** Entry of the dependencies manifest published by the builder. */
+    public static class Entry {
+        private String path;
+        private String name;
+        private String sha1;
+
+        public Entry(String path, String name, String sha1) {
+            this.path = path;
+            this.name = name;
+            this.sha1 = sha1;
+        }
+
+        public Entry() {
+        }
+
+        /** Path of the file in the build results. */
+        public String getPath() {
+            return path;
+        }
+
+        /** Name of the file in the project dependencies directory. */
+        public String getName() {
+            return name;
+        }
+
+        public String getSha1() {
+            return sha1;
+        }
+    }
+
+    /** Downloads content of the dependency. */
+    public interface Downloader {
+        InputStream download(Entry entry) throws IOException;
+    }
+}
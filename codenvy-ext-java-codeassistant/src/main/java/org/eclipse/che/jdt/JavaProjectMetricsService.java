@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt;
+
+import com.google.gson.Gson;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Rest service which exposes statistics of the Java projects opened on this node.
+ */
+@Path("java-project-metrics")
+public class JavaProjectMetricsService {
+
+    @Inject
+    private JavaProjectService javaProjectService;
+
+    /** Returns hits, misses, evictions and warm up times of the project cache. */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getMetrics() {
+        return new Gson().toJson(javaProjectService.getMetrics());
+    }
+}
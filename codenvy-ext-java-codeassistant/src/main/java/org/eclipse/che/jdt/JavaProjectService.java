@@ -16,12 +16,22 @@ import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.vfs.server.observation.VirtualFileEvent;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.jdt.core.resources.ResourceChangedEvent;
+import org.eclipse.che.jdt.internal.core.JavaModelCacheBudget;
 import org.eclipse.che.jdt.internal.core.JavaProject;
+import org.eclipse.che.jdt.internal.core.search.indexing.SharedIndexStore;
 import org.eclipse.che.vfs.impl.fs.LocalFSMountStrategy;
+import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
 import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalListeners;
 import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
@@ -33,12 +43,37 @@ import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
 import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Maintenance and create JavaProjects
@@ -49,20 +84,59 @@ import java.util.concurrent.TimeUnit;
 public class JavaProjectService {
     /** Logger. */
     private static final Logger LOG = LoggerFactory.getLogger(JavaProjectService.class);
+    /** Delay to coalesce file events. */
+    private static final long   EVENTS_DELAY_MS = 200;
+    /** System property which sets maximum total weight of the opened projects. */
+    public static final  String MAX_WEIGHT_PROPERTY   = "che.java.codeassistant.project.cache.weight";
+    private static final long   DEFAULT_MAX_WEIGHT    = 5000000;
+    /** Bytes of the Java model cache which weigh as one indexed document. */
+    private static final long   BYTES_PER_WEIGHT_UNIT = 1024;
+    /** Part of the heap used after GC at which projects are unloaded. */
+    private static final double MEMORY_PRESSURE_RATIO = 0.85;
 
     private Cache<String, JavaProject> cache;
     private ConcurrentHashMap<String, CopyOnWriteArraySet<String>> projectInWs = new ConcurrentHashMap<>();
     private LocalFSMountStrategy fsMountStrategy;
     private String               tempDir;
     private Map<String, String> options = new HashMap<>();
+    private SharedIndexStore     sharedIndexStore;
+    private DependencyStore      dependencyStore;
+    private ExecutorService      warmUpExecutor;
+    private ConcurrentHashMap<String, TypeJsonCache> typeJsonCaches = new ConcurrentHashMap<>();
+    private ScheduledExecutorService                 eventExecutor;
+    /** Closes, unloads and deletes projects, so the disk I/O doesn't delay the file events. */
+    private ExecutorService                          unloadExecutor;
+    /** key = workspace id + project path, value = time of the last access to the project */
+    private ConcurrentHashMap<String, Long>          lastAccess        = new ConcurrentHashMap<>();
+    /** Locks of the project keys, a project isn't created while another instance of it is unloaded and vice versa. */
+    private final Striped<Lock>                      projectLocks      = Striped.lock(64);
+    private final AtomicLong                         pressureEvictions = new AtomicLong();
+    private final AtomicLong                         budgetEvictions   = new AtomicLong();
+    private final AtomicLong                         warmUps           = new AtomicLong();
+    private final AtomicLong                         warmUpTime        = new AtomicLong();
+    private final AtomicLong                         maxWarmUpTime     = new AtomicLong();
+    private final AtomicLong                         indexedSources    = new AtomicLong();
+    private final AtomicLong                         sourceIndexTime   = new AtomicLong();
+    private final JavaProject.WarmUpListener         warmUpListener    = new WarmUpListener();
+    private MemoryPressureListener                   memoryPressureListener;
+    private final VirtualFileEventSubscriber         eventSubscriber   = new VirtualFileEventSubscriber();
 
     @Inject
     public JavaProjectService(EventService eventService,
                               LocalFSMountStrategy fsMountStrategy,
                               @Named("che.java.codeassistant.index.dir") String temp) {
-        eventService.subscribe(new VirtualFileEventSubscriber());
+        eventService.subscribe(eventSubscriber);
         this.fsMountStrategy = fsMountStrategy;
         tempDir = temp;
+        sharedIndexStore = new SharedIndexStore(new File(temp, "shared-indexes"));
+        dependencyStore = new DependencyStore(new File(temp, "dependency-store"));
+        int warmUpThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        warmUpExecutor = Executors.newFixedThreadPool(warmUpThreads, new ThreadFactoryBuilder().setNameFormat("JavaProjectWarmUp-%d")
+                                                                                                .setDaemon(true).build());
+        eventExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("JavaProjectEvents-%d")
+                                                                                              .setDaemon(true).build());
+        unloadExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("JavaProjectUnload-%d")
+                                                                                     .setDaemon(true).build());
         options.put(JavaCore.COMPILER_COMPLIANCE, JavaCore.VERSION_1_7);
         options.put(JavaCore.CORE_ENCODING, "UTF-8");
         options.put(JavaCore.COMPILER_SOURCE, JavaCore.VERSION_1_7);
@@ -78,36 +152,73 @@ public class JavaProjectService {
         options.put(JavaCore.COMPILER_ANNOTATION_NULL_ANALYSIS, JavaCore.ENABLED);
         options.put(CompilerOptions.OPTION_Process_Annotations, JavaCore.ENABLED);
         options.put(CompilerOptions.OPTION_GenerateClassFiles, JavaCore.ENABLED);
-        cache = CacheBuilder.newBuilder().expireAfterAccess(4, TimeUnit.HOURS).removalListener(
-                new RemovalListener<String, JavaProject>() {
-                    @Override
-                    public void onRemoval(RemovalNotification<String, JavaProject> notification) {
-                        JavaProject value = notification.getValue();
-                        if (value != null) {
-                            removeProject(value.getWsId(), value.getProjectPath());
-                        }
-                    }
-                }).build();
+        cache = CacheBuilder.newBuilder()
+                            .expireAfterAccess(4, TimeUnit.HOURS)
+                            .maximumWeight(getMaxWeight())
+                            .weigher(new Weigher<String, JavaProject>() {
+                                @Override
+                                public int weigh(String key, JavaProject project) {
+                                    return getWeight(project);
+                                }
+                            })
+                            .recordStats()
+                            .removalListener(RemovalListeners.asynchronous(new RemovalListener<String, JavaProject>() {
+                                @Override
+                                public void onRemoval(RemovalNotification<String, JavaProject> notification) {
+                                    JavaProject value = notification.getValue();
+                                    if (value == null) {
+                                        return;
+                                    }
+                                    // explicitly removed and replaced projects are handled by the caller
+                                    if (notification.getCause() == RemovalCause.SIZE) {
+                                        unloadProject(notification.getKey(), value);
+                                    } else if (notification.getCause() == RemovalCause.EXPIRED) {
+                                        discardProject(value.getWsId(), value.getProjectPath(), value);
+                                    }
+                                }
+                            }, unloadExecutor)).build();
+        memoryPressureListener = new MemoryPressureListener();
     }
 
-    public JavaProject getOrCreateJavaProject(String wsId, String projectPath) {
+    public JavaProject getOrCreateJavaProject(final String wsId, final String projectPath) {
         String key = wsId + projectPath;
-        JavaProject project = cache.getIfPresent(key);
-        if (project != null) {
-            return project;
-        }
-        File mountPath;
-        try {
-            mountPath = fsMountStrategy.getMountPath(wsId);
-        } catch (ServerException e) {
-            throw new RuntimeException(e);
-        }
-        JavaProject javaProject = new JavaProject(mountPath, projectPath, tempDir, wsId, new HashMap<>(options));
-        cache.put(key, javaProject);
-        if (!projectInWs.containsKey(wsId)) {
-            projectInWs.put(wsId, new CopyOnWriteArraySet<String>());
+        JavaProject javaProject = cache.getIfPresent(key);
+        if (javaProject == null) {
+            // the lock is held until the new instance is in the cache, so an old instance doesn't delete its files
+            Lock lock = projectLocks.get(key);
+            lock.lock();
+            try {
+                // only one instance of the project is created by concurrent callers
+                javaProject = cache.get(key, new Callable<JavaProject>() {
+                    @Override
+                    public JavaProject call() throws Exception {
+                        return createJavaProject(wsId, projectPath);
+                    }
+                });
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                throw Throwables.propagate(e.getCause());
+            } finally {
+                lock.unlock();
+            }
         }
+        lastAccess.put(key, System.currentTimeMillis());
+        return javaProject;
+    }
+
+    private JavaProject createJavaProject(String wsId, String projectPath) throws ServerException {
+        File mountPath = fsMountStrategy.getMountPath(wsId);
+        JavaProject javaProject = new JavaProject(mountPath, projectPath, tempDir, wsId, new HashMap<>(options), sharedIndexStore,
+                                                  warmUpExecutor, warmUpListener);
+        projectInWs.putIfAbsent(wsId, new CopyOnWriteArraySet<String>());
         projectInWs.get(wsId).add(projectPath);
+        if (JavaModelCacheBudget.getInstance().isExceeded()) {
+            unloadExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    unloadOverBudget();
+                }
+            });
+        }
         return javaProject;
     }
 
@@ -120,25 +231,280 @@ public class JavaProjectService {
     }
 
     public void removeProject(String wsId, String projectPath) {
-        JavaProject javaProject = cache.getIfPresent(wsId + projectPath);
-        if (projectInWs.containsKey(wsId)) {
-            projectInWs.get(wsId).remove(projectPath);
-        }
-        if (javaProject != null) {
-            cache.invalidate(wsId + projectPath);
-            try {
-                javaProject.close();
-            } catch (JavaModelException e) {
-                LOG.error("Error when trying close project.", e);
+        discardProject(wsId, projectPath, cache.asMap().remove(wsId + projectPath));
+    }
+
+    /**
+     * Closes the project and deletes its indexes and dependencies. If the project was opened again meanwhile, only the
+     * closed instance is unloaded and the files of the new one are kept.
+     */
+    private void discardProject(String wsId, String projectPath, JavaProject javaProject) {
+        String key = wsId + projectPath;
+        Lock lock = projectLocks.get(key);
+        lock.lock();
+        try {
+            if (cache.asMap().containsKey(key)) {
+                if (javaProject != null) {
+                    unloadProject(key, javaProject);
+                }
+                return;
+            }
+            if (projectInWs.containsKey(wsId)) {
+                projectInWs.get(wsId).remove(projectPath);
             }
+            if (javaProject != null) {
+                try {
+                    javaProject.close();
+                } catch (JavaModelException e) {
+                    LOG.error("Error when trying close project.", e);
+                }
+            }
+            typeJsonCaches.remove(key);
+            lastAccess.remove(key);
+            sharedIndexStore.release(key);
+            deleteDependencyDirectory(wsId, projectPath);
+        } finally {
+            lock.unlock();
         }
-        deleteDependencyDirectory(wsId, projectPath);
     }
 
     public Map<String, String> getOptions() {
         return options;
     }
 
+    /**
+     * Returns statistics of the project cache: hits and misses of the opened projects, evictions by weight or age,
+     * unloads under memory pressure or over the Java model cache budget, times of the initial indexing of the projects
+     * and the rate of the source indexing.
+     */
+    public Map<String, Long> getMetrics() {
+        CacheStats stats = cache.stats();
+        long totalWeight = 0;
+        for (JavaProject project : cache.asMap().values()) {
+            totalWeight += getWeight(project);
+        }
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("projects", cache.size());
+        metrics.put("weight", totalWeight);
+        metrics.put("maxWeight", getMaxWeight());
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("pressureEvictions", pressureEvictions.get());
+        metrics.put("budgetEvictions", budgetEvictions.get());
+        metrics.put("warmUps", warmUps.get());
+        metrics.put("warmUpTimeTotal", warmUpTime.get());
+        metrics.put("warmUpTimeMax", maxWarmUpTime.get());
+        long sources = indexedSources.get();
+        long sourcesTime = sourceIndexTime.get();
+        metrics.put("indexedSources", sources);
+        metrics.put("sourceIndexingTime", sourcesTime);
+        metrics.put("sourcesIndexedPerSecond", sourcesTime == 0 ? 0 : sources * 1000 / sourcesTime);
+        return metrics;
+    }
+
+    /** Stops indexing of projects which are still warming. */
+    @PreDestroy
+    void stop() {
+        memoryPressureListener.remove();
+        eventExecutor.shutdownNow();
+        unloadExecutor.shutdownNow();
+        warmUpExecutor.shutdownNow();
+        try {
+            if (!warmUpExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOG.warn("Unable to terminate warm up pool");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if changes of the project files are received but not applied to the project model yet,
+     * so the type names of the project sources may be outdated.
+     */
+    public boolean hasPendingFileEvents(String wsId, String projectPath) {
+        return eventSubscriber.hasPendingEvents(wsId, projectPath);
+    }
+
+    /** Returns cache of the type JSON of the project, the cache is dropped together with the project. */
+    public TypeJsonCache getTypeJsonCache(String wsId, String projectPath) {
+        String key = wsId + projectPath;
+        TypeJsonCache typeJsonCache = typeJsonCaches.get(key);
+        if (typeJsonCache == null) {
+            TypeJsonCache newCache = new TypeJsonCache();
+            typeJsonCache = typeJsonCaches.putIfAbsent(key, newCache);
+            if (typeJsonCache == null) {
+                typeJsonCache = newCache;
+            }
+        }
+        return typeJsonCache;
+    }
+
+    /** Returns store of library indexes shared between all projects. */
+    public SharedIndexStore getSharedIndexStore() {
+        return sharedIndexStore;
+    }
+
+    /** Returns store of dependency jars shared between all projects. */
+    public DependencyStore getDependencyStore() {
+        return dependencyStore;
+    }
+
+    /**
+     * Unloads evicted project. Unlike {@link #removeProject(String, String)} indexes and dependencies of the project
+     * stay on disk, so the project is opened again quickly. State kept by the key, including the index files, is left
+     * to the new instance if the project was opened again before it was unloaded.
+     */
+    private void unloadProject(String key, JavaProject javaProject) {
+        String wsId = javaProject.getWsId();
+        String projectPath = javaProject.getProjectPath();
+        Lock lock = projectLocks.get(key);
+        lock.lock();
+        try {
+            if (cache.asMap().containsKey(key)) {
+                javaProject.detach();
+                return;
+            }
+            if (projectInWs.containsKey(wsId)) {
+                projectInWs.get(wsId).remove(projectPath);
+            }
+            typeJsonCaches.remove(key);
+            lastAccess.remove(key);
+            javaProject.unload();
+        } catch (JavaModelException e) {
+            LOG.error("Error when trying unload project.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Project weighs as its indexed documents plus its Java model cache, so a few huge projects can't starve the node. */
+    private static int getWeight(JavaProject project) {
+        long weight = 1 + project.getIndexedDocumentCount() + project.getModelCacheSize() / BYTES_PER_WEIGHT_UNIT;
+        return (int)Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    private static long getMaxWeight() {
+        String property = System.getProperty(MAX_WEIGHT_PROPERTY);
+        if (property != null) {
+            try {
+                return Long.parseLong(property);
+            } catch (NumberFormatException e) {
+                LOG.warn("Could not parse value for {}: {}", MAX_WEIGHT_PROPERTY, property);
+            }
+        }
+        return DEFAULT_MAX_WEIGHT;
+    }
+
+    /** Unloads the least recently used quarter of the projects. */
+    private void unloadUnderPressure() {
+        int toUnload = Math.max(1, (int)cache.size() / 4);
+        for (Map.Entry<String, Long> entry : getLeastRecentlyUsed()) {
+            if (toUnload == 0) {
+                break;
+            }
+            JavaProject javaProject = cache.asMap().remove(entry.getKey());
+            if (javaProject != null) {
+                LOG.info("Unload project {} under memory pressure", entry.getKey());
+                pressureEvictions.incrementAndGet();
+                unloadProject(entry.getKey(), javaProject);
+                toUnload--;
+            }
+        }
+    }
+
+    /**
+     * Unloads the least recently used projects until the Java model caches of the others fit in the {@link JavaModelCacheBudget}.
+     * The most recently used project is kept even if its caches alone exceed the budget.
+     */
+    private void unloadOverBudget() {
+        JavaModelCacheBudget budget = JavaModelCacheBudget.getInstance();
+        for (Map.Entry<String, Long> entry : getLeastRecentlyUsed()) {
+            if (!budget.isExceeded() || cache.size() <= 1) {
+                break;
+            }
+            JavaProject javaProject = cache.asMap().remove(entry.getKey());
+            if (javaProject != null) {
+                LOG.info("Unload project {} over Java model cache budget", entry.getKey());
+                budgetEvictions.incrementAndGet();
+                unloadProject(entry.getKey(), javaProject);
+            }
+        }
+    }
+
+    /** Returns opened projects from the least to the most recently used. */
+    private List<Map.Entry<String, Long>> getLeastRecentlyUsed() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(lastAccess.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                return Long.compare(o1.getValue(), o2.getValue());
+            }
+        });
+        return entries;
+    }
+
+    private class WarmUpListener implements JavaProject.WarmUpListener {
+        @Override
+        public void warmedUp(JavaProject project, long time) {
+            warmUps.incrementAndGet();
+            warmUpTime.addAndGet(time);
+            indexedSources.addAndGet(project.getIndexManager().getIndexedSourceCount());
+            sourceIndexTime.addAndGet(project.getIndexManager().getSourceIndexingTime());
+            long max;
+            while ((max = maxWarmUpTime.get()) < time && !maxWarmUpTime.compareAndSet(max, time)) {
+                // retry
+            }
+            // weight of the project is known when indexes are built, put project again to weigh it
+            cache.asMap().replace(project.getWsId() + project.getProjectPath(), project, project);
+        }
+    }
+
+    /**
+     * Listens for the heap usage after GC. When it exceeds {@link #MEMORY_PRESSURE_RATIO} of the maximum, projects are
+     * unloaded regardless of their weight.
+     */
+    private class MemoryPressureListener implements NotificationListener {
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+        MemoryPressureListener() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                long max = pool.getUsage().getMax();
+                if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                    pool.setCollectionUsageThreshold((long)(max * MEMORY_PRESSURE_RATIO));
+                }
+            }
+            MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+            if (memoryBean instanceof NotificationEmitter) {
+                NotificationEmitter emitter = (NotificationEmitter)memoryBean;
+                emitter.addNotificationListener(this, null, null);
+                emitters.add(emitter);
+            }
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                unloadExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        unloadUnderPressure();
+                    }
+                });
+            }
+        }
+
+        void remove() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException ignored) {
+                }
+            }
+        }
+    }
+
     private void deleteDependencyDirectory(String wsId, String projectPath) {
         File projectDepDir = new File(tempDir, wsId + projectPath);
         if (projectDepDir.exists()) {
@@ -153,46 +519,167 @@ public class JavaProjectService {
         }
     }
 
+    /**
+     * Updates java models of the projects. Events are coalesced during {@link #EVENTS_DELAY_MS} and processed in one pass,
+     * so the bulk changes of many files, e.g. checkout or build, update each model in one run of the events thread.
+     */
     private class VirtualFileEventSubscriber implements EventSubscriber<VirtualFileEvent> {
+        private final Queue<VirtualFileEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean           scheduled     = new AtomicBoolean();
+        private volatile boolean              processing;
 
         @Override
         public void onEvent(VirtualFileEvent event) {
+            pendingEvents.add(event);
+            if (scheduled.compareAndSet(false, true)) {
+                eventExecutor.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        // set before the events are taken, so they are pending until they are applied
+                        processing = true;
+                        try {
+                            scheduled.set(false);
+                            List<VirtualFileEvent> events = new ArrayList<>();
+                            VirtualFileEvent pending;
+                            while ((pending = pendingEvents.poll()) != null) {
+                                events.add(pending);
+                            }
+                            processEvents(events);
+                        } finally {
+                            processing = false;
+                        }
+                    }
+                }, EVENTS_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        boolean hasPendingEvents(String wsId, String projectPath) {
+            if (processing) {
+                return true;
+            }
+            for (VirtualFileEvent event : pendingEvents) {
+                if (wsId.equals(event.getWorkspaceId()) && event.getPath().startsWith(projectPath)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Merges the events of each file, then applies the events of each project as one change. */
+        private void processEvents(List<VirtualFileEvent> events) {
+            // key = workspace id + project path, value = events of the files of the project keyed by path of the file
+            Map<String, Map<String, List<VirtualFileEvent>>> projects = new LinkedHashMap<>();
+            for (VirtualFileEvent event : events) {
+                try {
+                    String key = findProject(event);
+                    if (key == null) {
+                        continue;
+                    }
+                    Map<String, List<VirtualFileEvent>> files = projects.get(key);
+                    if (files == null) {
+                        files = new LinkedHashMap<>();
+                        projects.put(key, files);
+                    }
+                    mergeEvent(files, event);
+                } catch (Throwable t) {
+                    //catch all exceptions that may be happened
+                    LOG.error("Can't update java model", t);
+                }
+            }
+            for (Map.Entry<String, Map<String, List<VirtualFileEvent>>> project : projects.entrySet()) {
+                List<VirtualFileEvent> projectEvents = new ArrayList<>();
+                for (List<VirtualFileEvent> fileEvents : project.getValue().values()) {
+                    projectEvents.addAll(fileEvents);
+                }
+                try {
+                    applyEvents(project.getKey(), projectEvents);
+                } catch (Throwable t) {
+                    //catch all exceptions that may be happened
+                    LOG.error("Can't update java model", t);
+                }
+            }
+        }
+
+        /**
+         * Returns key of the opened project which contains the changed file or <code>null</code> if the change doesn't
+         * affect opened projects. Deleted projects are removed.
+         */
+        private String findProject(VirtualFileEvent event) {
             final VirtualFileEvent.ChangeType eventType = event.getType();
             final String eventWorkspace = event.getWorkspaceId();
             final String eventPath = event.getPath();
-            try {
-                if (eventType == VirtualFileEvent.ChangeType.DELETED) {
-                    JavaProject javaProject = cache.getIfPresent(eventWorkspace + eventPath);
-                    if (javaProject != null) {
-                        removeProject(eventWorkspace, eventPath);
-                        return;
-                    } else if (event.isFolder()) {
-                        if (isProjectDependencyExist(eventWorkspace, eventPath)) {
-                            deleteDependencyDirectory(eventWorkspace, eventPath);
-                            return;
+            if (eventType == VirtualFileEvent.ChangeType.DELETED) {
+                JavaProject javaProject = cache.getIfPresent(eventWorkspace + eventPath);
+                if (javaProject != null) {
+                    unloadExecutor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            removeProject(eventWorkspace, eventPath);
                         }
+                    });
+                    return null;
+                } else if (event.isFolder()) {
+                    if (isProjectDependencyExist(eventWorkspace, eventPath)) {
+                        unloadExecutor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                deleteDependencyDirectory(eventWorkspace, eventPath);
+                            }
+                        });
+                        return null;
                     }
                 }
-                if (projectInWs.containsKey(eventWorkspace)) {
-                    for (String path : projectInWs.get(eventWorkspace)) {
-                        if (eventPath.startsWith(path)) {
-                            JavaProject javaProject = cache.getIfPresent(eventWorkspace + path);
-                            if (javaProject != null) {
-                                try {
-                                    javaProject.getJavaModelManager().deltaState.resourceChanged(
-                                            new ResourceChangedEvent(fsMountStrategy.getMountPath(eventWorkspace), event));
-                                    javaProject.creteNewNameEnvironment();
-                                } catch (ServerException e) {
-                                    LOG.error("Can't update java model", e);
-                                }
-                            }
-                            break;
-                        }
+            }
+            if (projectInWs.containsKey(eventWorkspace)) {
+                for (String path : projectInWs.get(eventWorkspace)) {
+                    if (eventPath.startsWith(path)) {
+                        return eventWorkspace + path;
                     }
                 }
-            } catch (Throwable t) {
-                //catch all exceptions that may be happened
-                LOG.error("Can't update java model", t);
+            }
+            return null;
+        }
+
+        /**
+         * Adds the event to the events of its file. Repeated updates of the file are applied once, the file which is
+         * created and deleted by the same batch of events isn't changed at all.
+         */
+        private void mergeEvent(Map<String, List<VirtualFileEvent>> files, VirtualFileEvent event) {
+            List<VirtualFileEvent> fileEvents = files.get(event.getPath());
+            if (fileEvents == null) {
+                fileEvents = new ArrayList<>(2);
+                files.put(event.getPath(), fileEvents);
+            }
+            VirtualFileEvent.ChangeType type = event.getType();
+            VirtualFileEvent.ChangeType last = fileEvents.isEmpty() ? null : fileEvents.get(fileEvents.size() - 1).getType();
+            if (type == VirtualFileEvent.ChangeType.CONTENT_UPDATED
+                && (last == VirtualFileEvent.ChangeType.CREATED || last == VirtualFileEvent.ChangeType.CONTENT_UPDATED)) {
+                return;
+            }
+            if (type == VirtualFileEvent.ChangeType.DELETED
+                && (last == VirtualFileEvent.ChangeType.CREATED || last == VirtualFileEvent.ChangeType.CONTENT_UPDATED)) {
+                fileEvents.remove(fileEvents.size() - 1);
+                if (last == VirtualFileEvent.ChangeType.CREATED) {
+                    return;
+                }
+            }
+            fileEvents.add(event);
+        }
+
+        private void applyEvents(String key, List<VirtualFileEvent> events) throws ServerException {
+            JavaProject javaProject = cache.getIfPresent(key);
+            if (javaProject == null || events.isEmpty()) {
+                return;
+            }
+            // name environment of the project is updated by the java element delta
+            javaProject.getJavaModelManager().deltaState.resourceChanged(
+                    new ResourceChangedEvent(fsMountStrategy.getMountPath(javaProject.getWsId()), events));
+            TypeJsonCache typeJsonCache = typeJsonCaches.get(key);
+            if (typeJsonCache != null) {
+                for (VirtualFileEvent event : events) {
+                    typeJsonCache.fileChanged(event.getPath(), event.getType() == VirtualFileEvent.ChangeType.CONTENT_UPDATED
+                                                               && !event.isFolder());
+                }
             }
         }
     }
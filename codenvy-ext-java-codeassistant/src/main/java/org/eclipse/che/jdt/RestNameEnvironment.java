@@ -22,10 +22,18 @@ import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.commons.lang.ZipUtils;
 import org.eclipse.che.commons.user.User;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.ide.maven.tools.MavenUtils;
+import org.eclipse.che.jdt.internal.core.ClasspathFingerprint;
 import org.eclipse.che.jdt.internal.core.JavaProject;
 import org.eclipse.che.jdt.internal.core.SearchableEnvironment;
 import org.eclipse.che.jdt.internal.core.SourceTypeElementInfo;
 import org.eclipse.che.vfs.impl.fs.LocalFSMountStrategy;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.reflect.TypeToken;
 import com.google.inject.name.Named;
 
 import org.eclipse.jdt.core.IJavaProject;
@@ -50,25 +58,33 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 import java.io.File;
 import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -84,6 +100,8 @@ import java.util.Map;
 public class RestNameEnvironment {
     /** Logger. */
     private static final Logger LOG = LoggerFactory.getLogger(RestNameEnvironment.class);
+    /** Response header which is set when search results were computed before the project indexes were built. */
+    public static final String PARTIAL_RESULTS_HEADER = "X-Partial-Results";
 
     @Inject
     private LocalFSMountStrategy fsMountStrategy;
@@ -91,6 +109,9 @@ public class RestNameEnvironment {
     @Inject
     private JavaProjectService javaProjectService;
 
+    @Inject
+    private BuildTaskMonitor buildTaskMonitor;
+
     @Context
     private HttpServletRequest request;
 
@@ -117,44 +138,158 @@ public class RestNameEnvironment {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @javax.ws.rs.Path("findTypeCompound")
-    public String findTypeCompound(@QueryParam("compoundTypeName") String compoundTypeName, @QueryParam("projectpath") String projectPath) {
+    public Response findTypeCompound(@QueryParam("compoundTypeName") String compoundTypeName,
+                                     @QueryParam("projectpath") String projectPath,
+                                     @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         JavaProject javaProject = getJavaProject(projectPath);
         SearchableEnvironment environment = javaProject.getNameEnvironment();
         try {
-            NameEnvironmentAnswer answer = environment.findType(getCharArrayFrom(compoundTypeName));
-            if (answer == null && compoundTypeName.contains("$")) {
-                String innerName = compoundTypeName.substring(compoundTypeName.indexOf('$') + 1, compoundTypeName.length());
-                compoundTypeName = compoundTypeName.substring(0, compoundTypeName.indexOf('$'));
-                answer = environment.findType(getCharArrayFrom(compoundTypeName));
-                if (!answer.isCompilationUnit()) return null;
-                ICompilationUnit compilationUnit = answer.getCompilationUnit();
-                CompilationUnit result = getCompilationUnit(javaProject, environment, compilationUnit);
-                AbstractTypeDeclaration o = (AbstractTypeDeclaration)result.types().get(0);
-                ITypeBinding typeBinding = o.resolveBinding();
-
-                for (ITypeBinding binding : typeBinding.getDeclaredTypes()) {
-                    if (binding.getBinaryName().endsWith(innerName)) {
-                        typeBinding = binding;
-                        break;
-                    }
+            return typeResponse(findTypeCompound(compoundTypeName, javaProject, environment), ifNoneMatch);
+        } catch (JavaModelException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.error("Can't parse class: ", e);
+            }
+            throw new WebApplicationException();
+        }
+    }
+
+    /**
+     * Resolves many types and packages with one request, used by WorkerNameEnvironment to prefetch types before binding resolution.
+     * Request body is <code>{"types":["java,util,List",...],"packages":["java,util",...]}</code>, the response contains JSON
+     * of each requested type in the same order, or <code>null</code> if type isn't found, the positions of the types which
+     * couldn't be resolved because of an error, and the names of existing packages:
+     * <code>{"types":[{...},null,...],"errors":[1,...],"packages":["java,util",...]}</code>. The types of the errors are also
+     * <code>null</code> in the types, but they aren't known to be missing.
+     */
+    @POST
+    @javax.ws.rs.Path("findTypesBatch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public String findTypesBatch(@QueryParam("projectpath") String projectPath, String body) {
+        JavaProject javaProject = getJavaProject(projectPath);
+        SearchableEnvironment environment = javaProject.getNameEnvironment();
+        BatchRequest batch = new Gson().fromJson(body, BatchRequest.class);
+        StringBuilder result = new StringBuilder("{\"types\":[");
+        List<Integer> errors = new ArrayList<>();
+        if (batch.types != null) {
+            for (int i = 0; i < batch.types.size(); i++) {
+                if (i > 0) {
+                    result.append(',');
+                }
+                String type = null;
+                try {
+                    type = findTypeCompound(batch.types.get(i), javaProject, environment).getJson();
+                } catch (JavaModelException | RuntimeException e) {
+                    LOG.debug("Can't resolve type " + batch.types.get(i), e);
+                    errors.add(i);
                 }
-                Map<TypeBinding, ?> bindings = (Map<TypeBinding, ?>)result.getProperty("compilerBindingsToASTBindings");
-                SourceTypeBinding binding = null;
-                for (Map.Entry<TypeBinding, ?> entry : bindings.entrySet()) {
-                    if (entry.getValue().equals(typeBinding)) {
-                        binding = (SourceTypeBinding)entry.getKey();
-                        break;
-                    }
+                result.append(type);
+            }
+        }
+        List<String> packages = new ArrayList<>();
+        if (batch.packages != null) {
+            for (String packageName : batch.packages) {
+                int index = packageName.lastIndexOf(',');
+                char[][] parent = index == -1 ? null : getCharArrayFrom(packageName.substring(0, index));
+                if (environment.isPackage(parent, packageName.substring(index + 1).toCharArray())) {
+                    packages.add(packageName);
                 }
-                return TypeBindingConvector.toJsonBinaryType(binding);
             }
+        }
+        return result.append("],\"errors\":").append(new Gson().toJson(errors))
+                     .append(",\"packages\":").append(new Gson().toJson(packages)).append('}').toString();
+    }
+
+    private TypeJsonCache.Entry findTypeCompound(String compoundTypeName, JavaProject javaProject, SearchableEnvironment environment)
+            throws JavaModelException {
+        TypeJsonCache typeJsonCache = getTypeJsonCache(javaProject);
+        String key = "compound:" + compoundTypeName;
+        TypeJsonCache.Entry entry = typeJsonCache.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        NameEnvironmentAnswer answer = environment.findType(getCharArrayFrom(compoundTypeName));
+        if (answer == null && compoundTypeName.contains("$")) {
+            String innerName = compoundTypeName.substring(compoundTypeName.indexOf('$') + 1, compoundTypeName.length());
+            String outerName = compoundTypeName.substring(0, compoundTypeName.indexOf('$'));
+            answer = environment.findType(getCharArrayFrom(outerName));
+            if (answer == null || !answer.isCompilationUnit()) return typeJsonCache.put(key, null, null);
+            ICompilationUnit compilationUnit = answer.getCompilationUnit();
+            CompilationUnit result = getCompilationUnit(javaProject, environment, compilationUnit);
+            AbstractTypeDeclaration o = (AbstractTypeDeclaration)result.types().get(0);
+            ITypeBinding typeBinding = o.resolveBinding();
+
+            for (ITypeBinding binding : typeBinding.getDeclaredTypes()) {
+                if (binding.getBinaryName().endsWith(innerName)) {
+                    typeBinding = binding;
+                    break;
+                }
+            }
+            Map<TypeBinding, ?> bindings = (Map<TypeBinding, ?>)result.getProperty("compilerBindingsToASTBindings");
+            SourceTypeBinding binding = null;
+            for (Map.Entry<TypeBinding, ?> bindingEntry : bindings.entrySet()) {
+                if (bindingEntry.getValue().equals(typeBinding)) {
+                    binding = (SourceTypeBinding)bindingEntry.getKey();
+                    break;
+                }
+            }
+            return typeJsonCache.put(key, TypeBindingConvector.toJsonBinaryType(binding), getSourcePath(answer));
+        }
+
+        return typeJsonCache.put(key, processAnswer(answer, javaProject, environment), getSourcePath(answer));
+    }
 
-            return processAnswer(answer, javaProject, environment);
+    /**
+     * Returns fingerprint of the project classpath: <code>{"fingerprint":"...","jars":["...",...]}</code>.
+     * Types loaded from library jars contain hash of the jar in the <code>jar</code> field, so client can keep them
+     * while the jar stays on the classpath.
+     */
+    @GET
+    @javax.ws.rs.Path("classpathFingerprint")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getClasspathFingerprint(@QueryParam("projectpath") String projectPath) {
+        JavaProject javaProject = getJavaProject(projectPath);
+        try {
+            ClasspathFingerprint fingerprint = javaProject.getClasspathFingerprint();
+            JsonObject result = new JsonObject();
+            result.addProperty("fingerprint", fingerprint.getValue());
+            JsonArray jars = new JsonArray();
+            for (String hash : fingerprint.getJarHashes()) {
+                jars.add(new JsonPrimitive(hash));
+            }
+            result.add("jars", jars);
+            return result.toString();
         } catch (JavaModelException e) {
-            if (LOG.isDebugEnabled()) {
-                LOG.error("Can't parse class: ", e);
+            LOG.error("Can't compute classpath fingerprint of " + projectPath, e);
+            throw new WebApplicationException(e);
+        }
+    }
+
+    /**
+     * Returns table of the type names of the library jars or of the sources of the project, see {@link TypeNameTable}.
+     * Table of the libraries is cached while the classpath fingerprint stays the same. It isn't cached and is marked
+     * with {@link #PARTIAL_RESULTS_HEADER} while the indexes of the project are built or updated by file changes.
+     */
+    @GET
+    @javax.ws.rs.Path("typeNames")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getTypeNames(@QueryParam("projectpath") String projectPath, @QueryParam("sources") boolean sources,
+                                 @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        JavaProject javaProject = getJavaProject(projectPath);
+        try {
+            if (sources || javaProject.isWarming()) {
+                return searchResult(javaProject, TypeNameTable.build(javaProject, !sources));
             }
-            throw new WebApplicationException();
+            TypeJsonCache typeJsonCache = getTypeJsonCache(javaProject);
+            String key = "typeNames:" + javaProject.getClasspathFingerprint().getValue();
+            TypeJsonCache.Entry entry = typeJsonCache.get(key);
+            if (entry == null) {
+                entry = typeJsonCache.put(key, TypeNameTable.build(javaProject, true), null);
+            }
+            return typeResponse(entry, ifNoneMatch);
+        } catch (JavaModelException e) {
+            LOG.error("Can't collect type names of " + projectPath, e);
+            throw new WebApplicationException(e);
         }
     }
 
@@ -165,20 +300,26 @@ public class RestNameEnvironment {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @javax.ws.rs.Path("findType")
-    public String findType(@QueryParam("typename") String typeName, @QueryParam("packagename") String packageName,
-                           @QueryParam("projectpath") String projectPath) {
+    public Response findType(@QueryParam("typename") String typeName, @QueryParam("packagename") String packageName,
+                             @QueryParam("projectpath") String projectPath,
+                             @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         JavaProject javaProject = getJavaProject(projectPath);
-        SearchableEnvironment environment = javaProject.getNameEnvironment();
-
-        NameEnvironmentAnswer answer = environment.findType(typeName.toCharArray(), getCharArrayFrom(packageName));
-        try {
-            return processAnswer(answer, javaProject, environment);
-        } catch (JavaModelException e) {
-            if (LOG.isDebugEnabled()) {
-                LOG.error("Can't parse class: ", e);
+        TypeJsonCache typeJsonCache = getTypeJsonCache(javaProject);
+        String key = "type:" + packageName + ',' + typeName;
+        TypeJsonCache.Entry entry = typeJsonCache.get(key);
+        if (entry == null) {
+            SearchableEnvironment environment = javaProject.getNameEnvironment();
+            NameEnvironmentAnswer answer = environment.findType(typeName.toCharArray(), getCharArrayFrom(packageName));
+            try {
+                entry = typeJsonCache.put(key, processAnswer(answer, javaProject, environment), getSourcePath(answer));
+            } catch (JavaModelException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.error("Can't parse class: ", e);
+                }
+                throw new WebApplicationException(e);
             }
-            throw new WebApplicationException(e);
         }
+        return typeResponse(entry, ifNoneMatch);
     }
 
     @GET
@@ -194,52 +335,52 @@ public class RestNameEnvironment {
     @GET
     @Path("findPackages")
     @Produces(MediaType.APPLICATION_JSON)
-    public String findPackages(@QueryParam("packagename") String packageName, @QueryParam("projectpath") String projectPath) {
+    public Response findPackages(@QueryParam("packagename") String packageName, @QueryParam("projectpath") String projectPath) {
         JavaProject javaProject = getJavaProject(projectPath);
         SearchableEnvironment environment = javaProject.getNameEnvironment();
         JsonSearchRequester requestor = new JsonSearchRequester();
         environment.findPackages(packageName.toCharArray(), requestor);
-        return requestor.toJsonString();
+        return searchResult(javaProject, requestor.toJsonString());
     }
 
     @GET
     @javax.ws.rs.Path("findConstructor")
     @Produces(MediaType.APPLICATION_JSON)
-    public String findConstructorDeclarations(@QueryParam("prefix") String prefix,
-                                              @QueryParam("camelcase") boolean camelCaseMatch,
-                                              @QueryParam("projectpath") String projectPath) {
+    public Response findConstructorDeclarations(@QueryParam("prefix") String prefix,
+                                                @QueryParam("camelcase") boolean camelCaseMatch,
+                                                @QueryParam("projectpath") String projectPath) {
         JavaProject javaProject = getJavaProject(projectPath);
         SearchableEnvironment environment = javaProject.getNameEnvironment();
         JsonSearchRequester searchRequester = new JsonSearchRequester();
         environment.findConstructorDeclarations(prefix.toCharArray(), camelCaseMatch, searchRequester, null);
-        return searchRequester.toJsonString();
+        return searchResult(javaProject, searchRequester.toJsonString());
     }
 
     @GET
     @javax.ws.rs.Path("findTypes")
     @Produces(MediaType.APPLICATION_JSON)
-    public String findTypes(@QueryParam("qualifiedname") String qualifiedName, @QueryParam("findmembers") boolean findMembers,
-                            @QueryParam("camelcase") boolean camelCaseMatch,
-                            @QueryParam("searchfor") int searchFor,
-                            @QueryParam("projectpath") String projectPath) {
+    public Response findTypes(@QueryParam("qualifiedname") String qualifiedName, @QueryParam("findmembers") boolean findMembers,
+                              @QueryParam("camelcase") boolean camelCaseMatch,
+                              @QueryParam("searchfor") int searchFor,
+                              @QueryParam("projectpath") String projectPath) {
         JavaProject javaProject = getJavaProject(projectPath);
         SearchableEnvironment environment = javaProject.getNameEnvironment();
         JsonSearchRequester searchRequester = new JsonSearchRequester();
         environment.findTypes(qualifiedName.toCharArray(), findMembers, camelCaseMatch, searchFor, searchRequester);
-        return searchRequester.toJsonString();
+        return searchResult(javaProject, searchRequester.toJsonString());
     }
 
     @GET
     @javax.ws.rs.Path("findExactTypes")
     @Produces(MediaType.APPLICATION_JSON)
-    public String findExactTypes(@QueryParam("missingsimplename") String missingSimpleName, @QueryParam("findmembers") boolean findMembers,
-                                 @QueryParam("searchfor") int searchFor,
-                                 @QueryParam("projectpath") String projectPath) {
+    public Response findExactTypes(@QueryParam("missingsimplename") String missingSimpleName, @QueryParam("findmembers") boolean findMembers,
+                                   @QueryParam("searchfor") int searchFor,
+                                   @QueryParam("projectpath") String projectPath) {
         JavaProject javaProject = getJavaProject(projectPath);
         SearchableEnvironment environment = javaProject.getNameEnvironment();
         JsonSearchRequester searchRequester = new JsonSearchRequester();
         environment.findExactTypes(missingSimpleName.toCharArray(), findMembers, searchFor, searchRequester);
-        return searchRequester.toJsonString();
+        return searchResult(javaProject, searchRequester.toJsonString());
     }
 
     @GET
@@ -265,16 +406,25 @@ public class RestNameEnvironment {
         return getDependencies(url, projectPath, "copy", null);
     }
 
-    /** Get list of all package names in project */
+    /**
+     * Waits for the dependencies build and installs its result. Sources of the dependencies are built concurrently
+     * with the binaries, status of both builds is checked by {@link BuildTaskMonitor}.
+     */
     @POST
     @javax.ws.rs.Path("/update-dependencies-wait-build-end")
     @Produces(MediaType.APPLICATION_JSON)
     public void waitUpdateDependencyBuildEnd(@QueryParam("projectpath") String projectPath,
                                              BuildTaskDescriptor descriptor,
                                              @Context UriInfo uriInfo) throws Exception {
-        // call to wait-for-build-finish method
+        ListenableFuture<BuildTaskDescriptor> binaries = buildTaskMonitor.watch(descriptor);
+        ListenableFuture<BuildTaskDescriptor> sources = null;
         try {
-            BuildTaskDescriptor finishedBuildStatus = waitTaskFinish(descriptor);
+            BuildOptions buildOptions = DtoFactory.getInstance().createDto(BuildOptions.class);
+            buildOptions.getOptions().put("-Dclassifier", "sources");
+            String url = apiUrl + "/builder/" + wsId + "/dependencies";
+            sources = buildTaskMonitor.watch(getDependencies(url, projectPath, "copy", buildOptions));
+
+            BuildTaskDescriptor finishedBuildStatus = binaries.get();
             if (finishedBuildStatus.getStatus() == BuildStatus.FAILED) {
                 buildFailed(finishedBuildStatus);
             }
@@ -285,64 +435,95 @@ public class RestNameEnvironment {
 
             Link downloadLink = findLink("download result", finishedBuildStatus.getLinks());
             if (downloadLink != null) {
-                File zip = doDownload(downloadLink.getHref(), projectPath, "dependencies.zip");
-                ZipUtils.unzip(new DeleteOnCloseFileInputStream(zip), projectDepDir);
+                installDependencies(downloadLink.getHref(), projectPath, projectDepDir, "dependencies.zip");
             }
 
-            BuildOptions buildOptions = DtoFactory.getInstance().createDto(BuildOptions.class);
-            buildOptions.getOptions().put("-Dclassifier", "sources");
-            String url = apiUrl + "/builder/" + wsId + "/dependencies";
-            BuildTaskDescriptor dependencies = getDependencies(url, projectPath, "copy", buildOptions);
-            BuildTaskDescriptor buildTaskDescriptor = waitTaskFinish(dependencies);
-            if (finishedBuildStatus.getStatus() == BuildStatus.FAILED) {
-                buildFailed(finishedBuildStatus);
-            }
-            File projectSourcesJars = new File(projectDepDir, "sources");
-            projectSourcesJars.mkdirs();
-            downloadLink = findLink("download result", buildTaskDescriptor.getLinks());
-            if (downloadLink != null) {
-                File zip = doDownload(downloadLink.getHref(), projectPath, "sources.zip");
-                ZipUtils.unzip(new DeleteOnCloseFileInputStream(zip), projectSourcesJars);
+            BuildTaskDescriptor buildTaskDescriptor = sources.get();
+            if (buildTaskDescriptor.getStatus() == BuildStatus.FAILED) {
+                // sources are optional, project is usable without them
+                LOG.warn("Build of dependency sources failed for project {} in workspace {}", projectPath, wsId);
+            } else {
+                File projectSourcesJars = new File(projectDepDir, "sources");
+                projectSourcesJars.mkdirs();
+                downloadLink = findLink("download result", buildTaskDescriptor.getLinks());
+                if (downloadLink != null) {
+                    installDependencies(downloadLink.getHref(), projectPath, projectSourcesJars, "sources.zip");
+                }
             }
+            javaProjectService.getDependencyStore().collectGarbage();
             //create JavaProject adn put it into cache
             javaProjectService.getOrCreateJavaProject(wsId, projectPath);
 
         } catch (Throwable debug) {
+            binaries.cancel(false);
+            if (sources != null) {
+                sources.cancel(false);
+            }
             LOG.error("RestNameEnvironment", debug);
             throw new WebApplicationException(debug);
         }
     }
 
-    private File doDownload(String downloadURL, String projectPath, String zipName) throws IOException {
-        HttpURLConnection http = null;
-        HttpStream stream = null;
+    /**
+     * Installs result of the copy dependencies build. If the builder published the dependencies manifest only the jars which
+     * are missing in the shared dependency store are downloaded, otherwise the zip with all dependencies is unpacked.
+     */
+    private void installDependencies(final String downloadURL, String projectPath, File targetDir, String zipName)
+            throws IOException {
+        List<DependencyStore.Entry> entries = null;
+        File zip = null;
+        try (HttpStream download = openDownload(downloadURL)) {
+            if (isDependenciesManifest(download.http)) {
+                entries = new Gson().fromJson(new InputStreamReader(download, StandardCharsets.UTF_8),
+                                              new TypeToken<List<DependencyStore.Entry>>() {}.getType());
+            } else {
+                java.nio.file.Path path = Paths.get(temp, wsId + projectPath + "/" + zipName);
+                Files.copy(download, path);
+                zip = path.toFile();
+            }
+        }
+        if (zip != null) {
+            ZipUtils.unzip(new DeleteOnCloseFileInputStream(zip), targetDir);
+            return;
+        }
+        if (entries == null) {
+            return;
+        }
+        javaProjectService.getDependencyStore().install(entries, targetDir, new DependencyStore.Downloader() {
+            @Override
+            public InputStream download(DependencyStore.Entry entry) throws IOException {
+                return openDownload(UriBuilder.fromUri(downloadURL).replaceQueryParam("path", entry.getPath()).build().toString());
+            }
+        });
+    }
+
+    /**
+     * Checks the file name of the downloaded result, or its content type if the name isn't sent. Builders which don't publish the
+     * manifest send the zip with all dependencies.
+     */
+    private static boolean isDependenciesManifest(HttpURLConnection http) {
+        String disposition = http.getHeaderField("Content-Disposition");
+        if (disposition != null) {
+            return disposition.contains(MavenUtils.DEPENDENCIES_MANIFEST_FILE);
+        }
+        String contentType = http.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON);
+    }
+
+    private HttpStream openDownload(String downloadURL) throws IOException {
+        URI uri = UriBuilder.fromUri(downloadURL).queryParam("token", getAuthenticationToken()).build();
+        HttpURLConnection http = (HttpURLConnection)uri.toURL().openConnection();
+        http.setRequestMethod("GET");
         try {
-            URI uri = UriBuilder.fromUri(downloadURL).queryParam("token", getAuthenticationToken()).build();
-            http = (HttpURLConnection)uri.toURL().openConnection();
-            http.setRequestMethod("GET");
-            int responseCode = http.getResponseCode();
-            if (responseCode != 200) {
-                throw new IOException("Your project referenced a zipped dependency that cannot be downloaded.");
+            if (http.getResponseCode() != 200) {
+                throw new IOException("Your project referenced a dependency that cannot be downloaded: " + downloadURL);
             }
             // Connection closed automatically when input stream closed.
-            // If IOException or BuilderException occurs then connection closed immediately.
-            stream = new HttpStream(http);
-            java.nio.file.Path path = Paths.get(temp, wsId + projectPath + "/" + zipName);
-            Files.copy(stream, path);
-            return path.toFile();
-        } catch (MalformedURLException e) {
+            return new HttpStream(http);
+        } catch (IOException e) {
+            http.disconnect();
             throw e;
-        } catch (IOException ioe) {
-            if (http != null) {
-                http.disconnect();
-            }
-            throw ioe;
-        } finally {
-            if (stream != null) {
-                stream.close();
-            }
         }
-
     }
 
     private void buildFailed(@Nullable BuildTaskDescriptor buildStatus) throws BuilderException {
@@ -367,27 +548,6 @@ public class RestNameEnvironment {
         return null;
     }
 
-    @Nonnull
-    private BuildTaskDescriptor waitTaskFinish(@Nonnull BuildTaskDescriptor buildDescription) throws Exception {
-        BuildTaskDescriptor request = buildDescription;
-        final int sleepTime = 500;
-
-        Link statusLink = findLink("get status", buildDescription.getLinks());
-
-        if (statusLink != null) {
-            while (request.getStatus() == BuildStatus.IN_PROGRESS || request.getStatus() == BuildStatus.IN_QUEUE) {
-                try {
-                    Thread.sleep(sleepTime);
-                } catch (InterruptedException ignored) {
-                }
-                request = HttpJsonHelper.request(BuildTaskDescriptor.class, statusLink);
-            }
-        }
-
-        return request;
-    }
-
-
     @Nonnull
     private BuildTaskDescriptor getDependencies(@Nonnull String url, @Nonnull String projectName, @Nonnull String analyzeType, @Nullable
     BuildOptions options)
@@ -398,12 +558,12 @@ public class RestNameEnvironment {
     }
 
 
-    private String processAnswer(NameEnvironmentAnswer answer, IJavaProject project, INameEnvironment environment)
+    private String processAnswer(NameEnvironmentAnswer answer, JavaProject project, INameEnvironment environment)
             throws JavaModelException {
         if (answer == null) return null;
         if (answer.isBinaryType()) {
             IBinaryType binaryType = answer.getBinaryType();
-            return BinaryTypeConvector.toJsonBinaryType(binaryType);
+            return BinaryTypeConvector.toJsonBinaryType(binaryType, project.getClasspathFingerprint().getJarHash(binaryType));
         } else if (answer.isCompilationUnit()) {
             ICompilationUnit compilationUnit = answer.getCompilationUnit();
             return getSourceTypeInfo(project, environment, compilationUnit);
@@ -453,6 +613,68 @@ public class RestNameEnvironment {
                 flags, opts);
     }
 
+    /**
+     * Creates response with the type JSON. The response has a strong ETag and must be revalidated, so clients get
+     * <code>304 Not Modified</code> instead of the same JSON while the type isn't changed.
+     */
+    private Response typeResponse(TypeJsonCache.Entry entry, String ifNoneMatch) {
+        if (entry.getJson() == null) {
+            return Response.noContent().build();
+        }
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.equals(entry.getEtag()) || tag.equals("*")) {
+                    return Response.notModified().header(HttpHeaders.ETAG, entry.getEtag()).cacheControl(cacheControl).build();
+                }
+            }
+        }
+        return Response.ok(entry.getJson(), MediaType.APPLICATION_JSON_TYPE)
+                       .header(HttpHeaders.ETAG, entry.getEtag())
+                       .cacheControl(cacheControl)
+                       .build();
+    }
+
+    private TypeJsonCache getTypeJsonCache(JavaProject javaProject) {
+        return javaProjectService.getTypeJsonCache(wsId, javaProject.getProjectPath());
+    }
+
+    /** Returns path of the source file of the found type, or <code>null</code> if type is binary or isn't found. */
+    private static String getSourcePath(NameEnvironmentAnswer answer) {
+        if (answer == null) {
+            return null;
+        }
+        if (answer.isCompilationUnit()) {
+            return new String(answer.getCompilationUnit().getFileName());
+        }
+        if (answer.isSourceType() && answer.getSourceTypes().length > 0) {
+            return new String(answer.getSourceTypes()[0].getFileName());
+        }
+        return null;
+    }
+
+    private Response searchResult(JavaProject javaProject, String json) {
+        Response.ResponseBuilder builder = Response.ok(json, MediaType.APPLICATION_JSON_TYPE);
+        if (isUpdating(javaProject)) {
+            builder.header(PARTIAL_RESULTS_HEADER, Boolean.TRUE.toString());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns <code>true</code> while the indexes of the project are built or the changed files aren't applied to the
+     * model and the indexes yet. Names found meanwhile may miss the types of the changed files, so the client must not
+     * treat names absent from them as missing.
+     */
+    private boolean isUpdating(JavaProject javaProject) {
+        return javaProject.isWarming()
+               || javaProjectService.hasPendingFileEvents(javaProject.getWsId(), javaProject.getProjectPath())
+               || javaProject.getIndexManager().awaitingJobsCount() > 0;
+    }
+
     private char[][] getCharArrayFrom(String list) {
         if(list.isEmpty()){
             return null;
@@ -466,6 +688,12 @@ public class RestNameEnvironment {
         return arr;
     }
 
+    /** Body of the findTypesBatch request. */
+    private static class BatchRequest {
+        List<String> types;
+        List<String> packages;
+    }
+
     /** Stream that automatically close HTTP connection when all data ends. */
     private static class HttpStream extends FilterInputStream {
         private final HttpURLConnection http;
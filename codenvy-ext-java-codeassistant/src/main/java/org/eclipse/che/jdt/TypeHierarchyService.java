@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt;
+
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.ide.ext.java.shared.HierarchyType;
+import org.eclipse.che.jdt.internal.core.JavaProject;
+import org.eclipse.che.jdt.internal.core.search.indexing.IndexManager;
+import org.eclipse.che.jdt.internal.core.search.indexing.TypeHierarchyGraph;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rest service which answers subtypes and supertypes of the types from the supertype graph of the project, the graph
+ * is kept up to date by the indexing of the project.
+ */
+@Path("type-hierarchy/{ws-id}")
+public class TypeHierarchyService {
+
+    @PathParam("ws-id")
+    private String wsId;
+
+    @Inject
+    private JavaProjectService service;
+
+    /** Returns types which extend or implement the type, only the direct ones unless <code>transitive</code> is set. */
+    @GET
+    @Path("subtypes")
+    @Produces("application/json")
+    public List<HierarchyType> getSubtypes(@QueryParam("projectpath") String projectPath, @QueryParam("fqn") String fqn,
+                                           @QueryParam("transitive") boolean transitive) {
+        return toDtos(getTypeHierarchy(projectPath).getSubtypes(fqn, transitive));
+    }
+
+    /** Returns types which the type extends or implements, only the direct ones unless <code>transitive</code> is set. */
+    @GET
+    @Path("supertypes")
+    @Produces("application/json")
+    public List<HierarchyType> getSupertypes(@QueryParam("projectpath") String projectPath, @QueryParam("fqn") String fqn,
+                                             @QueryParam("transitive") boolean transitive) {
+        return toDtos(getTypeHierarchy(projectPath).getSupertypes(fqn, transitive));
+    }
+
+    private TypeHierarchyGraph getTypeHierarchy(String projectPath) {
+        JavaProject project = service.getOrCreateJavaProject(wsId, projectPath);
+        IndexManager indexManager = project.getIndexManager();
+        try {
+            indexManager.waitUntilReady(null);
+        } catch (OperationCanceledException e) {
+            // answer from the indexes built so far
+        }
+        return indexManager.getTypeHierarchy();
+    }
+
+    private static List<HierarchyType> toDtos(List<TypeHierarchyGraph.Type> types) {
+        List<HierarchyType> result = new ArrayList<>(types.size());
+        for (TypeHierarchyGraph.Type type : types) {
+            HierarchyType dto = DtoFactory.getInstance().createDto(HierarchyType.class);
+            dto.setFqn(type.getName());
+            dto.setFlags(type.getModifiers());
+            dto.setContainerPath(type.getContainer());
+            dto.setPath(type.getDocument());
+            dto.setVerified(type.isVerified());
+            result.add(dto);
+        }
+        return result;
+    }
+}
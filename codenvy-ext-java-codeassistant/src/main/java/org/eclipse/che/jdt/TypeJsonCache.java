@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache of the type JSON which RestNameEnvironment sends to the client, one per project.
+ * <p/>
+ * Types from library jars are kept while the project lives, the project is recreated when dependencies are updated.
+ * Types from sources are dropped when their file is changed, all of them when files are created, removed or moved.
+ * Types which were not found are dropped on any change of the sources, because the changed file may declare them,
+ * e.g. as a new member or secondary type. Each kind of types is kept in its own cache and types from sources are
+ * indexed by the name of their file, so a change doesn't scan the types of the libraries.
+ */
+public class TypeJsonCache {
+
+    private static final int MAX_SIZE = 10000;
+
+    public enum Kind {
+        /** Type loaded from library jar. */
+        LIBRARY,
+        /** Type resolved from project sources. */
+        SOURCE,
+        /** Type isn't found. */
+        MISSING
+    }
+
+    private final Cache<String, Entry>       libraryEntries = CacheBuilder.newBuilder().maximumSize(MAX_SIZE).build();
+    private final Cache<String, Entry>       missingEntries = CacheBuilder.newBuilder().maximumSize(MAX_SIZE).build();
+    private final Cache<String, Entry>       sourceEntries;
+    /** key = name of the source file, value = keys of the types from the file */
+    private final SetMultimap<String, String> sourceKeys     = Multimaps.synchronizedSetMultimap(HashMultimap.<String, String>create());
+
+    public TypeJsonCache() {
+        sourceEntries = CacheBuilder.newBuilder().maximumSize(MAX_SIZE).removalListener(new RemovalListener<String, Entry>() {
+            @Override
+            public void onRemoval(RemovalNotification<String, Entry> notification) {
+                Entry entry = notification.getValue();
+                if (entry != null) {
+                    sourceKeys.remove(getFileName(entry.sourcePath), notification.getKey());
+                }
+            }
+        }).build();
+    }
+
+    public Entry get(String key) {
+        Entry entry = libraryEntries.getIfPresent(key);
+        if (entry == null) {
+            entry = sourceEntries.getIfPresent(key);
+        }
+        if (entry == null) {
+            entry = missingEntries.getIfPresent(key);
+        }
+        return entry;
+    }
+
+    /**
+     * Adds JSON of the type to the cache.
+     *
+     * @param key
+     *         name of the type as requested by the client
+     * @param json
+     *         JSON of the type or <code>null</code> if type isn't found
+     * @param sourcePath
+     *         path of the source file of the type, <code>null</code> for types from library jars
+     * @return added entry
+     */
+    public Entry put(String key, String json, String sourcePath) {
+        Kind kind = json == null ? Kind.MISSING : sourcePath == null ? Kind.LIBRARY : Kind.SOURCE;
+        Entry entry = new Entry(json, kind, sourcePath);
+        // the type may be found in another place now
+        for (Kind other : Kind.values()) {
+            if (other != kind) {
+                getEntries(other).invalidate(key);
+            }
+        }
+        getEntries(kind).put(key, entry);
+        if (kind == Kind.SOURCE) {
+            // added after the entry, the removal of the replaced entry removes the key of its file
+            sourceKeys.put(getFileName(sourcePath), key);
+        }
+        return entry;
+    }
+
+    /**
+     * Drops entries affected by the change of the file.
+     *
+     * @param path
+     *         path of the file in workspace
+     * @param contentOnly
+     *         <code>true</code> if only content of the file is updated, so types found in other files can't be affected
+     */
+    public void fileChanged(String path, boolean contentOnly) {
+        missingEntries.invalidateAll();
+        if (!contentOnly) {
+            sourceEntries.invalidateAll();
+            return;
+        }
+        List<String> keys;
+        synchronized (sourceKeys) {
+            keys = new ArrayList<>(sourceKeys.get(getFileName(path)));
+        }
+        for (String key : keys) {
+            Entry entry = sourceEntries.getIfPresent(key);
+            // files with the same name in other folders share the key of the index
+            if (entry != null && entry.sourcePath.endsWith(path)) {
+                sourceEntries.invalidate(key);
+            }
+        }
+    }
+
+    public long size() {
+        return libraryEntries.size() + sourceEntries.size() + missingEntries.size();
+    }
+
+    private Cache<String, Entry> getEntries(Kind kind) {
+        switch (kind) {
+            case LIBRARY:
+                return libraryEntries;
+            case SOURCE:
+                return sourceEntries;
+            default:
+                return missingEntries;
+        }
+    }
+
+    private static String getFileName(String path) {
+        int separator = Math.max(path.lastIndexOf('/'), path.lastIndexOf(File.separatorChar));
+        return path.substring(separator + 1);
+    }
+
+    public static class Entry {
+        private final String json;
+        private final String etag;
+        private final Kind   kind;
+        private final String sourcePath;
+
+        private Entry(String json, Kind kind, String sourcePath) {
+            this.json = json;
+            this.kind = kind;
+            this.sourcePath = sourcePath;
+            this.etag = json == null ? null : '"' + Hashing.sha1().hashString(json, Charsets.UTF_8).toString() + '"';
+        }
+
+        /** Returns JSON of the type or <code>null</code> if type isn't found. */
+        public String getJson() {
+            return json;
+        }
+
+        /** Returns strong entity tag of the JSON, quoted as required by the ETag header. */
+        public String getEtag() {
+            return etag;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+    }
+}
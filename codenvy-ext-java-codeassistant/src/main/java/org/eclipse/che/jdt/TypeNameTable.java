@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt;
+
+import org.eclipse.che.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.che.jdt.core.search.IJavaSearchScope;
+import org.eclipse.che.jdt.core.search.SearchPattern;
+import org.eclipse.che.jdt.internal.core.JavaProject;
+import org.eclipse.che.jdt.internal.core.search.BasicSearchEngine;
+import org.eclipse.che.jdt.internal.core.search.IRestrictedAccessTypeRequestor;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.internal.compiler.env.AccessRestriction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the table of the type names of the project, which WorkerNameEnvironment downloads once and queries locally
+ * instead of sending findTypes and findExactTypes requests while the user types.
+ * <p/>
+ * The table is a JSON object <code>{"fingerprint":"...","packages":["java.util",...],"types":[0,"List",513,"",...]}</code>,
+ * where each type takes four elements of the <code>types</code> array: index of the package, simple name, modifiers
+ * and dot separated names of the enclosing types. Types are sorted by the simple name ignoring case, so the client can
+ * find a prefix with the binary search. Types whose access is forbidden are listed in <code>forbidden</code> in the same
+ * format: they aren't proposed, but the client still needs to know that they exist.
+ */
+public class TypeNameTable {
+
+    private final String               fingerprint;
+    private final List<String>         packages     = new ArrayList<>();
+    private final Map<String, Integer> packageIndex = new HashMap<>();
+    private final List<TypeName>       types        = new ArrayList<>();
+    private final List<TypeName>       forbidden    = new ArrayList<>();
+    private final Set<String>          seen         = new HashSet<>();
+
+    private TypeNameTable(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Collects names of the types from the indexes of the project.
+     *
+     * @param project
+     *         java project
+     * @param libraries
+     *         <code>true</code> to collect types of the library jars, <code>false</code> to collect types of the project sources
+     * @return JSON of the table
+     */
+    public static String build(JavaProject project, boolean libraries) throws JavaModelException {
+        List<IPackageFragmentRoot> roots = new ArrayList<>();
+        for (IPackageFragmentRoot root : project.getAllPackageFragmentRoots()) {
+            if (root.isArchive() == libraries) {
+                roots.add(root);
+            }
+        }
+        String fingerprint = libraries ? project.getClasspathFingerprint().getValue() : null;
+        final TypeNameTable table = new TypeNameTable(fingerprint);
+        if (!roots.isEmpty()) {
+            IJavaSearchScope scope = BasicSearchEngine.createJavaSearchScope(roots.toArray(new IPackageFragmentRoot[roots.size()]));
+            new BasicSearchEngine(project.getIndexManager(), project).searchAllTypeNames(
+                    null,
+                    SearchPattern.R_EXACT_MATCH,
+                    null,
+                    SearchPattern.R_PREFIX_MATCH,
+                    IJavaSearchConstants.TYPE,
+                    scope,
+                    new IRestrictedAccessTypeRequestor() {
+                        @Override
+                        public void acceptType(int modifiers, char[] packageName, char[] simpleTypeName, char[][] enclosingTypeNames,
+                                               String path, AccessRestriction access) {
+                            table.add(new String(packageName), new String(simpleTypeName),
+                                      enclosingTypeNames == null ? "" : new String(CharOperation.concatWith(enclosingTypeNames, '.')),
+                                      modifiers, access != null && access.getProblemId() == IProblem.ForbiddenReference);
+                        }
+                    },
+                    // don't block while the project is warming, the caller knows that the table is partial
+                    project.isWarming() ? IJavaSearchConstants.FORCE_IMMEDIATE_SEARCH
+                                        : IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
+                    null);
+        }
+        return table.toJson();
+    }
+
+    private void add(String packageName, String simpleName, String enclosingTypeNames, int modifiers, boolean isForbidden) {
+        // the same type may be indexed in several jars, the first one wins as on the classpath
+        if (!seen.add(packageName + '/' + enclosingTypeNames + '/' + simpleName)) {
+            return;
+        }
+        Integer index = packageIndex.get(packageName);
+        if (index == null) {
+            index = packages.size();
+            packages.add(packageName);
+            packageIndex.put(packageName, index);
+        }
+        (isForbidden ? forbidden : types).add(new TypeName(index, simpleName, enclosingTypeNames, modifiers));
+    }
+
+    private String toJson() {
+        Collections.sort(types, new Comparator<TypeName>() {
+            @Override
+            public int compare(TypeName o1, TypeName o2) {
+                int result = o1.simpleName.compareToIgnoreCase(o2.simpleName);
+                return result != 0 ? result : packages.get(o1.packageIndex).compareTo(packages.get(o2.packageIndex));
+            }
+        });
+        JsonObject result = new JsonObject();
+        if (fingerprint != null) {
+            result.addProperty("fingerprint", fingerprint);
+        }
+        JsonArray packagesJson = new JsonArray();
+        for (String packageName : packages) {
+            packagesJson.add(new JsonPrimitive(packageName));
+        }
+        result.add("packages", packagesJson);
+        result.add("types", toJson(types));
+        result.add("forbidden", toJson(forbidden));
+        return result.toString();
+    }
+
+    private static JsonArray toJson(List<TypeName> types) {
+        JsonArray typesJson = new JsonArray();
+        for (TypeName type : types) {
+            typesJson.add(new JsonPrimitive(type.packageIndex));
+            typesJson.add(new JsonPrimitive(type.simpleName));
+            typesJson.add(new JsonPrimitive(type.modifiers));
+            typesJson.add(new JsonPrimitive(type.enclosingTypeNames));
+        }
+        return typesJson;
+    }
+
+    private static class TypeName {
+        private final int    packageIndex;
+        private final String simpleName;
+        private final String enclosingTypeNames;
+        private final int    modifiers;
+
+        private TypeName(int packageIndex, String simpleName, String enclosingTypeNames, int modifiers) {
+            this.packageIndex = packageIndex;
+            this.simpleName = simpleName;
+            this.enclosingTypeNames = enclosingTypeNames;
+            this.modifiers = modifiers;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.eclipse.core.resources.*;
 import org.eclipse.core.resources.IResourceDelta;
 
 import java.io.File;
+import java.util.List;
 
 /**
  * @author Evgen Vidolob
@@ -33,6 +34,17 @@ public class ResourceChangedEvent implements IResourceChangeEvent {
 
     }
 
+    /**
+     * Creates event of the files changed together, its delta has a child delta for each file.
+     */
+    public ResourceChangedEvent(File workspace, List<VirtualFileEvent> events) {
+        ResourceDeltaImpl[] children = new ResourceDeltaImpl[events.size()];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = new ResourceDeltaImpl(workspace, events.get(i));
+        }
+        resourceDelta = new ResourceDeltaImpl(workspace, children);
+    }
+
     @Override
     public IMarkerDelta[] findMarkerDeltas(String s, boolean b) {
         return new IMarkerDelta[0];
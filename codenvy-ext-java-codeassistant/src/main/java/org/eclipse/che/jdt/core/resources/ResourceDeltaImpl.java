@@ -21,6 +21,8 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Evgen Vidolob
@@ -30,6 +32,7 @@ public class ResourceDeltaImpl implements IResourceDelta {
     protected static int KIND_MASK = 0xFF;
     private File workspace;
     private VirtualFileEvent event;
+    private IResourceDelta[] children = new IResourceDelta[0];
     protected int status;
 
     public ResourceDeltaImpl(File workspace, VirtualFileEvent event) {
@@ -48,9 +51,18 @@ public class ResourceDeltaImpl implements IResourceDelta {
         }
     }
 
+    /**
+     * Creates delta of the workspace whose children are the deltas of the files changed together.
+     */
+    public ResourceDeltaImpl(File workspace, IResourceDelta[] children) {
+        this.workspace = workspace;
+        this.children = children;
+        status |= CHANGED;
+    }
+
     @Override
     public File getFile() {
-        return new File(workspace, event.getPath());
+        return event == null ? workspace : new File(workspace, event.getPath());
     }
 
     @Override
@@ -73,7 +85,11 @@ public class ResourceDeltaImpl implements IResourceDelta {
 //            return;
 //        if (!visitor.visit(this))
 //            return;
-        visitor.visit(this);
+        if (visitor.visit(this)) {
+            for (IResourceDelta child : children) {
+                child.accept(visitor, memberFlags);
+            }
+        }
     }
 
     @Override
@@ -83,17 +99,23 @@ public class ResourceDeltaImpl implements IResourceDelta {
 
     @Override
     public org.eclipse.core.resources.IResourceDelta[] getAffectedChildren() {
-        return new IResourceDelta[0];
+        return children;
     }
 
     @Override
-    public org.eclipse.core.resources.IResourceDelta[] getAffectedChildren(int i) {
-        return new IResourceDelta[0];
+    public org.eclipse.core.resources.IResourceDelta[] getAffectedChildren(int kindMask) {
+        return getAffectedChildren(kindMask, 0);
     }
 
     @Override
-    public org.eclipse.core.resources.IResourceDelta[] getAffectedChildren(int i, int i1) {
-        return new IResourceDelta[0];
+    public org.eclipse.core.resources.IResourceDelta[] getAffectedChildren(int kindMask, int memberFlags) {
+        List<IResourceDelta> affected = new ArrayList<>(children.length);
+        for (IResourceDelta child : children) {
+            if ((child.getKind() & kindMask) != 0) {
+                affected.add(child);
+            }
+        }
+        return affected.toArray(new IResourceDelta[affected.size()]);
     }
 
     @Override
@@ -148,4 +148,30 @@ protected void removeBuffer(IBuffer buffer) {
 		System.out.println("-> Buffer cache filling ratio = " + NumberFormat.getInstance().format(this.openBuffers.fillingRatio()) + "%"); //$NON-NLS-1$//$NON-NLS-2$
 	}
 }
+
+/**
+ * Sets the maximum number of open buffers, buffers over the limit are closed.
+ */
+protected void setBufferCacheSize(int size) {
+	synchronized (this.openBuffers) {
+		this.openBuffers.setSpaceLimit(size);
+	}
+	this.openBuffers.closeBuffers();
+}
+
+/**
+ * Returns estimated number of bytes used by the contents of the open buffers.
+ */
+protected long getEstimatedSize() {
+	long size = 0;
+	synchronized (this.openBuffers) {
+		for (Enumeration buffers = this.openBuffers.elements(); buffers.hasMoreElements(); ) {
+			IBuffer buffer = (IBuffer)buffers.nextElement();
+			if (!buffer.isClosed()) {
+				size += 2L * buffer.getLength();
+			}
+		}
+	}
+	return size;
+}
 }
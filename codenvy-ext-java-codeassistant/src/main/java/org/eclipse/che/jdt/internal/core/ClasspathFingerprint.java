@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt.internal.core;
+
+import org.eclipse.che.jdt.internal.core.search.indexing.SharedIndexStore;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.compiler.env.IBinaryType;
+import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Identifies the library jars of the project by their content, so clients can cache type infos of the libraries
+ * across sessions and drop only the entries of the jars which were changed.
+ */
+public class ClasspathFingerprint {
+
+    /** key = handle identifier of the jar package fragment root, value = hash of the jar */
+    private final Map<String, String> jarHashes = new HashMap<>();
+    private final String              value;
+
+    ClasspathFingerprint(JavaProject project, SharedIndexStore sharedIndexStore) throws JavaModelException {
+        for (IPackageFragmentRoot root : project.getAllPackageFragmentRoots()) {
+            if (!root.isArchive()) {
+                continue;
+            }
+            String hash = null;
+            if (sharedIndexStore != null) {
+                hash = sharedIndexStore.getJarHash(root.getPath());
+            }
+            if (hash == null) {
+                File jar = root.getPath().toFile();
+                hash = Hashing.sha1().hashString(jar.getAbsolutePath() + '#' + jar.length() + '#' + jar.lastModified(),
+                                                 Charsets.UTF_8).toString();
+            }
+            jarHashes.put(((JavaElement)root).getHandleIdentifier(), hash);
+        }
+        StringBuilder all = new StringBuilder();
+        for (String hash : new TreeSet<>(jarHashes.values())) {
+            all.append(hash).append(',');
+        }
+        value = Hashing.sha1().hashString(all, Charsets.UTF_8).toString();
+    }
+
+    /** Returns hash over all library jars of the project. */
+    public String getValue() {
+        return value;
+    }
+
+    /** Returns hashes of all library jars of the project. */
+    public Collection<String> getJarHashes() {
+        return jarHashes.values();
+    }
+
+    /**
+     * Returns hash of the jar which contains the type.
+     *
+     * @param type
+     *         binary type found by the name environment
+     * @return hash of the jar or <code>null</code> if the type isn't loaded from a library jar
+     */
+    public String getJarHash(IBinaryType type) {
+        char[] fileName = type.getFileName();
+        if (fileName == null) {
+            return null;
+        }
+        String name = new String(fileName);
+        int index = name.indexOf('|');
+        if (index == -1 || !name.endsWith(SuffixConstants.SUFFIX_STRING_class)) {
+            return null;
+        }
+        return jarHashes.get(name.substring(0, index));
+    }
+}
@@ -1843,7 +1843,16 @@ public class DeltaProcessor {
 //
 //				// traverse delta
 //				traverseDelta(changes, IJavaElement.JAVA_PROJECT, null, null);
-            updateCurrentDeltaAndIndex(changes, IJavaElement.COMPILATION_UNIT, null);
+            org.eclipse.core.resources.IResourceDelta[] children = changes.getAffectedChildren();
+            if (children.length == 0) {
+                updateCurrentDeltaAndIndex(changes, IJavaElement.COMPILATION_UNIT, null);
+            } else {
+                // files changed together are reported in one java element delta
+                for (org.eclipse.core.resources.IResourceDelta child : children) {
+                    this.currentElement = null;
+                    updateCurrentDeltaAndIndex((IResourceDelta)child, IJavaElement.COMPILATION_UNIT, null);
+                }
+            }
 //
 //				if (elementType == NON_JAVA_RESOURCE
 //						|| (wasJavaProject != isJavaProject && (delta.getKind()) == IResourceDelta.CHANGED)) { // project has changed
@@ -92,4 +92,13 @@ public class ElementCache extends OverflowingLRUCache {
         }
     }
 
+    /*
+     * Sets the space limit unless it was increased to open some parent, in that case the given limit
+     * is applied when the parent is removed.
+     */
+    protected void setDefaultSpaceLimit(int defaultLimit) {
+        if (this.spaceLimitParent == null) {
+            setSpaceLimit(defaultLimit);
+        }
+    }
 }
@@ -36,6 +36,14 @@ public class JavaModelCache {
 
 	public static final Object NON_EXISTING_JAR_TYPE_INFO = new Object();
 
+	/*
+	 * Average sizes of the cached infos, used to estimate occupancy of the cache.
+	 */
+	private static final int PROJECT_INFO_BYTES  = 25552;
+	private static final int ROOT_INFO_BYTES     = 2590;
+	private static final int PKG_INFO_BYTES      = 1782;
+	private static final int OPENABLE_INFO_BYTES = 6629; // includes children
+
 	/*
 	 * The memory ratio that should be applied to the above constants.
 	 */
@@ -264,6 +272,26 @@ protected void removeInfo(JavaElement element) {
 			this.childrenCache.remove(element);
 	}
 }
+/**
+ * Applies the memory ratio given by {@link JavaModelCacheBudget} instead of the ratio computed from the maximum memory
+ * of the JVM. Caches which are filled over the new limits are shrunk.
+ */
+protected void setMemoryRatio(double ratio) {
+	this.memoryRatio = ratio;
+	this.rootCache.setDefaultSpaceLimit((int) (DEFAULT_ROOT_SIZE * ratio));
+	this.pkgCache.setDefaultSpaceLimit((int) (DEFAULT_PKG_SIZE * ratio));
+	this.openableCache.setDefaultSpaceLimit((int) (DEFAULT_OPENABLE_SIZE * ratio * getOpenableRatio()));
+	this.jarTypeCache.setSpaceLimit((int) (DEFAULT_OPENABLE_SIZE * ratio * getJarTypeRatio()));
+}
+/**
+ * Returns estimated number of bytes used by the cached infos.
+ */
+protected long getEstimatedSize() {
+	return (long) this.projectCache.size() * PROJECT_INFO_BYTES
+		+ (long) this.rootCache.getCurrentSpace() * ROOT_INFO_BYTES
+		+ (long) this.pkgCache.getCurrentSpace() * PKG_INFO_BYTES
+		+ (long) (this.openableCache.getCurrentSpace() + this.jarTypeCache.getCurrentSpace()) * OPENABLE_INFO_BYTES;
+}
 protected void resetJarTypeCache() {
 	this.jarTypeCache = new LRUCache((int) (DEFAULT_OPENABLE_SIZE * getMemoryRatio() * getJarTypeRatio()));
 }
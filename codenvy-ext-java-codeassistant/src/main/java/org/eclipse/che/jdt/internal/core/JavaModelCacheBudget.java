@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt.internal.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Memory budget of the Java model caches shared by all projects of the JVM.
+ * <p/>
+ * Each project has its own {@link JavaModelManager}, whose caches are sized from the maximum memory of the JVM as if the
+ * project was the only one. Instead, the budget is split equally between workspaces and then between projects of the
+ * workspace, so a workspace with many projects doesn't take the memory of the others. Caches are resized each time a
+ * project is opened or closed. Caches aren't shrunk under a minimal ratio, when the opened projects don't fit in the
+ * budget at that ratio the budget is {@link #isExceeded() exceeded} and the least recently used projects have to be
+ * unloaded by the owner of the projects.
+ * <p/>
+ * Budget is set in bytes with the {@link #BUDGET_PROPERTY} system property, by default it's a quarter of the maximum memory.
+ */
+public class JavaModelCacheBudget implements JavaModelCacheBudgetMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(JavaModelCacheBudget.class);
+
+    public static final String BUDGET_PROPERTY = "che.java.codeassistant.model.cache.budget";
+
+    /** Memory for which the default sizes of the JDT caches are defined. */
+    private static final long   BASE_MEMORY       = 64 * 0x100000;
+    /** Caches aren't shrunk under this ratio, otherwise elements would be closed and reopened constantly. */
+    private static final double MIN_RATIO         = 0.25;
+    /** Number of open buffers per unit of the memory ratio, 60 buffers at the 256MB for which JDT is tuned. */
+    private static final int    BUFFERS_PER_RATIO = 15;
+    private static final int    MIN_BUFFERS       = 5;
+
+    private static final JavaModelCacheBudget INSTANCE = new JavaModelCacheBudget(getDefaultBudget());
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName("org.eclipse.che.jdt:type=JavaModelCache"));
+        } catch (Exception e) {
+            LOG.warn("Unable to register Java model cache MBean", e);
+        }
+    }
+
+    public static JavaModelCacheBudget getInstance() {
+        return INSTANCE;
+    }
+
+    private final long                                       budget;
+    /** key = workspace id, value = managers of the opened projects keyed by project path */
+    private final Map<String, Map<String, JavaModelManager>> workspaces = new HashMap<>();
+
+    public JavaModelCacheBudget(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Registers caches of the opened project and resizes caches of all projects.
+     *
+     * @param wsId
+     *         workspace id
+     * @param projectPath
+     *         path of the project
+     * @param manager
+     *         model manager of the project
+     */
+    public void register(String wsId, String projectPath, JavaModelManager manager) {
+        synchronized (this) {
+            Map<String, JavaModelManager> projects = workspaces.get(wsId);
+            if (projects == null) {
+                projects = new HashMap<>();
+                workspaces.put(wsId, projects);
+            }
+            projects.put(projectPath, manager);
+        }
+        rebalance();
+    }
+
+    /**
+     * Unregisters caches of the closed project and resizes caches of other projects. Nothing is done if the project was
+     * opened again and registered with another manager meanwhile.
+     */
+    public void unregister(String wsId, String projectPath, JavaModelManager manager) {
+        synchronized (this) {
+            Map<String, JavaModelManager> projects = workspaces.get(wsId);
+            if (projects == null || projects.get(projectPath) != manager) {
+                return;
+            }
+            projects.remove(projectPath);
+            if (projects.isEmpty()) {
+                workspaces.remove(wsId);
+            }
+        }
+        rebalance();
+    }
+
+    /**
+     * Returns memory ratio applied to the caches of each project of the workspace. Ratio 1 corresponds to the default
+     * sizes of the JDT caches.
+     */
+    public synchronized double getMemoryRatio(String wsId) {
+        Map<String, JavaModelManager> projects = workspaces.get(wsId);
+        int projectCount = projects == null ? 1 : projects.size();
+        int workspaceCount = projects == null ? workspaces.size() + 1 : workspaces.size();
+        return Math.max(MIN_RATIO, (double)budget / workspaceCount / projectCount / BASE_MEMORY);
+    }
+
+    /** Returns true if the caches of the opened projects, sized by their memory ratio, don't fit in the budget. */
+    public synchronized boolean isExceeded() {
+        double ratio = 0;
+        for (Map.Entry<String, Map<String, JavaModelManager>> workspace : workspaces.entrySet()) {
+            ratio += getMemoryRatio(workspace.getKey()) * workspace.getValue().size();
+        }
+        return ratio * BASE_MEMORY > budget;
+    }
+
+    @Override
+    public long getBudget() {
+        return budget;
+    }
+
+    @Override
+    public synchronized int getWorkspaceCount() {
+        return workspaces.size();
+    }
+
+    @Override
+    public synchronized int getProjectCount() {
+        int count = 0;
+        for (Map<String, JavaModelManager> projects : workspaces.values()) {
+            count += projects.size();
+        }
+        return count;
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        long size = 0;
+        for (Long projectSize : getProjectEstimatedSizes().values()) {
+            size += projectSize;
+        }
+        return size;
+    }
+
+    @Override
+    public Map<String, Long> getProjectEstimatedSizes() {
+        Map<String, JavaModelManager> managers = new TreeMap<>();
+        synchronized (this) {
+            for (Map.Entry<String, Map<String, JavaModelManager>> workspace : workspaces.entrySet()) {
+                for (Map.Entry<String, JavaModelManager> project : workspace.getValue().entrySet()) {
+                    managers.put(workspace.getKey() + project.getKey(), project.getValue());
+                }
+            }
+        }
+        // managers are locked one by one out of the budget lock, to not block projects opened meanwhile
+        Map<String, Long> sizes = new TreeMap<>();
+        for (Map.Entry<String, JavaModelManager> entry : managers.entrySet()) {
+            sizes.put(entry.getKey(), entry.getValue().getCacheEstimatedSize());
+        }
+        return sizes;
+    }
+
+    private void rebalance() {
+        List<JavaModelManager> managers = new ArrayList<>();
+        List<Double> ratios = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, Map<String, JavaModelManager>> workspace : workspaces.entrySet()) {
+                double ratio = getMemoryRatio(workspace.getKey());
+                for (JavaModelManager manager : workspace.getValue().values()) {
+                    managers.add(manager);
+                    ratios.add(ratio);
+                }
+            }
+        }
+        for (int i = 0; i < managers.size(); i++) {
+            double ratio = ratios.get(i);
+            managers.get(i).setCacheMemoryRatio(ratio, Math.max(MIN_BUFFERS, (int)(BUFFERS_PER_RATIO * ratio)));
+        }
+    }
+
+    private static long getDefaultBudget() {
+        String property = System.getProperty(BUDGET_PROPERTY);
+        if (property != null) {
+            try {
+                return Long.parseLong(property);
+            } catch (NumberFormatException e) {
+                LOG.warn("Could not parse value for {}: {}", BUDGET_PROPERTY, property);
+            }
+        }
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        // if max memory is infinite use 256MB, the default which JDT caches are tuned for
+        return maxMemory == Long.MAX_VALUE ? 4 * BASE_MEMORY : maxMemory / 4;
+    }
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt.internal.core;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link JavaModelCacheBudget}.
+ */
+public interface JavaModelCacheBudgetMXBean {
+
+    /** Returns budget in bytes shared by the Java model caches of all projects. */
+    long getBudget();
+
+    int getWorkspaceCount();
+
+    int getProjectCount();
+
+    /** Returns estimated number of bytes used by the Java model caches of all projects. */
+    long getEstimatedSize();
+
+    /** Returns estimated number of bytes used by the Java model cache of each project, key is workspace id + project path. */
+    Map<String, Long> getProjectEstimatedSizes();
+}
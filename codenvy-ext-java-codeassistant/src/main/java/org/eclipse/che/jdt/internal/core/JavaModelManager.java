@@ -22,8 +22,10 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -757,15 +759,10 @@ public class JavaModelManager {
             }
 
             // Wait for the end of indexing or a cancel
-            while (this.indexManager.awaitingJobsCount() > 0) {
-                if (monitor != null && monitor.isCanceled()) {
-                    return projectInfo.secondaryTypes;
-                }
-                try {
-                    Thread.sleep(10);
-                } catch (InterruptedException e) {
-                    return projectInfo.secondaryTypes;
-                }
+            try {
+                this.indexManager.waitUntilReady(monitor == null ? null : new SubProgressMonitor(monitor, 0));
+            } catch (OperationCanceledException e) {
+                return projectInfo.secondaryTypes;
             }
         }
 
@@ -1266,6 +1263,27 @@ public class JavaModelManager {
         return false;
     }
 
+    /**
+     * Applies the memory ratio of the project given by {@link JavaModelCacheBudget} to the caches of this manager.
+     */
+    void setCacheMemoryRatio(double ratio, int bufferCacheSize) {
+        synchronized (this) {
+            this.cache.setMemoryRatio(ratio);
+        }
+        getDefaultBufferManager().setBufferCacheSize(bufferCacheSize);
+    }
+
+    /**
+     * Returns estimated number of bytes used by the element infos and the open buffers of this manager.
+     */
+    long getCacheEstimatedSize() {
+        long size;
+        synchronized (this) {
+            size = this.cache.getEstimatedSize();
+        }
+        return size + getDefaultBufferManager().getEstimatedSize();
+    }
+
     public void setJavaProject(JavaProject javaProject) {
         this.javaProject = javaProject;
     }
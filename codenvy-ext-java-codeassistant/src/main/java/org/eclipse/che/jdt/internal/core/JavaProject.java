@@ -17,6 +17,7 @@ import org.eclipse.che.api.project.shared.Builders;
 import org.eclipse.che.ide.ant.tools.AntUtils;
 import org.eclipse.che.jdt.core.JavaCore;
 import org.eclipse.che.jdt.internal.core.search.indexing.IndexManager;
+import org.eclipse.che.jdt.internal.core.search.indexing.SharedIndexStore;
 import org.eclipse.che.jdt.internal.core.util.JavaElementFinder;
 import org.eclipse.che.ide.maven.tools.MavenUtils;
 import org.eclipse.core.resources.IProject;
@@ -26,11 +27,14 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.jdt.core.ElementChangedEvent;
 import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.IClasspathContainer;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
 import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
 import org.eclipse.jdt.core.IJavaModel;
 import org.eclipse.jdt.core.IJavaModelStatus;
 import org.eclipse.jdt.core.IJavaProject;
@@ -60,6 +64,7 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * @author Evgen Vidolob
@@ -88,9 +93,29 @@ public class JavaProject extends Openable implements IJavaProject {
     private IClasspathEntry[]         rawClassPath;
     private ResolvedClasspath         resolvedClasspath;
     private IndexManager              indexManager;
+    /* true until the initial indexing of the project is finished or its jobs are discarded */
+    private volatile boolean          warming           = true;
+    /* true when the initial indexing of the project is finished and the indexes are complete */
+    private volatile boolean          indexed;
+    private boolean                   closed;
+    private SharedIndexStore          sharedIndexStore;
+    private ClasspathFingerprint      classpathFingerprint;
+    private WarmUpListener            warmUpListener;
+    private volatile int              indexedDocumentCount;
 
     public JavaProject(File root, String projectPath, String tempDir, String ws, Map<String, String> options) {
+        this(root, projectPath, tempDir, ws, options, null, null, null);
+    }
+
+    /**
+     * Creates java project. If <code>warmUpExecutor</code> is not <code>null</code> the project is returned before
+     * its indexes are built, indexing is started on the executor and the project stays in the warming state until
+     * all initial index jobs are done. Otherwise indexing is started in the current thread.
+     */
+    public JavaProject(File root, String projectPath, String tempDir, String ws, Map<String, String> options,
+                       SharedIndexStore sharedIndexStore, Executor warmUpExecutor, WarmUpListener warmUpListener) {
         super(null, new JavaModelManager());
+        this.warmUpListener = warmUpListener;
         manager.setJavaProject(this);
         this.projectPath = projectPath;
         this.tempDir = tempDir;
@@ -152,12 +177,79 @@ public class JavaProject extends Openable implements IJavaProject {
             LOG.error("Can't find jar dependency's: ", e);
         }
         rawClassPath = paths.toArray(new IClasspathEntry[paths.size()]);
-        indexManager = new IndexManager(tempDir + "/indexes/" + ws + projectPath + "/", this);
-        indexManager.reset();
-        indexManager.indexAll(this);
-        indexManager.saveIndexes();
+        this.sharedIndexStore = sharedIndexStore;
+        indexManager = new IndexManager(tempDir + "/indexes/" + ws + projectPath + "/", this, sharedIndexStore);
         manager.setIndexManager(indexManager);
+        JavaModelCacheBudget.getInstance().register(wsId, projectPath, manager);
         creteNewNameEnvironment();
+        manager.deltaState.addElementChangedListener(new NameEnvironmentUpdater(), ElementChangedEvent.POST_CHANGE);
+        if (warmUpExecutor != null) {
+            warmUpExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    warmUp();
+                }
+            });
+        } else {
+            warmUp();
+        }
+    }
+
+    /**
+     * Starts indexing of the project. Until indexing is done searches answer from the indexes which are already built
+     * or from the java model.
+     */
+    private synchronized void warmUp() {
+        if (closed) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        indexManager.reset();
+        indexManager.indexAll(this);
+        indexManager.requestCallback(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    indexManager.saveIndexes();
+                    indexedDocumentCount = indexManager.getDocumentCount();
+                    indexed = true;
+                } finally {
+                    warming = false;
+                }
+                if (warmUpListener != null) {
+                    warmUpListener.warmedUp(JavaProject.this, System.currentTimeMillis() - start);
+                }
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                // jobs were discarded by a shutdown or a crashed job, nothing will finish the initial indexing
+                warming = false;
+            }
+        });
+    }
+
+    /** Returns <code>true</code> if initial indexing of the project isn't finished yet, so search results may be partial. */
+    public boolean isWarming() {
+        return warming;
+    }
+
+    /** Returns number of documents in the indexes of the project, it is known when the initial indexing is finished. */
+    public int getIndexedDocumentCount() {
+        return indexedDocumentCount;
+    }
+
+    /** Returns estimated number of bytes used by the Java model cache of the project. */
+    public long getModelCacheSize() {
+        return manager.getCacheEstimatedSize();
+    }
+
+    /** Returns fingerprint of the library jars of the project, it is computed on the first call. */
+    public synchronized ClasspathFingerprint getClasspathFingerprint() throws JavaModelException {
+        if (classpathFingerprint == null) {
+            classpathFingerprint = new ClasspathFingerprint(this, sharedIndexStore);
+        }
+        return classpathFingerprint;
     }
 
     /**
@@ -1031,9 +1123,8 @@ public class JavaProject extends Openable implements IJavaProject {
 
     @Override
     public void close() throws JavaModelException {
-        indexManager.shutdown();
+        release();
         indexManager.deleteIndexFiles();
-        nameEnvironment.cleanup();
         File file = new File(tempDir + "/indexes/" + wsId);
         String[] list = file.list();
         if (list == null || list.length == 0) {
@@ -1042,6 +1133,39 @@ public class JavaProject extends Openable implements IJavaProject {
         super.close();
     }
 
+    /**
+     * Closes the project but keeps its indexes on disk, so the project is opened again without full indexing.
+     * In-memory changes of the indexes are saved first. Indexes of the project whose initial indexing isn't finished are
+     * incomplete, they are deleted.
+     */
+    public void unload() throws JavaModelException {
+        release();
+        if (!indexed) {
+            indexManager.deleteIndexFiles();
+        } else {
+            indexManager.saveIndexes();
+        }
+        super.close();
+    }
+
+    /**
+     * Closes the project without saving or deleting its indexes. The index files are used by another instance of the
+     * same project which was opened since.
+     */
+    public void detach() throws JavaModelException {
+        release();
+        super.close();
+    }
+
+    private void release() {
+        synchronized (this) {
+            closed = true;
+        }
+        JavaModelCacheBudget.getInstance().unregister(wsId, projectPath, manager);
+        indexManager.shutdown();
+        nameEnvironment.cleanup();
+    }
+
     @Override
     public String findRecommendedLineSeparator() throws JavaModelException {
         return null;
@@ -1211,6 +1335,62 @@ public class JavaProject extends Openable implements IJavaProject {
         }
     }
 
+    /**
+     * Keeps name environment in sync with the java model. Added and removed packages are patched into the existing
+     * name lookup, the environment is recreated only if roots of the project are changed. Changes of compilation units
+     * don't need any update, the name lookup reads them from the java model updated by the delta processor.
+     */
+    private class NameEnvironmentUpdater implements IElementChangedListener {
+        @Override
+        public void elementChanged(ElementChangedEvent event) {
+            List<IPackageFragment> added = new LinkedList<>();
+            List<IPackageFragment> removed = new LinkedList<>();
+            if (collectPackageChanges(event.getDelta(), added, removed)) {
+                creteNewNameEnvironment();
+            } else if (!added.isEmpty() || !removed.isEmpty()) {
+                SearchableEnvironment environment = nameEnvironment;
+                if (environment != null) {
+                    environment.nameLookup.updatePackageFragments(added, removed);
+                }
+            }
+        }
+
+        /** Returns <code>true</code> if package fragment roots of the project are changed. */
+        private boolean collectPackageChanges(IJavaElementDelta delta, List<IPackageFragment> added, List<IPackageFragment> removed) {
+            IJavaElement element = delta.getElement();
+            switch (element.getElementType()) {
+                case IJavaElement.JAVA_PROJECT:
+                    if ((delta.getFlags() & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+                        return true;
+                    }
+                    break;
+                case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+                    if (delta.getKind() != IJavaElementDelta.CHANGED
+                        || (delta.getFlags() & (IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH
+                                                | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED)) != 0) {
+                        return true;
+                    }
+                    break;
+                case IJavaElement.PACKAGE_FRAGMENT:
+                    if (delta.getKind() == IJavaElementDelta.ADDED) {
+                        added.add((IPackageFragment)element);
+                    } else if (delta.getKind() == IJavaElementDelta.REMOVED) {
+                        removed.add((IPackageFragment)element);
+                    }
+                    return false;
+                case IJavaElement.COMPILATION_UNIT:
+                case IJavaElement.CLASS_FILE:
+                    return false;
+            }
+            for (IJavaElementDelta child : delta.getAffectedChildren()) {
+                if (collectPackageChanges(child, added, removed)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
     public static class ResolvedClasspath {
         IClasspathEntry[] resolvedClasspath;
         IJavaModelStatus                unresolvedEntryStatus     = JavaModelStatus.VERIFIED_OK;
@@ -1218,4 +1398,9 @@ public class JavaProject extends Openable implements IJavaProject {
         Map<IPath, IClasspathEntry>     rootPathToResolvedEntries = new HashMap<>();
         IClasspathEntry[]               referencedEntries         = null;
     }
+
+    /** Notified when the initial indexing of the project is finished. */
+    public interface WarmUpListener {
+        void warmedUp(JavaProject project, long time);
+    }
 }
@@ -43,6 +43,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -105,7 +106,7 @@ public class NameLookup implements SuffixConstants {
      * Note if the list is of size 1, then the IPackageFragmentRoot object
      * replaces the array.
      */
-    protected HashtableOfArrayToObject packageFragments;
+    protected volatile HashtableOfArrayToObject packageFragments;
 
     /**
      * Reverse map from root path to corresponding resolved CP entry
@@ -246,6 +247,89 @@ public class NameLookup implements SuffixConstants {
         }
     }
 
+    /**
+     * Updates the packages known by this name lookup after package fragments were added to or removed from the roots
+     * of the project, so the lookup can be kept instead of recreated. The table is patched on a copy which replaces
+     * the current one, so lookups running concurrently see either the old or the new table.
+     *
+     * @param added
+     *         added package fragments
+     * @param removed
+     *         removed package fragments
+     */
+    public synchronized void updatePackageFragments(List<IPackageFragment> added, List<IPackageFragment> removed) {
+        HashtableOfObjectToInt rootPositions = new HashtableOfObjectToInt();
+        for (int i = 0, length = this.packageFragmentRoots.length; i < length; i++) {
+            rootPositions.put(this.packageFragmentRoots[i], i);
+        }
+        HashtableOfArrayToObject current = this.packageFragments;
+        HashtableOfArrayToObject table = new HashtableOfArrayToObject(current.elementSize + added.size());
+        for (int i = 0, length = current.keyTable.length; i < length; i++) {
+            Object[] key = current.keyTable[i];
+            if (key != null) {
+                table.put(key, current.valueTable[i]);
+            }
+        }
+        for (IPackageFragment fragment : removed) {
+            String[] pkgName = ((PackageFragment)fragment).names;
+            Object existing = table.get(pkgName);
+            if (existing instanceof IPackageFragmentRoot[] && existing != JavaProjectElementInfo.NO_ROOTS) {
+                IPackageFragmentRoot[] roots = (IPackageFragmentRoot[])existing;
+                List<IPackageFragmentRoot> remaining = new ArrayList<>(roots.length);
+                for (IPackageFragmentRoot root : roots) {
+                    if (!root.equals(fragment.getParent())) {
+                        remaining.add(root);
+                    }
+                }
+                if (remaining.isEmpty()) {
+                    table.put(pkgName, JavaProjectElementInfo.NO_ROOTS);
+                } else {
+                    table.put(pkgName, remaining.size() == 1 ? remaining.get(0)
+                                                             : remaining.toArray(new IPackageFragmentRoot[remaining.size()]));
+                }
+            } else if (existing != null && existing.equals(fragment.getParent())) {
+                // keep the name if it is still a super package of another package
+                table.put(pkgName, JavaProjectElementInfo.NO_ROOTS);
+            }
+        }
+        for (IPackageFragment fragment : added) {
+            IPackageFragmentRoot root = (IPackageFragmentRoot)fragment.getParent();
+            int rootPosition = rootPositions.get(root);
+            if (rootPosition == -1) {
+                continue;
+            }
+            String[] pkgName = ((PackageFragment)fragment).names;
+            Object existing = table.get(pkgName);
+            if (existing == null || existing == JavaProjectElementInfo.NO_ROOTS) {
+                table.put(pkgName, root);
+                JavaProjectElementInfo.addSuperPackageNames(pkgName, table);
+            } else {
+                IPackageFragmentRoot[] roots =
+                        existing instanceof IPackageFragmentRoot ? new IPackageFragmentRoot[]{(IPackageFragmentRoot)existing}
+                                                                 : (IPackageFragmentRoot[])existing;
+                int insertionIndex = roots.length;
+                for (int j = 0; j < roots.length; j++) {
+                    int existingPosition = rootPositions.get(roots[j]);
+                    if (existingPosition == rootPosition) {
+                        insertionIndex = -1;
+                        break;
+                    } else if (existingPosition > rootPosition) {
+                        insertionIndex = j;
+                        break;
+                    }
+                }
+                if (insertionIndex != -1) {
+                    IPackageFragmentRoot[] newRoots = new IPackageFragmentRoot[roots.length + 1];
+                    System.arraycopy(roots, 0, newRoots, 0, insertionIndex);
+                    newRoots[insertionIndex] = root;
+                    System.arraycopy(roots, insertionIndex, newRoots, insertionIndex + 1, roots.length - insertionIndex);
+                    table.put(pkgName, newRoots);
+                }
+            }
+        }
+        this.packageFragments = table;
+    }
+
     /**
      * Returns true if:<ul>
      * <li>the given type is an existing class and the flag's <code>ACCEPT_CLASSES</code>
@@ -20,6 +20,7 @@ import org.eclipse.che.jdt.internal.core.search.indexing.IndexManager;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IType;
@@ -600,17 +601,8 @@ public class SearchableEnvironment
 			int matchRule = SearchPattern.R_PREFIX_MATCH;
 			if (camelCaseMatch) matchRule |= SearchPattern.R_CAMELCASE_MATCH;
 			if (monitor != null) {
-				IndexManager indexManager = project.getIndexManager();
-				while (indexManager.awaitingJobsCount() > 0) {
-					try {
-						Thread.sleep(50); // indexes are not ready,  sleep 50ms...
-					} catch (InterruptedException e) {
-						// Do nothing
-					}
-					if (monitor.isCanceled()) {
-						throw new OperationCanceledException();
-					}
-				}
+				// indexes are not ready, wait for them
+				project.getIndexManager().waitUntilReady(new SubProgressMonitor(monitor, 0));
 				new BasicSearchEngine(project.getIndexManager(), project).searchAllConstructorDeclarations(
 						qualification,
 						simpleName,
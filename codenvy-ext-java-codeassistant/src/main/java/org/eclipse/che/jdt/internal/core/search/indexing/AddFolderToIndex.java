@@ -52,7 +52,7 @@ class AddFolderToIndex extends IndexRequest {
         if(! folder.exists()) return true; // nothing to do, source folder was removed
 
 		/* ensure no concurrent write access to index */
-		Index index = this.manager.getIndex(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
+		Index index = this.manager.getWritableIndex(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
 		if (index == null) return true;
 		ReadWriteMonitor monitor = index.monitor;
 		if (monitor == null) return true; // index got deleted since acquired
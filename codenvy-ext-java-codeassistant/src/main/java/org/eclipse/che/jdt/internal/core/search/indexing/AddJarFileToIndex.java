@@ -15,7 +15,6 @@ import org.eclipse.che.jdt.core.search.SearchEngine;
 import org.eclipse.che.jdt.core.search.SearchParticipant;
 import org.eclipse.che.jdt.internal.core.JavaModelManager;
 import org.eclipse.che.jdt.internal.core.JavaProject;
-import org.eclipse.che.jdt.internal.core.search.JavaSearchDocument;
 import org.eclipse.che.jdt.internal.core.search.processing.JobManager;
 
 import org.eclipse.core.resources.IFile;
@@ -37,13 +36,21 @@ import org.eclipse.jdt.internal.core.search.indexing.ReadWriteMonitor;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 class AddJarFileToIndex extends IndexRequest {
 
 	private static final char JAR_SEPARATOR = IJavaSearchScope.JAR_FILE_ENTRY_SEPARATOR.charAt(0);
+	/* number of class files read by one task */
+	private static final int  CLASS_FILES_PER_TASK  = 32;
+	/* number of class files whose entries are kept in memory before they are added to the index */
+	private static final int  CLASS_FILES_PER_MERGE = 2048;
 	IFile   resource;
 	Scanner scanner;
 	private       IndexLocation indexFileURL;
@@ -114,7 +121,7 @@ class AddJarFileToIndex extends IndexRequest {
 				return true;
 			}
 
-			index = this.manager.getIndexForUpdate(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
+			index = this.manager.getWritableIndexForUpdate(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
 			if (index == null) {
 				if (JobManager.VERBOSE)
 					org.eclipse.jdt.internal.core.util.Util.verbose("-> index could not be created for " + this.containerPath); //$NON-NLS-1$
@@ -175,6 +182,8 @@ class AddJarFileToIndex extends IndexRequest {
 					org.eclipse.jdt.internal.core.util.Util.verbose("-> indexing " + zip.getName()); //$NON-NLS-1$
 				long initialTime = System.currentTimeMillis();
 
+				// read the central directory once, both to check the index and to index the jar
+				ZipEntry[] classFiles = getClassFileEntries(zip);
 				String[] paths = index.queryDocumentNames(""); // all file names //$NON-NLS-1$
 				if (paths != null) {
 					int max = paths.length;
@@ -188,14 +197,8 @@ class AddJarFileToIndex extends IndexRequest {
 					SimpleLookupTable indexedFileNames = new SimpleLookupTable(max == 0 ? 33 : max + 11);
 					for (int i = 0; i < max; i++)
 						indexedFileNames.put(paths[i], DELETED);
-					for (Enumeration e = zip.entries(); e.hasMoreElements();) {
-						// iterate each entry to index it
-						ZipEntry ze = (ZipEntry) e.nextElement();
-						String zipEntryName = ze.getName();
-						if (Util.isClassFileName(zipEntryName) && isValidPackageNameForClass(zipEntryName))
-								// the class file may not be there if the package name is not valid
-							indexedFileNames.put(zipEntryName, EXISTS);
-					}
+					for (int i = 0; i < classFiles.length; i++)
+						indexedFileNames.put(classFiles[i].getName(), EXISTS);
 					boolean needToReindex = indexedFileNames.elementSize != max; // a new file was added
 					if (!needToReindex) {
 						Object[] valueTable = indexedFileNames.valueTable;
@@ -211,6 +214,7 @@ class AddJarFileToIndex extends IndexRequest {
 								+ zip.getName() + " (" //$NON-NLS-1$
 								+ (System.currentTimeMillis() - initialTime) + "ms)"); //$NON-NLS-1$
 							this.manager.saveIndex(index); // to ensure its placed into the saved state
+							this.manager.shareIndex(this.containerPath, index);
 							return true;
 						}
 					}
@@ -230,25 +234,27 @@ class AddJarFileToIndex extends IndexRequest {
 				if ((indexLocation = index.getIndexLocation()) != null) {
 					indexPath = new Path(indexLocation.getCanonicalFilePath());
 				}
-				for (Enumeration e = zip.entries(); e.hasMoreElements();) {
+				// class files are read and decoded in parallel, then their entries are added to the index by this thread
+				ForkJoinPool pool = this.manager.getScheduler().getPool();
+				for (int start = 0; start < classFiles.length; start += CLASS_FILES_PER_MERGE) {
+					BufferedSearchDocument[] documents =
+							new BufferedSearchDocument[Math.min(CLASS_FILES_PER_MERGE, classFiles.length - start)];
+					IndexClassFiles task = new IndexClassFiles(classFiles, start, documents, 0, documents.length, zip, zipFilePath,
+															   participant, indexPath);
+					if (ForkJoinTask.getPool() == pool)
+						task.invoke();
+					else
+						pool.invoke(task);
 					if (this.isCancelled) {
 						if (JobManager.VERBOSE)
 							org.eclipse.jdt.internal.core.util.Util.verbose("-> indexing of " + zip.getName() + " has been cancelled"); //$NON-NLS-1$ //$NON-NLS-2$
 						return false;
 					}
-
-					// iterate each entry to index it
-					ZipEntry ze = (ZipEntry) e.nextElement();
-					String zipEntryName = ze.getName();
-					if (Util.isClassFileName(zipEntryName) &&
-							isValidPackageNameForClass(zipEntryName)) {
-						// index only classes coming from valid packages - https://bugs.eclipse.org/bugs/show_bug.cgi?id=293861
-						final byte[] classFileBytes = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(ze, zip);
-						JavaSearchDocument entryDocument = new JavaSearchDocument(ze, zipFilePath, classFileBytes, participant);
-						this.manager.indexDocument(entryDocument, participant, index, indexPath);
-					}
+					for (int i = 0; i < documents.length; i++)
+						documents[i].addEntriesTo(index);
 				}
 				this.manager.saveIndex(index);
+				this.manager.shareIndex(this.containerPath, index);
 				if (JobManager.VERBOSE)
 					org.eclipse.jdt.internal.core.util.Util.verbose("-> done indexing of " //$NON-NLS-1$
 						+ zip.getName() + " (" //$NON-NLS-1$
@@ -276,6 +282,21 @@ class AddJarFileToIndex extends IndexRequest {
 			return super.getJobFamily();
 		return this.containerPath.toOSString(); // external jar
 	}
+	/**
+	 * Answers the class files of the jar, only classes coming from valid packages are indexed
+	 * https://bugs.eclipse.org/bugs/show_bug.cgi?id=293861
+	 */
+	private ZipEntry[] getClassFileEntries(ZipFile zip) {
+		ArrayList<ZipEntry> classFiles = new ArrayList<>();
+		for (Enumeration e = zip.entries(); e.hasMoreElements();) {
+			ZipEntry ze = (ZipEntry) e.nextElement();
+			String zipEntryName = ze.getName();
+			if (Util.isClassFileName(zipEntryName) && isValidPackageNameForClass(zipEntryName))
+				// the class file may not be there if the package name is not valid
+				classFiles.add(ze);
+		}
+		return classFiles.toArray(new ZipEntry[classFiles.size()]);
+	}
 	private boolean isIdentifier() throws InvalidInputException {
 		switch(this.scanner.scanIdentifier()) {
 			// assert and enum will not be recognized as java identifiers
@@ -331,4 +352,57 @@ class AddJarFileToIndex extends IndexRequest {
 	protected boolean hasPreBuiltIndex() {
 		return !this.forceIndexUpdate && (this.indexFileURL != null && this.indexFileURL.exists());
 	}
+
+	/**
+	 * Reads and indexes a range of class files, splitting it in halves until it is small enough.
+	 */
+	private class IndexClassFiles extends RecursiveAction {
+		private final ZipEntry[]               classFiles;
+		private final int                      classFilesStart;
+		private final BufferedSearchDocument[] documents;
+		private final int                      start;
+		private final int                      end;
+		private final ZipFile                  zip;
+		private final IPath                    zipFilePath;
+		private final SearchParticipant        participant;
+		private final IPath                    indexPath;
+
+		IndexClassFiles(ZipEntry[] classFiles, int classFilesStart, BufferedSearchDocument[] documents, int start, int end,
+						ZipFile zip, IPath zipFilePath, SearchParticipant participant, IPath indexPath) {
+			this.classFiles = classFiles;
+			this.classFilesStart = classFilesStart;
+			this.documents = documents;
+			this.start = start;
+			this.end = end;
+			this.zip = zip;
+			this.zipFilePath = zipFilePath;
+			this.participant = participant;
+			this.indexPath = indexPath;
+		}
+
+		protected void compute() {
+			if (this.end - this.start > CLASS_FILES_PER_TASK) {
+				int middle = (this.start + this.end) >>> 1;
+				invokeAll(new IndexClassFiles(this.classFiles, this.classFilesStart, this.documents, this.start, middle, this.zip,
+											  this.zipFilePath, this.participant, this.indexPath),
+						  new IndexClassFiles(this.classFiles, this.classFilesStart, this.documents, middle, this.end, this.zip,
+											  this.zipFilePath, this.participant, this.indexPath));
+				return;
+			}
+			for (int i = this.start; i < this.end && !AddJarFileToIndex.this.isCancelled; i++) {
+				ZipEntry ze = this.classFiles[this.classFilesStart + i];
+				BufferedSearchDocument document;
+				try {
+					byte[] classFileBytes = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(ze, this.zip);
+					document = new BufferedSearchDocument(ze, this.zipFilePath, classFileBytes, this.participant);
+					// the entries are buffered by the document and added to the index by the indexing thread
+					AddJarFileToIndex.this.manager.indexDocument(document, this.participant, null, this.indexPath);
+				} catch (IOException e) {
+					document = new BufferedSearchDocument(ze, this.zipFilePath, null, this.participant);
+					document.setReadFailure(e);
+				}
+				this.documents[i] = document;
+			}
+		}
+	}
 }
\ No newline at end of file
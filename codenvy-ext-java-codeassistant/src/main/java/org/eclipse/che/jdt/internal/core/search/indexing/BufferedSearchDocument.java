@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt.internal.core.search.indexing;
+
+import org.eclipse.che.jdt.core.search.SearchParticipant;
+import org.eclipse.che.jdt.internal.core.search.JavaSearchDocument;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.core.index.Index;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+/**
+ * Document whose index entries are kept until they are added to the index, so documents can be indexed concurrently
+ * while only one thread writes to the index.
+ */
+class BufferedSearchDocument extends JavaSearchDocument {
+    private final ArrayList<char[]> categories = new ArrayList<>();
+    private final ArrayList<char[]> keys       = new ArrayList<>();
+    private IOException readFailure;
+
+    BufferedSearchDocument(String documentPath, SearchParticipant participant) {
+        super(documentPath, participant);
+    }
+
+    BufferedSearchDocument(ZipEntry zipEntry, IPath zipFilePath, byte[] contents, SearchParticipant participant) {
+        super(zipEntry, zipFilePath, contents, participant);
+    }
+
+    @Override
+    public void addIndexEntry(char[] category, char[] key) {
+        categories.add(category);
+        keys.add(key);
+    }
+
+    @Override
+    public void removeAllIndexEntries() {
+        categories.clear();
+        keys.clear();
+    }
+
+    /** Returns keys of the entries of the given category. */
+    List<char[]> getKeys(char[] category) {
+        List<char[]> result = new ArrayList<>();
+        for (int i = 0, size = categories.size(); i < size; i++) {
+            if (CharOperation.equals(categories.get(i), category)) {
+                result.add(keys.get(i));
+            }
+        }
+        return result;
+    }
+
+    /** Remembers that contents of the document can't be read, the failure is thrown when entries are added to the index. */
+    void setReadFailure(IOException readFailure) {
+        this.readFailure = readFailure;
+    }
+
+    /** Replaces entries of the document in the index, must be called with the write lock of the index. */
+    void addEntriesTo(Index index) throws IOException {
+        if (readFailure != null) {
+            throw readFailure;
+        }
+        String containerRelativePath = index.containerRelativePath(getPath());
+        index.remove(containerRelativePath);
+        for (int i = 0, size = categories.size(); i < size; i++) {
+            index.addIndexEntry(categories.get(i), keys.get(i), containerRelativePath);
+        }
+    }
+}
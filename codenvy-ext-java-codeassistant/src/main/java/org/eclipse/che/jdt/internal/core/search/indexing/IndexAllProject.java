@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.jdt.internal.core.search.indexing;
 
+import org.eclipse.che.jdt.core.search.SearchEngine;
+import org.eclipse.che.jdt.core.search.SearchParticipant;
 import org.eclipse.che.jdt.internal.core.ClasspathEntry;
 import org.eclipse.che.jdt.internal.core.JavaProject;
 import org.eclipse.che.jdt.internal.core.search.Util;
@@ -32,10 +34,23 @@ import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 public class IndexAllProject extends IndexRequest {
+	/* number of found sources parsed by one task of the indexing pool */
+	private static final int SOURCES_PER_TASK  = 16;
+	/* number of parsed sources whose entries are kept in memory before they are added to the index */
+	private static final int SOURCES_PER_MERGE = 512;
+
     JavaProject project;
+	/* parsers of the sources found by the running job */
+	private SourceParsers parsers;
 
 	public IndexAllProject(JavaProject project, IndexManager manager) {
 		super(project.getFullPath(), manager);
@@ -83,7 +98,7 @@ public class IndexAllProject extends IndexRequest {
 				}
 
 				// nothing to index but want to save an empty index file so its not 'rebuilt' when part of a search request
-				Index index = this.manager.getIndexForUpdate(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
+				Index index = this.manager.getWritableIndexForUpdate(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
 				if (index != null)
 					this.manager.saveIndex(index);
 				return true;
@@ -91,14 +106,20 @@ public class IndexAllProject extends IndexRequest {
 			if (sourceEntriesNumber != length)
 				System.arraycopy(sourceEntries, 0, sourceEntries = new IClasspathEntry[sourceEntriesNumber], 0, sourceEntriesNumber);
 
-			Index index = this.manager.getIndexForUpdate(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
+			Index index = this.manager.getWritableIndexForUpdate(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
 			if (index == null) return true;
 			monitor = index.monitor;
 			if (monitor == null) return true; // index got deleted since acquired
 
+			String[] paths;
+			long lastModified;
 			monitor.enterRead(); // ask permission to read
-
-			String[] paths = index.queryDocumentNames(""); // all file names //$NON-NLS-1$
+			try {
+				paths = index.queryDocumentNames(""); // all file names //$NON-NLS-1$
+				lastModified = paths == null || paths.length == 0 ? 0L : index.getIndexLastModified();
+			} finally {
+				monitor.exitRead(); // free read lock, sources are added to the index with the write lock
+			}
 			int max = paths == null ? 0 : paths.length;
 			final SimpleLookupTable indexedFileNames = new SimpleLookupTable(max == 0 ? 33 : max + 11);
 			final String OK = "OK"; //$NON-NLS-1$
@@ -107,7 +128,11 @@ public class IndexAllProject extends IndexRequest {
 				for (int i = 0; i < max; i++)
 					indexedFileNames.put(paths[i], DELETED);
 			}
-			final long indexLastModified = max == 0 ? 0L : index.getIndexLastModified();
+			final long indexLastModified = lastModified;
+
+			// sources are parsed while the source folders are walked
+			long start = System.currentTimeMillis();
+			this.parsers = new SourceParsers(index, monitor);
 
 //			IWorkspaceRoot root = this.project.getWorkspace().getRoot();
 			for (int i = 0; i < sourceEntriesNumber; i++) {
@@ -159,7 +184,11 @@ public class IndexAllProject extends IndexRequest {
                                         if (Util.isExcluded(resourcePath, inclusionPatterns, exclusionPatterns, false))
                                             return FileVisitResult.CONTINUE;
                                     }
-                                    indexedFileNames.put(resourcePath.makeRelativeTo(containerPath).toOSString(), file);
+                                    String relativePathString = resourcePath.makeRelativeTo(containerPath).toOSString();
+                                    if (!(indexedFileNames.get(relativePathString) instanceof Path)) {
+                                        indexedFileNames.put(relativePathString, file);
+                                        IndexAllProject.this.parsers.add(file);
+                                    }
                                 }
                                 return FileVisitResult.CONTINUE;
                             }
@@ -213,11 +242,15 @@ public class IndexAllProject extends IndexRequest {
                                     String relativePathString =new org.eclipse.core.runtime.Path(file.toFile().getPath()).makeRelativeTo(
                                            containerPath).toOSString();
                                             //Util.relativePath(new org.eclipse.core.runtime.Path(file.toFile().getPath()), 1/*remove project segment*/);
-                                    indexedFileNames.put(relativePathString,
-                                                         indexedFileNames.get(relativePathString) == null
-                                                         || indexLastModified < 0 /*EFS.getStore(location).fetchInfo().getLastModified()*/
-                                                         ? (Object) file
-                                                         : (Object) OK);
+                                    Object value = indexedFileNames.get(relativePathString);
+                                    if (value instanceof Path)
+                                        return FileVisitResult.CONTINUE; // already found in another source folder
+                                    if (value == null || indexLastModified < 0 /*EFS.getStore(location).fetchInfo().getLastModified()*/) {
+                                        indexedFileNames.put(relativePathString, file);
+                                        IndexAllProject.this.parsers.add(file);
+                                    } else {
+                                        indexedFileNames.put(relativePathString, OK);
+                                    }
                                 }
                                 return FileVisitResult.CONTINUE;
                             }
@@ -270,7 +303,16 @@ public class IndexAllProject extends IndexRequest {
 				}
 			}
 
-			SourceElementParser parser = this.manager.getSourceElementParser(project, null/*requestor will be set by indexer*/);
+			int sourceCount = this.parsers.finish();
+			if (this.isCancelled) return false;
+			long time = System.currentTimeMillis() - start;
+			this.manager.sourcesIndexed(sourceCount, time);
+			if (sourceCount > 0)
+				this.manager.typeHierarchy.invalidate(this.containerPath.toString()); // read from the index again
+			if (JobManager.VERBOSE)
+				Util.verbose("-> indexed " + sourceCount + " sources of " + this.project + " in " + time + "ms (" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+							 + (time == 0 ? sourceCount : sourceCount * 1000 / time) + " files/s)"); //$NON-NLS-1$
+
 			Object[] names = indexedFileNames.keyTable;
 			Object[] values = indexedFileNames.valueTable;
 			for (int i = 0, namesLength = names.length; i < namesLength; i++) {
@@ -278,13 +320,8 @@ public class IndexAllProject extends IndexRequest {
 				if (name != null) {
 					if (this.isCancelled) return false;
 
-					Object value = values[i];
-					if (value != OK) {
-						if (value == DELETED)
-							this.manager.remove(name, this.containerPath);
-						else
-							this.manager.addSource((Path) value, this.containerPath, parser);
-					}
+					if (values[i] == DELETED)
+						this.manager.remove(name, this.containerPath);
 				}
 			}
 
@@ -305,8 +342,10 @@ public class IndexAllProject extends IndexRequest {
 			this.manager.removeIndex(this.containerPath);
 			return false;
 		} finally {
-			if (monitor != null)
-				monitor.exitRead(); // free read lock
+			if (this.parsers != null) {
+				this.parsers.stop();
+				this.parsers = null;
+			}
 		}
 		return true;
 	}
@@ -319,4 +358,119 @@ public class IndexAllProject extends IndexRequest {
 	public String toString() {
 		return "indexing project " + this.project.getFullPath(); //$NON-NLS-1$
 	}
+
+	/**
+	 * Parses the sources in the threads of the indexing pool while the source folders are walked. The found sources are
+	 * grouped in batches, each batch is forked as a task with its own parser, none of the tasks blocks a thread of the
+	 * pool. Only the job thread adds the entries to the index, the job waits for the forked batches every
+	 * SOURCES_PER_MERGE sources so the entries kept in memory are bounded.
+	 */
+	private class SourceParsers {
+		private final ConcurrentLinkedQueue<BufferedSearchDocument> parsed = new ConcurrentLinkedQueue<>();
+		private final List<ForkJoinTask<?>>                         tasks  = new ArrayList<>();
+		private final ForkJoinPool                                  pool;
+		private final Index                                         index;
+		private final ReadWriteMonitor                              monitor;
+		private final SearchParticipant                             participant;
+		private List<Path> batch = new ArrayList<>(SOURCES_PER_TASK);
+		private int        count;
+
+		SourceParsers(Index index, ReadWriteMonitor monitor) {
+			this.index = index;
+			this.monitor = monitor;
+			this.participant = SearchEngine.getDefaultSearchParticipant(IndexAllProject.this.manager, IndexAllProject.this.project);
+			this.pool = IndexAllProject.this.manager.getScheduler().getPool();
+		}
+
+		void add(Path file) throws IOException {
+			this.count++;
+			this.batch.add(file);
+			if (this.batch.size() < SOURCES_PER_TASK)
+				return;
+			fork();
+			if (this.tasks.size() * SOURCES_PER_TASK >= SOURCES_PER_MERGE) {
+				join();
+				merge();
+			}
+		}
+
+		/**
+		 * Waits until all the sources are parsed and added to the index, answers the number of sources.
+		 */
+		int finish() throws IOException {
+			if (IndexAllProject.this.isCancelled) {
+				stop();
+				return this.count;
+			}
+			fork();
+			join();
+			merge();
+			return this.count;
+		}
+
+		/**
+		 * Cancels the batches not parsed yet if the sources are not walked to the end.
+		 */
+		void stop() {
+			this.batch.clear();
+			for (int i = 0, length = this.tasks.size(); i < length; i++)
+				this.tasks.get(i).cancel(false);
+			this.tasks.clear();
+			this.parsed.clear();
+		}
+
+		private void fork() {
+			if (this.batch.isEmpty())
+				return;
+			ForkJoinTask<?> task = new ParseSources(this.batch);
+			this.batch = new ArrayList<>(SOURCES_PER_TASK);
+			// forked from a thread of the pool the batch goes to the local queue, idle threads steal it from there
+			if (ForkJoinTask.getPool() == this.pool)
+				task.fork();
+			else
+				this.pool.execute(task);
+			this.tasks.add(task);
+		}
+
+		private void join() {
+			// a thread of the pool joining a task runs the pending batches instead of waiting for them
+			for (int i = 0, length = this.tasks.size(); i < length; i++)
+				this.tasks.get(i).join();
+			this.tasks.clear();
+		}
+
+		private void merge() throws IOException {
+			if (this.parsed.isEmpty())
+				return;
+			this.monitor.enterWrite(); // ask permission to write
+			try {
+				BufferedSearchDocument document;
+				while ((document = this.parsed.poll()) != null)
+					document.addEntriesTo(this.index);
+			} finally {
+				this.monitor.exitWrite(); // free write lock
+			}
+		}
+
+		private class ParseSources extends RecursiveAction {
+			private final List<Path> files;
+
+			ParseSources(List<Path> files) {
+				this.files = files;
+			}
+
+			protected void compute() {
+				SourceElementParser parser =
+						IndexAllProject.this.manager.getSourceElementParser(IndexAllProject.this.project, null/*requestor will be set by indexer*/);
+				for (int i = 0, length = this.files.size(); i < length; i++) {
+					if (IndexAllProject.this.isCancelled)
+						return;
+					BufferedSearchDocument document = new BufferedSearchDocument(this.files.get(i).toAbsolutePath().toString(), SourceParsers.this.participant);
+					document.setParser(parser);
+					new SourceIndexer(document, IndexAllProject.this.manager, IndexAllProject.this.project).indexDocument();
+					SourceParsers.this.parsed.add(document);
+				}
+			}
+		}
+	}
 }
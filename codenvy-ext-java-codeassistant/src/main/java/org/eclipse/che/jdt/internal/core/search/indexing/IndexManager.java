@@ -15,6 +15,7 @@ import org.eclipse.che.jdt.core.search.IJavaSearchScope;
 import org.eclipse.che.jdt.core.search.SearchDocument;
 import org.eclipse.che.jdt.core.search.SearchEngine;
 import org.eclipse.che.jdt.core.search.SearchParticipant;
+import org.eclipse.che.jdt.core.search.SearchPattern;
 import org.eclipse.che.jdt.internal.core.ClasspathEntry;
 import org.eclipse.che.jdt.internal.core.JavaModelManager;
 import org.eclipse.che.jdt.internal.core.JavaProject;
@@ -38,6 +39,7 @@ import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
 import org.eclipse.jdt.internal.compiler.util.SimpleSet;
 import org.eclipse.jdt.internal.core.index.DiskIndex;
+import org.eclipse.jdt.internal.core.index.EntryResult;
 import org.eclipse.jdt.internal.core.index.FileIndexLocation;
 import org.eclipse.jdt.internal.core.index.Index;
 import org.eclipse.jdt.internal.core.index.IndexLocation;
@@ -54,6 +56,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.zip.CRC32;
@@ -93,10 +96,22 @@ public class IndexManager extends JobManager implements IIndexConstants {
     private boolean           participantUpdated     = false;
     private String indexLocation;
     private JavaProject javaProject;
+    // indexes of library jars shared with other projects, may be null
+    private SharedIndexStore sharedIndexStore;
+    // number of sources parsed by the indexing of the whole project and the time it took
+    private volatile int  indexedSourceCount;
+    private volatile long sourceIndexingTime;
+    // supertypes of the indexed types, patched when documents are indexed
+    final TypeHierarchyGraph typeHierarchy = new TypeHierarchyGraph();
 
     public IndexManager(String indexLocation, JavaProject javaProject) {
+        this(indexLocation, javaProject, null);
+    }
+
+    public IndexManager(String indexLocation, JavaProject javaProject, SharedIndexStore sharedIndexStore) {
         this.indexLocation = indexLocation;
         this.javaProject = javaProject;
+        this.sharedIndexStore = sharedIndexStore;
         indexNamesMapFile = new File(getSavedIndexesDirectory(), "indexNamesMap.txt");
         savedIndexNamesFile = new File(getSavedIndexesDirectory(), "savedIndexNames.txt");
         participantIndexNamesFile = new File(getSavedIndexesDirectory(), "participantsIndexNames.txt");
@@ -127,7 +142,7 @@ public class IndexManager extends JobManager implements IIndexConstants {
     public void addBinary(IFile resource, IPath containerPath) {
 //        if (JavaCore.getPlugin() == null) return;
         SearchParticipant participant = SearchEngine.getDefaultSearchParticipant(this, javaProject);
-        SearchDocument document = participant.getDocument(resource.getFullPath().toString());
+        SearchDocument document = new BufferedSearchDocument(resource.getFullPath().toString(), participant);
         IndexLocation indexLocation = computeIndexLocation(containerPath);
         scheduleDocumentIndexing(document, containerPath, indexLocation, participant);
     }
@@ -139,7 +154,7 @@ public class IndexManager extends JobManager implements IIndexConstants {
     public void addSource(java.nio.file.Path resource, IPath containerPath, SourceElementParser parser) {
 //        if (JavaCore.getPlugin() == null) return;
         SearchParticipant participant = SearchEngine.getDefaultSearchParticipant(this, javaProject);
-        SearchDocument document = participant.getDocument(resource.toAbsolutePath().toString());
+        SearchDocument document = new BufferedSearchDocument(resource.toAbsolutePath().toString(), participant);
         document.setParser(parser);
         IndexLocation indexLocation = computeIndexLocation(containerPath);
         scheduleDocumentIndexing(document, containerPath, indexLocation, participant);
@@ -240,6 +255,7 @@ public class IndexManager extends JobManager implements IIndexConstants {
                 if (VERBOSE || DEBUG)
                     Util.verbose("Deleting index file " + indexesFiles[i]); //$NON-NLS-1$
                 indexesFiles[i].delete();
+                MappedIndex.getMappedFile(indexesFiles[i]).delete();
             }
         }
     }
@@ -332,7 +348,8 @@ public class IndexManager extends JobManager implements IIndexConstants {
             if (reuseExistingFile) {
                 if (indexLocation.exists()) { // check before creating index so as to avoid creating a new empty index if file is missing
                     try {
-                        index = new Index(indexLocation, containerPathString, true /*reuse index file*/);
+                        // indexes of the libraries don't change, they are read from the mapped files
+                        index = MappedIndex.map(new Index(indexLocation, containerPathString, true /*reuse index file*/));
                         this.indexes.put(indexLocation, index);
                         return index;
                     } catch (IOException e) {
@@ -463,6 +480,53 @@ public class IndexManager extends JobManager implements IIndexConstants {
         return null; // abort the job since the index has been removed from the REBUILDING_STATE
     }
 
+    /**
+     * Same as {@link #getIndexForUpdate(IPath, boolean, boolean)} but the answered index can be written.
+     *
+     * @see #getWritableIndex(IPath, IndexLocation, boolean, boolean)
+     */
+    public synchronized Index getWritableIndexForUpdate(IPath containerPath, boolean reuseExistingFile, boolean createIfMissing) {
+        return toWritable(getIndexForUpdate(containerPath, reuseExistingFile, createIfMissing));
+    }
+
+    /**
+     * Same as {@link #getIndex(IPath, boolean, boolean)} but the answered index can be written.
+     *
+     * @see #getWritableIndex(IPath, IndexLocation, boolean, boolean)
+     */
+    public synchronized Index getWritableIndex(IPath containerPath, boolean reuseExistingFile, boolean createIfMissing) {
+        return toWritable(getIndex(containerPath, reuseExistingFile, createIfMissing));
+    }
+
+    /**
+     * Same as {@link #getIndex(IPath, IndexLocation, boolean, boolean)} but the answered index can be written: the read-only
+     * {@link MappedIndex} of a library is replaced in memory by an index read from the same file. Jobs which add or remove
+     * documents must get their index here.
+     */
+    public synchronized Index getWritableIndex(IPath containerPath, IndexLocation indexLocation, boolean reuseExistingFile,
+                                               boolean createIfMissing) {
+        return toWritable(getIndex(containerPath, indexLocation, reuseExistingFile, createIfMissing));
+    }
+
+    private Index toWritable(Index index) {
+        if (!(index instanceof MappedIndex)) return index;
+        IndexLocation indexLocation = index.getIndexLocation();
+        try {
+            Index writable = new Index(indexLocation, index.containerPath, true /*reuse index file*/);
+            writable.separator = index.separator;
+            // queries which still hold the mapped index read the entries it was mapped with
+            writable.monitor = index.monitor;
+            this.indexes.put(indexLocation, writable);
+            return writable;
+        } catch (IOException e) {
+            if (VERBOSE) {
+                Util.verbose("-> failed to read index for update: " + indexLocation); //$NON-NLS-1$
+                e.printStackTrace();
+            }
+            return null;
+        }
+    }
+
     private SimpleLookupTable getIndexStates() {
         if (this.indexStates != null) return this.indexStates;
 
@@ -581,8 +645,14 @@ public class IndexManager extends JobManager implements IIndexConstants {
             IClasspathEntry[] entries = project.getResolvedClasspath();
             for (int i = 0; i < entries.length; i++) {
                 IClasspathEntry entry = entries[i];
-                if (entry.getEntryKind() == IClasspathEntry.CPE_LIBRARY)
-                    indexLibrary(entry.getPath(),/* project,*/ ((ClasspathEntry)entry).getLibraryIndexLocation());
+                if (entry.getEntryKind() == IClasspathEntry.CPE_LIBRARY) {
+                    URL indexURL = ((ClasspathEntry)entry).getLibraryIndexLocation();
+                    if (indexURL == null && this.sharedIndexStore != null) {
+                        // reuse index built by other project for the same jar
+                        indexURL = this.sharedIndexStore.acquire(getSharedIndexOwner(), entry.getPath());
+                    }
+                    indexLibrary(entry.getPath(),/* project,*/ indexURL);
+                }
             }
         } catch (JavaModelException e) { // cannot retrieve classpath info
         }
@@ -597,6 +667,48 @@ public class IndexManager extends JobManager implements IIndexConstants {
         this.indexLibrary(path, /*requestingProject,*/ indexURL, false);
     }
 
+    /**
+     * Trigger execution of the callback once all jobs requested before it are done.
+     * Note: the callback is executed in background and isn't executed if jobs were discarded
+     */
+    public void requestCallback(final Runnable callback) {
+        requestCallback(callback, null);
+    }
+
+    /**
+     * Trigger execution of the callback once all jobs requested before it are done.
+     * Note: the callback is executed in background, if jobs are discarded before it is executed, by a shutdown or a crashed
+     * job, the <code>discarded</code> runnable is executed instead in the thread which discards jobs
+     */
+    public void requestCallback(final Runnable callback, final Runnable discarded) {
+        request(new IJob() {
+            public boolean belongsTo(String jobFamily) {
+                return false;
+            }
+
+            public void cancel() {
+                if (discarded != null)
+                    discarded.run();
+            }
+
+            public void ensureReadyToRun() {
+            }
+
+            public boolean execute(IProgressMonitor progress) {
+                callback.run();
+                return COMPLETE;
+            }
+
+            public String getJobFamily() {
+                return ""; //$NON-NLS-1$
+            }
+
+            public String toString() {
+                return "callback " + callback; //$NON-NLS-1$
+            }
+        });
+    }
+
     /**
      * Trigger addition of a library to an index
      * Note: the actual operation is performed in background
@@ -632,6 +744,7 @@ public class IndexManager extends JobManager implements IIndexConstants {
     }
 
     synchronized boolean addIndex(IPath containerPath, IndexLocation indexFile) {
+        this.typeHierarchy.invalidate(containerPath.toString());
         getIndexStates().put(indexFile, REUSE_STATE);
         this.indexLocations.put(containerPath, indexFile);
         Index index = getIndex(containerPath, indexFile, true, false);
@@ -644,6 +757,27 @@ public class IndexManager extends JobManager implements IIndexConstants {
         return true;
     }
 
+    /**
+     * Publishes the saved index of a library jar to the shared index store and switches this manager to the shared copy,
+     * so the index file isn't kept twice. Caller must hold write lock of the index.
+     */
+    void shareIndex(IPath containerPath, Index index) {
+        if (this.sharedIndexStore == null) return;
+        URL sharedURL = this.sharedIndexStore.publish(containerPath, index);
+        if (sharedURL == null) return;
+        synchronized (this) {
+            removeIndex(containerPath);
+            if (!addIndex(containerPath, IndexLocation.createIndexLocation(sharedURL))) {
+                // shared copy isn't readable, rebuild own index on next request
+                this.indexLocations.removeKey(containerPath);
+            }
+        }
+    }
+
+    private String getSharedIndexOwner() {
+        return this.javaProject.getWsId() + this.javaProject.getProjectPath();
+    }
+
     /**
      * Index the content of the given source folder.
      */
@@ -754,6 +888,7 @@ public class IndexManager extends JobManager implements IIndexConstants {
             index = new Index(indexLocation, containerPathString, false /*do not reuse index file*/);
             this.indexes.put(indexLocation, index);
             index.monitor = monitor;
+            this.typeHierarchy.invalidate(containerPath.toString());
             return index;
         } catch (IOException e) {
             // The file could not be created. Possible reason: the project has been deleted.
@@ -796,12 +931,14 @@ public class IndexManager extends JobManager implements IIndexConstants {
             if (DEBUG)
                 Util.verbose("removing index file " + indexFile); //$NON-NLS-1$
             indexFile.delete();
+            MappedIndex.getMappedFile(indexFile).delete();
         }
         this.indexes.removeKey(indexLocation);
         if (IS_MANAGING_PRODUCT_INDEXES_PROPERTY) {
             this.indexLocations.removeKey(containerPath);
         }
         updateIndexState(indexLocation, null);
+        this.typeHierarchy.invalidate(containerPath.toString());
     }
 
     /**
@@ -920,7 +1057,12 @@ public class IndexManager extends JobManager implements IIndexConstants {
                 // the index does not exist, try to recreate it
                 return recreateIndex(containerPath) != null;
             }
+            if (index instanceof MappedIndex) {
+                // mapped index is read-only, the library is indexed again to a new index file
+                return recreateIndex(containerPath) != null;
+            }
             index.reset();
+            this.typeHierarchy.invalidate(containerPath.toString());
             return true;
         } catch (IOException e) {
             // The file could not be created. Possible reason: the project has been deleted.
@@ -1005,6 +1147,116 @@ public class IndexManager extends JobManager implements IIndexConstants {
         this.needToSave = !allSaved;
     }
 
+    /**
+     * Remembers how many sources were parsed by the indexing of the whole project and how long it took.
+     */
+    void sourcesIndexed(int count, long time) {
+        this.indexedSourceCount = count;
+        this.sourceIndexingTime = time;
+    }
+
+    /**
+     * Returns number of sources parsed by the last indexing of the whole project.
+     */
+    public int getIndexedSourceCount() {
+        return this.indexedSourceCount;
+    }
+
+    /**
+     * Returns time in milliseconds of the last indexing of the sources of the whole project.
+     */
+    public long getSourceIndexingTime() {
+        return this.sourceIndexingTime;
+    }
+
+    /**
+     * Returns graph of the supertypes of the project and its libraries. Containers which aren't in the graph yet are read
+     * from the superRef entries of their cached indexes, so the graph should be asked for when the indexing is done.
+     */
+    public TypeHierarchyGraph getTypeHierarchy() {
+        ArrayList containerPaths = new ArrayList();
+        synchronized (this) {
+            Object[] keyTable = this.indexLocations.keyTable;
+            Object[] valueTable = this.indexLocations.valueTable;
+            for (int i = 0, l = keyTable.length; i < l; i++) {
+                if (keyTable[i] != null && valueTable[i] != null)
+                    containerPaths.add(keyTable[i]);
+            }
+        }
+        for (int i = 0, l = containerPaths.size(); i < l; i++) {
+            loadTypeHierarchy((IPath)containerPaths.get(i));
+        }
+        return this.typeHierarchy;
+    }
+
+    private void loadTypeHierarchy(IPath containerPath) {
+        String container = containerPath.toString();
+        if (this.typeHierarchy.isLoaded(container)) return;
+        // taken before reading, so the entries are dropped if the index changes meanwhile
+        int version = this.typeHierarchy.getVersion(container);
+        Index index = getIndex(computeIndexLocation(containerPath));
+        if (index == null) return;
+        ReadWriteMonitor monitor = index.monitor;
+        if (monitor == null) return; // index got deleted since acquired
+
+        List<char[]> keys = new ArrayList<>();
+        List<String[]> documents = new ArrayList<>();
+        try {
+            monitor.enterRead();
+            EntryResult[] entries = index.query(new char[][]{IIndexConstants.SUPER_REF}, null, SearchPattern.R_PREFIX_MATCH);
+            if (entries != null) {
+                for (EntryResult entry : entries) {
+                    keys.add(entry.getWord());
+                    documents.add(entry.getDocumentNames(index));
+                }
+            }
+        } catch (IOException e) {
+            if (VERBOSE) {
+                Util.verbose("-> failed to read supertypes from index " + index, System.err); //$NON-NLS-1$
+                e.printStackTrace();
+            }
+            return;
+        } finally {
+            monitor.exitRead();
+        }
+        this.typeHierarchy.load(container, version, keys, documents);
+    }
+
+    /**
+     * Returns number of documents in the indexes of the project, used to estimate how much memory the project takes.
+     */
+    public int getDocumentCount() {
+        ArrayList toCount = new ArrayList();
+        synchronized (this) {
+            Object[] valueTable = this.indexes.valueTable;
+            for (int i = 0, l = valueTable.length; i < l; i++) {
+                Index index = (Index)valueTable[i];
+                if (index != null)
+                    toCount.add(index);
+            }
+        }
+        int count = 0;
+        for (int i = 0, length = toCount.size(); i < length; i++) {
+            Index index = (Index)toCount.get(i);
+            ReadWriteMonitor monitor = index.monitor;
+            if (monitor == null) continue; // index got deleted since acquired
+            try {
+                monitor.enterRead();
+                String[] names = index.queryDocumentNames(null);
+                if (names != null)
+                    count += names.length;
+            } catch (IOException e) {
+                if (VERBOSE) {
+                    Util.verbose("-> got the following exception while counting documents:", System.err); //$NON-NLS-1$
+                    e.printStackTrace();
+                }
+            } finally {
+                monitor.exitRead();
+            }
+        }
+        return count;
+    }
+
     public void scheduleDocumentIndexing(final SearchDocument searchDocument, IPath container, final IndexLocation indexLocation,
                                          final SearchParticipant searchParticipant) {
         request(new IndexRequest(container, this) {
@@ -1012,7 +1264,7 @@ public class IndexManager extends JobManager implements IIndexConstants {
                 if (this.isCancelled || progressMonitor != null && progressMonitor.isCanceled()) return true;
 
 			/* ensure no concurrent write access to index */
-                Index index = getIndex(this.containerPath, indexLocation, true, /*reuse index file*/ true /*create if none*/);
+                Index index = getWritableIndex(this.containerPath, indexLocation, true, /*reuse index file*/ true /*create if none*/);
                 if (index == null) return true;
                 ReadWriteMonitor monitor = index.monitor;
                 if (monitor == null) return true; // index got deleted since acquired
@@ -1020,9 +1272,22 @@ public class IndexManager extends JobManager implements IIndexConstants {
                 try {
                     monitor.enterWrite(); // ask permission to write
                     indexDocument(searchDocument, searchParticipant, index, new Path(indexLocation.getCanonicalFilePath()));
+                    if (searchDocument instanceof BufferedSearchDocument)
+                        ((BufferedSearchDocument)searchDocument).addEntriesTo(index);
+                } catch (IOException e) {
+                    if (VERBOSE) {
+                        Util.verbose("-> failed to index " + searchDocument.getPath(), System.err); //$NON-NLS-1$
+                        e.printStackTrace();
+                    }
+                    return false;
                 } finally {
                     monitor.exitWrite(); // free write lock
                 }
+                if (searchDocument instanceof BufferedSearchDocument) {
+                    // patched out of the write lock, readers of the graph take the read lock of the index
+                    typeHierarchy.documentIndexed(this.containerPath.toString(), index.containerRelativePath(searchDocument.getPath()),
+                                                  ((BufferedSearchDocument)searchDocument).getKeys(IIndexConstants.SUPER_REF));
+                }
                 return true;
             }
 
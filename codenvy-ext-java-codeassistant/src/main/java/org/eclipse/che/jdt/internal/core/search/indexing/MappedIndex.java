@@ -0,0 +1,399 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt.internal.core.search.indexing;
+
+import org.eclipse.che.jdt.core.search.SearchPattern;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only index of a library read from a memory-mapped file.
+ * <p/>
+ * Indexes of the libraries never change once they are built, so the entries of the disk index are converted once to a
+ * file next to the index file: keys of each category are kept sorted with offsets into a region of the document
+ * numbers. The file is mapped to the memory instead of reading the categories to the heap, so all projects and
+ * processes which use the library share the same pages of the OS cache. Jobs which add or remove documents get a
+ * writable index in place of the mapped one, see {@link IndexManager#getWritableIndex(IPath, boolean, boolean)}.
+ */
+public class MappedIndex extends Index {
+    private static final Logger LOG = LoggerFactory.getLogger(MappedIndex.class);
+
+    /** Name of the system property which turns off mapping of the library indexes. */
+    public static final  String  DISABLED_PROPERTY = "che.java.codeassistant.index.mapped.disabled";
+    private static final boolean DISABLED          = Boolean.getBoolean(DISABLED_PROPERTY);
+
+    private static final String FILE_SUFFIX = ".mapped";
+    private static final int    MAGIC       = 0x434A4D49;
+    private static final int    VERSION     = 1;
+    private static final int    HEADER_SIZE = 52;
+
+    private static final int MATCH_RULE_INDEX_MASK = SearchPattern.R_EXACT_MATCH | SearchPattern.R_PREFIX_MATCH
+                                                     | SearchPattern.R_PATTERN_MATCH | SearchPattern.R_REGEXP_MATCH
+                                                     | SearchPattern.R_CASE_SENSITIVE | SearchPattern.R_CAMELCASE_MATCH
+                                                     | SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH;
+
+    /** Categories written by the indexers of the class files. */
+    private static final char[][] CATEGORIES = {IIndexConstants.REF, IIndexConstants.ANNOTATION_REF, IIndexConstants.METHOD_REF,
+                                                IIndexConstants.CONSTRUCTOR_REF, IIndexConstants.SUPER_REF,
+                                                IIndexConstants.TYPE_DECL, IIndexConstants.METHOD_DECL,
+                                                IIndexConstants.CONSTRUCTOR_DECL, IIndexConstants.FIELD_DECL};
+
+    private static final Comparator<EntryResult> BY_WORD = new Comparator<EntryResult>() {
+        @Override
+        public int compare(EntryResult o1, EntryResult o2) {
+            return compareChars(o1.getWord(), o2.getWord());
+        }
+    };
+
+    private final ByteBuffer buffer;
+    private final int        documentCount;
+    private final int        categoryCount;
+    /** Offsets of the names of the documents. */
+    private final int        documentsStart;
+    /** Name, number of keys and offset of the key table of each category. */
+    private final int        categoriesStart;
+    /** Sorted keys of each category with offsets of their postings. */
+    private final int        keysStart;
+    /** Number of the documents of each key followed by their numbers. */
+    private final int        postingsStart;
+    /** Length of each string followed by its chars. */
+    private final int        stringsStart;
+
+    private MappedIndex(Index index, ByteBuffer buffer) throws IOException {
+        super(index.getIndexLocation(), index.containerPath, true /*reuse index file*/);
+        this.buffer = buffer;
+        this.documentCount = buffer.getInt(24);
+        this.categoryCount = buffer.getInt(28);
+        this.documentsStart = buffer.getInt(32);
+        this.categoriesStart = buffer.getInt(36);
+        this.keysStart = buffer.getInt(40);
+        this.postingsStart = buffer.getInt(44);
+        this.stringsStart = buffer.getInt(48);
+    }
+
+    /**
+     * Returns the mapped copy of the given library index, the copy is written first if it doesn't exist yet or was
+     * written for another version of the index file. Returns the given index itself if it isn't an index of a library
+     * or can't be mapped.
+     */
+    public static Index map(Index index) {
+        File indexFile = index.getIndexFile();
+        if (DISABLED || indexFile == null || !index.isIndexForJar()) {
+            return index;
+        }
+        File mappedFile = getMappedFile(indexFile);
+        try {
+            ByteBuffer buffer = read(mappedFile, indexFile);
+            if (buffer == null) {
+                write(index, indexFile, mappedFile);
+                buffer = read(mappedFile, indexFile);
+            }
+            return buffer == null ? index : new MappedIndex(index, buffer);
+        } catch (IOException e) {
+            LOG.warn("Can't map index " + indexFile, e);
+            return index;
+        }
+    }
+
+    /** Returns the file with the mapped copy of the given index file. */
+    public static File getMappedFile(File indexFile) {
+        return new File(indexFile.getPath() + FILE_SUFFIX);
+    }
+
+    /** Maps the file, returns <code>null</code> if the file doesn't exist or isn't a copy of the given index file. */
+    private static ByteBuffer read(File mappedFile, File indexFile) throws IOException {
+        if (!mappedFile.exists()) {
+            return null;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(mappedFile, "r")) {
+            long size = file.length();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getLong(8) != indexFile.length() || buffer.getLong(16) != indexFile.lastModified()) {
+                return null;
+            }
+            return buffer;
+        }
+    }
+
+    private static void write(Index index, File indexFile, File mappedFile) throws IOException {
+        ByteArrayOutputStream documents = new ByteArrayOutputStream();
+        ByteArrayOutputStream categories = new ByteArrayOutputStream();
+        ByteArrayOutputStream keys = new ByteArrayOutputStream();
+        ByteArrayOutputStream postings = new ByteArrayOutputStream();
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        DataOutputStream documentsOut = new DataOutputStream(documents);
+        DataOutputStream categoriesOut = new DataOutputStream(categories);
+        DataOutputStream keysOut = new DataOutputStream(keys);
+        DataOutputStream postingsOut = new DataOutputStream(postings);
+        DataOutputStream stringsOut = new DataOutputStream(strings);
+
+        String[] documentNames = index.queryDocumentNames("");
+        if (documentNames == null) {
+            documentNames = new String[0];
+        }
+        Arrays.sort(documentNames);
+        Map<String, Integer> documentNumbers = new HashMap<>();
+        for (String documentName : documentNames) {
+            documentNumbers.put(documentName, documentNumbers.size());
+            documentsOut.writeInt(writeChars(stringsOut, documentName.toCharArray()));
+        }
+
+        for (char[] category : CATEGORIES) {
+            EntryResult[] entries = index.query(new char[][]{category}, null, SearchPattern.R_PREFIX_MATCH);
+            if (entries == null) {
+                entries = new EntryResult[0];
+            }
+            Arrays.sort(entries, BY_WORD);
+            categoriesOut.writeInt(writeChars(stringsOut, category));
+            categoriesOut.writeInt(entries.length);
+            categoriesOut.writeInt(keysOut.size());
+            for (EntryResult entry : entries) {
+                String[] names = entry.getDocumentNames(index);
+                int[] numbers = new int[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    Integer number = documentNumbers.get(names[i]);
+                    if (number == null) {
+                        throw new IOException("Document " + names[i] + " isn't listed in index " + indexFile);
+                    }
+                    numbers[i] = number;
+                }
+                Arrays.sort(numbers);
+                keysOut.writeInt(writeChars(stringsOut, entry.getWord()));
+                keysOut.writeInt(postingsOut.size());
+                postingsOut.writeInt(numbers.length);
+                for (int number : numbers) {
+                    postingsOut.writeInt(number);
+                }
+            }
+        }
+
+        long size = (long)HEADER_SIZE + documents.size() + categories.size() + keys.size() + postings.size() + strings.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Index " + indexFile + " is too big to be mapped");
+        }
+        // other projects and processes may map the same file, so the new copy is written to a file of its own and
+        // replaces the old one at once
+        File tmp = File.createTempFile(mappedFile.getName(), ".tmp", mappedFile.getParentFile());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            int offset = HEADER_SIZE;
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(indexFile.length());
+            out.writeLong(indexFile.lastModified());
+            out.writeInt(documentNames.length);
+            out.writeInt(CATEGORIES.length);
+            out.writeInt(offset);
+            out.writeInt(offset += documents.size());
+            out.writeInt(offset += categories.size());
+            out.writeInt(offset += keys.size());
+            out.writeInt(offset + postings.size());
+            documents.writeTo(out);
+            categories.writeTo(out);
+            keys.writeTo(out);
+            postings.writeTo(out);
+            strings.writeTo(out);
+        }
+        try {
+            Files.move(tmp.toPath(), mappedFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tmp.delete();
+        }
+    }
+
+    /** Writes length and chars of the string, returns offset of the string. */
+    private static int writeChars(DataOutputStream out, char[] chars) throws IOException {
+        int offset = out.size();
+        out.writeInt(chars.length);
+        for (char c : chars) {
+            out.writeChar(c);
+        }
+        return offset;
+    }
+
+    private static int compareChars(char[] chars1, char[] chars2) {
+        int length = Math.min(chars1.length, chars2.length);
+        for (int i = 0; i < length; i++) {
+            if (chars1[i] != chars2[i]) {
+                return chars1[i] - chars2[i];
+            }
+        }
+        return chars1.length - chars2.length;
+    }
+
+    @Override
+    public EntryResult[] query(char[][] categories, char[] key, int matchRule) throws IOException {
+        int rule = matchRule & MATCH_RULE_INDEX_MASK;
+        HashtableOfObject results = new HashtableOfObject(13);
+        for (char[] category : categories) {
+            int categoryEntry = findCategory(category);
+            if (categoryEntry == -1) {
+                continue;
+            }
+            int keyCount = buffer.getInt(categoryEntry + 4);
+            int keyTable = keysStart + buffer.getInt(categoryEntry + 8);
+            int start = 0;
+            int end = keyCount;
+            boolean filter = key != null;
+            if (key != null && (rule == (SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE)
+                                                || rule == (SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE))) {
+                // only the range of the sorted keys which start with the given key can match
+                boolean exact = rule == (SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+                start = lowerBound(keyTable, keyCount, key);
+                end = start;
+                while (end < keyCount && (exact ? compareKey(keyTable, end, key) == 0 : startsWith(keyTable, end, key))) {
+                    end++;
+                }
+                filter = false;
+            }
+            for (int i = start; i < end; i++) {
+                char[] word = readChars(buffer.getInt(keyTable + i * 8));
+                if (filter && !Index.isMatch(key, word, rule)) {
+                    continue;
+                }
+                EntryResult result = (EntryResult)results.get(word);
+                if (result == null) {
+                    result = new EntryResult(word, null);
+                    results.put(word, result);
+                }
+                int posting = postingsStart + buffer.getInt(keyTable + i * 8 + 4);
+                int count = buffer.getInt(posting);
+                for (int j = 0; j < count; j++) {
+                    result.addDocumentName(getDocumentName(buffer.getInt(posting + 4 + j * 4)));
+                }
+            }
+        }
+        if (results.elementSize == 0) {
+            return null;
+        }
+        EntryResult[] entries = new EntryResult[results.elementSize];
+        int count = 0;
+        for (Object value : results.valueTable) {
+            if (value != null) {
+                entries[count++] = (EntryResult)value;
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public String[] queryDocumentNames(String substring) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < documentCount; i++) {
+            String name = getDocumentName(i);
+            if (substring == null || name.startsWith(substring)) {
+                names.add(name);
+            }
+        }
+        return names.toArray(new String[names.size()]);
+    }
+
+    /** Returns position of the entry of the category in the category table or <code>-1</code> if there is no such category. */
+    private int findCategory(char[] category) {
+        for (int i = 0; i < categoryCount; i++) {
+            int categoryEntry = categoriesStart + i * 12;
+            if (compareString(buffer.getInt(categoryEntry), category) == 0) {
+                return categoryEntry;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns number of the first key of the table which isn't less than the given key. */
+    private int lowerBound(int keyTable, int keyCount, char[] key) {
+        int low = 0;
+        int high = keyCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareKey(keyTable, middle, key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compareKey(int keyTable, int keyNumber, char[] key) {
+        return compareString(buffer.getInt(keyTable + keyNumber * 8), key);
+    }
+
+    private boolean startsWith(int keyTable, int keyNumber, char[] prefix) {
+        int position = stringsStart + buffer.getInt(keyTable + keyNumber * 8);
+        if (buffer.getInt(position) < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.getChar(position + 4 + i * 2) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Compares the string at the given offset with the chars without reading the string to the heap. */
+    private int compareString(int offset, char[] chars) {
+        int position = stringsStart + offset;
+        int length = buffer.getInt(position);
+        int common = Math.min(length, chars.length);
+        for (int i = 0; i < common; i++) {
+            char c = buffer.getChar(position + 4 + i * 2);
+            if (c != chars[i]) {
+                return c - chars[i];
+            }
+        }
+        return length - chars.length;
+    }
+
+    private char[] readChars(int offset) {
+        int position = stringsStart + offset;
+        char[] chars = new char[buffer.getInt(position)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar(position + 4 + i * 2);
+        }
+        return chars;
+    }
+
+    private String getDocumentName(int documentNumber) {
+        return new String(readChars(buffer.getInt(documentsStart + documentNumber * 4)));
+    }
+
+    @Override
+    public String toString() {
+        return "Mapped index for " + containerPath;
+    }
+}
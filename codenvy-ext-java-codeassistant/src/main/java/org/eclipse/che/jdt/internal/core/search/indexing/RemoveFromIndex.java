@@ -28,7 +28,7 @@ class RemoveFromIndex extends IndexRequest {
         if (this.isCancelled || progressMonitor != null && progressMonitor.isCanceled()) return true;
 
 		/* ensure no concurrent write access to index */
-        Index index = this.manager.getIndex(this.containerPath, true, /*reuse index file*/ false /*create if none*/);
+        Index index = this.manager.getWritableIndex(this.containerPath, true, /*reuse index file*/ false /*create if none*/);
         if (index == null) return true;
         ReadWriteMonitor monitor = index.monitor;
         if (monitor == null) return true; // index got deleted since acquired
@@ -39,6 +39,7 @@ class RemoveFromIndex extends IndexRequest {
         } finally {
             monitor.exitWrite(); // free write lock
         }
+        this.manager.typeHierarchy.documentRemoved(this.containerPath.toString(), this.resourceName);
         return true;
     }
 
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt.internal.core.search.indexing;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.internal.core.index.DiskIndex;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide store of library indexes shared by all {@link IndexManager}s.
+ * <p/>
+ * Indexes are addressed by the SHA-1 of the jar content and the JDT index format signature,
+ * so the same jar used by many projects and workspaces is indexed and kept on disk only once.
+ * Each project that uses an index is registered as its owner, the index file is deleted when the last owner is released.
+ */
+public class SharedIndexStore {
+    private static final Logger LOG = LoggerFactory.getLogger(SharedIndexStore.class);
+
+    private static final String INDEX_SUFFIX = ".index";
+
+    private final File                              storeDir;
+    /** key = jar path + size + modification time, value = content hash */
+    private final ConcurrentHashMap<String, String> jarHashes   = new ConcurrentHashMap<>();
+    /** key = content hash, value = owners of the index */
+    private final Map<String, Set<String>>          indexOwners = new HashMap<>();
+    private final AtomicLong                        hits        = new AtomicLong();
+    private final AtomicLong                        misses      = new AtomicLong();
+
+    public SharedIndexStore(File storeDir) {
+        this.storeDir = storeDir;
+        storeDir.mkdirs();
+    }
+
+    /**
+     * Registers the owner as user of the index of the given jar.
+     *
+     * @param owner
+     *         owner of the index, usually workspace id + project path
+     * @param jarPath
+     *         path of the jar
+     * @return location of the shared index or <code>null</code> if jar isn't indexed yet
+     */
+    public URL acquire(String owner, IPath jarPath) {
+        String hash = getJarHash(jarPath);
+        if (hash == null) {
+            return null;
+        }
+        synchronized (this) {
+            Set<String> owners = indexOwners.get(hash);
+            if (owners == null) {
+                owners = new HashSet<>();
+                indexOwners.put(hash, owners);
+            }
+            owners.add(owner);
+        }
+        File indexFile = getIndexFile(hash);
+        if (!indexFile.exists()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        try {
+            return indexFile.toURI().toURL();
+        } catch (MalformedURLException e) {
+            LOG.error("Can't create shared index location for " + jarPath, e);
+            return null;
+        }
+    }
+
+    /**
+     * Copies freshly built index of the jar to the store, so other projects can reuse it.
+     * Caller must hold write lock of the index.
+     *
+     * @param jarPath
+     *         path of the indexed jar
+     * @param index
+     *         saved index of the jar
+     * @return location of the shared index or <code>null</code> if index can't be shared
+     */
+    public URL publish(IPath jarPath, Index index) {
+        String hash = getJarHash(jarPath);
+        File source = index.getIndexFile();
+        if (hash == null || source == null || !source.exists()) {
+            return null;
+        }
+        File target = getIndexFile(hash);
+        try {
+            if (!target.exists()) {
+                File tmp = File.createTempFile(hash, ".tmp", storeDir);
+                try {
+                    Files.copy(source.toPath(), tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    tmp.delete();
+                }
+            }
+            return target.toURI().toURL();
+        } catch (IOException e) {
+            if (target.exists()) {
+                // other project published the same index concurrently
+                try {
+                    return target.toURI().toURL();
+                } catch (MalformedURLException ignored) {
+                }
+            }
+            LOG.warn("Can't publish index of " + jarPath, e);
+            return null;
+        }
+    }
+
+    /**
+     * Unregisters the owner from all indexes and deletes indexes that aren't used anymore.
+     *
+     * @param owner
+     *         owner of the indexes, usually workspace id + project path
+     */
+    public synchronized void release(String owner) {
+        for (Iterator<Map.Entry<String, Set<String>>> iterator = indexOwners.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Set<String>> entry = iterator.next();
+            Set<String> owners = entry.getValue();
+            if (owners.remove(owner) && owners.isEmpty()) {
+                iterator.remove();
+                File indexFile = getIndexFile(entry.getKey());
+                if (indexFile.exists() && !indexFile.delete()) {
+                    LOG.warn("Can't delete shared index " + indexFile);
+                }
+                File mappedFile = MappedIndex.getMappedFile(indexFile);
+                if (mappedFile.exists() && !mappedFile.delete()) {
+                    LOG.warn("Can't delete mapped index " + mappedFile);
+                }
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** Returns part of the index requests served from the store, or <code>0</code> if there were no requests. */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double)h / total;
+    }
+
+    public synchronized int getIndexCount() {
+        return indexOwners.size();
+    }
+
+    private File getIndexFile(String hash) {
+        return new File(storeDir, hash + INDEX_SUFFIX);
+    }
+
+    /**
+     * Returns content hash of the jar, computed hashes are cached until the jar is modified.
+     *
+     * @param jarPath
+     *         path of the jar
+     * @return hash of the jar or <code>null</code> if jar doesn't exist or can't be read
+     */
+    public String getJarHash(IPath jarPath) {
+        File jar = jarPath.toFile();
+        if (!jar.isFile()) {
+            return null;
+        }
+        String key = jar.getAbsolutePath() + '#' + jar.length() + '#' + jar.lastModified();
+        String hash = jarHashes.get(key);
+        if (hash == null) {
+            try {
+                hash = computeHash(jar);
+            } catch (IOException e) {
+                LOG.warn("Can't compute hash of " + jar, e);
+                return null;
+            }
+            jarHashes.put(key, hash);
+        }
+        return hash;
+    }
+
+    private static String computeHash(File jar) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        // index format is part of the key, indexes of an older format never match
+        digest.update(DiskIndex.SIGNATURE.getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[8192];
+        try (InputStream in = new FileInputStream(jar)) {
+            int r;
+            while ((r = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, r);
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,440 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt.internal.core.search.indexing;
+
+import org.eclipse.che.jdt.core.search.SearchPattern;
+import org.eclipse.che.jdt.internal.core.search.matching.SuperTypeReferencePattern;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Graph of the direct supertypes of the types of a project and its libraries, built from the superRef entries of
+ * their indexes.
+ * <p/>
+ * Edges are kept per container (the project or a library) and per document. A container is read from its index when
+ * the graph is asked for it the first time, documents indexed after that replace their edges in place and containers
+ * indexed again are read again.
+ * <p/>
+ * The index keeps the supertype references of the sources as they are written, without the imports of their document.
+ * An unqualified reference is resolved to the type of the same package if the graph declares it. Otherwise it is matched
+ * by its simple name, like the superRef queries of the search engine, and the types found through it are answered as
+ * not verified.
+ */
+public class TypeHierarchyGraph {
+
+    private final Map<String, Container>  containers        = new HashMap<>();
+    private final Map<String, List<Edge>> bySuperSimpleName = new HashMap<>();
+    private final Map<String, List<Edge>> byTypeName        = new HashMap<>();
+    private final Map<String, List<Edge>> byTypeSimpleName  = new HashMap<>();
+
+    /** Returns <code>true</code> if edges of the container were read from its index and are up to date. */
+    public synchronized boolean isLoaded(String container) {
+        Container c = containers.get(container);
+        return c != null && c.loaded;
+    }
+
+    /**
+     * Returns version of the container which must be passed to {@link #load}, so the entries read from the index are
+     * dropped if the container changes while they are read.
+     */
+    public synchronized int getVersion(String container) {
+        return getContainer(container).version;
+    }
+
+    /**
+     * Replaces edges of the container with the given superRef entries of its index.
+     *
+     * @param container
+     *         path of the indexed container
+     * @param version
+     *         version of the container returned by {@link #getVersion} before the entries were read
+     * @param keys
+     *         superRef keys of the index
+     * @param documents
+     *         container relative paths of the documents of each key
+     * @return <code>false</code> if the container changed after the entries were read, the entries are dropped then
+     */
+    public synchronized boolean load(String container, int version, List<char[]> keys, List<String[]> documents) {
+        Container c = getContainer(container);
+        if (c.version != version) {
+            return false;
+        }
+        clear(c);
+        SuperTypeReferencePattern decoded = newPattern();
+        for (int i = 0; i < keys.size(); i++) {
+            for (String document : documents.get(i)) {
+                addEdge(c, container, document, keys.get(i), decoded);
+            }
+        }
+        c.loaded = true;
+        return true;
+    }
+
+    /** Replaces edges of the document with the given superRef keys, the keys of a removed document are empty. */
+    public synchronized void documentIndexed(String container, String document, List<char[]> keys) {
+        Container c = getContainer(container);
+        c.version++;
+        if (!c.loaded) {
+            // the container will be read from its index with the new entries
+            return;
+        }
+        List<Edge> edges = c.documents.remove(document);
+        if (edges != null) {
+            for (Edge edge : edges) {
+                removeEdge(edge);
+            }
+        }
+        SuperTypeReferencePattern decoded = newPattern();
+        for (char[] key : keys) {
+            addEdge(c, container, document, key, decoded);
+        }
+    }
+
+    public void documentRemoved(String container, String document) {
+        documentIndexed(container, document, Collections.<char[]>emptyList());
+    }
+
+    /** Drops edges of the container, it is read from its index again when the graph is asked for it. */
+    public synchronized void invalidate(String container) {
+        Container c = containers.get(container);
+        if (c != null) {
+            c.version++;
+            c.loaded = false;
+            clear(c);
+        }
+    }
+
+    /**
+     * Returns types which extend or implement the given type.
+     *
+     * @param typeName
+     *         fully qualified name of the type, names of the member types are separated by '.'
+     * @param transitive
+     *         <code>true</code> to return all subtypes, <code>false</code> to return only the direct ones
+     * @return subtypes, the ones found through an unqualified reference which may name another type are not verified
+     */
+    public synchronized List<Type> getSubtypes(String typeName, boolean transitive) {
+        Map<String, Type> found = new LinkedHashMap<>();
+        Deque<Type> queue = new ArrayDeque<>();
+        queue.add(new Type(typeName, 0, IIndexConstants.CLASS_SUFFIX, null, null));
+        while (!queue.isEmpty()) {
+            Type superType = queue.poll();
+            int lastDot = superType.name.lastIndexOf('.');
+            List<Edge> edges = bySuperSimpleName.get(superType.name.substring(lastDot + 1));
+            if (edges == null) {
+                continue;
+            }
+            for (Edge edge : edges) {
+                String superName = resolveSuperName(edge);
+                boolean verified;
+                if (superName != null) {
+                    if (!superName.equals(superType.name)) {
+                        continue;
+                    }
+                    verified = superType.verified;
+                } else {
+                    // the reference may be imported from any package
+                    verified = false;
+                }
+                if (!edge.type.name.equals(typeName) && add(found, edge.type, verified) && transitive) {
+                    queue.add(found.get(edge.type.name));
+                }
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Returns types which the given type extends or implements.
+     * <p/>
+     * An unqualified reference which isn't a type of the same package is resolved to the only type of the graph with
+     * that simple name, the supertype isn't verified then. If the graph declares none or several such types, the name of
+     * the supertype is its simple name and its supertypes aren't looked up.
+     *
+     * @param typeName
+     *         fully qualified name of the type, names of the member types are separated by '.'
+     * @param transitive
+     *         <code>true</code> to return all supertypes, <code>false</code> to return only the direct ones
+     */
+    public synchronized List<Type> getSupertypes(String typeName, boolean transitive) {
+        Map<String, Type> found = new LinkedHashMap<>();
+        Deque<Type> queue = new ArrayDeque<>();
+        queue.add(new Type(typeName, 0, IIndexConstants.CLASS_SUFFIX, null, null));
+        while (!queue.isEmpty()) {
+            Type type = queue.poll();
+            List<Edge> edges = byTypeName.get(type.name);
+            if (edges == null) {
+                continue;
+            }
+            for (Edge edge : edges) {
+                String superName = resolveSuperName(edge);
+                boolean verified = type.verified;
+                if (superName == null) {
+                    superName = findTypeName(edge.superSimpleName);
+                    verified = false;
+                }
+                if (superName.equals(typeName)) {
+                    continue;
+                }
+                List<Edge> superEdges = byTypeName.get(superName);
+                Type superType = superEdges != null ? superEdges.get(0).type
+                                                    : new Type(superName, 0, edge.superClassOrInterface, null, null);
+                if (add(found, superType, verified) && transitive) {
+                    queue.add(found.get(superName));
+                }
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /** Returns number of the supertype edges in the graph. */
+    public synchronized int getEdgeCount() {
+        int count = 0;
+        for (List<Edge> edges : byTypeName.values()) {
+            count += edges.size();
+        }
+        return count;
+    }
+
+    /**
+     * Qualified name of the supertype, unqualified names are looked up in the package of the subtype. Returns
+     * <code>null</code> if the supertype is named by an import which isn't known.
+     */
+    private String resolveSuperName(Edge edge) {
+        if (edge.superQualification != null) {
+            return edge.superQualification + '.' + edge.superSimpleName;
+        }
+        String name = edge.packageName.isEmpty() ? edge.superSimpleName : edge.packageName + '.' + edge.superSimpleName;
+        return byTypeName.containsKey(name) ? name : null;
+    }
+
+    /** Name of the only type of the graph with the given simple name, the simple name if there are none or several. */
+    private String findTypeName(String simpleName) {
+        List<Edge> edges = byTypeSimpleName.get(simpleName);
+        if (edges == null) {
+            return simpleName;
+        }
+        String name = edges.get(0).type.name;
+        for (Edge edge : edges) {
+            if (!edge.type.name.equals(name)) {
+                return simpleName;
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Adds the type found by a lookup, a type found again through verified references replaces the one which wasn't
+     * verified. Returns <code>true</code> if the type was added or replaced, its own lookup must be done (again) then.
+     */
+    private static boolean add(Map<String, Type> found, Type type, boolean verified) {
+        Type previous = found.get(type.name);
+        if (previous != null && (previous.verified || !verified)) {
+            return false;
+        }
+        found.put(type.name, verified ? type : type.notVerified());
+        return true;
+    }
+
+    private Container getContainer(String container) {
+        Container c = containers.get(container);
+        if (c == null) {
+            containers.put(container, c = new Container());
+        }
+        return c;
+    }
+
+    private void clear(Container c) {
+        // edges are removed from each list at once, containers of the libraries may have thousands of edges
+        Set<Edge> removed = new HashSet<>();
+        Set<String> superSimpleNames = new HashSet<>();
+        Set<String> typeNames = new HashSet<>();
+        Set<String> typeSimpleNames = new HashSet<>();
+        for (List<Edge> edges : c.documents.values()) {
+            for (Edge edge : edges) {
+                removed.add(edge);
+                superSimpleNames.add(edge.superSimpleName);
+                typeNames.add(edge.type.name);
+                typeSimpleNames.add(edge.typeSimpleName);
+            }
+        }
+        removeAll(bySuperSimpleName, superSimpleNames, removed);
+        removeAll(byTypeName, typeNames, removed);
+        removeAll(byTypeSimpleName, typeSimpleNames, removed);
+        c.documents.clear();
+    }
+
+    private void addEdge(Container c, String container, String document, char[] key, SuperTypeReferencePattern decoded) {
+        decoded.decodeIndexKey(key);
+        if (CharOperation.equals(decoded.enclosingTypeName, IIndexConstants.ONE_ZERO)) {
+            // anonymous and local types can't be looked up by name
+            return;
+        }
+        String packageName = decoded.pkgName == null ? "" : new String(decoded.pkgName);
+        StringBuilder name = new StringBuilder(packageName);
+        if (decoded.enclosingTypeName != null) {
+            // enclosing types are separated by '$' in the keys
+            name.append(name.length() == 0 ? "" : ".").append(CharOperation.replaceOnCopy(decoded.enclosingTypeName, '$', '.'));
+        }
+        name.append(name.length() == 0 ? "" : ".").append(decoded.simpleName);
+        Type type = new Type(name.toString(), decoded.modifiers, decoded.classOrInterface, container, document);
+        Edge edge = new Edge(type, new String(decoded.simpleName), packageName, new String(decoded.superSimpleName),
+                             toQualification(decoded.superQualification), decoded.superClassOrInterface);
+        List<Edge> edges = c.documents.get(document);
+        if (edges == null) {
+            c.documents.put(document, edges = new ArrayList<>());
+        }
+        edges.add(edge);
+        add(bySuperSimpleName, edge.superSimpleName, edge);
+        add(byTypeName, type.name, edge);
+        add(byTypeSimpleName, edge.typeSimpleName, edge);
+    }
+
+    /** Qualification of the supertype separated by '.', binary member types are qualified as 'p.A$'. */
+    private static String toQualification(char[] superQualification) {
+        if (superQualification == null) {
+            return null;
+        }
+        String qualification = new String(superQualification).replace('$', '.');
+        return qualification.endsWith(".") ? qualification.substring(0, qualification.length() - 1) : qualification;
+    }
+
+    private void removeEdge(Edge edge) {
+        remove(bySuperSimpleName, edge.superSimpleName, edge);
+        remove(byTypeName, edge.type.name, edge);
+        remove(byTypeSimpleName, edge.typeSimpleName, edge);
+    }
+
+    private static void add(Map<String, List<Edge>> map, String key, Edge edge) {
+        List<Edge> edges = map.get(key);
+        if (edges == null) {
+            map.put(key, edges = new ArrayList<>(2));
+        }
+        edges.add(edge);
+    }
+
+    private static void remove(Map<String, List<Edge>> map, String key, Edge edge) {
+        List<Edge> edges = map.get(key);
+        if (edges != null && edges.remove(edge) && edges.isEmpty()) {
+            map.remove(key);
+        }
+    }
+
+    private static void removeAll(Map<String, List<Edge>> map, Set<String> keys, Set<Edge> removed) {
+        for (String key : keys) {
+            List<Edge> edges = map.get(key);
+            if (edges != null && edges.removeAll(removed) && edges.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    private static SuperTypeReferencePattern newPattern() {
+        return new SuperTypeReferencePattern(null, null, SuperTypeReferencePattern.ALL_SUPER_TYPES,
+                                             SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+    }
+
+    /** Type of the graph. */
+    public static class Type {
+        private final String name;
+        private final int    modifiers;
+        private final char   classOrInterface;
+        private final String container;
+        private final String  document;
+        private final boolean verified;
+
+        Type(String name, int modifiers, char classOrInterface, String container, String document) {
+            this(name, modifiers, classOrInterface, container, document, true);
+        }
+
+        private Type(String name, int modifiers, char classOrInterface, String container, String document, boolean verified) {
+            this.name = name;
+            this.modifiers = modifiers;
+            this.classOrInterface = classOrInterface;
+            this.container = container;
+            this.document = document;
+            this.verified = verified;
+        }
+
+        /** Fully qualified name of the type, or the simple name if the type can't be resolved. */
+        public String getName() {
+            return name;
+        }
+
+        /** Modifiers of the type, <code>0</code> if the type isn't declared in the graph. */
+        public int getModifiers() {
+            return modifiers;
+        }
+
+        /** Kind of the type, one of the type suffixes of {@link IIndexConstants}. */
+        public char getClassOrInterface() {
+            return classOrInterface;
+        }
+
+        /** Path of the project or the library which declares the type, <code>null</code> if it isn't known. */
+        public String getContainer() {
+            return container;
+        }
+
+        /** Path of the document which declares the type relative to its container, <code>null</code> if it isn't known. */
+        public String getDocument() {
+            return document;
+        }
+
+        /**
+         * Returns <code>false</code> if the type was found through an unqualified supertype reference whose import isn't
+         * known, the reference may name another type with the same simple name.
+         */
+        public boolean isVerified() {
+            return verified;
+        }
+
+        private Type notVerified() {
+            return new Type(name, modifiers, classOrInterface, container, document, false);
+        }
+    }
+
+    private static class Edge {
+        private final Type   type;
+        private final String typeSimpleName;
+        private final String packageName;
+        private final String superSimpleName;
+        private final String superQualification;
+        private final char   superClassOrInterface;
+
+        private Edge(Type type, String typeSimpleName, String packageName, String superSimpleName, String superQualification,
+                     char superClassOrInterface) {
+            this.type = type;
+            this.typeSimpleName = typeSimpleName;
+            this.packageName = packageName;
+            this.superSimpleName = superSimpleName;
+            this.superQualification = superQualification;
+            this.superClassOrInterface = superClassOrInterface;
+        }
+    }
+
+    private static class Container {
+        private final Map<String, List<Edge>> documents = new HashMap<>();
+        private boolean loaded;
+        private int     version;
+    }
+}
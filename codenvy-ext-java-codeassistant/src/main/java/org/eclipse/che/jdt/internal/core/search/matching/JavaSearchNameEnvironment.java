@@ -30,6 +30,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IPackageDeclaration;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
@@ -518,16 +519,8 @@ public class JavaSearchNameEnvironment implements INameEnvironment, SuffixConsta
             if (camelCaseMatch) matchRule |= SearchPattern.R_CAMELCASE_MATCH;
              IndexManager indexManager = javaProject.getIndexManager();
             if (monitor != null) {
-                while (indexManager.awaitingJobsCount() > 0) {
-                    try {
-                        Thread.sleep(50); // indexes are not ready,  sleep 50ms...
-                    } catch (InterruptedException e) {
-                        // Do nothing
-                    }
-                    if (monitor.isCanceled()) {
-                        throw new OperationCanceledException();
-                    }
-                }
+                // indexes are not ready, wait for them
+                indexManager.waitUntilReady(new SubProgressMonitor(monitor, 0));
                 new BasicSearchEngine(indexManager, javaProject).searchAllConstructorDeclarations(
                         qualification,
                         simpleName,
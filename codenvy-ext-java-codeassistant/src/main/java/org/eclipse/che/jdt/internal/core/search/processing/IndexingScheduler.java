@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.jdt.internal.core.search.processing;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indexing threads shared by the job managers of all projects of the JVM.
+ * <p/>
+ * Each {@link JobManager} keeps its own queue of jobs and executes them one by one, but instead of having its own thread
+ * it submits itself to the scheduler when it has a job to execute. The scheduler executes one job of the next ready job
+ * manager and puts the manager back to the end of the queue, so projects take turns. Managers whose clients wait for
+ * the end of indexing go first.
+ * <p/>
+ * Jobs are executed in a work-stealing {@link ForkJoinPool}, so a job may split its work with fork-join tasks. The number
+ * of threads is set with the {@link #THREADS_PROPERTY} system property, by default it's the number of processors.
+ */
+public class IndexingScheduler {
+    public static final String THREADS_PROPERTY = "che.java.codeassistant.indexing.threads";
+
+    private static final IndexingScheduler INSTANCE = new IndexingScheduler(getDefaultThreads());
+
+    public static IndexingScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    private static int getDefaultThreads() {
+        return Math.max(1, Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    private final ForkJoinPool             pool;
+    private final ScheduledExecutorService timer;
+    /* job managers which have a job to execute, in the order of their turns */
+    private final ArrayDeque<JobManager>   ready = new ArrayDeque<>();
+
+    public IndexingScheduler(int threads) {
+        pool = new ForkJoinPool(threads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("JavaIndexing-" + thread.getPoolIndex());
+                // less prioritary than the requests, clients waiting for indexes are served first instead
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                // set the context loader to avoid leaking the current context loader
+                thread.setContextClassLoader(IndexingScheduler.class.getClassLoader());
+                return thread;
+            }
+        }, null, true);
+        timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("JavaIndexingIdle-%d")
+                                                                                      .setDaemon(true).build());
+    }
+
+    /** Returns the pool executing the jobs, jobs may use it to split their work. */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /** Gives a turn to the job manager, it must not have another turn waiting or in progress. */
+    void submit(JobManager jobManager) {
+        synchronized (this) {
+            ready.addLast(jobManager);
+        }
+        pool.execute(new Runnable() {
+            @Override
+            public void run() {
+                JobManager next = takeNext();
+                if (next != null) {
+                    next.executeNextJob();
+                }
+            }
+        });
+    }
+
+    /** Lets the job manager know that it is idle after the given delay. */
+    void notifyIdleLater(final JobManager jobManager, final long idlingStart, long delay) {
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                jobManager.notifyIdleSince(idlingStart);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /* one task is submitted per turn, so there is always a job manager for the task */
+    private synchronized JobManager takeNext() {
+        for (Iterator<JobManager> iterator = ready.iterator(); iterator.hasNext(); ) {
+            JobManager jobManager = iterator.next();
+            if (jobManager.hasAwaitingClients()) {
+                iterator.remove();
+                return jobManager;
+            }
+        }
+        return ready.pollFirst();
+    }
+}
@@ -13,15 +13,24 @@ package org.eclipse.che.jdt.internal.core.search.processing;
 import org.eclipse.che.jdt.internal.core.search.Util;
 
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
-import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubProgressMonitor;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.internal.core.search.processing.IJob;
 import org.eclipse.jdt.internal.core.util.Messages;
 
-public abstract class JobManager implements Runnable {
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public abstract class JobManager {
+
+    /* delay after the last job before the job manager is notified that it is idle */
+    private static final long IDLE_NOTIFICATION_DELAY = 1500;
+    /* how often clients waiting for the jobs report progress and check cancellation */
+    private static final long PROGRESS_INTERVAL       = 100;
 
     /* queue of jobs to execute */
     protected IJob[] awaitingJobs = new IJob[10];
@@ -29,9 +38,13 @@ public abstract class JobManager implements Runnable {
     protected int                                                    jobEnd       = -1;
     protected boolean                                                executing    = false;
 
-    /* background processing */
-    protected Thread processingThread;
-    protected Job    progressJob;
+    /* background processing, jobs are executed by the shared scheduler one at a time */
+    private final IndexingScheduler scheduler;
+    /* true while the job manager has a turn waiting or in progress in the scheduler */
+    private boolean scheduled = false;
+    private boolean shutdown  = false;
+    private Thread  executingThread;
+    private long    idlingStart = -1;
 
     /* counter indicating whether job execution is enabled or not, disabled if <= 0
         it cannot go beyond 1 */
@@ -41,10 +54,18 @@ public abstract class JobManager implements Runnable {
     /* flag indicating that the activation has completed */
     public        boolean activated = false;
 
-    private int awaitingClients = 0;
+    private final AtomicInteger awaitingClients = new AtomicInteger();
+
+    protected JobManager() {
+        this(IndexingScheduler.getInstance());
+    }
+
+    protected JobManager(IndexingScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
 
     /**
-     * Invoked exactly once, in background, before starting processing any job
+     * Invoked exactly once, before starting processing any job
      */
     public void activateProcessing() {
         this.activated = true;
@@ -92,14 +113,16 @@ public abstract class JobManager implements Runnable {
 			if (currentJob != null && (jobFamily == null || currentJob.belongsTo(jobFamily))) {
 				currentJob.cancel();
 
-				// wait until current active job has finished
-				while (this.processingThread != null && this.executing){
-					try {
-						if (VERBOSE)
-							Util.verbose("-> waiting end of current background job - " + currentJob); //$NON-NLS-1$
-						Thread.sleep(50);
-					} catch(InterruptedException e){
-						// ignore
+				// wait until current active job has finished, unless the job itself is discarding jobs
+				synchronized (this) {
+					while (this.executing && this.executingThread != Thread.currentThread()) {
+						try {
+							if (VERBOSE)
+								Util.verbose("-> waiting end of current background job - " + currentJob); //$NON-NLS-1$
+							wait();
+						} catch(InterruptedException e){
+							// ignore
+						}
 					}
 				}
 			}
@@ -133,7 +156,78 @@ public abstract class JobManager implements Runnable {
 		this.enableCount++;
 		if (VERBOSE)
 			Util.verbose("ENABLING  background indexing"); //$NON-NLS-1$
-		notifyAll(); // wake up the background thread if it is waiting (context must be synchronized)
+		schedule(); // give a turn to the job manager if jobs are waiting (context must be synchronized)
+	}
+	/**
+	 * Executes the current job in the thread of the scheduler, then gives the next turn to the job manager if more jobs
+	 * are waiting.
+	 */
+	void executeNextJob() {
+		IJob job;
+		synchronized (this) {
+			if ((job = currentJob()) == null || this.shutdown) {
+				this.scheduled = false;
+				idle();
+				return;
+			}
+			this.executing = true;
+			this.executingThread = Thread.currentThread();
+		}
+		if (VERBOSE) {
+			Util.verbose(awaitingJobsCount() + " awaiting jobs"); //$NON-NLS-1$
+			Util.verbose("STARTING background job - " + job); //$NON-NLS-1$
+		}
+		boolean crashed = true;
+		try {
+			/*boolean status = */job.execute(null);
+			//if (status == FAILED) request(job);
+			crashed = false;
+		} catch (RuntimeException | Error e) {
+			if (e instanceof ThreadDeath)
+				throw e;
+			// log exception, the job manager is kept alive
+			Util.log(e, "Background Indexer Crash Recovery"); //$NON-NLS-1$
+		} finally {
+			if (VERBOSE)
+				Util.verbose("FINISHED background job - " + job); //$NON-NLS-1$
+			synchronized (this) {
+				moveToNextJob();
+				this.executing = false;
+				this.executingThread = null;
+				notifyAll(); // wake up clients waiting for the end of the job
+			}
+			if (crashed)
+				discardJobs(null); // some indexes will be inconsistent
+			boolean hasNext;
+			synchronized (this) {
+				hasNext = currentJob() != null && !this.shutdown;
+				if (!hasNext) {
+					this.scheduled = false;
+					idle();
+				}
+			}
+			if (hasNext)
+				this.scheduler.submit(this);
+		}
+	}
+	/**
+	 * Answers whether clients wait for the jobs of the job manager, such job managers are served first.
+	 */
+	boolean hasAwaitingClients() {
+		return this.awaitingClients.get() > 0;
+	}
+	/* must be called with the lock of the job manager */
+	private void idle() {
+		if (this.jobStart > this.jobEnd && !this.shutdown) {
+			this.idlingStart = System.currentTimeMillis();
+			this.scheduler.notifyIdleLater(this, this.idlingStart, IDLE_NOTIFICATION_DELAY);
+		}
+	}
+	/**
+	 * Answers the scheduler executing the jobs, jobs may split their work in its pool.
+	 */
+	public IndexingScheduler getScheduler() {
+		return this.scheduler;
 	}
 	protected synchronized boolean isJobWaiting(org.eclipse.jdt.internal.core.search.processing.IJob request) {
 		for (int i = this.jobEnd; i > this.jobStart; i--) // don't check job at jobStart, as it may have already started
@@ -161,6 +255,25 @@ public abstract class JobManager implements Runnable {
 	protected void notifyIdle(long idlingTime) {
 		// do nothing
 	}
+	/**
+	 * Notifies the job manager that it is idle, unless jobs were executed since the given time. The job manager takes
+	 * a turn meanwhile, so jobs don't run concurrently with the notification.
+	 */
+	void notifyIdleSince(long idlingStart) {
+		synchronized (this) {
+			if (this.scheduled || this.shutdown || this.idlingStart != idlingStart)
+				return;
+			this.scheduled = true;
+		}
+		try {
+			notifyIdle(System.currentTimeMillis() - idlingStart);
+		} finally {
+			synchronized (this) {
+				this.scheduled = false;
+				schedule();
+			}
+		}
+	}
 	/**
 	 * This API is allowing to run one job in concurrence with background processing.
 	 * Indeed since other jobs are performed in background, resource sharing might be
@@ -211,77 +324,14 @@ public abstract class JobManager implements Runnable {
 						throw new OperationCanceledException();
 
 					case IJob.WaitUntilReady :
+						if (VERBOSE)
+							Util.verbose("-> NOT READY - waiting until ready - " + searchJob);//$NON-NLS-1$
 						IProgressMonitor subProgress = null;
-						try {
-							int totalWork = 1000;
-							if (progress != null) {
-								subProgress = new SubProgressMonitor(progress, concurrentJobWork * 8 / 10);
-								subProgress.beginTask("", totalWork); //$NON-NLS-1$
-								concurrentJobWork = concurrentJobWork * 2 / 10;
-							}
-							// use local variable to avoid potential NPE (see bug 20435 NPE when searching java method
-							// and bug 42760 NullPointerException in JobManager when searching)
-							Thread t = this.processingThread;
-							int originalPriority = t == null ? -1 : t.getPriority();
-							try {
-								if (t != null)
-									t.setPriority(Thread.currentThread().getPriority());
-								synchronized(this) {
-									this.awaitingClients++;
-								}
-								IJob previousJob = null;
-								int awaitingJobsCount;
-								int lastJobsCount = totalWork;
-								float lastWorked = 0;
-								float totalWorked = 0;
-								while ((awaitingJobsCount = awaitingJobsCount()) > 0) {
-									if ((subProgress != null && subProgress.isCanceled())
-											|| this.processingThread == null)
-										throw new OperationCanceledException();
-									IJob currentJob = currentJob();
-									// currentJob can be null when jobs have been added to the queue but job manager is not enabled
-									if (currentJob != null && currentJob != previousJob) {
-										if (VERBOSE)
-											Util.verbose("-> NOT READY - waiting until ready - " + searchJob);//$NON-NLS-1$
-										if (subProgress != null) {
-											String indexing = Messages.bind(Messages.jobmanager_filesToIndex, currentJob.getJobFamily(),
-                                                                            Integer.toString(awaitingJobsCount));
-											subProgress.subTask(indexing);
-											// ratio of the amount of work relative to the total work
-											float ratio = awaitingJobsCount < totalWork ? 1 : ((float) totalWork) / awaitingJobsCount;
-											if (lastJobsCount > awaitingJobsCount) {
-												totalWorked += (lastJobsCount - awaitingJobsCount) * ratio;
-											} else {
-												// more jobs were added, just increment by the ratio
-												totalWorked += ratio;
-											}
-											if (totalWorked - lastWorked >= 1) {
-												subProgress.worked((int) (totalWorked - lastWorked));
-												lastWorked = totalWorked;
-											}
-											lastJobsCount = awaitingJobsCount;
-										}
-										previousJob = currentJob;
-									}
-									try {
-										if (VERBOSE)
-											Util.verbose("-> GOING TO SLEEP - " + searchJob);//$NON-NLS-1$
-										Thread.sleep(50);
-									} catch (InterruptedException e) {
-										// ignore
-									}
-								}
-							} finally {
-								synchronized(this) {
-									this.awaitingClients--;
-								}
-								if (t != null && originalPriority > -1 && t.isAlive())
-									t.setPriority(originalPriority);
-							}
-						} finally {
-							if (subProgress != null)
-								subProgress.done();
+						if (progress != null) {
+							subProgress = new SubProgressMonitor(progress, concurrentJobWork * 8 / 10);
+							concurrentJobWork = concurrentJobWork * 2 / 10;
 						}
+						waitUntilReady(subProgress);
 				}
 			}
 			status = searchJob.execute(progress == null ? null : new SubProgressMonitor(progress, concurrentJobWork));
@@ -293,6 +343,95 @@ public abstract class JobManager implements Runnable {
 		}
 		return status;
 	}
+	/**
+	 * Waits until the jobs requested so far are executed. The job manager is served first by the scheduler meanwhile.
+	 *
+	 * @throws OperationCanceledException
+	 *         if the monitor is canceled, the waiting thread is interrupted or the jobs are discarded
+	 */
+	public void waitUntilReady(IProgressMonitor monitor) {
+		if (awaitingJobsCount() == 0)
+			return;
+		if (!this.activated)
+			throw new OperationCanceledException(); // jobs are not processed
+		final FutureTask<Void> ready = new FutureTask<>(new Runnable() {
+			public void run() {
+			}
+		}, null);
+		request(new IJob() {
+			public boolean belongsTo(String jobFamily) {
+				return false;
+			}
+			public void cancel() {
+				ready.cancel(false);
+			}
+			public void ensureReadyToRun() {
+			}
+			public boolean execute(IProgressMonitor progress) {
+				ready.run();
+				return COMPLETE;
+			}
+			public String getJobFamily() {
+				return ""; //$NON-NLS-1$
+			}
+			public String toString() {
+				return "ready"; //$NON-NLS-1$
+			}
+		});
+		int totalWork = 1000;
+		if (monitor != null)
+			monitor.beginTask("", totalWork); //$NON-NLS-1$
+		this.awaitingClients.incrementAndGet();
+		try {
+			IJob previousJob = null;
+			int lastJobsCount = totalWork;
+			float lastWorked = 0;
+			float totalWorked = 0;
+			while (true) {
+				try {
+					ready.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+					return;
+				} catch (TimeoutException e) {
+					// report progress below
+				} catch (CancellationException | ExecutionException e) {
+					throw new OperationCanceledException();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new OperationCanceledException();
+				}
+				if (monitor == null)
+					continue;
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				int awaitingJobsCount = awaitingJobsCount();
+				IJob currentJob = currentJob();
+				// currentJob can be null when jobs have been added to the queue but job manager is not enabled
+				if (currentJob != null && currentJob != previousJob) {
+					String indexing = Messages.bind(Messages.jobmanager_filesToIndex, currentJob.getJobFamily(),
+                                                    Integer.toString(awaitingJobsCount));
+					monitor.subTask(indexing);
+					// ratio of the amount of work relative to the total work
+					float ratio = awaitingJobsCount < totalWork ? 1 : ((float) totalWork) / awaitingJobsCount;
+					if (lastJobsCount > awaitingJobsCount) {
+						totalWorked += (lastJobsCount - awaitingJobsCount) * ratio;
+					} else {
+						// more jobs were added, just increment by the ratio
+						totalWorked += ratio;
+					}
+					if (totalWorked - lastWorked >= 1) {
+						monitor.worked((int) (totalWorked - lastWorked));
+						lastWorked = totalWorked;
+					}
+					lastJobsCount = awaitingJobsCount;
+					previousJob = currentJob;
+				}
+			}
+		} finally {
+			this.awaitingClients.decrementAndGet();
+			if (monitor != null)
+				monitor.done();
+		}
+	}
 	public abstract String processName();
 
 	public synchronized void request(IJob job) {
@@ -319,7 +458,7 @@ public abstract class JobManager implements Runnable {
 			Util.verbose("REQUEST   background job - " + job); //$NON-NLS-1$
 			Util.verbose("AWAITING JOBS count: " + awaitingJobsCount()); //$NON-NLS-1$
 		}
-		notifyAll(); // wake up the background thread if it is waiting
+		schedule(); // give a turn to the job manager if it is waiting
 	}
 	/**
 	 * Flush current state
@@ -328,127 +467,20 @@ public abstract class JobManager implements Runnable {
 		if (VERBOSE)
 			Util.verbose("Reset"); //$NON-NLS-1$
 
-		if (this.processingThread != null) {
+		if (this.activated) {
 			discardJobs(null); // discard all jobs
 		} else {
 			/* initiate background processing */
-			this.processingThread = new Thread(this, processName());
-			this.processingThread.setDaemon(true);
-			// less prioritary by default, priority is raised if clients are actively waiting on it
-			this.processingThread.setPriority(Thread.NORM_PRIORITY-1);
-			// https://bugs.eclipse.org/bugs/show_bug.cgi?id=296343
-			// set the context loader to avoid leaking the current context loader
-			this.processingThread.setContextClassLoader(this.getClass().getClassLoader());
-			this.processingThread.start();
+			this.shutdown = false;
+			activateProcessing();
+			schedule();
 		}
 	}
-	/**
-	 * Infinite loop performing resource indexing
-	 */
-	public void run() {
-
-		long idlingStart = -1;
-		activateProcessing();
-		try {
-			class ProgressJob extends Job {
-				ProgressJob(String name) {
-					super(name);
-				}
-				protected IStatus run(IProgressMonitor monitor) {
-					IJob job = currentJob();
-					while (!monitor.isCanceled() && job != null) {
-						 String taskName = new StringBuffer(Messages.jobmanager_indexing)
-							.append(Messages.bind(Messages.jobmanager_filesToIndex, job.getJobFamily(),
-                                                  Integer.toString(awaitingJobsCount())))
-							.toString();
-						monitor.subTask(taskName);
-						setName(taskName);
-						try {
-							Thread.sleep(500);
-						} catch (InterruptedException e) {
-							// ignore
-						}
-						job = currentJob();
-					}
-					return Status.OK_STATUS;
-				}
-			}
-			this.progressJob = null;
-			while (this.processingThread != null) {
-				try {
-					IJob job;
-					synchronized (this) {
-						// handle shutdown case when notifyAll came before the wait but after the while loop was entered
-						if (this.processingThread == null) continue;
-
-						// must check for new job inside this sync block to avoid timing hole
-						if ((job = currentJob()) == null) {
-							if (this.progressJob != null) {
-								this.progressJob.cancel();
-								this.progressJob = null;
-							}
-							if (idlingStart < 0)
-								idlingStart = System.currentTimeMillis();
-							else
-								notifyIdle(System.currentTimeMillis() - idlingStart);
-							this.wait(); // wait until a new job is posted (or reenabled:38901)
-						} else {
-							idlingStart = -1;
-						}
-					}
-					if (job == null) {
-						notifyIdle(System.currentTimeMillis() - idlingStart);
-						// just woke up, delay before processing any new jobs, allow some time for the active thread to finish
-						Thread.sleep(500);
-						continue;
-					}
-					if (VERBOSE) {
-						Util.verbose(awaitingJobsCount() + " awaiting jobs"); //$NON-NLS-1$
-						Util.verbose("STARTING background job - " + job); //$NON-NLS-1$
-					}
-					try {
-						this.executing = true;
-						if (this.progressJob == null) {
-							this.progressJob = new ProgressJob(Messages.bind(Messages.jobmanager_indexing, "", "")); //$NON-NLS-1$ //$NON-NLS-2$
-							this.progressJob.setPriority(Job.LONG);
-							this.progressJob.setSystem(true);
-							this.progressJob.schedule();
-						}
-						/*boolean status = */job.execute(null);
-						//if (status == FAILED) request(job);
-					} finally {
-						this.executing = false;
-						if (VERBOSE)
-							Util.verbose("FINISHED background job - " + job); //$NON-NLS-1$
-						moveToNextJob();
-						if (this.awaitingClients == 0)
-							Thread.sleep(50);
-					}
-				} catch (InterruptedException e) { // background indexing was interrupted
-				}
-			}
-		} catch (RuntimeException e) {
-			if (this.processingThread != null) { // if not shutting down
-				// log exception
-				Util.log(e, "Background Indexer Crash Recovery"); //$NON-NLS-1$
-
-				// keep job manager alive
-				discardJobs(null);
-				this.processingThread = null;
-				reset(); // this will fork a new thread with no waiting jobs, some indexes will be inconsistent
-			}
-			throw e;
-		} catch (Error e) {
-			if (this.processingThread != null && !(e instanceof ThreadDeath)) {
-				// log exception
-				Util.log(e, "Background Indexer Crash Recovery"); //$NON-NLS-1$
-
-				// keep job manager alive
-				discardJobs(null);
-				this.processingThread = null;
-				reset(); // this will fork a new thread with no waiting jobs, some indexes will be inconsistent
-			}
-			throw e;
+	/* must be called with the lock of the job manager */
+	private void schedule() {
+		if (!this.scheduled && this.activated && !this.shutdown && currentJob() != null) {
+			this.scheduled = true;
+			this.scheduler.submit(this);
 		}
 	}
 	/**
@@ -461,23 +493,10 @@ public abstract class JobManager implements Runnable {
 
 		disable();
 		discardJobs(null); // will wait until current executing job has completed
-		Thread thread = this.processingThread;
-		try {
-			if (thread != null) { // see http://bugs.eclipse.org/bugs/show_bug.cgi?id=31858
-				synchronized (this) {
-					this.processingThread = null; // mark the job manager as shutting down so that the thread will stop by itself
-					notifyAll(); // ensure its awake so it can be shutdown
-				}
-				// in case processing thread is handling a job
-				thread.join();
-			}
-			Job job = this.progressJob;
-			if (job != null) {
-				job.cancel();
-				job.join();
-			}
-		} catch (InterruptedException e) {
-			// ignore
+		synchronized (this) {
+			// mark the job manager as shutting down so that it doesn't take turns anymore
+			this.shutdown = true;
+			this.activated = false;
 		}
 	}
 	public String toString() {
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.jdt.DependencyStore;
+import com.google.common.hash.Hashing;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class DependencyStoreTest {
+
+    private static final byte[] CONTENT = {1, 2, 3};
+
+    private File            root;
+    private DependencyStore store;
+    private int             downloads;
+
+    private final DependencyStore.Downloader downloader = new DependencyStore.Downloader() {
+        @Override
+        public InputStream download(DependencyStore.Entry entry) throws IOException {
+            downloads++;
+            return new ByteArrayInputStream(CONTENT);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("dependency-store").toFile();
+        store = new DependencyStore(new File(root, "store"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void shouldDownloadJarUsedByManyProjectsOnce() throws Exception {
+        List<DependencyStore.Entry> entries = Arrays.asList(
+                new DependencyStore.Entry("target/dependency/lib.jar", "lib.jar", Hashing.sha1().hashBytes(CONTENT).toString()));
+        File project1 = new File(root, "ws/project1");
+        File project2 = new File(root, "ws/project2");
+
+        store.install(entries, project1, downloader);
+        store.install(entries, project2, downloader);
+
+        assertThat(downloads).isEqualTo(1);
+        assertThat(store.getHits()).isEqualTo(1);
+        assertThat(Files.readAllBytes(new File(project1, "lib.jar").toPath())).isEqualTo(CONTENT);
+        assertThat(Files.readAllBytes(new File(project2, "lib.jar").toPath())).isEqualTo(CONTENT);
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectJarWithWrongChecksum() throws Exception {
+        List<DependencyStore.Entry> entries = Arrays.asList(
+                new DependencyStore.Entry("target/dependency/lib.jar", "lib.jar", Hashing.sha1().hashBytes(new byte[]{4}).toString()));
+
+        store.install(entries, new File(root, "ws/project"), downloader);
+    }
+}
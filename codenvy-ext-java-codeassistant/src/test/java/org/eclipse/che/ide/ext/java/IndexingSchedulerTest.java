@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java;
+
+import org.eclipse.che.jdt.internal.core.search.processing.IndexingScheduler;
+import org.eclipse.che.jdt.internal.core.search.processing.JobManager;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.internal.core.search.processing.IJob;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class IndexingSchedulerTest {
+
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+
+    @Test
+    public void shouldExecuteJobsOfProjectInRequestOrder() throws Exception {
+        JobManager project = new TestJobManager(new IndexingScheduler(2));
+        project.reset();
+        project.request(new TestJob("a1", null, null));
+        project.request(new TestJob("a2", null, null));
+        project.request(new TestJob("a3", null, null));
+
+        project.waitUntilReady(null);
+
+        assertThat(executed).containsExactly("a1", "a2", "a3");
+    }
+
+    @Test
+    public void shouldGiveTurnsToProjectsSharingThread() throws Exception {
+        IndexingScheduler scheduler = new IndexingScheduler(1);
+        JobManager first = new TestJobManager(scheduler);
+        JobManager second = new TestJobManager(scheduler);
+        first.reset();
+        second.reset();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        first.request(new TestJob("a1", release, null));
+        first.request(new TestJob("a2", null, null));
+        second.request(new TestJob("b1", null, null));
+        second.request(new TestJob("b2", null, done));
+        release.countDown();
+
+        // waiting for the projects would give them priority
+        done.await();
+
+        assertThat(executed).containsExactly("a1", "b1", "a2", "b2");
+    }
+
+    private static class TestJobManager extends JobManager {
+        TestJobManager(IndexingScheduler scheduler) {
+            super(scheduler);
+        }
+
+        @Override
+        public String processName() {
+            return "test";
+        }
+    }
+
+    private class TestJob implements IJob {
+        private final String         name;
+        private final CountDownLatch release;
+        private final CountDownLatch done;
+
+        TestJob(String name, CountDownLatch release, CountDownLatch done) {
+            this.name = name;
+            this.release = release;
+            this.done = done;
+        }
+
+        @Override
+        public boolean belongsTo(String jobFamily) {
+            return false;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public void ensureReadyToRun() {
+        }
+
+        @Override
+        public boolean execute(IProgressMonitor progress) {
+            try {
+                if (release != null) {
+                    release.await();
+                }
+            } catch (InterruptedException e) {
+                return FAILED;
+            }
+            executed.add(name);
+            if (done != null) {
+                done.countDown();
+            }
+            return COMPLETE;
+        }
+
+        @Override
+        public String getJobFamily() {
+            return "test";
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java;
+
+import com.google.common.io.ByteStreams;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.jdt.core.search.SearchDocument;
+import org.eclipse.che.jdt.core.search.SearchParticipant;
+import org.eclipse.che.jdt.core.search.SearchPattern;
+import org.eclipse.che.jdt.internal.core.JavaProject;
+import org.eclipse.che.jdt.internal.core.search.indexing.IndexManager;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
+import org.eclipse.jdt.internal.core.search.processing.IJob;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class JarIndexingTest extends BaseTest {
+    // more class files than merged at once by the indexing of a jar
+    private static final int CLASS_FILES = 3000;
+
+    private File         root;
+    private File         jar;
+    private List<String> classFiles;
+
+    @Before
+    public void createJar() throws Exception {
+        root = Files.createTempDirectory("jar-indexing").toFile();
+        jar = new File(root, "lib.jar");
+        classFiles = new ArrayList<>();
+        try (JarFile rt = new JarFile(System.getProperty("java.home") + "/lib/rt.jar");
+             JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (Enumeration<JarEntry> e = rt.entries(); e.hasMoreElements() && classFiles.size() < CLASS_FILES; ) {
+                JarEntry entry = e.nextElement();
+                String name = entry.getName();
+                if (!name.startsWith("java/") || !name.endsWith(".class") || name.contains("$")) {
+                    continue;
+                }
+                out.putNextEntry(new JarEntry(name));
+                try (InputStream in = rt.getInputStream(entry)) {
+                    ByteStreams.copy(in, out);
+                }
+                out.closeEntry();
+                classFiles.add(name);
+            }
+        }
+    }
+
+    @After
+    public void deleteJar() throws Exception {
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void shouldAddEntriesOfAllClassFilesToTheirDocuments() throws Exception {
+        TestIndexManager manager = new TestIndexManager(project, Integer.MAX_VALUE);
+        IPath jarPath = new Path(jar.getAbsolutePath());
+        try {
+            manager.indexLibrary(jarPath, null);
+            manager.waitUntilReady(null);
+
+            Index index = manager.getIndex(jarPath, true, false);
+            assertThat(index).isNotNull();
+            assertThat(index.queryDocumentNames("")).hasSize(classFiles.size());
+            // entries merged from every batch are bound to the document of their class file
+            for (String classFile : classFiles) {
+                String typeName = classFile.substring(classFile.lastIndexOf('/') + 1, classFile.length() - ".class".length());
+                String packageName = classFile.substring(0, classFile.lastIndexOf('/')).replace('/', '.');
+                char[] key = (typeName + '/' + packageName + '/').toCharArray();
+                EntryResult[] results = index.query(new char[][]{IIndexConstants.TYPE_DECL}, key,
+                                                    SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE);
+                assertThat(results).hasSize(1);
+                assertThat(results[0].getDocumentNames(index)).containsOnly(classFile);
+            }
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldStopIndexingOfJarCancelledInTheMiddleOfBatch() throws Exception {
+        TestIndexManager manager = new TestIndexManager(project, 100);
+        IPath jarPath = new Path(jar.getAbsolutePath());
+        try {
+            manager.indexLibrary(jarPath, null);
+            manager.waitUntilReady(null);
+
+            assertThat(manager.indexed.get()).isLessThan(classFiles.size());
+            // the entries of the class files indexed before the cancellation are not kept
+            assertThat(manager.getIndex(manager.computeIndexLocation(jarPath))).isNull();
+            assertThat(manager.awaitingJobsCount()).isEqualTo(0);
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    /** Counts the indexed documents and cancels the current job once the given number of documents is indexed. */
+    private class TestIndexManager extends IndexManager {
+        private final AtomicInteger indexed = new AtomicInteger();
+        private final int           cancelAfter;
+
+        TestIndexManager(JavaProject javaProject, int cancelAfter) {
+            super(new File(root, "indexes").getAbsolutePath() + '/', javaProject);
+            this.cancelAfter = cancelAfter;
+            reset();
+        }
+
+        @Override
+        public void indexDocument(SearchDocument searchDocument, SearchParticipant searchParticipant, Index index, IPath indexLocation) {
+            super.indexDocument(searchDocument, searchParticipant, index, indexLocation);
+            if (indexed.incrementAndGet() == cancelAfter) {
+                IJob job = currentJob();
+                if (job != null) {
+                    job.cancel();
+                }
+            }
+        }
+    }
+}
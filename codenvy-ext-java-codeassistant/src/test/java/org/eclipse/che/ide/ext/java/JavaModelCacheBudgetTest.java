@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java;
+
+import org.eclipse.che.jdt.internal.core.JavaModelCacheBudget;
+import org.eclipse.che.jdt.internal.core.JavaModelManager;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class JavaModelCacheBudgetTest {
+
+    private static final long BASE_MEMORY = 64 * 0x100000;
+
+    @Test
+    public void shouldSplitBudgetBetweenWorkspacesThenProjects() throws Exception {
+        JavaModelCacheBudget budget = new JavaModelCacheBudget(12 * BASE_MEMORY);
+        JavaModelManager a = mock(JavaModelManager.class);
+        budget.register("ws1", "/a", a);
+        budget.register("ws2", "/b", mock(JavaModelManager.class));
+        budget.register("ws2", "/c", mock(JavaModelManager.class));
+
+        assertThat(budget.getMemoryRatio("ws1")).isEqualTo(6.0);
+        assertThat(budget.getMemoryRatio("ws2")).isEqualTo(3.0);
+        assertThat(budget.getProjectCount()).isEqualTo(3);
+
+        budget.unregister("ws1", "/a", a);
+
+        assertThat(budget.getWorkspaceCount()).isEqualTo(1);
+        assertThat(budget.getMemoryRatio("ws2")).isEqualTo(6.0);
+    }
+
+    @Test
+    public void shouldBeExceededWhenCachesReachMinimalRatio() throws Exception {
+        JavaModelCacheBudget budget = new JavaModelCacheBudget(BASE_MEMORY);
+        List<JavaModelManager> managers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            managers.add(mock(JavaModelManager.class));
+        }
+        for (int i = 0; i < 4; i++) {
+            budget.register("ws", "/project" + i, managers.get(i));
+        }
+
+        assertThat(budget.getMemoryRatio("ws")).isEqualTo(0.25);
+        assertThat(budget.isExceeded()).isFalse();
+
+        for (int i = 4; i < 100; i++) {
+            budget.register("ws", "/project" + i, managers.get(i));
+        }
+
+        assertThat(budget.getMemoryRatio("ws")).isEqualTo(0.25);
+        assertThat(budget.isExceeded()).isTrue();
+
+        for (int i = 4; i < 100; i++) {
+            budget.unregister("ws", "/project" + i, managers.get(i));
+        }
+
+        assertThat(budget.isExceeded()).isFalse();
+    }
+
+    @Test
+    public void shouldKeepManagerOfReopenedProject() throws Exception {
+        JavaModelCacheBudget budget = new JavaModelCacheBudget(BASE_MEMORY);
+        JavaModelManager closed = mock(JavaModelManager.class);
+        budget.register("ws", "/a", closed);
+        budget.register("ws", "/a", mock(JavaModelManager.class));
+
+        budget.unregister("ws", "/a", closed);
+
+        assertThat(budget.getProjectCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.jdt.core.search.SearchPattern;
+import org.eclipse.che.jdt.internal.core.search.indexing.MappedIndex;
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.FileIndexLocation;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class MappedIndexTest {
+
+    private File  root;
+    private File  indexFile;
+    private Index index;
+
+    @Before
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("mapped-index").toFile();
+        indexFile = new File(root, "lib.index");
+        Index source = new Index(new FileIndexLocation(indexFile), "/lib.jar", false);
+        source.separator = '|';
+        source.addIndexEntry(IIndexConstants.TYPE_DECL, "List/java.util//".toCharArray(), "java/util/List.class");
+        source.addIndexEntry(IIndexConstants.TYPE_DECL, "ArrayList/java.util//".toCharArray(), "java/util/ArrayList.class");
+        source.addIndexEntry(IIndexConstants.TYPE_DECL, "LinkedList/java.util//".toCharArray(), "java/util/LinkedList.class");
+        source.addIndexEntry(IIndexConstants.SUPER_REF, "List".toCharArray(), "java/util/ArrayList.class");
+        source.addIndexEntry(IIndexConstants.SUPER_REF, "List".toCharArray(), "java/util/LinkedList.class");
+        source.addIndexEntry(IIndexConstants.REF, "List".toCharArray(), "java/util/Collections.class");
+        source.save();
+        index = MappedIndex.map(new Index(new FileIndexLocation(indexFile), "/lib.jar", true));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void shouldMapIndexOfLibrary() throws Exception {
+        assertThat(index).isInstanceOf(MappedIndex.class);
+        assertThat(MappedIndex.getMappedFile(indexFile).exists()).isTrue();
+        assertThat(index.queryDocumentNames("java/util/L")).containsOnly("java/util/List.class", "java/util/LinkedList.class");
+    }
+
+    @Test
+    public void shouldFindExactKey() throws Exception {
+        EntryResult[] results = index.query(new char[][]{IIndexConstants.SUPER_REF}, "List".toCharArray(),
+                                            SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+        assertThat(results).hasSize(1);
+        assertThat(results[0].getDocumentNames(index)).containsOnly("java/util/ArrayList.class", "java/util/LinkedList.class");
+    }
+
+    @Test
+    public void shouldMergeDocumentsOfKeyFromAllCategories() throws Exception {
+        EntryResult[] results = index.query(new char[][]{IIndexConstants.SUPER_REF, IIndexConstants.REF}, "List".toCharArray(),
+                                            SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+        assertThat(results).hasSize(1);
+        assertThat(results[0].getDocumentNames(index)).hasSize(3);
+    }
+
+    @Test
+    public void shouldFindKeysByPrefixAndPattern() throws Exception {
+        assertThat(words(index.query(new char[][]{IIndexConstants.TYPE_DECL}, "L".toCharArray(),
+                                     SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE)))
+                .containsOnly("List/java.util//", "LinkedList/java.util//");
+        assertThat(words(index.query(new char[][]{IIndexConstants.TYPE_DECL}, "*list/*".toCharArray(), SearchPattern.R_PATTERN_MATCH)))
+                .hasSize(3);
+        assertThat(index.query(new char[][]{IIndexConstants.TYPE_DECL}, "Map".toCharArray(),
+                               SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE)).isNull();
+    }
+
+    @Test
+    public void shouldReuseMappedFileOfSameIndex() throws Exception {
+        File mappedFile = MappedIndex.getMappedFile(indexFile);
+        long written = mappedFile.lastModified();
+
+        Index other = MappedIndex.map(new Index(new FileIndexLocation(indexFile), "/lib.jar", true));
+
+        assertThat(other).isInstanceOf(MappedIndex.class);
+        assertThat(mappedFile.lastModified()).isEqualTo(written);
+    }
+
+    @Test
+    public void shouldMapSameIndexConcurrently() throws Exception {
+        MappedIndex.getMappedFile(indexFile).delete();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Index>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(new Callable<Index>() {
+                    @Override
+                    public Index call() throws Exception {
+                        return MappedIndex.map(new Index(new FileIndexLocation(indexFile), "/lib.jar", true));
+                    }
+                }));
+            }
+            for (Future<Index> future : futures) {
+                assertThat(future.get()).isInstanceOf(MappedIndex.class);
+                assertThat(future.get().queryDocumentNames("java/util/L")).hasSize(2);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(root.list()).containsOnly(indexFile.getName(), MappedIndex.getMappedFile(indexFile).getName());
+    }
+
+    private static Set<String> words(EntryResult[] results) {
+        Set<String> words = new TreeSet<>();
+        for (EntryResult result : results) {
+            words.add(new String(result.getWord()));
+        }
+        return words;
+    }
+}
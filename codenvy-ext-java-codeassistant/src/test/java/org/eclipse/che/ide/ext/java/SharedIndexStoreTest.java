@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java;
+
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.jdt.internal.core.search.indexing.SharedIndexStore;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SharedIndexStoreTest {
+
+    private File             root;
+    private SharedIndexStore store;
+    private Path             jarPath;
+    private Index            index;
+
+    @Before
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("shared-index").toFile();
+        store = new SharedIndexStore(new File(root, "store"));
+        File jar = new File(root, "lib.jar");
+        try (FileOutputStream out = new FileOutputStream(jar)) {
+            out.write(new byte[]{1, 2, 3});
+        }
+        jarPath = new Path(jar.getAbsolutePath());
+        File indexFile = new File(root, "lib.index");
+        try (FileOutputStream out = new FileOutputStream(indexFile)) {
+            out.write(new byte[]{4, 5, 6});
+        }
+        index = mock(Index.class);
+        when(index.getIndexFile()).thenReturn(indexFile);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void shouldReuseIndexPublishedByOtherProject() throws Exception {
+        assertThat(store.acquire("ws/project1", jarPath)).isNull();
+        URL published = store.publish(jarPath, index);
+        assertThat(published).isNotNull();
+
+        assertThat(store.acquire("ws/project2", jarPath)).isEqualTo(published);
+        assertThat(store.getHits()).isEqualTo(1);
+        assertThat(store.getMisses()).isEqualTo(1);
+        assertThat(store.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void shouldDeleteIndexWhenLastOwnerReleased() throws Exception {
+        store.acquire("ws/project1", jarPath);
+        URL published = store.publish(jarPath, index);
+        store.acquire("ws/project2", jarPath);
+
+        store.release("ws/project1");
+        assertThat(new File(published.toURI()).exists()).isTrue();
+
+        store.release("ws/project2");
+        assertThat(new File(published.toURI()).exists()).isFalse();
+        assertThat(store.getIndexCount()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java;
+
+import org.eclipse.che.jdt.internal.core.search.indexing.TypeHierarchyGraph;
+import org.eclipse.che.jdt.internal.core.search.matching.SuperTypeReferencePattern;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class TypeHierarchyGraphTest {
+
+    private static final String LIBRARY = "/lib.jar";
+    private static final String PROJECT = "/project";
+
+    private TypeHierarchyGraph graph;
+
+    @Before
+    public void setUp() throws Exception {
+        graph = new TypeHierarchyGraph();
+        load(LIBRARY, Arrays.asList(key("java.util", "AbstractList", null, IIndexConstants.CLASS_SUFFIX, "java.util.List",
+                                        IIndexConstants.INTERFACE_SUFFIX),
+                                    key("java.util", "ArrayList", null, IIndexConstants.CLASS_SUFFIX, "java.util.AbstractList",
+                                        IIndexConstants.CLASS_SUFFIX),
+                                    key("java.util", "Node", new char[][]{"LinkedList".toCharArray()}, IIndexConstants.CLASS_SUFFIX,
+                                        "java.lang.Object", IIndexConstants.CLASS_SUFFIX)),
+             Arrays.asList("java/util/AbstractList.class", "java/util/ArrayList.class", "java/util/LinkedList$Node.class"));
+    }
+
+    @Test
+    public void shouldFindDirectAndTransitiveSubtypes() throws Exception {
+        assertThat(names(graph.getSubtypes("java.util.List", false))).containsOnly("java.util.AbstractList");
+        assertThat(names(graph.getSubtypes("java.util.List", true))).containsOnly("java.util.AbstractList", "java.util.ArrayList");
+    }
+
+    @Test
+    public void shouldFindSupertypes() throws Exception {
+        assertThat(names(graph.getSupertypes("java.util.ArrayList", true))).containsOnly("java.util.AbstractList", "java.util.List");
+        assertThat(names(graph.getSupertypes("java.util.LinkedList.Node", false))).containsOnly("java.lang.Object");
+    }
+
+    @Test
+    public void shouldPatchEdgesOfIndexedDocument() throws Exception {
+        load(PROJECT, Collections.<char[]>emptyList(), Collections.<String>emptyList());
+
+        graph.documentIndexed(PROJECT, "src/p/MyList.java",
+                              Collections.singletonList(key("p", "MyList", null, IIndexConstants.CLASS_SUFFIX, "ArrayList",
+                                                            IIndexConstants.CLASS_SUFFIX)));
+        assertThat(names(graph.getSubtypes("java.util.List", true))).contains("p.MyList");
+
+        graph.documentRemoved(PROJECT, "src/p/MyList.java");
+        assertThat(names(graph.getSubtypes("java.util.List", true))).excludes("p.MyList");
+    }
+
+    @Test
+    public void shouldNotVerifySubtypesOfUnqualifiedReferenceToOtherPackage() throws Exception {
+        char c = IIndexConstants.CLASS_SUFFIX;
+        load(PROJECT, Arrays.asList(key("com.a", "Foo", null, c, "java.lang.Object", c),
+                                    key("com.b", "Foo", null, c, "java.lang.Object", c),
+                                    key("com.a", "SameA", null, c, "Foo", c),
+                                    key("com.b", "SameB", null, c, "Foo", c),
+                                    key("com.c", "Imported", null, c, "Foo", c)),
+             Arrays.asList("com/a/Foo.java", "com/b/Foo.java", "com/a/SameA.java", "com/b/SameB.java", "com/c/Imported.java"));
+
+        List<TypeHierarchyGraph.Type> subtypes = graph.getSubtypes("com.b.Foo", false);
+
+        assertThat(names(subtypes)).containsOnly("com.b.SameB", "com.c.Imported");
+        assertThat(find(subtypes, "com.b.SameB").isVerified()).isTrue();
+        assertThat(find(subtypes, "com.c.Imported").isVerified()).isFalse();
+    }
+
+    @Test
+    public void shouldLookUpSupertypesOfImportedSupertype() throws Exception {
+        load(PROJECT, Collections.singletonList(key("p", "MyList", null, IIndexConstants.CLASS_SUFFIX, "ArrayList",
+                                                    IIndexConstants.CLASS_SUFFIX)),
+             Collections.singletonList("src/p/MyList.java"));
+
+        List<TypeHierarchyGraph.Type> supertypes = graph.getSupertypes("p.MyList", true);
+
+        assertThat(names(supertypes)).containsOnly("java.util.ArrayList", "java.util.AbstractList", "java.util.List");
+        assertThat(find(supertypes, "java.util.ArrayList").isVerified()).isFalse();
+        assertThat(find(supertypes, "java.util.List").isVerified()).isFalse();
+        assertThat(find(graph.getSupertypes("java.util.ArrayList", false), "java.util.AbstractList").isVerified()).isTrue();
+    }
+
+    @Test
+    public void shouldDropEntriesReadBeforeContainerChanged() throws Exception {
+        int version = graph.getVersion(PROJECT);
+        graph.documentIndexed(PROJECT, "src/p/MyList.java", Collections.<char[]>emptyList());
+
+        assertThat(graph.load(PROJECT, version, Collections.<char[]>emptyList(), Collections.<String[]>emptyList())).isFalse();
+        assertThat(graph.isLoaded(PROJECT)).isFalse();
+    }
+
+    @Test
+    public void shouldDropEdgesOfInvalidatedContainer() throws Exception {
+        graph.invalidate(LIBRARY);
+
+        assertThat(graph.isLoaded(LIBRARY)).isFalse();
+        assertThat(graph.getSubtypes("java.util.List", true)).isEmpty();
+        assertThat(graph.getEdgeCount()).isEqualTo(0);
+    }
+
+    private void load(String container, List<char[]> keys, List<String> documents) {
+        List<String[]> documentNames = new ArrayList<>();
+        for (String document : documents) {
+            documentNames.add(new String[]{document});
+        }
+        assertThat(graph.load(container, graph.getVersion(container), keys, documentNames)).isTrue();
+    }
+
+    private static char[] key(String packageName, String typeName, char[][] enclosingTypeNames, char classOrInterface,
+                              String superTypeName, char superClassOrInterface) {
+        return SuperTypeReferencePattern.createIndexKey(0, packageName.toCharArray(), typeName.toCharArray(), enclosingTypeNames, null,
+                                                        classOrInterface, superTypeName.toCharArray(), superClassOrInterface);
+    }
+
+    private static TypeHierarchyGraph.Type find(List<TypeHierarchyGraph.Type> types, String name) {
+        for (TypeHierarchyGraph.Type type : types) {
+            if (type.getName().equals(name)) {
+                return type;
+            }
+        }
+        throw new AssertionError(name + " not found");
+    }
+
+    private static List<String> names(List<TypeHierarchyGraph.Type> types) {
+        List<String> names = new ArrayList<>();
+        for (TypeHierarchyGraph.Type type : types) {
+            names.add(type.getName());
+        }
+        return names;
+    }
+}
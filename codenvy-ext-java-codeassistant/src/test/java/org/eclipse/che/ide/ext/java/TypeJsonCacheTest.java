@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java;
+
+import org.eclipse.che.jdt.TypeJsonCache;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class TypeJsonCacheTest {
+
+    private TypeJsonCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new TypeJsonCache();
+        cache.put("java.lang.String", "{\"name\":\"java/lang/String\"}", null);
+        cache.put("test.A", "{\"name\":\"test/A\"}", "/ws/project/src/main/java/test/A.java");
+        cache.put("test.B", "{\"name\":\"test/B\"}", "/ws/project/src/main/java/test/B.java");
+        cache.put("test.C", null, null);
+    }
+
+    @Test
+    public void shouldDropChangedSourceTypeAndMissingTypesOnContentUpdate() throws Exception {
+        // the file may declare the missing type now, e.g. as a member type
+        cache.fileChanged("/project/src/main/java/test/A.java", true);
+
+        assertThat(cache.get("test.A")).isNull();
+        assertThat(cache.get("test.B")).isNotNull();
+        assertThat(cache.get("test.C")).isNull();
+        assertThat(cache.get("java.lang.String")).isNotNull();
+    }
+
+    @Test
+    public void shouldKeepTypeFromFileWithSameNameInOtherFolder() throws Exception {
+        cache.put("other.A", "{\"name\":\"other/A\"}", "/ws/project/src/main/java/other/A.java");
+
+        cache.fileChanged("/project/src/main/java/test/A.java", true);
+
+        assertThat(cache.get("test.A")).isNull();
+        assertThat(cache.get("other.A")).isNotNull();
+    }
+
+    @Test
+    public void shouldDropReplacedSourceTypeOnContentUpdate() throws Exception {
+        cache.put("test.A", "{\"name\":\"test/A\"}", "/ws/project/src/main/java/test/A.java");
+
+        cache.fileChanged("/project/src/main/java/test/A.java", true);
+
+        assertThat(cache.get("test.A")).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDropSourceAndMissingTypesOnStructuralChange() throws Exception {
+        cache.fileChanged("/project/src/main/java/test/C.java", false);
+
+        assertThat(cache.get("test.A")).isNull();
+        assertThat(cache.get("test.B")).isNull();
+        assertThat(cache.get("test.C")).isNull();
+        assertThat(cache.get("java.lang.String")).isNotNull();
+    }
+
+    @Test
+    public void shouldComputeSameEtagForSameJson() throws Exception {
+        TypeJsonCache.Entry entry = cache.put("other.String", "{\"name\":\"java/lang/String\"}", null);
+
+        assertThat(entry.getEtag()).isEqualTo(cache.get("java.lang.String").getEtag());
+        assertThat(entry.getEtag()).startsWith("\"").endsWith("\"");
+        assertThat(cache.get("test.C").getEtag()).isNull();
+    }
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java;
+
+import org.eclipse.che.jdt.TypeNameTable;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class TypeNameTableTest extends BaseTest {
+
+    @Test
+    public void shouldCollectTypesOfSources() throws Exception {
+        JsonObject table = new JsonParser().parse(TypeNameTable.build(project, false)).getAsJsonObject();
+        JsonArray packages = table.getAsJsonArray("packages");
+        JsonArray types = table.getAsJsonArray("types");
+
+        assertThat(table.has("fingerprint")).isFalse();
+        boolean found = false;
+        for (int i = 0; i < types.size(); i += 4) {
+            if ("GenerateLink".equals(types.get(i + 1).getAsString())) {
+                assertThat(packages.get(types.get(i).getAsInt()).getAsString()).isEqualTo("com.codenvy.test");
+                assertThat(types.get(i + 3).getAsString()).isEmpty();
+                found = true;
+            }
+        }
+        assertThat(found).isTrue();
+    }
+
+    @Test
+    public void shouldSortTypesBySimpleNameIgnoringCase() throws Exception {
+        JsonArray types = new JsonParser().parse(TypeNameTable.build(project, false)).getAsJsonObject().getAsJsonArray("types");
+
+        for (int i = 4; i < types.size(); i += 4) {
+            String previous = types.get(i - 3).getAsString();
+            assertThat(previous.compareToIgnoreCase(types.get(i + 1).getAsString())).isLessThanOrEqualTo(0);
+        }
+    }
+}
@@ -63,6 +63,21 @@ public class JavaExtension {
 
     }-*/;
 
+    /**
+     * Returns number of the Java parser workers set by the <code>javaParserWorkers</code> IDE configuration,
+     * by default half of the available cores but not more than 3.
+     */
+    public static native int getParserWorkerCount() /*-{
+        try {
+            if ($wnd.IDE.config.javaParserWorkers) {
+                return $wnd.IDE.config.javaParserWorkers;
+            }
+        } catch (e) {
+        }
+        var cores = $wnd.navigator.hardwareConcurrency || 2;
+        return Math.max(1, Math.min(3, Math.floor(cores / 2)));
+    }-*/;
+
     @Inject
     private void prepareActions(JavaLocalizationConstant localizationConstant,
                                 NewPackageAction newPackageAction,
@@ -42,7 +42,10 @@ public class FileWatcher {
         eventBus.addHandler(ItemEvent.TYPE, new ItemHandler() {
             @Override
             public void onItem(ItemEvent event) {
-                if (event.getOperation() == ItemEvent.ItemOperation.DELETED) {
+                if (event.getOperation() == ItemEvent.ItemOperation.CREATED && event.getItem() instanceof SourceFileNode) {
+                    // the new type must be found by the type searches of the worker
+                    worker.removeFqnFromCache(getFQN((SourceFileNode)event.getItem()));
+                } else if (event.getOperation() == ItemEvent.ItemOperation.DELETED) {
                     if (event.getItem() instanceof SourceFileNode) {
                         String fqn = getFQN(((SourceFileNode)event.getItem()));
                         worker.removeFqnFromCache(fqn);
@@ -18,6 +18,7 @@ import org.eclipse.che.ide.ext.java.jdt.text.edits.TextEdit;
 import org.eclipse.che.ide.ext.java.messages.JavadocHandleComputed;
 import org.eclipse.che.ide.ext.java.messages.ProblemLocationMessage;
 import org.eclipse.che.ide.ext.java.messages.ProposalAppliedMessage;
+import org.eclipse.che.ide.ext.java.messages.WorkerMetricsMessage;
 import org.eclipse.che.ide.ext.java.messages.WorkerProposal;
 import org.eclipse.che.ide.ext.java.messages.impl.WorkerCodeBlock;
 
@@ -31,6 +32,10 @@ public interface JavaParserWorker {
     void parse(String content, String fileName, String filePath, String packageName, String projectPath, boolean needParseMethodBody,
                WorkerCallback<IProblem> callback);
 
+    /**
+     * Computes code assist proposals. The callback receives the most relevant proposals first and, if there are more
+     * of them, all proposals once they are received.
+     */
     void computeCAProposals(String content, int offset, String fileName, String projectPath, String filePath,
                             WorkerCallback<WorkerProposal> callback);
 
@@ -52,6 +57,15 @@ public interface JavaParserWorker {
 
     void fileClosed(String path);
 
+    /**
+     * Requests timings and counters recorded by the parser workers and the format worker. The callback receives metrics
+     * of each worker once all of them answered.
+     *
+     * @param reset
+     *         <code>true</code> if workers should start to record metrics again after they are sent
+     */
+    void getWorkerMetrics(boolean reset, WorkerCallback<WorkerMetricsMessage> callback);
+
     public interface WorkerCallback<T> {
         void onResult(Array<T> problems);
     }
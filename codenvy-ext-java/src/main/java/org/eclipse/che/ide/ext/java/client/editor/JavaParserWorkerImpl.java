@@ -20,18 +20,26 @@ import org.eclipse.che.ide.collections.js.JsoArray;
 import org.eclipse.che.ide.collections.js.JsoStringMap;
 import org.eclipse.che.ide.ext.java.jdt.core.compiler.IProblem;
 import org.eclipse.che.ide.ext.java.jdt.internal.compiler.problem.DefaultProblem;
+import org.eclipse.che.ide.ext.java.messages.CAProposalsChunkMessage;
 import org.eclipse.che.ide.ext.java.messages.CAProposalsComputedMessage;
+import org.eclipse.che.ide.ext.java.messages.CancelRequestMessage;
+import org.eclipse.che.ide.ext.java.messages.Change;
 import org.eclipse.che.ide.ext.java.messages.ComputeJavadocHandle;
+import org.eclipse.che.ide.ext.java.messages.DocumentOutOfSyncMessage;
 import org.eclipse.che.ide.ext.java.messages.FileClosedMessage;
 import org.eclipse.che.ide.ext.java.messages.FormatResultMessage;
+import org.eclipse.che.ide.ext.java.messages.GetWorkerMetricsMessage;
 import org.eclipse.che.ide.ext.java.messages.JavadocHandleComputed;
 import org.eclipse.che.ide.ext.java.messages.Problem;
 import org.eclipse.che.ide.ext.java.messages.ProblemLocationMessage;
-import org.eclipse.che.ide.ext.java.messages.ProblemsMessage;
+import org.eclipse.che.ide.ext.java.messages.ProblemsDeltaMessage;
 import org.eclipse.che.ide.ext.java.messages.ProposalAppliedMessage;
 import org.eclipse.che.ide.ext.java.messages.RoutingTypes;
+import org.eclipse.che.ide.ext.java.messages.UpdateDocumentMessage;
+import org.eclipse.che.ide.ext.java.messages.WorkerMetricsMessage;
 import org.eclipse.che.ide.ext.java.messages.WorkerProposal;
 import org.eclipse.che.ide.ext.java.messages.impl.MessagesImpls;
+import org.eclipse.che.ide.ext.java.client.editor.outline.OutlineChanges;
 import org.eclipse.che.ide.ext.java.messages.impl.OutlineUpdateMessage;
 import org.eclipse.che.ide.ext.java.messages.impl.WorkerCodeBlock;
 import org.eclipse.che.ide.ext.java.jdt.text.edits.CopySourceEdit;
@@ -64,28 +72,50 @@ import com.google.web.bindery.event.shared.EventBus;
  *
  * @author <a href="mailto:evidolob@codenvy.com">Evgen Vidolob</a>
  */
-public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHandler, MessageFilter.MessageRecipient<ProblemsMessage> {
+public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHandler, MessageFilter.MessageRecipient<ProblemsDeltaMessage> {
 
     private final MessageFilter                messageFilter;
     private final String                       workspaceId;
+    private final int                          workerCount;
     private       String                       javaCAPath;
-    private       Worker                       worker;
+    /** Parser workers, each file is handled by the same worker. */
+    private       Worker[]                     workers;
+    /** Worker which formats code, so formatting doesn't wait for reconcile. */
+    private       Worker                       formatWorker;
+    /** Worker which computed the last proposals. */
+    private       Worker                       proposalsWorker;
     private       String                       restContext;
     private       StringMap<WorkerCallback<?>> arrayCallbacks;
     private StringMap<WorkerCallback<WorkerCodeBlock>> outlineCallbacks = Collections.createStringMap();
     private StringMap<Callback<?>>                     callbacks        = Collections.createStringMap();
+    /** Content of the opened files as the worker knows it. */
+    private StringMap<SyncedDocument>                  syncedDocuments  = Collections.createStringMap();
+    /** Last problems of each parsed file, the worker sends only their changes. */
+    private StringMap<Array<IProblem>>                 problems         = Collections.createStringMap();
+    /** Last outline of each parsed file, the worker sends only its changes. */
+    private StringMap<Array<WorkerCodeBlock>>          outlines         = Collections.createStringMap();
+    /** Id of the last parse request of each file. */
+    private StringMap<String>                          parseRequests    = Collections.createStringMap();
+    /** Id of the code assist or quick assist request which isn't answered yet. */
+    private String                                     proposalsRequest;
+    /** Code assist proposals received so far for the request which proposals are still being sent. */
+    private JsoArray<WorkerProposal>                   receivedProposals;
+    /** Metrics received so far for each metrics request, keyed by id of the request. */
+    private StringMap<JsoArray<WorkerMetricsMessage>>  metricsResults   = Collections.createStringMap();
 
 
     @Inject
     public JavaParserWorkerImpl(EventBus eventBus, @Named("restContext") String restContext,
-                                @Named("workspaceId") String workspaceId, @Named("javaCA") String javaCAPath) {
+                                @Named("workspaceId") String workspaceId, @Named("javaCA") String javaCAPath,
+                                @Named("javaParserWorkerCount") int workerCount) {
         this.restContext = restContext;
         this.workspaceId = workspaceId;
         this.javaCAPath = javaCAPath;
+        this.workerCount = Math.max(1, workerCount);
         eventBus.addHandler(ProjectActionEvent.TYPE, this);
         messageFilter = new MessageFilter();
         arrayCallbacks = Collections.createStringMap();
-        messageFilter.registerMessageRecipient(RoutingTypes.PROBLEMS, this);
+        messageFilter.registerMessageRecipient(RoutingTypes.PROBLEMS_DELTA, this);
         messageFilter.registerMessageRecipient(RoutingTypes.CA_PROPOSALS_COMPUTED,
                                                new MessageFilter.MessageRecipient<CAProposalsComputedMessage>() {
                                                    @Override
@@ -94,6 +124,14 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
                                                    }
                                                });
 
+        messageFilter.registerMessageRecipient(RoutingTypes.CA_PROPOSALS_CHUNK,
+                                               new MessageFilter.MessageRecipient<CAProposalsChunkMessage>() {
+                                                   @Override
+                                                   public void onMessageReceived(CAProposalsChunkMessage message) {
+                                                       handleCAProposalsChunk(message);
+                                                   }
+                                               });
+
         messageFilter
                 .registerMessageRecipient(RoutingTypes.CA_PROPOSAL_APPLIED, new MessageFilter.MessageRecipient<ProposalAppliedMessage>() {
                     @Override
@@ -124,6 +162,95 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
                                                        handleJavadocMessage(message);
                                                    }
                                                });
+
+        messageFilter.registerMessageRecipient(RoutingTypes.WORKER_METRICS,
+                                               new MessageFilter.MessageRecipient<WorkerMetricsMessage>() {
+                                                   @Override
+                                                   public void onMessageReceived(WorkerMetricsMessage message) {
+                                                       handleWorkerMetrics(message);
+                                                   }
+                                               });
+
+        messageFilter.registerMessageRecipient(RoutingTypes.DOCUMENT_OUT_OF_SYNC,
+                                               new MessageFilter.MessageRecipient<DocumentOutOfSyncMessage>() {
+                                                   @Override
+                                                   public void onMessageReceived(DocumentOutOfSyncMessage message) {
+                                                       handleDocumentOutOfSync(message);
+                                                   }
+                                               });
+    }
+
+    private void handleDocumentOutOfSync(DocumentOutOfSyncMessage message) {
+        SyncedDocument document = syncedDocuments.get(message.getFilePath());
+        Worker worker = getWorker(message.getFilePath());
+        if (document == null || worker == null) {
+            return;
+        }
+        UpdateDocumentMessage update = UpdateDocumentMessage.make();
+        update.setFilePath(message.getFilePath()).setVersion(document.version).setSource(document.content);
+        worker.postMessage(update.serialize());
+    }
+
+    /** Returns the worker which handles the file, <code>null</code> if workers aren't started. */
+    private Worker getWorker(String filePath) {
+        if (workers == null) {
+            return null;
+        }
+        return workers[(filePath.hashCode() & Integer.MAX_VALUE) % workers.length];
+    }
+
+    /** Sends the message to all parser workers except the given one. */
+    private void broadcast(String message, Worker except) {
+        if (workers == null) {
+            return;
+        }
+        for (Worker worker : workers) {
+            if (worker != except) {
+                worker.postMessage(message);
+            }
+        }
+    }
+
+    /**
+     * Sends to the worker changes made in the file since the last request, so requests don't have to carry the content
+     * of the file. Full content is sent only the first time.
+     */
+    private void syncDocument(String filePath, String content) {
+        SyncedDocument document = syncedDocuments.get(filePath);
+        UpdateDocumentMessage update = UpdateDocumentMessage.make();
+        update.setFilePath(filePath);
+        if (document == null) {
+            document = new SyncedDocument();
+            syncedDocuments.put(filePath, document);
+            update.setVersion(++document.version).setSource(content);
+        } else if (document.content.equals(content)) {
+            return;
+        } else {
+            update.setBaseVersion(document.version).setVersion(++document.version).setChanges(computeChanges(document.content, content));
+        }
+        document.content = content;
+        getWorker(filePath).postMessage(update.serialize());
+    }
+
+    /** Returns a single change which replaces the part of the old content that differs from the new one. */
+    private static JsoArray<Change> computeChanges(String oldContent, String newContent) {
+        int prefix = 0;
+        int maxPrefix = Math.min(oldContent.length(), newContent.length());
+        while (prefix < maxPrefix && oldContent.charAt(prefix) == newContent.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix
+               && oldContent.charAt(oldContent.length() - suffix - 1) == newContent.charAt(newContent.length() - suffix - 1)) {
+            suffix++;
+        }
+        MessagesImpls.ChangeImpl change = MessagesImpls.ChangeImpl.make();
+        change.setOffset(prefix).setLength(oldContent.length() - prefix - suffix)
+              .setText(newContent.substring(prefix, newContent.length() - suffix));
+        JsoArray<Change> changes = JsoArray.create();
+        changes.add(change);
+        return changes;
     }
 
     @SuppressWarnings("unchecked")
@@ -135,6 +262,22 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
 
     }
 
+    @SuppressWarnings("unchecked")
+    private void handleWorkerMetrics(WorkerMetricsMessage message) {
+        JsoArray<WorkerMetricsMessage> results = metricsResults.get(message.id());
+        if (results == null) {
+            return;
+        }
+        results.add(message);
+        if (results.size() == workers.length + 1) {
+            metricsResults.remove(message.id());
+            WorkerCallback<WorkerMetricsMessage> callback = (WorkerCallback<WorkerMetricsMessage>)arrayCallbacks.remove(message.id());
+            if (callback != null) {
+                callback.onResult(results);
+            }
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private void handleFormatApplied(FormatResultMessage message) {
         Callback<TextEdit> callback = (Callback<TextEdit>)callbacks.remove(message.id());
@@ -237,9 +380,24 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
     }
 
     private void handleUpdateOutline(OutlineUpdateMessage message) {
-        if (outlineCallbacks.containsKey(message.getFilePath())) {
-            WorkerCallback<WorkerCodeBlock> callback = outlineCallbacks.get(message.getFilePath());
-            callback.onResult(message.getBlocks());
+        String filePath = message.getFilePath();
+        Array<WorkerCodeBlock> blocks = message.getBlocks();
+        if (blocks == null) {
+            Array<WorkerCodeBlock> previous = outlines.get(filePath);
+            if (previous == null) {
+                // changes of the outline which was dropped when the file was closed
+                return;
+            }
+            blocks = OutlineChanges.apply(previous, message);
+            if (message.getChanges().size() == 0) {
+                // only positions are changed, they are updated in the blocks shown by the outline
+                return;
+            }
+        }
+        outlines.put(filePath, blocks);
+        if (outlineCallbacks.containsKey(filePath)) {
+            WorkerCallback<WorkerCodeBlock> callback = outlineCallbacks.get(filePath);
+            callback.onResult(blocks);
         }
     }
 
@@ -251,11 +409,38 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
         }
     }
 
+    /**
+     * The parts of the proposals are collected and the callback receives all proposals once the last part is received.
+     */
+    @SuppressWarnings("unchecked")
+    private void handleCAProposalsChunk(CAProposalsChunkMessage message) {
+        if (!arrayCallbacks.containsKey(message.id())) {
+            return;
+        }
+        if (receivedProposals == null) {
+            receivedProposals = JsoArray.create();
+        }
+        receivedProposals.addAll(message.proposals());
+        if (!message.isLast()) {
+            return;
+        }
+        WorkerCallback<WorkerProposal> callback = (WorkerCallback<WorkerProposal>)arrayCallbacks.remove(message.id());
+        if (message.id().equals(proposalsRequest)) {
+            proposalsRequest = null;
+        }
+        Array<WorkerProposal> proposals = receivedProposals;
+        receivedProposals = null;
+        callback.onResult(proposals);
+    }
+
     @SuppressWarnings("unchecked")
     private void handleCAComputed(CAProposalsComputedMessage message) {
         if (!arrayCallbacks.containsKey(message.id())) {
             return;
         }
+        if (message.id().equals(proposalsRequest)) {
+            proposalsRequest = null;
+        }
 
         WorkerCallback<WorkerProposal> callback = (WorkerCallback<WorkerProposal>)arrayCallbacks.remove(message.id());
         callback.onResult(message.proposals());
@@ -263,13 +448,9 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
 
     @Override
     public void removeFqnFromCache(String fqn) {
-        if (worker == null) {
-            return;
-        }
-
         MessagesImpls.RemoveFqnMessageImpl message = MessagesImpls.RemoveFqnMessageImpl.make();
         message.setFqn(fqn);
-        worker.postMessage(message.serialize());
+        broadcast(message.serialize(), null);
     }
 
     @Override
@@ -278,14 +459,14 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
         callbacks.put(uuid, callback);
         MessagesImpls.FormatMessageImpl message = MessagesImpls.FormatMessageImpl.make();
         message.setId(uuid).setOffset(offset).setLength(length).setContent(content);
-        worker.postMessage(message.serialize());
+        formatWorker.postMessage(message.serialize());
     }
 
     @Override
     public void preferenceFormatSettings(JsoStringMap<String> settings) {
         MessagesImpls.PreferenceFormatSetMessageImpl message = MessagesImpls.PreferenceFormatSetMessageImpl.make();
         message.setSettings(settings);
-        worker.postMessage(message.serialize());
+        formatWorker.postMessage(message.serialize());
     }
 
     @Override
@@ -294,13 +475,34 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
         ComputeJavadocHandle message = ComputeJavadocHandle.make();
         message.setOffset(offset).setId(uuid).setFilePath(filePath);
         callbacks.put(uuid, callback);
-        worker.postMessage(message.serialize());
+        getWorker(filePath).postMessage(message.serialize());
+    }
+
+    /** Only proposals of the last request are shown, so the previous one is cancelled unless it's already answered. */
+    private void cancelProposalsRequest() {
+        if (proposalsRequest == null) {
+            return;
+        }
+        arrayCallbacks.remove(proposalsRequest);
+        receivedProposals = null;
+        CancelRequestMessage message = CancelRequestMessage.make();
+        message.setId(proposalsRequest);
+        proposalsWorker.postMessage(message.serialize());
+        proposalsRequest = null;
     }
 
     @Override
     public void fileClosed(String path) {
+        syncedDocuments.remove(path);
+        problems.remove(path);
+        outlines.remove(path);
+        String parseRequest = parseRequests.remove(path);
+        if (parseRequest != null) {
+            arrayCallbacks.remove(parseRequest);
+        }
         FileClosedMessage message = FileClosedMessage.make();
         message.setFilePath(path);
+        Worker worker = getWorker(path);
         if (worker != null) {
             worker.postMessage(message.serialize());
         } else {
@@ -308,24 +510,47 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
         }
     }
 
+    @Override
+    public void getWorkerMetrics(boolean reset, WorkerCallback<WorkerMetricsMessage> callback) {
+        if (workers == null) {
+            callback.onResult(JsoArray.<WorkerMetricsMessage>create());
+            return;
+        }
+        String uuid = UUID.uuid();
+        arrayCallbacks.put(uuid, callback);
+        metricsResults.put(uuid, JsoArray.<WorkerMetricsMessage>create());
+        GetWorkerMetricsMessage message = GetWorkerMetricsMessage.make();
+        message.setId(uuid).setReset(reset);
+        broadcast(message.serialize(), null);
+        formatWorker.postMessage(message.serialize());
+    }
+
     @Override
     public void dependenciesUpdated() {
         MessagesImpls.DependenciesUpdatedMessageImpl message = MessagesImpls.DependenciesUpdatedMessageImpl.make();
-        worker.postMessage(message.serialize());
+        broadcast(message.serialize(), null);
     }
 
     /** {@inheritDoc} */
     @Override
     public void parse(String content, String fileName, String filePath, String packageName, String projectPath,
                       boolean ignoreMethodBody, WorkerCallback<IProblem> callback) {
+        Worker worker = getWorker(filePath);
         if (worker == null) {
             return;
         }
 
         MessagesImpls.ParseMessageImpl parseMessage = MessagesImpls.ParseMessageImpl.make();
         String uuid = UUID.uuid();
+        // problems of the previous version of the file aren't interesting anymore, the worker skips it if it's still queued
+        String previous = parseRequests.get(filePath);
+        if (previous != null) {
+            arrayCallbacks.remove(previous);
+        }
+        parseRequests.put(filePath, uuid);
         arrayCallbacks.put(uuid, callback);
-        parseMessage.setSource(content).setFileName(fileName).setFilePath(filePath).setId(uuid).setPackageName(packageName)
+        syncDocument(filePath, content);
+        parseMessage.setFileName(fileName).setFilePath(filePath).setId(uuid).setPackageName(packageName)
                     .setProjectPath(projectPath).setIgnoreMethodBodiess(ignoreMethodBody);
         worker.postMessage(parseMessage.serialize());
     }
@@ -334,14 +559,19 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
     @Override
     public void computeCAProposals(String content, int offset, String fileName, String projectPath,
                                    String filePath, WorkerCallback<WorkerProposal> callback) {
+        Worker worker = getWorker(filePath);
         if (worker == null) {
             return;
         }
 
         MessagesImpls.ComputeCAProposalsMessageImpl computeMessage = MessagesImpls.ComputeCAProposalsMessageImpl.make();
         String uuid = UUID.uuid();
+        cancelProposalsRequest();
+        proposalsRequest = uuid;
+        proposalsWorker = worker;
         arrayCallbacks.put(uuid, callback);
-        computeMessage.setDocContent(content).setOffset(offset).setFileName(fileName).setId(uuid).setProjectPath(projectPath)
+        syncDocument(filePath, content);
+        computeMessage.setOffset(offset).setFileName(fileName).setId(uuid).setProjectPath(projectPath)
                       .setFilePath(filePath);
         worker.postMessage(computeMessage.serialize());
     }
@@ -349,18 +579,24 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
     /** {@inheritDoc} */
     @Override
     public void applyCAProposal(String id, Callback<ProposalAppliedMessage> callback) {
-        if (worker == null) {
+        if (proposalsWorker == null) {
             return;
         }
+        // proposals which aren't received yet aren't needed anymore
+        cancelProposalsRequest();
         MessagesImpls.ApplyProposalMessageImpl message = MessagesImpls.ApplyProposalMessageImpl.make();
         message.setId(id);
         callbacks.put(id, callback);
-        worker.postMessage(message.serialize());
+        proposalsWorker.postMessage(message.serialize());
     }
 
     @Override
     public void addOutlineUpdateHandler(String filePath, WorkerCallback<WorkerCodeBlock> callback) {
         outlineCallbacks.put(filePath, callback);
+        Array<WorkerCodeBlock> blocks = outlines.get(filePath);
+        if (blocks != null) {
+            callback.onResult(blocks);
+        }
     }
 
     @Override
@@ -368,83 +604,140 @@ public class JavaParserWorkerImpl implements JavaParserWorker, ProjectActionHand
                                    JsoArray<ProblemLocationMessage> problems, String filePath, WorkerCallback<WorkerProposal> callback) {
         MessagesImpls.ComputeCorrMessageImpl corrMessage = MessagesImpls.ComputeCorrMessageImpl.make();
 
-        corrMessage.setDocumentContent(content)
-                   .setDocumentOffset(offset)
+        syncDocument(filePath, content);
+        corrMessage.setDocumentOffset(offset)
                    .setDocumentSelectionLength(selectionLength)
                    .setUpdatedOffset(updatedContent)
                    .setProblemLocations(problems)
                    .setFilePath(filePath);
 
         String uuid = UUID.uuid();
+        cancelProposalsRequest();
+        proposalsRequest = uuid;
+        proposalsWorker = getWorker(filePath);
         arrayCallbacks.put(uuid, callback);
         corrMessage.setId(uuid);
-        worker.postMessage(corrMessage.serialize());
+        proposalsWorker.postMessage(corrMessage.serialize());
     }
 
     @Override
     public void onProjectOpened(ProjectActionEvent event) {
-        if (worker != null) {
-            worker.terminate();
-        }
+        terminateWorkers();
         try {
-
-            //TODO check project type, create worker only if project is Java
-//        worker = Worker.create("http://localhost:8080/ide/_app/javaParserWorker/javaParserWorker.nocache.js");
-            worker = Worker.create(GWT.getModuleBaseURL() + "javaParserWorker/javaParserWorker.nocache.js");
-            worker.setOnMessage(new MessageHandler() {
-                @Override
-                public void onMessage(MessageEvent event) {
-                    MessageImpl message = event.getDataAsJSO().cast();
-                    messageFilter.dispatchMessage(message);
-                }
-            });
-            worker.setOnError(new ErrorHandler() {
-                @Override
-                public void onError(ErrorEvent event) {
-                    Log.error(JavaParserWorkerImpl.class, event.getMessage(), event.getFilename(), event.getLineNumber());
-                }
-            });
-
             MessagesImpls.ConfigMessageImpl config = MessagesImpls.ConfigMessageImpl.make();
             config.setRestContext(restContext);
             config.setWsId("/" + workspaceId);
             config.setCaPath(javaCAPath);
             config.setProjectName(event.getProject().getName());
             config.setJavaDocContext(""); //TODO configure doc context
-            worker.postMessage(config.serialize());
+
+            //TODO check project type, create worker only if project is Java
+            workers = new Worker[workerCount];
+            for (int i = 0; i < workerCount; i++) {
+                workers[i] = createWorker();
+                workers[i].postMessage(config.serialize());
+            }
+            formatWorker = createWorker();
         } catch (Exception e) {
             Log.error(getClass(), e);
         }
     }
 
+    private Worker createWorker() {
+//        worker = Worker.create("http://localhost:8080/ide/_app/javaParserWorker/javaParserWorker.nocache.js");
+        final Worker worker = Worker.create(GWT.getModuleBaseURL() + "javaParserWorker/javaParserWorker.nocache.js");
+        worker.setOnMessage(new MessageHandler() {
+            @Override
+            public void onMessage(MessageEvent event) {
+                MessageImpl message = event.getDataAsJSO().cast();
+                if (message.<Jso>cast().getFieldCastedToInteger("_type") == RoutingTypes.TYPES_LOADED) {
+                    // types loaded by one worker are shared with the others, so they don't request them again
+                    broadcast(message.serialize(), worker);
+                    return;
+                }
+                messageFilter.dispatchMessage(message);
+            }
+        });
+        worker.setOnError(new ErrorHandler() {
+            @Override
+            public void onError(ErrorEvent event) {
+                Log.error(JavaParserWorkerImpl.class, event.getMessage(), event.getFilename(), event.getLineNumber());
+            }
+        });
+        return worker;
+    }
+
+    private void terminateWorkers() {
+        if (workers != null) {
+            for (Worker worker : workers) {
+                worker.terminate();
+            }
+            workers = null;
+        }
+        if (formatWorker != null) {
+            formatWorker.terminate();
+            formatWorker = null;
+        }
+        proposalsWorker = null;
+        proposalsRequest = null;
+        receivedProposals = null;
+        syncedDocuments = Collections.createStringMap();
+        problems = Collections.createStringMap();
+        outlines = Collections.createStringMap();
+        metricsResults = Collections.createStringMap();
+    }
+
     @Override
     public void onProjectClosed(ProjectActionEvent event) {
-        if (worker != null) {
-            worker.terminate();
-            worker = null;
-        }
+        terminateWorkers();
     }
 
     @Override
     @SuppressWarnings("unchecked")
-    public void onMessageReceived(ProblemsMessage message) {
-        if (!arrayCallbacks.containsKey(message.id())) {
+    public void onMessageReceived(ProblemsDeltaMessage message) {
+        String filePath = message.getFilePath();
+        Array<IProblem> previous = message.isFull() ? Collections.<IProblem>createArray() : problems.get(filePath);
+        if (previous == null) {
+            // changes of the problems which were dropped when the file was closed
+            arrayCallbacks.remove(message.getId());
             return;
         }
-        Array<Problem> problems = message.problems();
-        Array<IProblem> iProblems = Collections.createArray();
-        for (Problem p : problems.asIterable()) {
-            String[] arg = new String[p.stringArguments().size()];
-            for (int i = 0; i < p.stringArguments().size(); i++) {
-                arg[i] = p.stringArguments().get(i);
+        Array<Problem> added = message.getProblems();
+        Array<IProblem> iProblems = previous;
+        if (message.isFull() || message.getRemoveCount() > 0 || added.size() > 0) {
+            // unchanged problems are kept, so the same array is returned when nothing is changed
+            iProblems = Collections.createArray();
+            for (int i = 0; i < message.getIndex(); i++) {
+                iProblems.add(previous.get(i));
+            }
+            for (Problem p : added.asIterable()) {
+                iProblems.add(convertProblem(p));
+            }
+            for (int i = message.getIndex() + message.getRemoveCount(); i < previous.size(); i++) {
+                iProblems.add(previous.get(i));
             }
-            iProblems.add(new DefaultProblem(p.originatingFileName().toCharArray(), p.message(), p.id(), arg, p.severity(),
-                                             p.startPosition(),
-                                             p.endPosition(), p.line(), p.column()));
         }
+        problems.put(filePath, iProblems);
 
-        WorkerCallback<IProblem> callback = (WorkerCallback<IProblem>)arrayCallbacks.remove(message.id());
+        if (!arrayCallbacks.containsKey(message.getId())) {
+            return;
+        }
+        WorkerCallback<IProblem> callback = (WorkerCallback<IProblem>)arrayCallbacks.remove(message.getId());
         callback.onResult(iProblems);
     }
 
+    private static IProblem convertProblem(Problem p) {
+        String[] arg = new String[p.stringArguments().size()];
+        for (int i = 0; i < p.stringArguments().size(); i++) {
+            arg[i] = p.stringArguments().get(i);
+        }
+        return new DefaultProblem(p.originatingFileName().toCharArray(), p.message(), p.id(), arg, p.severity(),
+                                  p.startPosition(),
+                                  p.endPosition(), p.line(), p.column());
+    }
+
+    private static class SyncedDocument {
+        String content;
+        int    version;
+    }
 }
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.client.editor.outline;
+
+import org.eclipse.che.ide.collections.Array;
+import org.eclipse.che.ide.collections.js.JsoArray;
+import org.eclipse.che.ide.ext.java.messages.impl.OutlineChange;
+import org.eclipse.che.ide.ext.java.messages.impl.OutlineUpdateMessage;
+import org.eclipse.che.ide.ext.java.messages.impl.WorkerCodeBlock;
+import com.google.gwt.core.client.JsArrayInteger;
+
+/**
+ * Applies the outline changes sent by the worker to the outline received before.
+ * Blocks which are only moved are updated in place, so the outline view isn't rebuilt for them.
+ */
+public class OutlineChanges {
+
+    private OutlineChanges() {
+    }
+
+    /**
+     * Applies changes of the message to the top level blocks.
+     *
+     * @param blocks
+     *         top level blocks of the previous outline, they are modified
+     * @param message
+     *         outline update which contains the changes
+     * @return top level blocks of the updated outline
+     */
+    public static Array<WorkerCodeBlock> apply(Array<WorkerCodeBlock> blocks, OutlineUpdateMessage message) {
+        Array<OutlineChange> changes = message.getChanges();
+        for (int i = 0; i < changes.size(); i++) {
+            blocks = apply(blocks, changes.get(i));
+        }
+
+        JsArrayInteger positions = message.getPositions();
+        if (positions.length() > 0) {
+            JsoArray<WorkerCodeBlock> preOrder = JsoArray.create();
+            collect(blocks, preOrder);
+            for (int i = 0; i + 2 < positions.length(); i += 3) {
+                WorkerCodeBlock block = preOrder.get(positions.get(i));
+                block.setOffset(positions.get(i + 1));
+                block.setLength(positions.get(i + 2));
+            }
+        }
+        return blocks;
+    }
+
+    private static Array<WorkerCodeBlock> apply(Array<WorkerCodeBlock> blocks, OutlineChange change) {
+        JsArrayInteger path = change.getPath();
+        if (path.length() == 0) {
+            return splice(blocks, change);
+        }
+        WorkerCodeBlock parent = blocks.get(path.get(0));
+        for (int i = 1; i < path.length(); i++) {
+            parent = parent.getChildren().get(path.get(i));
+        }
+        parent.setChildren(splice(parent.getChildren(), change));
+        return blocks;
+    }
+
+    private static Array<WorkerCodeBlock> splice(Array<WorkerCodeBlock> children, OutlineChange change) {
+        JsoArray<WorkerCodeBlock> result = JsoArray.create();
+        for (int i = 0; i < change.getIndex(); i++) {
+            result.add(children.get(i));
+        }
+        Array<WorkerCodeBlock> added = change.getBlocks();
+        for (int i = 0; i < added.size(); i++) {
+            result.add(added.get(i));
+        }
+        for (int i = change.getIndex() + change.getRemoveCount(); i < children.size(); i++) {
+            result.add(children.get(i));
+        }
+        return result;
+    }
+
+    private static void collect(Array<WorkerCodeBlock> blocks, JsoArray<WorkerCodeBlock> preOrder) {
+        for (int i = 0; i < blocks.size(); i++) {
+            WorkerCodeBlock block = blocks.get(i);
+            preOrder.add(block);
+            if (block.getChildren() != null) {
+                collect(block.getChildren(), preOrder);
+            }
+        }
+    }
+}
@@ -29,12 +29,13 @@ public class OutlineUpdater implements JavaParserWorker.WorkerCallback<WorkerCod
 
     public OutlineUpdater(String filePath, OutlineModel outlineModel, JavaParserWorker worker) {
         this.outlineModel = outlineModel;
-        worker.addOutlineUpdateHandler(filePath, this);
         root = JavaCodeBlock.make();
         root.setType(CodeBlock.ROOT_TYPE);
         root.setOffset(0);
         root.setChildren(Collections.<JavaCodeBlock>createArray());
         outlineModel.updateRoot(root);
+        // the outline already known for the file is delivered immediately, so the root must be set before
+        worker.addOutlineUpdateHandler(filePath, this);
     }
 
     /** {@inheritDoc} */
@@ -61,6 +61,13 @@ public class JavaGinModule extends AbstractGinModule {
         return JavaExtension.getJavaCAPath();
     }
 
+    @Provides
+    @Named("javaParserWorkerCount")
+    @Singleton
+    protected int getJavaParserWorkerCount() {
+        return JavaExtension.getParserWorkerCount();
+    }
+
     @Provides
     @Singleton
     @Named("JavaFileType")
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages;
+
+import org.eclipse.che.ide.collections.Array;
+import com.google.gwt.webworker.client.messages.MessageImpl;
+
+/**
+ * Part of the code assist proposals computed for the request with given id.
+ * Proposals are sent from the most relevant ones, <code>last</code> is set on the last part.
+ */
+public class CAProposalsChunkMessage extends MessageImpl {
+    protected CAProposalsChunkMessage() {
+    }
+
+    public static native CAProposalsChunkMessage make() /*-{
+        return {
+            _type : 23
+        }
+    }-*/;
+
+    public final native String id() /*-{
+        return this["id"];
+    }-*/;
+
+    public final native CAProposalsChunkMessage setId(String id) /*-{
+        this["id"] = id;
+        return this;
+    }-*/;
+
+    public final native Array<WorkerProposal> proposals() /*-{
+        return this["proposals"];
+    }-*/;
+
+    public final native CAProposalsChunkMessage setProposals(Array<WorkerProposal> proposals) /*-{
+        this["proposals"] = proposals;
+        return this;
+    }-*/;
+
+    public final native boolean isLast() /*-{
+        return !!this["last"];
+    }-*/;
+
+    public final native CAProposalsChunkMessage setLast(boolean last) /*-{
+        this["last"] = last;
+        return this;
+    }-*/;
+}
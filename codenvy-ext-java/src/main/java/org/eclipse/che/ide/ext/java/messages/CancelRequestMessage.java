@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages;
+
+import com.google.gwt.webworker.client.messages.MessageImpl;
+
+/**
+ * Cancels the request with given id if the worker hasn't started to process it yet.
+ */
+public class CancelRequestMessage extends MessageImpl {
+    protected CancelRequestMessage() {
+    }
+
+    public static native CancelRequestMessage make() /*-{
+        return {
+            _type : 20
+        }
+    }-*/;
+
+    public final native String id() /*-{
+        return this["id"];
+    }-*/;
+
+    public final native CancelRequestMessage setId(String id) /*-{
+        this["id"] = id;
+        return this;
+    }-*/;
+}
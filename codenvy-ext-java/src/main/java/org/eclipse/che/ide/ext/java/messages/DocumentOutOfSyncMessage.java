@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages;
+
+import com.google.gwt.webworker.client.messages.MessageImpl;
+
+/**
+ * Sent by the worker when changes of the document can't be applied to its copy of the file,
+ * the full source of the file is expected in response.
+ */
+public class DocumentOutOfSyncMessage extends MessageImpl {
+    protected DocumentOutOfSyncMessage() {
+    }
+
+    public static native DocumentOutOfSyncMessage make() /*-{
+        return {
+            _type : 19
+        }
+    }-*/;
+
+    public final native String getFilePath() /*-{
+        return this["filePath"];
+    }-*/;
+
+    public final native DocumentOutOfSyncMessage setFilePath(String filePath) /*-{
+        this["filePath"] = filePath;
+        return this;
+    }-*/;
+}
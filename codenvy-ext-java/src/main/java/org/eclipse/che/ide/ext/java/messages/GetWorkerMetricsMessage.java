@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages;
+
+import com.google.gwt.webworker.client.messages.MessageImpl;
+
+/**
+ * Requests timings and counters recorded by the worker, the worker answers with {@link WorkerMetricsMessage}.
+ * If <code>reset</code> is set the worker starts to record them again after the answer.
+ */
+public class GetWorkerMetricsMessage extends MessageImpl {
+    protected GetWorkerMetricsMessage() {
+    }
+
+    public static native GetWorkerMetricsMessage make() /*-{
+        return {
+            _type : 25
+        }
+    }-*/;
+
+    public final native String id() /*-{
+        return this["id"];
+    }-*/;
+
+    public final native GetWorkerMetricsMessage setId(String id) /*-{
+        this["id"] = id;
+        return this;
+    }-*/;
+
+    public final native boolean isReset() /*-{
+        return !!this["reset"];
+    }-*/;
+
+    public final native GetWorkerMetricsMessage setReset(boolean reset) /*-{
+        this["reset"] = reset;
+        return this;
+    }-*/;
+}
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages;
+
+import com.google.gwt.webworker.client.messages.MessageImpl;
+
+/**
+ * Queued by the worker to itself to send the next part of the proposals of the code assist request with given id.
+ * It's cancelled together with the request, so proposals which aren't sent yet are dropped.
+ */
+public class NextProposalsChunkMessage extends MessageImpl {
+    protected NextProposalsChunkMessage() {
+    }
+
+    public static native NextProposalsChunkMessage make() /*-{
+        return {
+            _type : 24
+        }
+    }-*/;
+
+    public final native String id() /*-{
+        return this["id"];
+    }-*/;
+
+    public final native NextProposalsChunkMessage setId(String id) /*-{
+        this["id"] = id;
+        return this;
+    }-*/;
+}
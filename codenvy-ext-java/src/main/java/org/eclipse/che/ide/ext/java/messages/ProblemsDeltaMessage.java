@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages;
+
+import org.eclipse.che.ide.collections.js.JsoArray;
+import com.google.gwt.webworker.client.messages.MessageImpl;
+
+/**
+ * Changes of the problems of a file since the previous parse of this file.
+ * Problems from <code>index</code> to <code>index + removeCount</code> of the previous list are replaced by
+ * <code>problems</code>. When <code>full</code> is set the previous list is discarded and <code>problems</code>
+ * contains all problems of the file.
+ */
+public class ProblemsDeltaMessage extends MessageImpl {
+    protected ProblemsDeltaMessage() {
+    }
+
+    public static native ProblemsDeltaMessage make() /*-{
+        return {
+            _type : 22
+        }
+    }-*/;
+
+    public final native String getId() /*-{
+        return this["id"];
+    }-*/;
+
+    public final native ProblemsDeltaMessage setId(String id) /*-{
+        this["id"] = id;
+        return this;
+    }-*/;
+
+    public final native String getFilePath() /*-{
+        return this["filePath"];
+    }-*/;
+
+    public final native ProblemsDeltaMessage setFilePath(String filePath) /*-{
+        this["filePath"] = filePath;
+        return this;
+    }-*/;
+
+    public final native boolean isFull() /*-{
+        return !!this["full"];
+    }-*/;
+
+    public final native ProblemsDeltaMessage setFull(boolean full) /*-{
+        this["full"] = full;
+        return this;
+    }-*/;
+
+    public final native int getIndex() /*-{
+        return this["index"];
+    }-*/;
+
+    public final native ProblemsDeltaMessage setIndex(int index) /*-{
+        this["index"] = index;
+        return this;
+    }-*/;
+
+    public final native int getRemoveCount() /*-{
+        return this["removeCount"];
+    }-*/;
+
+    public final native ProblemsDeltaMessage setRemoveCount(int removeCount) /*-{
+        this["removeCount"] = removeCount;
+        return this;
+    }-*/;
+
+    public final native JsoArray<Problem> getProblems() /*-{
+        return this["problems"];
+    }-*/;
+
+    public final native ProblemsDeltaMessage setProblems(JsoArray<Problem> problems) /*-{
+        this["problems"] = problems;
+        return this;
+    }-*/;
+}
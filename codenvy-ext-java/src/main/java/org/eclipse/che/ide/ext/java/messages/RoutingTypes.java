@@ -33,6 +33,15 @@ public class RoutingTypes {
     public static final int COMPUTE_JAVADOC_HANDE      = 15;
     public static final int JAVADOC_HANDLE_COMPUTED    = 16;
     public static final int FILE_CLOSED                = 17;
+    public static final int UPDATE_DOCUMENT            = 18;
+    public static final int DOCUMENT_OUT_OF_SYNC       = 19;
+    public static final int CANCEL_REQUEST             = 20;
+    public static final int TYPES_LOADED               = 21;
+    public static final int PROBLEMS_DELTA             = 22;
+    public static final int CA_PROPOSALS_CHUNK         = 23;
+    public static final int CA_NEXT_PROPOSALS_CHUNK    = 24;
+    public static final int GET_WORKER_METRICS         = 25;
+    public static final int WORKER_METRICS             = 26;
 
 
 }
@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages;
+
+import org.eclipse.che.ide.collections.Jso;
+import org.eclipse.che.ide.collections.js.JsoArray;
+import com.google.gwt.webworker.client.messages.MessageImpl;
+
+/**
+ * Types loaded by one parser worker from the server, shared with the other workers.
+ * Each type is an object with the <code>key</code> of the type and its <code>type</code> info.
+ */
+public class TypesLoadedMessage extends MessageImpl {
+    protected TypesLoadedMessage() {
+    }
+
+    public static native TypesLoadedMessage make() /*-{
+        return {
+            _type : 21
+        }
+    }-*/;
+
+    public final native JsoArray<Jso> getTypes() /*-{
+        return this["types"];
+    }-*/;
+
+    public final native TypesLoadedMessage setTypes(JsoArray<Jso> types) /*-{
+        this["types"] = types;
+        return this;
+    }-*/;
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages;
+
+import org.eclipse.che.ide.collections.js.JsoArray;
+import com.google.gwt.webworker.client.messages.MessageImpl;
+
+/**
+ * Synchronizes content of the opened file with the copy kept by the worker.
+ * <p/>
+ * Carries either the full source of the file or the changes made since the base version.
+ */
+public class UpdateDocumentMessage extends MessageImpl {
+    protected UpdateDocumentMessage() {
+    }
+
+    public static native UpdateDocumentMessage make() /*-{
+        return {
+            _type : 18
+        }
+    }-*/;
+
+    public final native String getFilePath() /*-{
+        return this["filePath"];
+    }-*/;
+
+    public final native UpdateDocumentMessage setFilePath(String filePath) /*-{
+        this["filePath"] = filePath;
+        return this;
+    }-*/;
+
+    /** Version of the document after update. */
+    public final native int getVersion() /*-{
+        return this["version"];
+    }-*/;
+
+    public final native UpdateDocumentMessage setVersion(int version) /*-{
+        this["version"] = version;
+        return this;
+    }-*/;
+
+    /** Version of the document to which changes are applied. */
+    public final native int getBaseVersion() /*-{
+        return this["baseVersion"];
+    }-*/;
+
+    public final native UpdateDocumentMessage setBaseVersion(int baseVersion) /*-{
+        this["baseVersion"] = baseVersion;
+        return this;
+    }-*/;
+
+    /** Full source of the document, <code>null</code> if message carries changes. */
+    public final native String getSource() /*-{
+        return this["source"];
+    }-*/;
+
+    public final native UpdateDocumentMessage setSource(String source) /*-{
+        this["source"] = source;
+        return this;
+    }-*/;
+
+    public final native boolean hasSource() /*-{
+        return this.hasOwnProperty("source");
+    }-*/;
+
+    public final native JsoArray<Change> getChanges() /*-{
+        return this["changes"];
+    }-*/;
+
+    public final native UpdateDocumentMessage setChanges(JsoArray<Change> changes) /*-{
+        this["changes"] = changes;
+        return this;
+    }-*/;
+}
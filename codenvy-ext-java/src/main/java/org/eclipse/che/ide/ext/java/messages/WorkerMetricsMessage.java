@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages;
+
+import org.eclipse.che.ide.collections.js.JsoStringMap;
+import org.eclipse.che.ide.ext.java.messages.impl.WorkerMetric;
+import com.google.gwt.webworker.client.messages.MessageImpl;
+
+/**
+ * Timings and counters recorded by the worker since it's started or since the last reset, keyed by the name of the
+ * measured operation.
+ */
+public class WorkerMetricsMessage extends MessageImpl {
+    protected WorkerMetricsMessage() {
+    }
+
+    public static native WorkerMetricsMessage make() /*-{
+        return {
+            _type : 26
+        }
+    }-*/;
+
+    public final native String id() /*-{
+        return this["id"];
+    }-*/;
+
+    public final native WorkerMetricsMessage setId(String id) /*-{
+        this["id"] = id;
+        return this;
+    }-*/;
+
+    /** Returns time in milliseconds during which the metrics were recorded. */
+    public final native double period() /*-{
+        return this["period"];
+    }-*/;
+
+    public final native WorkerMetricsMessage setPeriod(double period) /*-{
+        this["period"] = period;
+        return this;
+    }-*/;
+
+    public final native JsoStringMap<WorkerMetric> metrics() /*-{
+        return this["metrics"];
+    }-*/;
+
+    public final native WorkerMetricsMessage setMetrics(JsoStringMap<WorkerMetric> metrics) /*-{
+        this["metrics"] = metrics;
+        return this;
+    }-*/;
+}
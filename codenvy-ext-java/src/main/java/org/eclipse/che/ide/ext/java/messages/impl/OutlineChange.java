@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages.impl;
+
+import org.eclipse.che.ide.collections.Array;
+import org.eclipse.che.ide.collections.Jso;
+import com.google.gwt.core.client.JsArrayInteger;
+
+/**
+ * Change of the children of one outline block: children from <code>index</code> to <code>index + removeCount</code>
+ * are replaced by <code>blocks</code>. The block is found by the indexes of the children on the <code>path</code> from
+ * the top level blocks, an empty path means the top level blocks themselves.
+ */
+public class OutlineChange extends Jso {
+    protected OutlineChange() {
+    }
+
+    public static native OutlineChange make() /*-{
+        return {};
+    }-*/;
+
+    public native final JsArrayInteger getPath() /*-{
+        return this.path;
+    }-*/;
+
+    public native final OutlineChange setPath(JsArrayInteger path) /*-{
+        this.path = path;
+        return this;
+    }-*/;
+
+    public native final int getIndex() /*-{
+        return this.index;
+    }-*/;
+
+    public native final OutlineChange setIndex(int index) /*-{
+        this.index = index;
+        return this;
+    }-*/;
+
+    public native final int getRemoveCount() /*-{
+        return this.removeCount;
+    }-*/;
+
+    public native final OutlineChange setRemoveCount(int removeCount) /*-{
+        this.removeCount = removeCount;
+        return this;
+    }-*/;
+
+    public native final Array<WorkerCodeBlock> getBlocks() /*-{
+        return this.blocks;
+    }-*/;
+
+    public native final OutlineChange setBlocks(Array<WorkerCodeBlock> blocks) /*-{
+        this.blocks = blocks;
+        return this;
+    }-*/;
+}
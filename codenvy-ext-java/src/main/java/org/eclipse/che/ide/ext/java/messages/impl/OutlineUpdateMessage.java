@@ -11,10 +11,15 @@
 package org.eclipse.che.ide.ext.java.messages.impl;
 
 import org.eclipse.che.ide.collections.Array;
+import com.google.gwt.core.client.JsArrayInteger;
 import com.google.gwt.webworker.client.messages.MessageImpl;
 
 /**
- * Message for Outline Update
+ * Message for Outline Update.
+ * <p/>
+ * The first message for a file contains all <code>blocks</code>, next messages contain only the <code>changes</code> of the
+ * blocks since the previous message and the new <code>positions</code> of the blocks which were moved: triples of the
+ * index of the block in the pre-order of the updated outline, its offset and its length.
  *
  * @author Evgen Vidolob
  */
@@ -40,6 +45,24 @@ public class OutlineUpdateMessage extends MessageImpl {
         return this;
     }-*/;
 
+    public native final Array<OutlineChange> getChanges() /*-{
+        return this.changes;
+    }-*/;
+
+    public native final OutlineUpdateMessage setChanges(Array<OutlineChange> changes) /*-{
+        this.changes = changes;
+        return this;
+    }-*/;
+
+    public native final JsArrayInteger getPositions() /*-{
+        return this.positions;
+    }-*/;
+
+    public native final OutlineUpdateMessage setPositions(JsArrayInteger positions) /*-{
+        this.positions = positions;
+        return this;
+    }-*/;
+
     public static native OutlineUpdateMessage make() /*-{
         return {
             _type : 8
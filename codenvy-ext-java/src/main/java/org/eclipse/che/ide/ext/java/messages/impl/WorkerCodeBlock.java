@@ -127,6 +127,11 @@ public class WorkerCodeBlock extends Jso {
     }
 
 
+    /** Returns <code>true</code> if the other block is the same declaration, wherever it is in the file. */
+    public native final boolean isSameDeclaration(WorkerCodeBlock other) /*-{
+        return this[0] === other[0] && this[5] === other[5] && this[6] === other[6] && this[7] === other[7];
+    }-*/;
+
     public static native WorkerCodeBlock make() /*-{
         return [];
     }-*/;
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.messages.impl;
+
+import org.eclipse.che.ide.collections.Jso;
+
+/**
+ * Aggregate of the values recorded by the worker for one operation: number of the values, their sum and the maximum.
+ * Values are durations in milliseconds, sizes in characters or numbers of calls depending on the operation.
+ */
+public class WorkerMetric extends Jso {
+    protected WorkerMetric() {
+    }
+
+    public static native WorkerMetric make() /*-{
+        return {};
+    }-*/;
+
+    public native final double getCount() /*-{
+        return this.count;
+    }-*/;
+
+    public native final WorkerMetric setCount(double count) /*-{
+        this.count = count;
+        return this;
+    }-*/;
+
+    public native final double getTotal() /*-{
+        return this.total;
+    }-*/;
+
+    public native final WorkerMetric setTotal(double total) /*-{
+        this.total = total;
+        return this;
+    }-*/;
+
+    public native final double getMax() /*-{
+        return this.max;
+    }-*/;
+
+    public native final WorkerMetric setMax(double max) /*-{
+        this.max = max;
+        return this;
+    }-*/;
+}
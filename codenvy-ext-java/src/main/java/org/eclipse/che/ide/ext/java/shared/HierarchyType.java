@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.shared;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Type of a type hierarchy.
+ */
+@DTO
+public interface HierarchyType {
+    /** Fully qualified name of the type, or the simple name if the type can't be resolved. */
+    String getFqn();
+
+    void setFqn(String fqn);
+
+    /** Modifiers of the type, <code>0</code> if the type isn't declared in the project or its libraries. */
+    int getFlags();
+
+    void setFlags(int flags);
+
+    /** Path of the project or the library which declares the type. */
+    String getContainerPath();
+
+    void setContainerPath(String containerPath);
+
+    /** Path of the file which declares the type, relative to its container. */
+    String getPath();
+
+    void setPath(String path);
+
+    /**
+     * Returns <code>false</code> if the type was found through a supertype reference of a source which isn't qualified
+     * and may name another type with the same simple name, imported from another package.
+     */
+    boolean isVerified();
+
+    void setVerified(boolean verified);
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+/**
+ * Set of strings which answers {@link #mightContain(String)} without false negatives and with the configured rate of
+ * false positives, while using a few bits per added string.
+ */
+public class BloomFilter {
+
+    private final int[] bits;
+    private final int   bitCount;
+    private final int   hashCount;
+
+    /**
+     * @param expectedSize
+     *         expected number of the added strings
+     * @param falsePositiveRate
+     *         expected rate of false positives when the expected number of strings is added
+     */
+    public BloomFilter(int expectedSize, double falsePositiveRate) {
+        int size = Math.max(1, expectedSize);
+        double bitsPerString = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        bitCount = (int)Math.max(32, Math.min(Math.ceil(size * bitsPerString), Integer.MAX_VALUE - 31));
+        hashCount = Math.max(1, (int)Math.round(bitsPerString * Math.log(2)));
+        bits = new int[(bitCount + 31) >>> 5];
+    }
+
+    public void add(String value) {
+        int hash = value.hashCode();
+        int step = secondHash(value);
+        for (int i = 0; i < hashCount; i++) {
+            int index = bitIndex(hash);
+            bits[index >>> 5] |= 1 << (index & 31);
+            hash += step;
+        }
+    }
+
+    /** Returns <code>false</code> if the value is surely not added, <code>true</code> if it is probably added. */
+    public boolean mightContain(String value) {
+        int hash = value.hashCode();
+        int step = secondHash(value);
+        for (int i = 0; i < hashCount; i++) {
+            int index = bitIndex(hash);
+            if ((bits[index >>> 5] & (1 << (index & 31))) == 0) {
+                return false;
+            }
+            hash += step;
+        }
+        return true;
+    }
+
+    private int bitIndex(int hash) {
+        return (hash & 0x7fffffff) % bitCount;
+    }
+
+    /** FNV-1a hash, it is odd so the probes of the double hashing don't repeat early. */
+    private static int secondHash(String value) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 16777619;
+        }
+        return hash | 1;
+    }
+}
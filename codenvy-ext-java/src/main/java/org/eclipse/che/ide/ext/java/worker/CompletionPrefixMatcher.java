@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.ext.java.jdt.core.compiler.CharOperation;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.parser.ScannerHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Filters proposals computed for a prefix by a longer prefix, without running the completion again.
+ * Proposals are matched by their name: exact prefix matches go first, then case insensitive prefix, camel case and
+ * substring matches. Proposals of the same rank keep their order.
+ */
+public class CompletionPrefixMatcher {
+
+    static final int NO_MATCH = -1;
+
+    private CompletionPrefixMatcher() {
+    }
+
+    /**
+     * Returns the rank of the name for the prefix, lower is better.
+     *
+     * @return rank from <code>0</code> to <code>3</code> or {@link #NO_MATCH}
+     */
+    public static int rank(String prefix, String name) {
+        if (name.startsWith(prefix)) {
+            return 0;
+        }
+        if (name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            return 1;
+        }
+        if (CharOperation.camelCaseMatch(prefix.toCharArray(), name.toCharArray())) {
+            return 2;
+        }
+        if (name.toLowerCase().contains(prefix.toLowerCase())) {
+            return 3;
+        }
+        return NO_MATCH;
+    }
+
+    /** Returns the identifier which starts the display string of a proposal. */
+    public static String getName(String displayString) {
+        int end = 0;
+        while (end < displayString.length() && ScannerHelper.isJavaIdentifierPart(displayString.charAt(end))) {
+            end++;
+        }
+        return displayString.substring(0, end);
+    }
+
+    /** Returns <code>true</code> if the text can be typed as a part of an identifier. */
+    public static boolean isIdentifierPart(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!ScannerHelper.isJavaIdentifierPart(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns indexes of the names which match the prefix, the best matches first.
+     *
+     * @param prefix
+     *         prefix typed by the user
+     * @param names
+     *         names of the proposals, in the order of their relevance
+     */
+    public static List<Integer> filter(String prefix, List<String> names) {
+        final List<Integer> indexes = new ArrayList<>();
+        final List<Integer> ranks = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            int rank = rank(prefix, names.get(i));
+            ranks.add(rank);
+            if (rank != NO_MATCH) {
+                indexes.add(i);
+            }
+        }
+        // sort is stable, so matches of the same rank stay in order of relevance
+        Collections.sort(indexes, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return ranks.get(o1) - ranks.get(o2);
+            }
+        });
+        return indexes;
+    }
+}
@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.ext.java.jdt.core.compiler.IProblem;
+import org.eclipse.che.ide.ext.java.jdt.core.dom.ASTVisitor;
+import org.eclipse.che.ide.ext.java.jdt.core.dom.Block;
+import org.eclipse.che.ide.ext.java.jdt.core.dom.CompilationUnit;
+import org.eclipse.che.ide.ext.java.jdt.core.dom.Initializer;
+import org.eclipse.che.ide.ext.java.jdt.core.dom.MethodDeclaration;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.problem.DefaultProblem;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reconciles a file edited inside one method body without resolving the bodies of the other methods.
+ * <p/>
+ * Resolving method bodies takes most of the parse time. When the change since the last reconcile is inside a single
+ * method body, bodies of the other methods are replaced by a <code>throw null;</code> statement padded with spaces,
+ * so offsets and lines of the source stay the same, and the result is parsed. Problems inside the left out bodies are
+ * taken from the previous reconcile. The resulting compilation unit has no statements in those bodies, so it's
+ * cached as partial and resolved again fully when a feature needs it (see {@link WorkerCuCache#getResolvedCompilationUnit(String)}).
+ * <p/>
+ * Warnings about unused imports and private members depend on all bodies, they are reported only if they were
+ * reported by the previous reconcile too. Until the next full parse such warnings may be missing, but never wrong.
+ * <p/>
+ * Problems of the left out bodies may become stale when other files or the classpath change, so a file is parsed fully
+ * when its source isn't changed (an explicit reparse), when its problems were dropped from the cache (see
+ * {@link WorkerCuCache#invalidate()}) and after {@link #MAX_INCREMENTAL_RECONCILES} incremental reconciles in a row.
+ */
+public class IncrementalReconciler {
+
+    private static final char[] EMPTY_BODY = "throw null;".toCharArray();
+
+    /** Number of incremental reconciles of a file after which it's parsed fully, so reused problems are checked again. */
+    static final int MAX_INCREMENTAL_RECONCILES = 20;
+
+    /** Warnings which depend on the bodies left out of the parse. */
+    private static final Set<Integer> CROSS_BODY_PROBLEMS = new HashSet<>();
+
+    static {
+        CROSS_BODY_PROBLEMS.add(IProblem.UnusedImport);
+        CROSS_BODY_PROBLEMS.add(IProblem.UnusedPrivateType);
+        CROSS_BODY_PROBLEMS.add(IProblem.UnusedPrivateField);
+        CROSS_BODY_PROBLEMS.add(IProblem.UnusedPrivateMethod);
+        CROSS_BODY_PROBLEMS.add(IProblem.UnusedPrivateConstructor);
+    }
+
+    private final WorkerCuCache cuCache;
+
+    public IncrementalReconciler(WorkerCuCache cuCache) {
+        this.cuCache = cuCache;
+    }
+
+    /**
+     * Prepares incremental reconcile of the file.
+     *
+     * @param filePath
+     *         path of the file
+     * @param source
+     *         new content of the file
+     * @return reconcile or <code>null</code> if the file must be parsed fully
+     */
+    public Reconcile prepare(String filePath, String source) {
+        CompilationUnit previousUnit = cuCache.getCompilationUnit(filePath);
+        String previousSource = cuCache.getSource(filePath);
+        IProblem[] previousProblems = cuCache.getProblems(filePath);
+        if (previousUnit == null || previousSource == null || previousProblems == null || hasSyntaxErrors(previousProblems)
+            || cuCache.getIncrementalReconciles(filePath) >= MAX_INCREMENTAL_RECONCILES) {
+            return null;
+        }
+
+        int prefix = 0;
+        int maxPrefix = Math.min(previousSource.length(), source.length());
+        while (prefix < maxPrefix && previousSource.charAt(prefix) == source.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix == previousSource.length() && prefix == source.length()) {
+            // the file is parsed again on request, e.g. after other files were changed
+            return null;
+        }
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix
+               && previousSource.charAt(previousSource.length() - suffix - 1) == source.charAt(source.length() - suffix - 1)) {
+            suffix++;
+        }
+        int previousEnd = previousSource.length() - suffix;
+        int end = source.length() - suffix;
+        if (!isNeutral(previousSource, prefix, previousEnd) || !isNeutral(source, prefix, end)) {
+            return null;
+        }
+
+        BodyCollector collector = new BodyCollector(prefix, previousEnd);
+        previousUnit.accept(collector);
+        if (collector.editedBody == null) {
+            return null;
+        }
+
+        int delta = end - previousEnd;
+        char[] content = source.toCharArray();
+        List<int[]> previousRanges = new ArrayList<>();
+        List<int[]> ranges = new ArrayList<>();
+        for (Block body : collector.bodies) {
+            int start = body.getStartPosition();
+            int bodyEnd = start + body.getLength();
+            int shift = start >= previousEnd ? delta : 0;
+            if (blank(content, start + shift + 1, bodyEnd + shift - 1)) {
+                previousRanges.add(new int[]{start, bodyEnd});
+                ranges.add(new int[]{start + shift, bodyEnd + shift});
+            }
+        }
+        if (ranges.isEmpty()) {
+            return null;
+        }
+        return new Reconcile(new String(content), source, previousProblems, previousRanges, ranges, previousEnd, delta);
+    }
+
+    private static boolean hasSyntaxErrors(IProblem[] problems) {
+        for (IProblem problem : problems) {
+            if (problem.isError() && (problem.getID() & IProblem.Syntax) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns <code>true</code> if the changed text can't change structure of the code outside of its method body. */
+    private static boolean isNeutral(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '{' || c == '}') {
+                return false;
+            }
+            if ((c == '/' || c == '*') && i + 1 < end) {
+                char next = text.charAt(i + 1);
+                if ((c == '/' && next == '*') || (c == '*' && next == '/')) {
+                    return false;
+                }
+            }
+        }
+        // comment delimiter may be formed with the unchanged text around
+        return !(start > 0 && end > start && isCommentDelimiter(text.charAt(start - 1), text.charAt(start)))
+               && !(end < text.length() && end > start && isCommentDelimiter(text.charAt(end - 1), text.charAt(end)));
+    }
+
+    private static boolean isCommentDelimiter(char first, char second) {
+        return (first == '/' && second == '*') || (first == '*' && second == '/');
+    }
+
+    /** Replaces the body content between the given offsets, if it has a line long enough for the empty body. */
+    private static boolean blank(char[] content, int start, int end) {
+        int lineStart = start;
+        int emptyBodyStart = -1;
+        for (int i = start; i <= end && emptyBodyStart < 0; i++) {
+            if (i == end || content[i] == '\n' || content[i] == '\r') {
+                if (i - lineStart >= EMPTY_BODY.length) {
+                    emptyBodyStart = lineStart;
+                }
+                lineStart = i + 1;
+            }
+        }
+        if (emptyBodyStart < 0) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (content[i] != '\n' && content[i] != '\r') {
+                content[i] = ' ';
+            }
+        }
+        System.arraycopy(EMPTY_BODY, 0, content, emptyBodyStart, EMPTY_BODY.length);
+        return true;
+    }
+
+    private static boolean contains(List<int[]> ranges, int offset) {
+        for (int[] range : ranges) {
+            if (offset > range[0] && offset < range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Incremental reconcile of a file. */
+    public static class Reconcile {
+        private final String          parseSource;
+        private final String          source;
+        private final IProblem[]      previousProblems;
+        private final List<int[]>     previousRanges;
+        private final List<int[]>     ranges;
+        private final int             previousEnd;
+        private final int             delta;
+
+        private Reconcile(String parseSource, String source, IProblem[] previousProblems, List<int[]> previousRanges,
+                          List<int[]> ranges, int previousEnd, int delta) {
+            this.parseSource = parseSource;
+            this.source = source;
+            this.previousProblems = previousProblems;
+            this.previousRanges = previousRanges;
+            this.ranges = ranges;
+            this.previousEnd = previousEnd;
+            this.delta = delta;
+        }
+
+        /** Returns source to parse, with bodies of the not edited methods left out. */
+        public String getParseSource() {
+            return parseSource;
+        }
+
+        /**
+         * Merges problems of the parsed source with problems of the left out bodies found by the previous reconcile.
+         *
+         * @param problems
+         *         problems reported by the parse of {@link #getParseSource()}
+         * @return problems of the file
+         */
+        public IProblem[] mergeProblems(List<IProblem> problems) {
+            Set<String> crossBodyProblems = new HashSet<>();
+            List<IProblem> result = new ArrayList<>();
+            for (IProblem problem : previousProblems) {
+                int start = problem.getSourceStart();
+                if (contains(previousRanges, start)) {
+                    result.add(shift(problem));
+                } else if (CROSS_BODY_PROBLEMS.contains(problem.getID())) {
+                    crossBodyProblems.add(problem.getID() + ":" + shift(start));
+                }
+            }
+            for (IProblem problem : problems) {
+                if (contains(ranges, problem.getSourceStart())) {
+                    continue;
+                }
+                if (CROSS_BODY_PROBLEMS.contains(problem.getID())
+                    && !crossBodyProblems.contains(problem.getID() + ":" + problem.getSourceStart())) {
+                    continue;
+                }
+                result.add(problem);
+            }
+            return result.toArray(new IProblem[result.size()]);
+        }
+
+        private int shift(int offset) {
+            return offset >= previousEnd ? offset + delta : offset;
+        }
+
+        private IProblem shift(IProblem problem) {
+            int start = shift(problem.getSourceStart());
+            if (start == problem.getSourceStart()) {
+                return problem;
+            }
+            int lineStart = start == 0 ? 0 : source.lastIndexOf('\n', start - 1) + 1;
+            int line = 1;
+            for (int i = 0; i < lineStart; i++) {
+                if (source.charAt(i) == '\n') {
+                    line++;
+                }
+            }
+            return new DefaultProblem(problem.getOriginatingFileName(), problem.getMessage(), problem.getID(), problem.getArguments(),
+                                      ((DefaultProblem)problem).getSeverity(), start, shift(problem.getSourceEnd()), line,
+                                      start - lineStart + 1);
+        }
+    }
+
+    /**
+     * Finds the outermost method or initializer body which contains the change and bodies of the other methods.
+     * Bodies of constructors and initializers are never left out, as they affect the checks of the class.
+     */
+    private static class BodyCollector extends ASTVisitor {
+        private final int         start;
+        private final int         end;
+        private final List<Block> bodies = new ArrayList<>();
+        private       Block       editedBody;
+
+        BodyCollector(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean visit(MethodDeclaration node) {
+            Block body = node.getBody();
+            if (body == null) {
+                return false;
+            }
+            if (contains(body)) {
+                editedBody = body;
+            } else if (!node.isConstructor()) {
+                bodies.add(body);
+            }
+            return false;
+        }
+
+        @Override
+        public boolean visit(Initializer node) {
+            if (contains(node.getBody())) {
+                editedBody = node.getBody();
+            }
+            return false;
+        }
+
+        private boolean contains(Block body) {
+            return body.getStartPosition() < start && end < body.getStartPosition() + body.getLength() - 1;
+        }
+    }
+}
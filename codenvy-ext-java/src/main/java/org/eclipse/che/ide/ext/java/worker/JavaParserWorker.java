@@ -26,6 +26,7 @@ public class JavaParserWorker extends DedicatedWorkerEntryPoint {
     }
 
     public void sendMessage(String message) {
+        WorkerMetrics.get().record(WorkerMetrics.MESSAGE_SENT, message.length());
         postMessage(message);
     }
 }
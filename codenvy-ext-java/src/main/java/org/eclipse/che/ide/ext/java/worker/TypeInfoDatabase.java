@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.collections.js.JsoArray;
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * IndexedDB storage of the type infos loaded from library jars. Entries are keyed by the hash of the jar and the
+ * fully qualified name of the type, so they stay valid while the same jar is on the classpath and are shared by all
+ * projects which use the jar. Database version is part of the schema, entries of older versions are dropped on upgrade.
+ * <p/>
+ * The jars of each project are recorded with the time the project was opened last. Types of the jars which aren't on
+ * the classpath of any project opened within {@link #PROJECT_EXPIRATION} are deleted.
+ * <p/>
+ * All operations are asynchronous and silently do nothing if IndexedDB isn't available.
+ */
+public class TypeInfoDatabase {
+
+    private static final String DB_NAME    = "che-java-type-info";
+    private static final int    DB_VERSION = 2;
+
+    /** Time in milliseconds after which the jars of a project which isn't opened anymore are forgotten. */
+    private static final double PROJECT_EXPIRATION = 14 * 24 * 60 * 60 * 1000d;
+
+    private JavaScriptObject db;
+    private JsoArray<String> pendingJars;
+    private LoadCallback     pendingCallback;
+    private String           pendingProject;
+    private JsoArray<String> pendingProjectJars;
+
+    public TypeInfoDatabase() {
+        open(DB_NAME, DB_VERSION);
+    }
+
+    /**
+     * Loads all stored types of the jars.
+     *
+     * @param jarHashes
+     *         hashes of the jars
+     * @param callback
+     *         called for each stored type
+     */
+    public void load(JsoArray<String> jarHashes, LoadCallback callback) {
+        if (db == null) {
+            // database isn't opened yet, load when it's ready
+            pendingJars = jarHashes;
+            pendingCallback = callback;
+            return;
+        }
+        for (String jar : jarHashes.asIterable()) {
+            load(db, jar, callback);
+        }
+    }
+
+    /**
+     * Records the jars of the project and deletes the types of the jars which aren't used by any project anymore.
+     *
+     * @param projectPath
+     *         path of the project
+     * @param jarHashes
+     *         hashes of the jars on the classpath of the project
+     */
+    public void setProjectJars(String projectPath, JsoArray<String> jarHashes) {
+        if (db == null) {
+            pendingProject = projectPath;
+            pendingProjectJars = jarHashes;
+            return;
+        }
+        setProjectJars(db, projectPath, jarHashes, PROJECT_EXPIRATION);
+    }
+
+    /** Stores type info of the type loaded from the jar. */
+    public void put(String jarHash, String fqn, String json) {
+        if (db != null) {
+            put(db, jarHash, fqn, json);
+        }
+    }
+
+    private void onOpened(JavaScriptObject db) {
+        this.db = db;
+        if (pendingProject != null) {
+            setProjectJars(pendingProject, pendingProjectJars);
+            pendingProject = null;
+            pendingProjectJars = null;
+        }
+        if (pendingJars != null) {
+            load(pendingJars, pendingCallback);
+            pendingJars = null;
+            pendingCallback = null;
+        }
+    }
+
+    private native void open(String name, int version)/*-{
+        var factory = self.indexedDB;
+        if (!factory) {
+            return;
+        }
+        var instance = this;
+        var request = factory.open(name, version);
+        request.onupgradeneeded = function (event) {
+            var db = event.target.result;
+            if (db.objectStoreNames.contains("types")) {
+                db.deleteObjectStore("types");
+            }
+            var store = db.createObjectStore("types", {keyPath: "key"});
+            store.createIndex("jar", "jar", {unique: false});
+            if (db.objectStoreNames.contains("projects")) {
+                db.deleteObjectStore("projects");
+            }
+            db.createObjectStore("projects", {keyPath: "project"});
+        };
+        request.onsuccess = function (event) {
+            instance.@org.eclipse.che.ide.ext.java.worker.TypeInfoDatabase::onOpened(Lcom/google/gwt/core/client/JavaScriptObject;)(event.target.result);
+        };
+    }-*/;
+
+    private native void load(JavaScriptObject db, String jar, LoadCallback callback)/*-{
+        var request = db.transaction("types", "readonly").objectStore("types").index("jar").openCursor(IDBKeyRange.only(jar));
+        request.onsuccess = function (event) {
+            var cursor = event.target.result;
+            if (cursor) {
+                callback.@org.eclipse.che.ide.ext.java.worker.TypeInfoDatabase.LoadCallback::onLoaded(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;)(
+                    cursor.value.jar, cursor.value.fqn, cursor.value.json);
+                cursor["continue"]();
+            }
+        };
+    }-*/;
+
+    private native void setProjectJars(JavaScriptObject db, String project, JsoArray<String> jars, double expiration)/*-{
+        var transaction = db.transaction(["projects", "types"], "readwrite");
+        var projects = transaction.objectStore("projects");
+        var types = transaction.objectStore("types");
+        var now = Date.now();
+        var used = {};
+        projects.put({project: project, jars: jars.slice(0), opened: now});
+        projects.openCursor().onsuccess = function (event) {
+            var cursor = event.target.result;
+            if (cursor) {
+                if (cursor.value.project !== project && now - cursor.value.opened > expiration) {
+                    cursor["delete"]();
+                } else {
+                    var projectJars = cursor.value.project === project ? jars : cursor.value.jars;
+                    for (var i = 0; i < projectJars.length; i++) {
+                        used[projectJars[i]] = true;
+                    }
+                }
+                cursor["continue"]();
+                return;
+            }
+            // all projects are read, the types of the jars which aren't used are deleted
+            types.index("jar").openKeyCursor(null, "nextunique").onsuccess = function (event) {
+                var jarCursor = event.target.result;
+                if (!jarCursor) {
+                    return;
+                }
+                if (!used[jarCursor.key]) {
+                    types.index("jar").openCursor(IDBKeyRange.only(jarCursor.key)).onsuccess = function (event) {
+                        var typeCursor = event.target.result;
+                        if (typeCursor) {
+                            typeCursor["delete"]();
+                            typeCursor["continue"]();
+                        }
+                    };
+                }
+                jarCursor["continue"]();
+            };
+        };
+    }-*/;
+
+    private native void put(JavaScriptObject db, String jar, String fqn, String json)/*-{
+        db.transaction("types", "readwrite").objectStore("types").put({key: jar + "|" + fqn, jar: jar, fqn: fqn, json: json});
+    }-*/;
+
+    public interface LoadCallback {
+        void onLoaded(String jarHash, String fqn, String json);
+    }
+}
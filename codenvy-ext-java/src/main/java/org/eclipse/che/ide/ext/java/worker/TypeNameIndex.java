@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.ext.java.jdt.core.compiler.CharOperation;
+import org.eclipse.che.ide.ext.java.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.che.ide.ext.java.jdt.internal.codeassist.ISearchRequestor;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.ClassFileConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Type names of the project downloaded from RestNameEnvironment, answers the type searches of CompletionEngine in the
+ * worker. Names are kept sorted by the simple name ignoring case, so prefix searches look only at the matching range.
+ */
+public class TypeNameIndex {
+
+    private static final Comparator<TypeName> BY_NAME = new Comparator<TypeName>() {
+        @Override
+        public int compare(TypeName o1, TypeName o2) {
+            return o1.lowerCaseName.compareTo(o2.lowerCaseName);
+        }
+    };
+
+    private final List<TypeName> types = new ArrayList<>();
+    /** Types whose access is forbidden, they exist but aren't found by the searches. */
+    private final List<TypeName> forbiddenTypes = new ArrayList<>();
+    private boolean sorted = true;
+
+    /**
+     * Adds the type to the index.
+     *
+     * @param packageName
+     *         dot separated name of the package
+     * @param simpleName
+     *         simple name of the type
+     * @param enclosingTypeNames
+     *         dot separated names of the enclosing types, empty for top level types
+     * @param modifiers
+     *         modifiers of the type
+     */
+    public void add(String packageName, String simpleName, String enclosingTypeNames, int modifiers) {
+        TypeName type = new TypeName(packageName, simpleName, enclosingTypeNames, modifiers);
+        if (sorted && !types.isEmpty() && BY_NAME.compare(types.get(types.size() - 1), type) > 0) {
+            sorted = false;
+        }
+        types.add(type);
+    }
+
+    /**
+     * Adds the type whose access is forbidden. It's only added to the name filter, so it isn't proposed.
+     *
+     * @see #add(String, String, String, int)
+     */
+    public void addForbidden(String packageName, String simpleName, String enclosingTypeNames, int modifiers) {
+        forbiddenTypes.add(new TypeName(packageName, simpleName, enclosingTypeNames, modifiers));
+    }
+
+    public int size() {
+        return types.size();
+    }
+
+    /**
+     * Creates filter of the names which exist in the index: fully qualified names of the types, with both '.' and '$'
+     * before the member type names, and names of the packages with their parent packages. Forbidden types are included.
+     *
+     * @param falsePositiveRate
+     *         expected rate of the false positives of the filter
+     */
+    public BloomFilter createNameFilter(double falsePositiveRate) {
+        List<TypeName> allTypes = new ArrayList<>(types);
+        allTypes.addAll(forbiddenTypes);
+        Set<String> packages = new HashSet<>();
+        for (TypeName type : allTypes) {
+            String packageName = type.packageName;
+            while (!packageName.isEmpty() && packages.add(packageName)) {
+                int lastDot = packageName.lastIndexOf('.');
+                packageName = lastDot == -1 ? "" : packageName.substring(0, lastDot);
+            }
+        }
+        BloomFilter filter = new BloomFilter(allTypes.size() * 2 + packages.size(), falsePositiveRate);
+        for (String packageName : packages) {
+            filter.add(packageName);
+        }
+        for (TypeName type : allTypes) {
+            String prefix = type.packageName.isEmpty() ? "" : type.packageName + '.';
+            if (type.enclosingTypeNames.isEmpty()) {
+                filter.add(prefix + type.simpleName);
+            } else {
+                filter.add(prefix + type.enclosingTypeNames + '.' + type.simpleName);
+                filter.add(prefix + type.enclosingTypeNames.replace('.', '$') + '$' + type.simpleName);
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Finds the types whose simple name starts with the given prefix, like INameEnvironment#findTypes.
+     *
+     * @param qualifiedName
+     *         qualified name separated by periods or a simple name (ex. java.util.V or V)
+     * @param findMembers
+     *         <code>true</code> to find member types too
+     * @param camelCaseMatch
+     *         <code>true</code> to find types whose name matches the prefix as camel case pattern
+     * @param searchFor
+     *         kind of the types, one of the type constants of {@link IJavaSearchConstants}
+     * @param requestor
+     *         receives found types
+     * @return number of found types
+     */
+    public int findTypes(char[] qualifiedName, boolean findMembers, boolean camelCaseMatch, int searchFor,
+                         ISearchRequestor requestor) {
+        int lastDot = CharOperation.lastIndexOf('.', qualifiedName);
+        String qualification = lastDot == -1 ? null : new String(qualifiedName, 0, lastDot);
+        char[] prefix = lastDot == -1 ? qualifiedName : CharOperation.subarray(qualifiedName, lastDot + 1, qualifiedName.length);
+        String lowerCasePrefix = new String(prefix).toLowerCase();
+        // camel case and prefix matches start with the same letter ignoring case
+        int start = indexOf(lowerCasePrefix.length() == 0 ? "" : lowerCasePrefix.substring(0, 1));
+        int found = 0;
+        for (int i = start; i < types.size(); i++) {
+            TypeName type = types.get(i);
+            if (lowerCasePrefix.length() > 0 && type.lowerCaseName.charAt(0) != lowerCasePrefix.charAt(0)) {
+                break;
+            }
+            boolean matches = type.lowerCaseName.startsWith(lowerCasePrefix)
+                              || (camelCaseMatch && CharOperation.camelCaseMatch(prefix, type.simpleName.toCharArray()));
+            if (matches && (qualification == null || qualification.equalsIgnoreCase(type.packageName))
+                && accept(type, findMembers, searchFor, requestor)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the types whose simple name is equal to the given name, like INameEnvironment#findExactTypes.
+     *
+     * @param simpleName
+     *         simple name of the type
+     * @param findMembers
+     *         <code>true</code> to find member types too
+     * @param searchFor
+     *         kind of the types, one of the type constants of {@link IJavaSearchConstants}
+     * @param requestor
+     *         receives found types
+     * @return number of found types
+     */
+    public int findExactTypes(char[] simpleName, boolean findMembers, int searchFor, ISearchRequestor requestor) {
+        String name = new String(simpleName);
+        int found = 0;
+        for (int i = indexOf(name.toLowerCase()); i < types.size(); i++) {
+            TypeName type = types.get(i);
+            if (!type.lowerCaseName.equals(name.toLowerCase())) {
+                break;
+            }
+            if (type.simpleName.equals(name) && accept(type, findMembers, searchFor, requestor)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /** Returns index of the first type whose lower case simple name isn't less than the given name. */
+    private int indexOf(String lowerCaseName) {
+        if (!sorted) {
+            Collections.sort(types, BY_NAME);
+            sorted = true;
+        }
+        int low = 0;
+        int high = types.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (types.get(middle).lowerCaseName.compareTo(lowerCaseName) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean accept(TypeName type, boolean findMembers, int searchFor, ISearchRequestor requestor) {
+        if (!findMembers && !type.enclosingTypeNames.isEmpty()) {
+            return false;
+        }
+        if (!matchesKind(type.modifiers, searchFor)) {
+            return false;
+        }
+        char[][] enclosingTypeNames =
+                type.enclosingTypeNames.isEmpty() ? null : CharOperation.splitOn('.', type.enclosingTypeNames.toCharArray());
+        requestor.acceptType(type.packageName.toCharArray(), type.simpleName.toCharArray(), enclosingTypeNames, type.modifiers,
+                             null);
+        return true;
+    }
+
+    private static boolean matchesKind(int modifiers, int searchFor) {
+        boolean isAnnotation = (modifiers & ClassFileConstants.AccAnnotation) != 0;
+        boolean isInterface = !isAnnotation && (modifiers & ClassFileConstants.AccInterface) != 0;
+        boolean isEnum = (modifiers & ClassFileConstants.AccEnum) != 0;
+        boolean isClass = !isAnnotation && !isInterface && !isEnum;
+        switch (searchFor) {
+            case IJavaSearchConstants.CLASS:
+                return isClass;
+            case IJavaSearchConstants.INTERFACE:
+                return isInterface;
+            case IJavaSearchConstants.ENUM:
+                return isEnum;
+            case IJavaSearchConstants.ANNOTATION_TYPE:
+                return isAnnotation;
+            case IJavaSearchConstants.CLASS_AND_ENUM:
+                return isClass || isEnum;
+            case IJavaSearchConstants.CLASS_AND_INTERFACE:
+                return isClass || isInterface;
+            case IJavaSearchConstants.INTERFACE_AND_ANNOTATION:
+                return isInterface || isAnnotation;
+            default:
+                return true;
+        }
+    }
+
+    private static class TypeName {
+        private final String packageName;
+        private final String simpleName;
+        private final String lowerCaseName;
+        private final String enclosingTypeNames;
+        private final int    modifiers;
+
+        private TypeName(String packageName, String simpleName, String enclosingTypeNames, int modifiers) {
+            this.packageName = packageName;
+            this.simpleName = simpleName;
+            this.lowerCaseName = simpleName.toLowerCase();
+            this.enclosingTypeNames = enclosingTypeNames;
+            this.modifiers = modifiers;
+        }
+    }
+}
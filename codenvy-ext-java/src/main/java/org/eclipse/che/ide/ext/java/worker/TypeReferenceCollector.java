@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.ext.java.jdt.core.compiler.InvalidInputException;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.ClassFileConstants;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.parser.Scanner;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.parser.TerminalTokens;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Collects the names of the types and packages the compiler is going to look up while resolving bindings of a compilation unit.
+ * Uses only the scanner, so it is much cheaper than parsing and can be done before the real parse to prefetch type infos
+ * with one request.
+ * <p/>
+ * The result is a guess: the imports, the package of the unit and the on demand imports combined with the simple
+ * names which look like type names. A simple name is guessed only in a position where a type is expected: after
+ * <code>new</code>, <code>extends</code>, <code>implements</code>, <code>throws</code>, <code>instanceof</code> or
+ * <code>@</code>, in a declaration, a cast, a type argument or before a member access. Names of constants
+ * (<code>MAX_SIZE</code>) and declared type parameters are never guessed, unresolved guesses cost a lookup on the server.
+ */
+public class TypeReferenceCollector {
+
+    /** Upper bound of the guessed type names, the imports are always collected. */
+    static final int MAX_GUESSED_TYPES = 300;
+
+    private final Set<String> types    = new LinkedHashSet<>();
+    private final Set<String> packages = new LinkedHashSet<>();
+
+    private final Set<String> onDemandImports = new LinkedHashSet<>();
+    private final Set<String> importedNames   = new LinkedHashSet<>();
+    private final Set<String> simpleNames     = new LinkedHashSet<>();
+    private final Set<String> typeParameters  = new LinkedHashSet<>();
+    private       String      currentPackage  = "";
+
+    public TypeReferenceCollector(String source) {
+        collect(source.toCharArray());
+        guessTypes();
+    }
+
+    /** @return fully qualified names of the types */
+    public Set<String> getTypes() {
+        return types;
+    }
+
+    /** @return fully qualified names of the packages */
+    public Set<String> getPackages() {
+        return packages;
+    }
+
+    private void collect(char[] source) {
+        Scanner scanner = new Scanner(false, false, false, ClassFileConstants.JDK1_7, null, null, true);
+        scanner.setSource(source);
+        try {
+            int previous = TerminalTokens.TokenNameEOF;
+            int beforePrevious = TerminalTokens.TokenNameEOF;
+            // simple name which waits for the next token to know if it is in a type position, and the token before it
+            String candidate = null;
+            int beforeCandidate = TerminalTokens.TokenNameEOF;
+            // a parenthesis after a name is a call, not a cast
+            boolean candidateInCall = false;
+            // names of extends, implements and throws clauses are separated by commas
+            boolean inTypeList = false;
+            // nesting of the angle brackets of the type parameters being declared
+            int typeParameterDepth = 0;
+            boolean declaredTypeName = false;
+            int token;
+            while ((token = scanner.getNextToken()) != TerminalTokens.TokenNameEOF) {
+                if (candidate != null) {
+                    if (isTypePosition(beforeCandidate, token, candidateInCall)) {
+                        simpleNames.add(candidate);
+                    }
+                    candidate = null;
+                }
+                boolean afterDeclaredTypeName = declaredTypeName;
+                declaredTypeName = false;
+                switch (token) {
+                    case TerminalTokens.TokenNamepackage:
+                        currentPackage = readQualifiedName(scanner, new StringBuilder());
+                        addPackage(currentPackage, true);
+                        break;
+                    case TerminalTokens.TokenNameimport:
+                        readImport(scanner);
+                        break;
+                    case TerminalTokens.TokenNameextends:
+                    case TerminalTokens.TokenNameimplements:
+                    case TerminalTokens.TokenNamethrows:
+                        inTypeList = true;
+                        break;
+                    case TerminalTokens.TokenNameLBRACE:
+                    case TerminalTokens.TokenNameSEMICOLON:
+                        inTypeList = false;
+                        break;
+                    case TerminalTokens.TokenNameLESS:
+                        if (typeParameterDepth > 0) {
+                            typeParameterDepth++;
+                        } else if (afterDeclaredTypeName || isMemberStart(previous)) {
+                            typeParameterDepth = 1;
+                        }
+                        break;
+                    case TerminalTokens.TokenNameGREATER:
+                        typeParameterDepth = Math.max(0, typeParameterDepth - 1);
+                        break;
+                    case TerminalTokens.TokenNameRIGHT_SHIFT:
+                        typeParameterDepth = Math.max(0, typeParameterDepth - 2);
+                        break;
+                    case TerminalTokens.TokenNameUNSIGNED_RIGHT_SHIFT:
+                        typeParameterDepth = Math.max(0, typeParameterDepth - 3);
+                        break;
+                    case TerminalTokens.TokenNameIdentifier:
+                        if (previous == TerminalTokens.TokenNameDOT) {
+                            break;
+                        }
+                        char[] name = scanner.getCurrentIdentifierSource();
+                        if (previous == TerminalTokens.TokenNameclass || previous == TerminalTokens.TokenNameinterface
+                            || previous == TerminalTokens.TokenNameenum) {
+                            // declared here, not looked up
+                            declaredTypeName = true;
+                        } else if (typeParameterDepth == 1
+                                   && (previous == TerminalTokens.TokenNameLESS || previous == TerminalTokens.TokenNameCOMMA)) {
+                            typeParameters.add(new String(name));
+                        } else if (Character.isUpperCase(name[0]) && !isConstantName(name)) {
+                            if (inTypeList) {
+                                simpleNames.add(new String(name));
+                            } else {
+                                candidate = new String(name);
+                                beforeCandidate = previous;
+                                candidateInCall = beforePrevious == TerminalTokens.TokenNameIdentifier;
+                            }
+                        }
+                        break;
+                }
+                beforePrevious = previous;
+                previous = token;
+            }
+        } catch (InvalidInputException ignored) {
+            // source is broken, use what is collected so far
+        }
+    }
+
+    /** Returns <code>true</code> if the simple name between the given tokens is where the compiler expects a type. */
+    private static boolean isTypePosition(int before, int after, boolean inCall) {
+        switch (before) {
+            case TerminalTokens.TokenNamenew:
+            case TerminalTokens.TokenNameinstanceof:
+            case TerminalTokens.TokenNameAT:
+            case TerminalTokens.TokenNameLESS:
+                return true;
+            case TerminalTokens.TokenNameLPAREN:
+                // cast or the first type of a multi-catch
+                if (!inCall && (after == TerminalTokens.TokenNameRPAREN || after == TerminalTokens.TokenNameOR)) {
+                    return true;
+                }
+                break;
+        }
+        switch (after) {
+            // declaration, type arguments, array type, varargs or access to a static member
+            case TerminalTokens.TokenNameIdentifier:
+            case TerminalTokens.TokenNameLESS:
+            case TerminalTokens.TokenNameGREATER:
+            case TerminalTokens.TokenNameRIGHT_SHIFT:
+            case TerminalTokens.TokenNameUNSIGNED_RIGHT_SHIFT:
+            case TerminalTokens.TokenNameLBRACKET:
+            case TerminalTokens.TokenNameELLIPSIS:
+            case TerminalTokens.TokenNameDOT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** Returns <code>true</code> if the token may be followed by the type parameters of a method or a constructor. */
+    private static boolean isMemberStart(int token) {
+        switch (token) {
+            case TerminalTokens.TokenNamepublic:
+            case TerminalTokens.TokenNameprotected:
+            case TerminalTokens.TokenNameprivate:
+            case TerminalTokens.TokenNamestatic:
+            case TerminalTokens.TokenNamefinal:
+            case TerminalTokens.TokenNameabstract:
+            case TerminalTokens.TokenNamesynchronized:
+            case TerminalTokens.TokenNamenative:
+            case TerminalTokens.TokenNamestrictfp:
+            case TerminalTokens.TokenNameLBRACE:
+            case TerminalTokens.TokenNameRBRACE:
+            case TerminalTokens.TokenNameSEMICOLON:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** Returns <code>true</code> for the names without lower case letters, like <code>LOG</code>, <code>MAX_X</code> or <code>T</code>. */
+    private static boolean isConstantName(char[] name) {
+        for (char c : name) {
+            if (Character.isLowerCase(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readImport(Scanner scanner) throws InvalidInputException {
+        StringBuilder name = new StringBuilder();
+        int token = scanner.getNextToken();
+        boolean isStatic = token == TerminalTokens.TokenNamestatic;
+        if (!isStatic) {
+            appendToken(scanner, token, name);
+        }
+        String importName = readQualifiedName(scanner, name);
+        if (importName.isEmpty()) {
+            return;
+        }
+        if (importName.endsWith(".*")) {
+            String container = importName.substring(0, importName.length() - 2);
+            if (isStatic) {
+                types.add(container);
+                addPackage(container, false);
+            } else {
+                onDemandImports.add(container);
+                addPackage(container, true);
+            }
+        } else {
+            String typeName = isStatic ? container(importName) : importName;
+            types.add(typeName);
+            importedNames.add(simpleName(typeName));
+            addPackage(typeName, false);
+        }
+    }
+
+    private String readQualifiedName(Scanner scanner, StringBuilder name) throws InvalidInputException {
+        int token;
+        while ((token = scanner.getNextToken()) != TerminalTokens.TokenNameSEMICOLON && token != TerminalTokens.TokenNameEOF) {
+            appendToken(scanner, token, name);
+        }
+        return name.toString();
+    }
+
+    private void appendToken(Scanner scanner, int token, StringBuilder name) {
+        switch (token) {
+            case TerminalTokens.TokenNameIdentifier:
+                name.append(scanner.getCurrentIdentifierSource());
+                break;
+            case TerminalTokens.TokenNameDOT:
+                name.append('.');
+                break;
+            case TerminalTokens.TokenNameMULTIPLY:
+                name.append('*');
+                break;
+        }
+    }
+
+    /** Adds all the enclosing packages of the name, and the name itself if <code>inclusive</code> is set. */
+    private void addPackage(String name, boolean inclusive) {
+        int index = 0;
+        while ((index = name.indexOf('.', index + 1)) != -1) {
+            packages.add(name.substring(0, index));
+        }
+        if (inclusive && !name.isEmpty()) {
+            packages.add(name);
+        }
+    }
+
+    private void guessTypes() {
+        int guessed = 0;
+        for (String simpleName : simpleNames) {
+            if (importedNames.contains(simpleName) || typeParameters.contains(simpleName)) {
+                continue;
+            }
+            guessed += guess(currentPackage, simpleName);
+            guessed += guess("java.lang", simpleName);
+            for (String onDemand : onDemandImports) {
+                guessed += guess(onDemand, simpleName);
+            }
+            if (guessed >= MAX_GUESSED_TYPES) {
+                return;
+            }
+        }
+    }
+
+    private int guess(String packageName, String simpleName) {
+        return types.add(packageName.isEmpty() ? simpleName : packageName + '.' + simpleName) ? 1 : 0;
+    }
+
+    private static String container(String name) {
+        int index = name.lastIndexOf('.');
+        return index == -1 ? name : name.substring(0, index);
+    }
+
+    private static String simpleName(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+}
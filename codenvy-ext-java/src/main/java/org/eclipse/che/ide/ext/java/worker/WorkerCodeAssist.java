@@ -27,12 +27,14 @@ import org.eclipse.che.ide.ext.java.jdt.core.Signature;
 import org.eclipse.che.ide.ext.java.jdt.core.dom.CompilationUnit;
 import org.eclipse.che.ide.ext.java.jdt.internal.codeassist.CompletionEngine;
 import org.eclipse.che.ide.ext.java.jdt.internal.compiler.env.INameEnvironment;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.parser.ScannerHelper;
+import org.eclipse.che.ide.ext.java.messages.CAProposalsChunkMessage;
 import org.eclipse.che.ide.ext.java.messages.ComputeCAProposalsMessage;
+import org.eclipse.che.ide.ext.java.messages.NextProposalsChunkMessage;
 import org.eclipse.che.ide.ext.java.messages.RoutingTypes;
 import org.eclipse.che.ide.ext.java.messages.WorkerProposal;
 import org.eclipse.che.ide.ext.java.messages.impl.MessagesImpls;
 import org.eclipse.che.ide.runtime.AssertionFailedException;
-import org.eclipse.che.ide.util.UUID;
 import com.google.gwt.webworker.client.messages.MessageFilter;
 
 import java.util.ArrayList;
@@ -49,6 +51,11 @@ import java.util.Set;
  */
 public class WorkerCodeAssist {
 
+    /**
+     * Number of proposals sent at once. The most relevant proposals are sent first, next ones are sent in the following
+     * turns of the worker, unless the request is cancelled meanwhile.
+     */
+    private static final int CHUNK_SIZE = 50;
 
     private final WorkerProposalApplier workerProposalApplier;
     private Comparator<JavaCompletionProposal> comparator = new Comparator<JavaCompletionProposal>() {
@@ -81,17 +88,26 @@ public class WorkerCodeAssist {
     private String                             vfsId;
     private String                             documentContent;
     private WorkerDocument                     document;
+    private WorkerDocumentStore                documentStore;
+    /** Id of the request which proposals are being sent. */
+    private String                               proposalsRequest;
+    private JavaCompletionProposal[]             proposals;
+    private int                                  sentCount;
+    private JsoStringMap<JavaCompletionProposal> proposalMap;
+    /** Last completion computed by the engine, requests made while the user types further are answered from it. */
+    private Completion                           lastCompletion;
 
     public WorkerCodeAssist(JavaParserWorker worker, MessageFilter messageFilter, WorkerProposalApplier workerProposalApplier,
                             INameEnvironment nameEnvironment,
                             TemplateCompletionProposalComputer templateCompletionProposalComputer, String docContext,
-                            WorkerCuCache cuCache) {
+                            WorkerCuCache cuCache, WorkerDocumentStore documentStore) {
         this.worker = worker;
         this.workerProposalApplier = workerProposalApplier;
         this.nameEnvironment = nameEnvironment;
         this.templateCompletionProposalComputer = templateCompletionProposalComputer;
         this.docContext = docContext;
         this.cuCache = cuCache;
+        this.documentStore = documentStore;
         messageFilter.registerMessageRecipient(RoutingTypes.CA_COMPUTE_PROPOSALS,
                                                new MessageFilter.MessageRecipient<ComputeCAProposalsMessage>() {
                                                    @Override
@@ -99,37 +115,119 @@ public class WorkerCodeAssist {
                                                        handleCAMessage(message);
                                                    }
                                                });
+        messageFilter.registerMessageRecipient(RoutingTypes.CA_NEXT_PROPOSALS_CHUNK,
+                                               new MessageFilter.MessageRecipient<NextProposalsChunkMessage>() {
+                                                   @Override
+                                                   public void onMessageReceived(NextProposalsChunkMessage message) {
+                                                       if (message.id().equals(proposalsRequest)) {
+                                                           sendProposalsChunk();
+                                                       }
+                                                   }
+                                               });
     }
 
     public void setProjectPath(String projectPath) {
         this.projectPath = projectPath;
     }
 
-    private void handleCAMessage(ComputeCAProposalsMessage message) {
+    private void handleCAMessage(final ComputeCAProposalsMessage message) {
+        documentContent = message.docContent() != null ? message.docContent() : documentStore.getContent(message.filePath());
+        if (documentContent == null) {
+            documentStore.postpone(message.filePath(), new Runnable() {
+                @Override
+                public void run() {
+                    handleCAMessage(message);
+                }
+            });
+            return;
+        }
         setProjectPath(message.projectPath());
         nameEnvironment.setProjectPath(message.projectPath());
-        JsoStringMap<JavaCompletionProposal> proposalMap = JsoStringMap.create();
-        documentContent = message.docContent();
 
-        JavaCompletionProposal[] proposals =
-                computeCompletionProposals(cuCache.getCompilationUnit(message.filePath()), message.offset(), documentContent, message.fileName());
+        double start = WorkerMetrics.now();
+        JavaCompletionProposal[] narrowed = narrowLastCompletion(message.filePath(), documentContent, message.offset());
+        if (narrowed != null) {
+            proposals = narrowed;
+            // proposals are applied to the content they were computed for, so the typed text is removed first
+            workerProposalApplier.setCaDocument(lastCompletion.document);
+            workerProposalApplier.setCaTypedText(lastCompletion.offset, message.offset() - lastCompletion.offset);
+        } else {
+            JavaCompletionProposal[] computed = computeCompletionProposals(cuCache.getResolvedCompilationUnit(message.filePath()),
+                                                                           message.offset(), documentContent, message.fileName());
+            proposals = computed != null ? computed : new JavaCompletionProposal[0];
+            lastCompletion = computed != null
+                             ? new Completion(message.filePath(), documentContent, message.offset(), document, computed) : null;
+            workerProposalApplier.setCaDocument(document);
+            workerProposalApplier.setCaTypedText(message.offset(), 0);
+        }
+        WorkerMetrics.get().recordTime(WorkerMetrics.CODE_ASSIST, start);
+        proposalsRequest = message.id();
+        sentCount = 0;
+        proposalMap = JsoStringMap.create();
+        workerProposalApplier.setCaProposalMap(proposalMap);
+        sendProposalsChunk();
+    }
 
-        MessagesImpls.CAProposalsComputedMessageImpl caComputedMessage = MessagesImpls.CAProposalsComputedMessageImpl.make();
-        caComputedMessage.setId(message.id());
+    /**
+     * Returns proposals of the last completion which match the prefix typed since, or <code>null</code> if the completion
+     * has to be computed again: the content isn't the content of the last completion with identifier characters typed at
+     * its offset, a proposal of the last completion was applied or none of the proposals matches anymore.
+     */
+    private JavaCompletionProposal[] narrowLastCompletion(String filePath, String content, int offset) {
+        Completion last = lastCompletion;
+        if (last == null || !last.filePath.equals(filePath) || offset < last.offset
+            || content.length() - last.content.length() != offset - last.offset
+            || !workerProposalApplier.isCaDocument(last.document)
+            || !content.regionMatches(0, last.content, 0, last.offset)
+            || !content.regionMatches(offset, last.content, last.offset, last.content.length() - last.offset)) {
+            return null;
+        }
+        String typed = content.substring(last.offset, offset);
+        if (!CompletionPrefixMatcher.isIdentifierPart(typed)) {
+            return null;
+        }
+        List<Integer> matches = CompletionPrefixMatcher.filter(last.prefix + typed, last.getNames());
+        if (matches.isEmpty()) {
+            return null;
+        }
+        JavaCompletionProposal[] narrowed = new JavaCompletionProposal[matches.size()];
+        for (int i = 0; i < narrowed.length; i++) {
+            narrowed[i] = last.proposals[matches.get(i)];
+        }
+        return narrowed;
+    }
+
+    /**
+     * Sends the next proposals of the current request. Display string and image of a proposal are computed only when it's
+     * sent, arguments of the method proposals are guessed only when the proposal is applied.
+     */
+    private void sendProposalsChunk() {
+        double start = WorkerMetrics.now();
+        int end = Math.min(sentCount + CHUNK_SIZE, proposals.length);
         JsoArray<WorkerProposal> workerProposals = JsoArray.create();
-        for (JavaCompletionProposal proposal : proposals) {
+        for (int i = sentCount; i < end; i++) {
+            JavaCompletionProposal proposal = proposals[i];
             MessagesImpls.WorkerProposalImpl prop = MessagesImpls.WorkerProposalImpl.make();
             prop.setAutoInsertable(proposal.isAutoInsertable()).setDisplayText(proposal.getDisplayString())
                 .setImage(proposal.getImage() == null ? null : proposal.getImage().name());
-            String uuid = UUID.uuid();
-            prop.setId(uuid);
-            proposalMap.put(uuid, proposal);
+            String id = proposalsRequest + '-' + i;
+            prop.setId(id);
+            proposalMap.put(id, proposal);
             workerProposals.add(prop);
         }
-        workerProposalApplier.setCaDocument(document);
-        workerProposalApplier.setCaProposalMap(proposalMap);
-        caComputedMessage.setProposals(workerProposals);
-        worker.sendMessage(caComputedMessage.serialize());
+        sentCount = end;
+        boolean last = sentCount == proposals.length;
+
+        CAProposalsChunkMessage chunkMessage = CAProposalsChunkMessage.make();
+        chunkMessage.setId(proposalsRequest).setProposals(workerProposals).setLast(last);
+        String serialized = chunkMessage.serialize();
+        WorkerMetrics.get().recordTime(WorkerMetrics.CODE_ASSIST_SERIALIZE, start);
+        worker.sendMessage(serialized);
+        if (last) {
+            proposals = null;
+        } else {
+            WorkerMessageHandler.get().queueMessage(NextProposalsChunkMessage.make().setId(proposalsRequest));
+        }
     }
 
     public JavaCompletionProposal[] computeCompletionProposals(CompilationUnit unit, int offset, String documentContent,
@@ -238,6 +336,41 @@ public class WorkerCodeAssist {
 //        return new JavaCompletionProposal[0];
     }
 
+    /** Proposals computed by the engine for an offset of a file. */
+    private static class Completion {
+        final String                   filePath;
+        final String                   content;
+        final int                      offset;
+        final WorkerDocument           document;
+        final JavaCompletionProposal[] proposals;
+        /** identifier typed before the offset when the completion was computed */
+        final String                   prefix;
+        private List<String> names;
+
+        Completion(String filePath, String content, int offset, WorkerDocument document, JavaCompletionProposal[] proposals) {
+            this.filePath = filePath;
+            this.content = content;
+            this.offset = offset;
+            this.document = document;
+            this.proposals = proposals;
+            int start = offset;
+            while (start > 0 && ScannerHelper.isJavaIdentifierPart(content.charAt(start - 1))) {
+                start--;
+            }
+            this.prefix = content.substring(start, offset);
+        }
+
+        List<String> getNames() {
+            if (names == null) {
+                names = new ArrayList<>(proposals.length);
+                for (JavaCompletionProposal proposal : proposals) {
+                    names.add(CompletionPrefixMatcher.getName(proposal.getDisplayString()));
+                }
+            }
+            return names;
+        }
+    }
+
     private JavaCompletionProposal createTypeProposal(int relevance, String fullyQualifiedType,
                                                       JavaContentAssistInvocationContext context) {
         IType type = WorkerTypeInfoStorage.get().getTypeByFqn(fullyQualifiedType);
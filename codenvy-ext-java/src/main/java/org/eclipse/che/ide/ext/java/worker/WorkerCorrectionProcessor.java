@@ -59,12 +59,14 @@ public class WorkerCorrectionProcessor {
     private JavaParserWorker      worker;
     private WorkerProposalApplier workerProposalApplier;
     private WorkerCuCache cuCache;
+    private WorkerDocumentStore documentStore;
 
     public WorkerCorrectionProcessor(JavaParserWorker worker, MessageFilter messageFilter, WorkerProposalApplier workerProposalApplier,
-                                     WorkerCuCache cuCache) {
+                                     WorkerCuCache cuCache, WorkerDocumentStore documentStore) {
         this.worker = worker;
         this.workerProposalApplier = workerProposalApplier;
         this.cuCache = cuCache;
+        this.documentStore = documentStore;
         messageFilter.registerMessageRecipient(RoutingTypes.COMPUTE_CORRECTION, new MessageFilter.MessageRecipient<ComputeCorrMessage>() {
             @Override
             public void onMessageReceived(ComputeCorrMessage message) {
@@ -157,13 +159,23 @@ public class WorkerCorrectionProcessor {
 //        this.cu = cu;
 //    }
 
-    public void computateProposals(ComputeCorrMessage message) {
+    public void computateProposals(final ComputeCorrMessage message) {
+        String content = message.documentContent() != null ? message.documentContent() : documentStore.getContent(message.filePath());
+        if (content == null) {
+            documentStore.postpone(message.filePath(), new Runnable() {
+                @Override
+                public void run() {
+                    computateProposals(message);
+                }
+            });
+            return;
+        }
         JsoStringMap<JavaCompletionProposal> proposalMap = JsoStringMap.create();
         int documentOffset = message.documentOffset();
 
-        WorkerDocument document = new WorkerDocument(message.documentContent());
+        WorkerDocument document = new WorkerDocument(content);
         AssistContext context = null;
-        CompilationUnit cu = cuCache.getCompilationUnit(message.filePath());
+        CompilationUnit cu = cuCache.getResolvedCompilationUnit(message.filePath());
         if (cu != null) {
             int length = message.documentSelectionLength();
             context = new AssistContext(document, documentOffset, length, cu);
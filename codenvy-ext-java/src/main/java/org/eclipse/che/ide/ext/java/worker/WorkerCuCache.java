@@ -10,9 +10,11 @@
  *******************************************************************************/
 package org.eclipse.che.ide.ext.java.worker;
 
+import org.eclipse.che.ide.ext.java.jdt.core.compiler.IProblem;
 import org.eclipse.che.ide.ext.java.jdt.core.dom.CompilationUnit;
 
 import java.util.HashMap;
+import java.util.HashSet;
 
 /**
  * Cache for CompilationUnit
@@ -24,21 +26,91 @@ public class WorkerCuCache {
 
     private HashMap<String, String> sourceCache = new HashMap<>(5);
 
+    private HashMap<String, IProblem[]> problemCache = new HashMap<>(5);
+
+    /**
+     * Files whose compilation unit was reconciled incrementally and has bodies of some methods left out, or whose unit
+     * was resolved before the last {@link #invalidate()}.
+     */
+    private HashSet<String> partialUnits = new HashSet<>(5);
+
+    /** key = file path, value = number of incremental reconciles since the last full parse */
+    private HashMap<String, Integer> incrementalReconciles = new HashMap<>(5);
+
+    private Resolver resolver;
+
+    /**
+     * Returns the last reconciled compilation unit. Bodies of methods which weren't edited may be left out of it,
+     * use {@link #getResolvedCompilationUnit(String)} if statements are needed.
+     */
     public CompilationUnit getCompilationUnit(String filePath) {
         return cache.get(filePath);
     }
 
-    public void putCompilationUnit(String filePath, CompilationUnit compilationUnit, String source) {
+    /** Returns the compilation unit with all method bodies, the file is parsed again if the cached unit is partial. */
+    public CompilationUnit getResolvedCompilationUnit(String filePath) {
+        if (partialUnits.contains(filePath) && resolver != null) {
+            return resolver.resolve(filePath, sourceCache.get(filePath));
+        }
+        return cache.get(filePath);
+    }
+
+    public void putCompilationUnit(String filePath, CompilationUnit compilationUnit, String source, IProblem[] problems,
+                                   boolean partial) {
         cache.put(filePath, compilationUnit);
         sourceCache.put(filePath, source);
+        problemCache.put(filePath, problems);
+        if (partial) {
+            partialUnits.add(filePath);
+            incrementalReconciles.put(filePath, getIncrementalReconciles(filePath) + 1);
+        } else {
+            partialUnits.remove(filePath);
+            incrementalReconciles.remove(filePath);
+        }
     }
 
     public void removeCompilationUnit(String filePath) {
         cache.remove(filePath);
         sourceCache.remove(filePath);
+        problemCache.remove(filePath);
+        partialUnits.remove(filePath);
+        incrementalReconciles.remove(filePath);
+    }
+
+    /**
+     * Drops problems of all files and marks their units to be resolved again, types which the units were resolved
+     * against may be removed or changed. Next reconcile of each file is a full parse.
+     */
+    public void invalidate() {
+        problemCache.clear();
+        partialUnits.addAll(cache.keySet());
+    }
+
+    /** Returns number of incremental reconciles of the file since its last full parse. */
+    public int getIncrementalReconciles(String filePath) {
+        Integer count = incrementalReconciles.get(filePath);
+        return count == null ? 0 : count;
+    }
+
+    /** Returns problems and tasks reported for the last reconciled compilation unit. */
+    public IProblem[] getProblems(String filePath) {
+        return problemCache.get(filePath);
+    }
+
+    public boolean isPartial(String filePath) {
+        return partialUnits.contains(filePath);
+    }
+
+    public void setResolver(Resolver resolver) {
+        this.resolver = resolver;
     }
 
     public String getSource(String filePath) {
         return sourceCache.get(filePath);
     }
+
+    /** Parses the file fully and puts the result in the cache. */
+    public interface Resolver {
+        CompilationUnit resolve(String filePath, String source);
+    }
 }
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.api.text.BadLocationException;
+import org.eclipse.che.ide.collections.js.JsoArray;
+import org.eclipse.che.ide.ext.java.messages.Change;
+import org.eclipse.che.ide.ext.java.messages.DocumentOutOfSyncMessage;
+import org.eclipse.che.ide.ext.java.messages.UpdateDocumentMessage;
+import com.google.gwt.webworker.client.messages.MessageFilter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a versioned copy of each file opened in the editor.
+ * <p/>
+ * The editor sends full source of the file once and only changes after that, so requests don't have to carry
+ * the content of the file. If changes can't be applied because the worker has another version of the file,
+ * the editor is asked for the full source and requests for the file are postponed until it's received.
+ */
+public class WorkerDocumentStore implements MessageFilter.MessageRecipient<UpdateDocumentMessage> {
+
+    private final JavaParserWorker worker;
+
+    private final Map<String, VersionedDocument> documents = new HashMap<>();
+    /** Files for which the full source is requested. */
+    private final Set<String>                    outOfSync = new HashSet<>();
+    private final Map<String, List<Runnable>>    postponed = new HashMap<>();
+
+    public WorkerDocumentStore(JavaParserWorker worker) {
+        this.worker = worker;
+    }
+
+    @Override
+    public void onMessageReceived(UpdateDocumentMessage message) {
+        String filePath = message.getFilePath();
+        if (message.hasSource() && message.getSource() != null) {
+            documents.put(filePath, new VersionedDocument(message.getSource(), message.getVersion()));
+            outOfSync.remove(filePath);
+            runPostponed(filePath);
+            return;
+        }
+
+        VersionedDocument document = documents.get(filePath);
+        if (document != null && document.version == message.getBaseVersion() && applyChanges(document, message.getChanges())) {
+            document.version = message.getVersion();
+            return;
+        }
+
+        documents.remove(filePath);
+        if (outOfSync.add(filePath)) {
+            DocumentOutOfSyncMessage outOfSyncMessage = DocumentOutOfSyncMessage.make();
+            outOfSyncMessage.setFilePath(filePath);
+            worker.sendMessage(outOfSyncMessage.serialize());
+        }
+    }
+
+    /**
+     * Returns current content of the file.
+     *
+     * @param filePath
+     *         path of the file
+     * @return content of the file or <code>null</code> if the worker has no actual version of it
+     */
+    public String getContent(String filePath) {
+        VersionedDocument document = documents.get(filePath);
+        return document == null ? null : document.document.get();
+    }
+
+    /**
+     * Runs the task once the full source of the file is received.
+     *
+     * @param filePath
+     *         path of the file
+     * @param task
+     *         task which needs content of the file
+     */
+    public void postpone(String filePath, Runnable task) {
+        List<Runnable> tasks = postponed.get(filePath);
+        if (tasks == null) {
+            tasks = new ArrayList<>();
+            postponed.put(filePath, tasks);
+        }
+        tasks.add(task);
+    }
+
+    public void removeDocument(String filePath) {
+        documents.remove(filePath);
+        outOfSync.remove(filePath);
+        postponed.remove(filePath);
+    }
+
+    private void runPostponed(String filePath) {
+        List<Runnable> tasks = postponed.remove(filePath);
+        if (tasks != null) {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+        }
+    }
+
+    private boolean applyChanges(VersionedDocument document, JsoArray<Change> changes) {
+        if (changes == null) {
+            return true;
+        }
+        try {
+            for (int i = 0; i < changes.size(); i++) {
+                Change change = changes.get(i);
+                document.document.replace(change.offset(), change.length(), change.text());
+            }
+            return true;
+        } catch (BadLocationException e) {
+            return false;
+        }
+    }
+
+    private static class VersionedDocument {
+        final WorkerDocument document;
+        int version;
+
+        VersionedDocument(String source, int version) {
+            this.document = new WorkerDocument(source);
+            this.version = version;
+        }
+    }
+}
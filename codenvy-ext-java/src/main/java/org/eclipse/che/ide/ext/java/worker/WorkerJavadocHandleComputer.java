@@ -36,7 +36,7 @@ public class WorkerJavadocHandleComputer implements MessageFilter.MessageRecipie
     @Override
     public void onMessageReceived(ComputeJavadocHandle message) {
         String filePath = message.getFilePath();
-        CompilationUnit cu = cuCache.getCompilationUnit(filePath);
+        CompilationUnit cu = cuCache.getResolvedCompilationUnit(filePath);
         String source = cuCache.getSource(filePath);
 
         SelectionResult result;
@@ -27,7 +27,6 @@ import org.eclipse.che.ide.ext.java.jdt.core.formatter.CodeFormatter;
 import org.eclipse.che.ide.ext.java.jdt.internal.codeassist.impl.AssistOptions;
 import org.eclipse.che.ide.ext.java.jdt.internal.compiler.env.INameEnvironment;
 import org.eclipse.che.ide.ext.java.jdt.internal.compiler.impl.CompilerOptions;
-import org.eclipse.che.ide.ext.java.jdt.internal.compiler.problem.DefaultProblem;
 import org.eclipse.che.ide.ext.java.jdt.internal.corext.util.CodeFormatterUtil;
 import org.eclipse.che.ide.ext.java.jdt.templates.CodeTemplateContextType;
 import org.eclipse.che.ide.ext.java.jdt.templates.ContextTypeRegistry;
@@ -49,11 +48,13 @@ import org.eclipse.che.ide.ext.java.messages.ConfigMessage;
 import org.eclipse.che.ide.ext.java.messages.DependenciesUpdatedMessage;
 import org.eclipse.che.ide.ext.java.messages.FileClosedMessage;
 import org.eclipse.che.ide.ext.java.messages.FormatMessage;
+import org.eclipse.che.ide.ext.java.messages.GetWorkerMetricsMessage;
 import org.eclipse.che.ide.ext.java.messages.ParseMessage;
 import org.eclipse.che.ide.ext.java.messages.PreferenceFormatSetMessage;
-import org.eclipse.che.ide.ext.java.messages.Problem;
 import org.eclipse.che.ide.ext.java.messages.RemoveFqnMessage;
 import org.eclipse.che.ide.ext.java.messages.RoutingTypes;
+import org.eclipse.che.ide.ext.java.messages.TypesLoadedMessage;
+import org.eclipse.che.ide.ext.java.messages.WorkerMetricsMessage;
 import org.eclipse.che.ide.ext.java.messages.impl.MessagesImpls;
 import org.eclipse.che.ide.ext.java.jdt.text.edits.CopySourceEdit;
 import org.eclipse.che.ide.ext.java.jdt.text.edits.CopyTargetEdit;
@@ -71,7 +72,12 @@ import com.google.gwt.webworker.client.MessageHandler;
 import com.google.gwt.webworker.client.messages.MessageFilter;
 import com.google.gwt.webworker.client.messages.MessageImpl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -81,8 +87,11 @@ public class WorkerMessageHandler implements MessageHandler, MessageFilter.Messa
 
     private static WorkerMessageHandler        instance;
     private final  WorkerOutlineModelUpdater   outlineModelUpdater;
+    private final  WorkerProblemsUpdater       problemsUpdater;
     private final  WorkerJavadocHandleComputer javadocHandleComputer;
     private final WorkerCuCache cuCache;
+    private final WorkerDocumentStore documentStore;
+    private final IncrementalReconciler incrementalReconciler;
     private WorkerCorrectionProcessor correctionProcessor;
     private INameEnvironment          nameEnvironment;
     private HashMap<String, String> options                  = new HashMap<String, String>();
@@ -96,6 +105,9 @@ public class WorkerMessageHandler implements MessageHandler, MessageFilter.Messa
     private CUVariables                        cuVar;
     private TemplateCompletionProposalComputer templateCompletionProposalComputer;
     private WorkerCodeAssist                   workerCodeAssist;
+    /** Received messages which aren't dispatched yet. */
+    private final LinkedList<MessageImpl>      queue = new LinkedList<>();
+    private boolean                            dispatchScheduled;
 
     public WorkerMessageHandler(final JavaParserWorker worker) {
         this.worker = worker;
@@ -103,6 +115,16 @@ public class WorkerMessageHandler implements MessageHandler, MessageFilter.Messa
         initOptions();
         messageFilter = new MessageFilter();
         cuCache = new WorkerCuCache();
+        documentStore = new WorkerDocumentStore(worker);
+        incrementalReconciler = new IncrementalReconciler(cuCache);
+        cuCache.setResolver(new WorkerCuCache.Resolver() {
+            @Override
+            public CompilationUnit resolve(String filePath, String source) {
+                CompilationUnit unit = createAST(source, filePath.substring(filePath.lastIndexOf('/') + 1), false);
+                cuCache.putCompilationUnit(filePath, unit, source, getProblems(unit).toArray(new IProblem[0]), false);
+                return unit;
+            }
+        });
         javadocHandleComputer = new WorkerJavadocHandleComputer(worker, cuCache);
         MessageFilter.MessageRecipient<ConfigMessage> configMessageRecipient = new MessageFilter.MessageRecipient<ConfigMessage>() {
             @Override
@@ -114,21 +136,44 @@ public class WorkerMessageHandler implements MessageHandler, MessageFilter.Messa
                 workerCodeAssist =
                         new WorkerCodeAssist(WorkerMessageHandler.this.worker, messageFilter, applier, nameEnvironment,
                                              templateCompletionProposalComputer,
-                                             config.javaDocContext(), cuCache);
-                correctionProcessor = new WorkerCorrectionProcessor(WorkerMessageHandler.this.worker, messageFilter, applier, cuCache);
+                                             config.javaDocContext(), cuCache, documentStore);
+                correctionProcessor = new WorkerCorrectionProcessor(WorkerMessageHandler.this.worker, messageFilter, applier, cuCache,
+                                                                    documentStore);
             }
         };
         messageFilter.registerMessageRecipient(RoutingTypes.CONFIG, configMessageRecipient);
         messageFilter.registerMessageRecipient(RoutingTypes.PARSE, this);
+        messageFilter.registerMessageRecipient(RoutingTypes.UPDATE_DOCUMENT, documentStore);
         templateCompletionProposalComputer = new TemplateCompletionProposalComputer(getTemplateContextRegistry());
         outlineModelUpdater = new WorkerOutlineModelUpdater(worker);
+        problemsUpdater = new WorkerProblemsUpdater(worker);
         messageFilter.registerMessageRecipient(RoutingTypes.REMOVE_FQN, new MessageFilter.MessageRecipient<RemoveFqnMessage>() {
             @Override
             public void onMessageReceived(RemoveFqnMessage message) {
                 WorkerTypeInfoStorage.get().removeFqn(message.fqn());
+                if (nameEnvironment instanceof WorkerNameEnvironment) {
+                    ((WorkerNameEnvironment)nameEnvironment).sourcesChanged();
+                }
+                // problems kept from the previous reconciles may refer to the removed type
+                cuCache.invalidate();
             }
         });
 
+        messageFilter.registerMessageRecipient(RoutingTypes.GET_WORKER_METRICS,
+                                               new MessageFilter.MessageRecipient<GetWorkerMetricsMessage>() {
+                                                   @Override
+                                                   public void onMessageReceived(GetWorkerMetricsMessage message) {
+                                                       WorkerMetrics metrics = WorkerMetrics.get();
+                                                       WorkerMetricsMessage result = WorkerMetricsMessage.make();
+                                                       result.setId(message.id()).setPeriod(metrics.getPeriod())
+                                                             .setMetrics(metrics.toJso());
+                                                       if (message.isReset()) {
+                                                           metrics.reset();
+                                                       }
+                                                       worker.sendMessage(result.serialize());
+                                                   }
+                                               });
+
         messageFilter.registerMessageRecipient(RoutingTypes.FORMAT, new MessageFilter.MessageRecipient<FormatMessage>() {
             @Override
             public void onMessageReceived(FormatMessage message) {
@@ -167,10 +212,16 @@ public class WorkerMessageHandler implements MessageHandler, MessageFilter.Messa
         messageFilter.registerMessageRecipient(RoutingTypes.DEPENDENCIES_UPDATED, new MessageFilter.MessageRecipient<DependenciesUpdatedMessage>() {
             @Override
             public void onMessageReceived(DependenciesUpdatedMessage message) {
-                if(nameEnvironment != null) {
-                    nameEnvironment.clearBlackList();
+                if (nameEnvironment instanceof WorkerNameEnvironment) {
+                    // cached names are dropped only if the classpath fingerprint is changed
+                    ((WorkerNameEnvironment)nameEnvironment).updateClasspath();
+                } else {
+                    if (nameEnvironment != null) {
+                        nameEnvironment.clearBlackList();
+                    }
+                    WorkerTypeInfoStorage.get().clear();
                 }
-                WorkerTypeInfoStorage.get().clear();
+                cuCache.invalidate();
             }
         });
 
@@ -178,11 +229,23 @@ public class WorkerMessageHandler implements MessageHandler, MessageFilter.Messa
             @Override
             public void onMessageReceived(FileClosedMessage message) {
                 cuCache.removeCompilationUnit(message.getFilePath());
+                documentStore.removeDocument(message.getFilePath());
+                outlineModelUpdater.removeOutline(message.getFilePath());
+                problemsUpdater.removeProblems(message.getFilePath());
             }
         });
 
         messageFilter.registerMessageRecipient(RoutingTypes.COMPUTE_JAVADOC_HANDE, javadocHandleComputer);
 
+        messageFilter.registerMessageRecipient(RoutingTypes.TYPES_LOADED, new MessageFilter.MessageRecipient<TypesLoadedMessage>() {
+            @Override
+            public void onMessageReceived(TypesLoadedMessage message) {
+                for (Jso type : message.getTypes().asIterable()) {
+                    WorkerTypeInfoStorage.get().putSharedType(type.getStringField("key"), (Jso)type.getObjectField("type"));
+                }
+            }
+        });
+
     }
 
     public static WorkerMessageHandler get() {
@@ -287,65 +350,177 @@ public class WorkerMessageHandler implements MessageHandler, MessageFilter.Messa
 
     }
 
-    /** {@inheritDoc} */
+    /**
+     * Queues the message. Messages are dispatched one per event loop turn, so messages sent by the editor while
+     * a file was parsed are all received before the next one is dispatched. That allows to skip parse requests
+     * which are followed by a newer request for the same file and requests cancelled by the editor.
+     */
     @Override
     public void onMessage(MessageEvent event) {
         MessageImpl message = event.getDataAsJSO().cast();
-        messageFilter.dispatchMessage(message);
+        if (getType(message) == RoutingTypes.CANCEL_REQUEST) {
+            cancelRequest(message.<Jso>cast().getStringField("id"));
+            return;
+        }
+        queueMessage(message);
+    }
+
+    /** Queues the message to be dispatched after the messages received before. */
+    public void queueMessage(MessageImpl message) {
+        queue.add(message);
+        if (!dispatchScheduled) {
+            dispatchScheduled = true;
+            scheduleDispatch();
+        }
     }
 
+    private void dispatchNext() {
+        dispatchScheduled = false;
+        MessageImpl message = queue.poll();
+        while (message != null && isOutdatedParse(message)) {
+            message = queue.poll();
+        }
+        if (!queue.isEmpty()) {
+            dispatchScheduled = true;
+            scheduleDispatch();
+        }
+        if (message != null) {
+            double start = WorkerMetrics.now();
+            messageFilter.dispatchMessage(message);
+            shareLoadedTypes();
+            WorkerMetrics.get().recordTime(WorkerMetrics.MESSAGE_DISPATCH, start);
+        }
+    }
+
+    private void shareLoadedTypes() {
+        JsoArray<Jso> types = WorkerTypeInfoStorage.get().takeLoadedTypes();
+        if (!types.isEmpty()) {
+            TypesLoadedMessage message = TypesLoadedMessage.make();
+            message.setTypes(types);
+            worker.sendMessage(message.serialize());
+        }
+    }
+
+    private boolean isOutdatedParse(MessageImpl message) {
+        if (getType(message) != RoutingTypes.PARSE) {
+            return false;
+        }
+        String filePath = message.<MessagesImpls.ParseMessageImpl>cast().filePath();
+        for (MessageImpl queued : queue) {
+            if (getType(queued) == RoutingTypes.PARSE && filePath.equals(queued.<MessagesImpls.ParseMessageImpl>cast().filePath())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void cancelRequest(String id) {
+        for (Iterator<MessageImpl> iterator = queue.iterator(); iterator.hasNext(); ) {
+            if (id.equals(iterator.next().<Jso>cast().getStringField("id"))) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+
+    private static int getType(MessageImpl message) {
+        return message.<Jso>cast().getFieldCastedToInteger("_type");
+    }
+
+    private native void scheduleDispatch()/*-{
+        var instance = this;
+        self.setTimeout(function () {
+            instance.@org.eclipse.che.ide.ext.java.worker.WorkerMessageHandler::dispatchNext()();
+        }, 0);
+    }-*/;
+
     public HashMap<String, String> getOptions() {
         return options;
     }
 
     @Override
     public void onMessageReceived(final ParseMessage message) {
+                final String source = message.source() != null ? message.source() : documentStore.getContent(message.filePath());
+                if (source == null) {
+                    documentStore.postpone(message.filePath(), new Runnable() {
+                        @Override
+                        public void run() {
+                            onMessageReceived(message);
+                        }
+                    });
+                    return;
+                }
+                WorkerMetrics metrics = WorkerMetrics.get();
+                int requests = metrics.getCount(WorkerMetrics.NAME_ENVIRONMENT_REQUEST);
                 nameEnvironment.setProjectPath(message.projectPath());
                 cuVar = new CUVariables(message.fileName(), message.packageName(), projectName);
-
-                ASTParser parser = ASTParser.newParser(AST.JLS4);
-                parser.setSource(message.source());
-                parser.setKind(ASTParser.K_COMPILATION_UNIT);
-                parser.setUnitName(message.fileName().substring(0, message.fileName().lastIndexOf('.')));
-                parser.setResolveBindings(true);
-                parser.setIgnoreMethodBodies(message.ignoreMethodBodies());
-                parser.setNameEnvironment(nameEnvironment);
-                ASTNode ast = parser.createAST();
-                CompilationUnit unit = (CompilationUnit)ast;
-                cuCache.putCompilationUnit(message.filePath(), unit, message.source());
-                IProblem[] problems = unit.getProblems();
-                MessagesImpls.ProblemsMessageImpl problemsMessage = MessagesImpls.ProblemsMessageImpl.make();
-                JsoArray<Problem> problemsArray = JsoArray.create();
-                for (IProblem p : problems) {
-                    problemsArray.add(convertProblem(p));
+                if (nameEnvironment instanceof WorkerNameEnvironment) {
+                    TypeReferenceCollector references = new TypeReferenceCollector(source);
+                    ((WorkerNameEnvironment)nameEnvironment).prefetch(references.getTypes(), references.getPackages());
                 }
-                IProblem[] tasks = (IProblem[])unit.getProperty("tasks");
-                if (tasks != null) {
-                    for (IProblem p : tasks) {
-                        problemsArray.add(convertProblem(p));
-                    }
+
+                String filePath = message.filePath();
+                CompilationUnit unit;
+                CompilationUnit outlineUnit;
+                IProblem[] problems;
+                IncrementalReconciler.Reconcile reconcile =
+                        message.ignoreMethodBodies() ? null : incrementalReconciler.prepare(filePath, source);
+                if (reconcile == null) {
+                    unit = createAST(source, message.fileName(), message.ignoreMethodBodies());
+                    outlineUnit = unit;
+                    problems = getProblems(unit).toArray(new IProblem[0]);
+                    cuCache.putCompilationUnit(filePath, unit, source, problems, message.ignoreMethodBodies());
+                } else {
+                    unit = createAST(reconcile.getParseSource(), message.fileName(), false);
+                    problems = reconcile.mergeProblems(getProblems(unit));
+                    cuCache.putCompilationUnit(filePath, unit, source, problems, true);
+                    // anonymous classes of the left out bodies are in the outline too, bindings aren't needed for it
+                    outlineUnit = createOutlineAST(source, message.fileName());
                 }
-                problemsMessage.setProblems(problemsArray);
-                problemsMessage.setId(message.id());
-                worker.sendMessage(problemsMessage.serialize());
-                outlineModelUpdater.onCompilationUnitChanged(unit, message.filePath());
+                metrics.record(WorkerMetrics.PARSE_NAME_ENVIRONMENT_CALLS,
+                               metrics.getCount(WorkerMetrics.NAME_ENVIRONMENT_REQUEST) - requests);
+                double start = WorkerMetrics.now();
+                problemsUpdater.onProblemsChanged(message.id(), filePath, problems);
+                metrics.recordTime(WorkerMetrics.PROBLEMS, start);
+                start = WorkerMetrics.now();
+                outlineModelUpdater.onCompilationUnitChanged(outlineUnit, message.filePath());
+                metrics.recordTime(WorkerMetrics.OUTLINE, start);
     }
 
-    private MessagesImpls.ProblemImpl convertProblem(IProblem p) {
-        MessagesImpls.ProblemImpl problem = MessagesImpls.ProblemImpl.make();
-        DefaultProblem prop = (DefaultProblem)p;
-
-        problem.setOriginatingFileName(new String(prop.getOriginatingFileName()));
-        problem.setMessage(prop.getMessage());
-        problem.setId(prop.getID());
-        problem.setStringArguments(from(prop.getArguments()));
-        problem.setSeverity(prop.getSeverity());
-        problem.setStartPosition(prop.getSourceStart());
-        problem.setEndPosition(prop.getSourceEnd());
-        problem.setLine(prop.getSourceLineNumber());
-        problem.setColumn(prop.getSourceColumnNumber());
-
-        return problem;
+    private CompilationUnit createAST(String source, String fileName, boolean ignoreMethodBodies) {
+        ASTParser parser = ASTParser.newParser(AST.JLS4);
+        parser.setSource(source);
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setUnitName(fileName.substring(0, fileName.lastIndexOf('.')));
+        parser.setResolveBindings(true);
+        parser.setIgnoreMethodBodies(ignoreMethodBodies);
+        parser.setNameEnvironment(nameEnvironment);
+        double start = WorkerMetrics.now();
+        ASTNode ast = parser.createAST();
+        WorkerMetrics.get().recordTime(WorkerMetrics.PARSE, start);
+        return (CompilationUnit)ast;
+    }
+
+    /** Parses the source without resolving bindings, the result has all method bodies but no problems of their code. */
+    private CompilationUnit createOutlineAST(String source, String fileName) {
+        ASTParser parser = ASTParser.newParser(AST.JLS4);
+        parser.setSource(source);
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setUnitName(fileName.substring(0, fileName.lastIndexOf('.')));
+        double start = WorkerMetrics.now();
+        ASTNode ast = parser.createAST();
+        WorkerMetrics.get().recordTime(WorkerMetrics.PARSE, start);
+        return (CompilationUnit)ast;
+    }
+
+    /** Returns problems and tasks of the compilation unit. */
+    private static List<IProblem> getProblems(CompilationUnit unit) {
+        List<IProblem> problems = new ArrayList<>(Arrays.asList(unit.getProblems()));
+        IProblem[] tasks = (IProblem[])unit.getProperty("tasks");
+        if (tasks != null) {
+            problems.addAll(Arrays.asList(tasks));
+        }
+        return problems;
     }
 
     public ContentAssistHistory getContentAssistHistory() {
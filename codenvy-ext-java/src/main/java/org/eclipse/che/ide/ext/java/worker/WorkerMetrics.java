@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.collections.js.JsoStringMap;
+import org.eclipse.che.ide.ext.java.messages.impl.WorkerMetric;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Timings and counters of the worker operations, sent to the IDE on request. For each operation the number of the
+ * recorded values, their sum and the maximum are kept, so recording costs the same however long the worker runs.
+ */
+public class WorkerMetrics {
+
+    /** Time of building AST with resolved bindings, it includes the name environment requests made meanwhile. */
+    public static final String PARSE                        = "parse.createAST";
+    /** Number of the name environment requests made for one parse request. */
+    public static final String PARSE_NAME_ENVIRONMENT_CALLS = "parse.nameEnvironmentRequests";
+    /** Time of computing and sending the problem changes. */
+    public static final String PROBLEMS                     = "parse.problems";
+    /** Time of building and sending the outline changes. */
+    public static final String OUTLINE                      = "parse.outline";
+    /** Time of the synchronous requests to RestNameEnvironment. */
+    public static final String NAME_ENVIRONMENT_REQUEST     = "nameEnvironment.request";
+    /** Length of the responses of RestNameEnvironment. */
+    public static final String NAME_ENVIRONMENT_RESPONSE    = "nameEnvironment.responseSize";
+    /** Time of computing code assist proposals or of narrowing the last ones. */
+    public static final String CODE_ASSIST                  = "codeAssist.compute";
+    /** Time of converting and serializing one chunk of proposals. */
+    public static final String CODE_ASSIST_SERIALIZE        = "codeAssist.serialize";
+    /** Time of dispatching a message received from the IDE. */
+    public static final String MESSAGE_DISPATCH             = "messages.dispatch";
+    /** Length of the messages sent to the IDE. */
+    public static final String MESSAGE_SENT                 = "messages.sentSize";
+
+    private static WorkerMetrics instance;
+
+    private final Map<String, Metric> metrics = new HashMap<>();
+    private double start = now();
+
+    public static WorkerMetrics get() {
+        if (instance == null) {
+            instance = new WorkerMetrics();
+        }
+        return instance;
+    }
+
+    /** Returns current time in milliseconds to measure durations. */
+    public static double now() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Records the value of the operation.
+     *
+     * @param name
+     *         name of the operation
+     * @param value
+     *         duration in milliseconds, size or number of calls
+     */
+    public void record(String name, double value) {
+        Metric metric = metrics.get(name);
+        if (metric == null) {
+            metric = new Metric();
+            metrics.put(name, metric);
+        }
+        metric.count++;
+        metric.total += value;
+        metric.max = Math.max(metric.max, value);
+    }
+
+    /** Records time elapsed since the given start time, returned by {@link #now()}. */
+    public void recordTime(String name, double start) {
+        record(name, now() - start);
+    }
+
+    /** Returns number of the values recorded for the operation. */
+    public int getCount(String name) {
+        Metric metric = metrics.get(name);
+        return metric == null ? 0 : metric.count;
+    }
+
+    /** Returns sum of the values recorded for the operation. */
+    public double getTotal(String name) {
+        Metric metric = metrics.get(name);
+        return metric == null ? 0 : metric.total;
+    }
+
+    /** Returns the maximum value recorded for the operation. */
+    public double getMax(String name) {
+        Metric metric = metrics.get(name);
+        return metric == null ? 0 : metric.max;
+    }
+
+    /** Returns time in milliseconds since the worker is started or the metrics are reset. */
+    public double getPeriod() {
+        return now() - start;
+    }
+
+    public void reset() {
+        metrics.clear();
+        start = now();
+    }
+
+    /** Converts recorded metrics to be sent in {@link org.eclipse.che.ide.ext.java.messages.WorkerMetricsMessage}. */
+    public JsoStringMap<WorkerMetric> toJso() {
+        JsoStringMap<WorkerMetric> result = JsoStringMap.create();
+        for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+            Metric metric = entry.getValue();
+            result.put(entry.getKey(), WorkerMetric.make().setCount(metric.count).setTotal(metric.total).setMax(metric.max));
+        }
+        return result;
+    }
+
+    private static class Metric {
+        private int    count;
+        private double total;
+        private double max;
+    }
+}
@@ -14,15 +14,19 @@ import org.eclipse.che.ide.collections.Array;
 import org.eclipse.che.ide.collections.Jso;
 import org.eclipse.che.ide.collections.js.JsoArray;
 import org.eclipse.che.ide.ext.java.jdt.internal.codeassist.ISearchRequestor;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.env.IBinaryType;
 import org.eclipse.che.ide.ext.java.jdt.internal.compiler.env.INameEnvironment;
 import org.eclipse.che.ide.ext.java.jdt.internal.compiler.env.NameEnvironmentAnswer;
-import org.eclipse.che.ide.ext.java.worker.env.BinaryType;
 import org.eclipse.che.ide.ext.java.worker.env.Util;
-import org.eclipse.che.ide.ext.java.worker.env.json.BinaryTypeJso;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
+import com.google.gwt.core.client.JsArrayMixed;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -35,11 +39,26 @@ import java.util.Set;
  */
 public class WorkerNameEnvironment implements INameEnvironment {
 
-    private static Set<String> packages = new HashSet<>();
+    /** Response header which is set when the server answers before the project indexes are built. */
+    private static final String PARTIAL_RESULTS_HEADER = "X-Partial-Results";
+    /** Minimum delay between downloads of the type names while the project indexes are built. */
+    private static final int    TYPE_NAMES_RETRY_MS    = 10000;
+    /** Maximum number of the names kept in the caches of the found packages and the black lists. */
+    private static final int    MAX_CACHED_NAMES       = 10000;
+    /** Rate of the names which aren't in the project, but aren't filtered out by the name filters. */
+    private static final double NAME_FILTER_FPP        = 0.01;
+
+    private Set<String> packages = new HashSet<>();
     protected String restServiceContext;
     private   String projectPath;
     private Set<String> blackListTypes = new HashSet<>();
     private Set<String> blackListPackages = new HashSet<>();
+    private String        classpathFingerprint;
+    private TypeNameIndex libraryTypeNames;
+    private TypeNameIndex sourceTypeNames;
+    private BloomFilter   libraryNames;
+    private BloomFilter   sourceNames;
+    private double        typeNamesRetryTime;
 
     /**
      *
@@ -49,7 +68,127 @@ public class WorkerNameEnvironment implements INameEnvironment {
     }
 
     public void setProjectPath(String projectPath) {
+        boolean changed = projectPath != null && !projectPath.equals(this.projectPath);
         this.projectPath = projectPath;
+        if (changed) {
+            updateClasspath();
+        }
+    }
+
+    /**
+     * Requests fingerprint of the project classpath and updates type info storage, so only the types of the changed
+     * jars are loaded from the server again.
+     */
+    public void updateClasspath() {
+        if (projectPath == null) {
+            return;
+        }
+        String result = runSyncRequest(restServiceContext + "/classpathFingerprint?projectpath=" + projectPath);
+        if (result != null) {
+            Jso fingerprint = Jso.deserialize(result);
+            String value = fingerprint.getStringField("fingerprint");
+            WorkerTypeInfoStorage.get().setClasspath(projectPath, value, fingerprint.getJsObjectField("jars").<JsoArray<String>>cast());
+            if (!value.equals(classpathFingerprint)) {
+                classpathFingerprint = value;
+                resetNames();
+            }
+        } else {
+            WorkerTypeInfoStorage.get().clear();
+            classpathFingerprint = null;
+            resetNames();
+        }
+    }
+
+    /** Drops all cached names, they depend on the classpath. */
+    private void resetNames() {
+        packages.clear();
+        clearBlackList();
+        libraryTypeNames = null;
+        libraryNames = null;
+        sourceTypeNames = null;
+        sourceNames = null;
+        typeNamesRetryTime = 0;
+    }
+
+    /**
+     * Drops type names of the project sources, they are downloaded again on the next type search. Type names of the
+     * libraries are kept until classpath fingerprint changes. Changed sources may declare types and packages which
+     * were missing, so black lists are cleared too.
+     */
+    public void sourcesChanged() {
+        sourceTypeNames = null;
+        sourceNames = null;
+        typeNamesRetryTime = 0;
+        clearBlackList();
+    }
+
+    /**
+     * Checks the name against the filters of the type and package names of the project, so lookups of the missing
+     * names don't need requests to the server. The filters have no false negatives, so existing names are never
+     * reported as missing, and they are used only when names of both libraries and sources are loaded. The server marks
+     * the names of the sources as partial until the changed files are indexed, so the types of a just saved file aren't
+     * filtered out by the names downloaded before the change was applied.
+     *
+     * @param name
+     *         fully qualified name of the type or package
+     * @return <code>true</code> if the name surely doesn't exist
+     */
+    private boolean isMissing(String name) {
+        return loadTypeNames() && !libraryNames.mightContain(name) && !sourceNames.mightContain(name);
+    }
+
+    private static void addBounded(Set<String> names, String name) {
+        if (names.size() >= MAX_CACHED_NAMES) {
+            names.clear();
+        }
+        names.add(name);
+    }
+
+    /**
+     * Downloads type names of the project if they aren't loaded yet. While the project indexes are built the server
+     * returns partial tables, they aren't kept and the download is retried after {@link #TYPE_NAMES_RETRY_MS}.
+     *
+     * @return <code>true</code> if types can be searched locally
+     */
+    private boolean loadTypeNames() {
+        if (projectPath == null) {
+            return false;
+        }
+        if ((libraryTypeNames == null || sourceTypeNames == null) && System.currentTimeMillis() >= typeNamesRetryTime) {
+            if (libraryTypeNames == null) {
+                libraryTypeNames = downloadTypeNames(false);
+                libraryNames = libraryTypeNames == null ? null : libraryTypeNames.createNameFilter(NAME_FILTER_FPP);
+            }
+            if (libraryTypeNames != null && sourceTypeNames == null) {
+                sourceTypeNames = downloadTypeNames(true);
+                sourceNames = sourceTypeNames == null ? null : sourceTypeNames.createNameFilter(NAME_FILTER_FPP);
+            }
+            if (libraryTypeNames == null || sourceTypeNames == null) {
+                typeNamesRetryTime = System.currentTimeMillis() + TYPE_NAMES_RETRY_MS;
+            }
+        }
+        return libraryTypeNames != null && sourceTypeNames != null;
+    }
+
+    private TypeNameIndex downloadTypeNames(boolean sources) {
+        XmlHttpWrapper xmlhttp = runMeasured(restServiceContext + "/typeNames?sources=" + sources + "&projectpath=" + projectPath, null);
+        if (xmlhttp.getStatusCode() != 200 || xmlhttp.getResponseHeader(PARTIAL_RESULTS_HEADER) != null) {
+            return null;
+        }
+        Jso table = Jso.deserialize(xmlhttp.getResponseText());
+        JsoArray<String> packageNames = table.getJsObjectField("packages").cast();
+        JsArrayMixed types = table.getJsObjectField("types").cast();
+        TypeNameIndex index = new TypeNameIndex();
+        for (int i = 0; i + 3 < types.length(); i += 4) {
+            index.add(packageNames.get((int)types.getNumber(i)), types.getString(i + 1), types.getString(i + 3),
+                      (int)types.getNumber(i + 2));
+        }
+        JsArrayMixed forbidden = table.getJsObjectField("forbidden").cast();
+        for (int i = 0; forbidden != null && i + 3 < forbidden.length(); i += 4) {
+            index.addForbidden(packageNames.get((int)forbidden.getNumber(i)), forbidden.getString(i + 1), forbidden.getString(i + 3),
+                               (int)forbidden.getNumber(i + 2));
+        }
+        return index;
     }
 
     /** {@inheritDoc} */
@@ -70,7 +209,7 @@ public class WorkerNameEnvironment implements INameEnvironment {
         }
 
         if (projectPath != null) {
-            if (packages.contains(key)) {
+            if (packages.contains(key) || isMissing(key)) {
                 return null;
             }
             StringBuilder builder = new StringBuilder();
@@ -83,19 +222,95 @@ public class WorkerNameEnvironment implements INameEnvironment {
                     projectPath;
             String result = runSyncRequest(url);
             if (result != null) {
-                Jso jso = Jso.deserialize(result);
-                BinaryType type = new BinaryType(jso.<BinaryTypeJso>cast());
-                WorkerTypeInfoStorage.get().putType(key, type);
-
+                IBinaryType type = WorkerTypeInfoStorage.get().putType(key, Jso.deserialize(result));
                 return new NameEnvironmentAnswer(type, null);
             } else {
-                blackListTypes.add(key);
+                addBounded(blackListTypes, key);
                 return null;
             }
         }
         return null;
     }
 
+    /**
+     * Resolves the types and packages with one request to RestNameEnvironment, so the following lookups of the compiler
+     * are answered from the type info storage and black lists instead of separate synchronous requests.
+     *
+     * @param typeNames
+     *         fully qualified names of the types
+     * @param packageNames
+     *         fully qualified names of the packages
+     */
+    public void prefetch(Collection<String> typeNames, Collection<String> packageNames) {
+        if (projectPath == null) {
+            return;
+        }
+        List<String> types = new ArrayList<>();
+        for (String typeName : typeNames) {
+            if (!blackListTypes.contains(typeName) && !packages.contains(typeName)
+                && !WorkerTypeInfoStorage.get().containsKey(typeName) && !isMissing(typeName)) {
+                types.add(typeName);
+            }
+        }
+        List<String> packageList = new ArrayList<>();
+        for (String packageName : packageNames) {
+            if (!packages.contains(packageName) && !blackListPackages.contains(packageName) && !isMissing(packageName)) {
+                packageList.add(packageName);
+            }
+        }
+        if (types.isEmpty() && packageList.isEmpty()) {
+            return;
+        }
+
+        JsoArray<String> typesRequest = JsoArray.create();
+        for (String type : types) {
+            typesRequest.add(type.replace('.', ','));
+        }
+        JsoArray<String> packagesRequest = JsoArray.create();
+        for (String packageName : packageList) {
+            packagesRequest.add(packageName.replace('.', ','));
+        }
+        Jso request = Jso.create();
+        request.addField("types", typesRequest);
+        request.addField("packages", packagesRequest);
+
+        String url = restServiceContext + "/findTypesBatch?projectpath=" + projectPath;
+        String result = runSyncPostRequest(url, Jso.serialize(request));
+        if (result == null) {
+            return;
+        }
+        Jso response = Jso.deserialize(result);
+        JsoArray<Jso> foundTypes = response.getJsObjectField("types").cast();
+        Set<Integer> errors = new HashSet<>();
+        JsArrayInteger errorIndexes = response.getJsObjectField("errors").cast();
+        if (errorIndexes != null) {
+            for (int i = 0; i < errorIndexes.length(); i++) {
+                errors.add(errorIndexes.get(i));
+            }
+        }
+        for (int i = 0; i < types.size() && i < foundTypes.size(); i++) {
+            Jso jso = foundTypes.get(i);
+            if (jso != null) {
+                WorkerTypeInfoStorage.get().putType(types.get(i), jso);
+            } else if (!errors.contains(i)) {
+                // the types which failed to resolve are requested again by the compiler instead of being black listed
+                addBounded(blackListTypes, types.get(i));
+            }
+        }
+        Set<String> existingPackages = new HashSet<>();
+        JsoArray<String> foundPackages = response.getJsObjectField("packages").cast();
+        for (String packageName : foundPackages.asIterable()) {
+            existingPackages.add(packageName.replace(',', '.'));
+        }
+        for (String packageName : packageList) {
+            if (existingPackages.contains(packageName)) {
+                addBounded(packages, packageName);
+            } else {
+                addBounded(blackListPackages, packageName);
+            }
+        }
+    }
+
     private String validateFqn(StringBuilder builder) {
         if (builder.indexOf("<") != -1) {
             builder.setLength(builder.indexOf("<"));
@@ -124,7 +339,7 @@ public class WorkerNameEnvironment implements INameEnvironment {
                                              null);
         }
         if (projectPath != null) {
-            if (packages.contains(key)) {
+            if (packages.contains(key) || isMissing(key)) {
                 return null;
             }
             StringBuilder builder = new StringBuilder();
@@ -138,13 +353,10 @@ public class WorkerNameEnvironment implements INameEnvironment {
                     "&projectpath=" + projectPath;
             String result = runSyncRequest(url);
             if (result != null) {
-                Jso jso = Jso.deserialize(result);
-                BinaryType type = new BinaryType(jso.<BinaryTypeJso>cast());
-                WorkerTypeInfoStorage.get().putType(key, type);
-
+                IBinaryType type = WorkerTypeInfoStorage.get().putType(key, Jso.deserialize(result));
                 return new NameEnvironmentAnswer(type, null);
             } else {
-                blackListTypes.add(key);
+                addBounded(blackListTypes, key);
                 return null;
             }
         }
@@ -165,7 +377,7 @@ public class WorkerNameEnvironment implements INameEnvironment {
             if (packages.contains(p.toString())) {
                 return true;
             }
-            if (blackListPackages.contains(p.toString())) {
+            if (blackListPackages.contains(p.toString()) || isMissing(p.toString())) {
                 return false;
             }
             StringBuilder builder = new StringBuilder();
@@ -182,9 +394,9 @@ public class WorkerNameEnvironment implements INameEnvironment {
             String findPackage = runSyncRequest(url);
             boolean exist = findPackage != null && Boolean.parseBoolean(findPackage);
             if (exist) {
-                packages.add(p.toString());
+                addBounded(packages, p.toString());
             } else {
-                blackListPackages.add(p.toString());
+                addBounded(blackListPackages, p.toString());
             }
             return exist;
 
@@ -255,13 +467,13 @@ public class WorkerNameEnvironment implements INameEnvironment {
             });
             for (String s : packages.asIterable()) {
                 requestor.acceptPackage(s.toCharArray());
-                WorkerNameEnvironment.packages.add(s);
+                addBounded(this.packages, s);
             }
         }
     }
 
     private String runSyncRequest(String url) {
-        XmlHttpWrapper xmlhttp = nativeRunSyncReques(url);
+        XmlHttpWrapper xmlhttp = runMeasured(url, null);
         int status = xmlhttp.getStatusCode();
         if (status == 200) {
             return xmlhttp.getResponseText();
@@ -271,6 +483,32 @@ public class WorkerNameEnvironment implements INameEnvironment {
         }
     }
 
+    private String runSyncPostRequest(String url, String body) {
+        XmlHttpWrapper xmlhttp = runMeasured(url, body);
+        if (xmlhttp.getStatusCode() == 200) {
+            return xmlhttp.getResponseText();
+        }
+        return null;
+    }
+
+    /** Runs GET request, or POST request if the body isn't <code>null</code>, and records its time and response size. */
+    private XmlHttpWrapper runMeasured(String url, String body) {
+        double start = WorkerMetrics.now();
+        XmlHttpWrapper xmlhttp = body == null ? nativeRunSyncReques(url) : nativeRunSyncPostRequest(url, body);
+        WorkerMetrics.get().recordTime(WorkerMetrics.NAME_ENVIRONMENT_REQUEST, start);
+        String response = xmlhttp.getResponseText();
+        WorkerMetrics.get().record(WorkerMetrics.NAME_ENVIRONMENT_RESPONSE, response == null ? 0 : response.length());
+        return xmlhttp;
+    }
+
+    private native XmlHttpWrapper nativeRunSyncPostRequest(String url, String body)/*-{
+        var xmlhttp = new XMLHttpRequest();
+        xmlhttp.open("POST", url, false);
+        xmlhttp.setRequestHeader("Content-Type", "application/json");
+        xmlhttp.send(body);
+        return xmlhttp;
+    }-*/;
+
     private native XmlHttpWrapper nativeRunSyncReques(String url)/*-{
         var xmlhttp = new XMLHttpRequest();
         xmlhttp.open("GET", url, false);
@@ -296,6 +534,11 @@ public class WorkerNameEnvironment implements INameEnvironment {
         if (qualifiedName.length == 0) {
             return;
         }
+        if (loadTypeNames()) {
+            libraryTypeNames.findTypes(qualifiedName, findMembers, camelCaseMatch, searchFor, requestor);
+            sourceTypeNames.findTypes(qualifiedName, findMembers, camelCaseMatch, searchFor, requestor);
+            return;
+        }
         String url =
                 restServiceContext + "/findTypes" + "?qualifiedname=" + new String(qualifiedName) + "&camelcase=" + camelCaseMatch
                 + "&findmembers=" + findMembers + "&searchfor=" + searchFor
@@ -330,6 +573,11 @@ public class WorkerNameEnvironment implements INameEnvironment {
         if (missingSimpleName.length == 0) {
             return;
         }
+        if (loadTypeNames()) {
+            libraryTypeNames.findExactTypes(missingSimpleName, findMembers, searchFor, storage);
+            sourceTypeNames.findExactTypes(missingSimpleName, findMembers, searchFor, storage);
+            return;
+        }
         String url =
                 restServiceContext + "/findExactTypes" + "?missingsimplename=" + new String(missingSimpleName)
                 + "&findmembers=" + findMembers + "&searchfor=" + searchFor
@@ -365,5 +613,9 @@ public class WorkerNameEnvironment implements INameEnvironment {
             return this.responseText;
         }-*/;
 
+        public native String getResponseHeader(String name)/*-{
+            return this.getResponseHeader(name);
+        }-*/;
+
     }
 }
@@ -30,13 +30,21 @@ import org.eclipse.che.ide.ext.java.jdt.core.dom.TypeDeclaration;
 import org.eclipse.che.ide.ext.java.jdt.core.dom.VariableDeclarationFragment;
 import org.eclipse.che.ide.ext.java.jdt.internal.corext.dom.ASTNodes;
 import org.eclipse.che.ide.ext.java.messages.BlockTypes;
+import org.eclipse.che.ide.ext.java.messages.impl.OutlineChange;
 import org.eclipse.che.ide.ext.java.messages.impl.OutlineUpdateMessage;
 import org.eclipse.che.ide.ext.java.messages.impl.WorkerCodeBlock;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayInteger;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 /**
- * Worker Outline updater
+ * Worker Outline updater.
+ * <p/>
+ * Outline of each file is compared with the previous outline of this file and only the changed blocks and the new
+ * positions of the moved blocks are sent, so the outline of a big class isn't rebuilt on each parse.
  *
  * @author Evgen Vidolob
  */
@@ -44,6 +52,8 @@ public class WorkerOutlineModelUpdater {
 
     private WorkerCodeBlock  root;
     private JavaParserWorker worker;
+    /** key = file path, value = top level blocks of the last outline sent for the file */
+    private final Map<String, Array<WorkerCodeBlock>> outlines = new HashMap<>();
 
     public WorkerOutlineModelUpdater(JavaParserWorker worker) {
         this.worker = worker;
@@ -59,11 +69,101 @@ public class WorkerOutlineModelUpdater {
 
         OutlineAstVisitor v = new OutlineAstVisitor(root, cUnit);
         cUnit.accept(v);
+        Array<WorkerCodeBlock> previous = outlines.put(path, v.childrens);
         OutlineUpdateMessage message = OutlineUpdateMessage.make();
-        message.setFilePath(path).setBlocks(v.childrens);
+        message.setFilePath(path);
+        if (previous == null) {
+            message.setBlocks(v.childrens);
+        } else {
+            OutlineDelta delta = new OutlineDelta();
+            diff(previous, v.childrens, JavaScriptObject.createArray().<JsArrayInteger>cast(), delta);
+            if (delta.changes.size() == 0 && delta.positions.length() == 0) {
+                return;
+            }
+            message.setChanges(delta.changes).setPositions(delta.positions);
+        }
         worker.sendMessage(message.serialize());
     }
 
+    /** Forgets the outline of the closed file, next outline of this file will be sent in full. */
+    public void removeOutline(String path) {
+        outlines.remove(path);
+    }
+
+    /**
+     * Compares children of the same block in the previous and the new outline. Unchanged blocks at the start and at the
+     * end are kept, blocks between them are replaced; children of the kept blocks are compared recursively.
+     */
+    private void diff(Array<WorkerCodeBlock> oldBlocks, Array<WorkerCodeBlock> newBlocks, JsArrayInteger path, OutlineDelta delta) {
+        int max = Math.min(oldBlocks.size(), newBlocks.size());
+        int prefix = 0;
+        while (prefix < max && oldBlocks.get(prefix).isSameDeclaration(newBlocks.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix
+               && oldBlocks.get(oldBlocks.size() - 1 - suffix).isSameDeclaration(newBlocks.get(newBlocks.size() - 1 - suffix))) {
+            suffix++;
+        }
+        int removeCount = oldBlocks.size() - prefix - suffix;
+        int addCount = newBlocks.size() - prefix - suffix;
+        if (removeCount > 0 || addCount > 0) {
+            JsoArray<WorkerCodeBlock> added = JsoArray.create();
+            for (int i = prefix; i < prefix + addCount; i++) {
+                added.add(newBlocks.get(i));
+            }
+            delta.changes.add(OutlineChange.make().setPath(copy(path)).setIndex(prefix).setRemoveCount(removeCount).setBlocks(added));
+        }
+
+        for (int i = 0; i < newBlocks.size(); i++) {
+            WorkerCodeBlock block = newBlocks.get(i);
+            int index = delta.nextIndex++;
+            if (i >= prefix && i < prefix + addCount) {
+                // added blocks are sent with their positions and children
+                delta.nextIndex += countDescendants(block);
+                continue;
+            }
+            WorkerCodeBlock oldBlock = oldBlocks.get(i < prefix ? i : i - addCount + removeCount);
+            if (oldBlock.getOffset() != block.getOffset() || oldBlock.getLength() != block.getLength()) {
+                delta.positions.push(index);
+                delta.positions.push(block.getOffset());
+                delta.positions.push(block.getLength());
+            }
+            path.push(i);
+            diff(getChildren(oldBlock), getChildren(block), path, delta);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    private static int countDescendants(WorkerCodeBlock block) {
+        int count = 0;
+        Array<WorkerCodeBlock> children = getChildren(block);
+        for (int i = 0; i < children.size(); i++) {
+            count += 1 + countDescendants(children.get(i));
+        }
+        return count;
+    }
+
+    private static Array<WorkerCodeBlock> getChildren(WorkerCodeBlock block) {
+        Array<WorkerCodeBlock> children = block.getChildren();
+        return children != null ? children : JsoArray.<WorkerCodeBlock>create();
+    }
+
+    private static JsArrayInteger copy(JsArrayInteger path) {
+        JsArrayInteger copy = JavaScriptObject.createArray().cast();
+        for (int i = 0; i < path.length(); i++) {
+            copy.push(path.get(i));
+        }
+        return copy;
+    }
+
+    private static class OutlineDelta {
+        final JsoArray<OutlineChange> changes   = JsoArray.create();
+        final JsArrayInteger          positions = JavaScriptObject.createArray().cast();
+        /** pre-order index of the next block of the new outline */
+        int nextIndex;
+    }
+
     class OutlineAstVisitor extends ASTVisitor {
         private final ASTNode astParent;
         WorkerCodeBlock parent;
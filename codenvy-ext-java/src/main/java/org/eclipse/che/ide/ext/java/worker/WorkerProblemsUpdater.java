@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.collections.js.JsoArray;
+import org.eclipse.che.ide.ext.java.jdt.core.compiler.IProblem;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.problem.DefaultProblem;
+import org.eclipse.che.ide.ext.java.messages.Problem;
+import org.eclipse.che.ide.ext.java.messages.ProblemsDeltaMessage;
+import org.eclipse.che.ide.ext.java.messages.impl.MessagesImpls;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends problems of the parsed files.
+ * <p/>
+ * Problems of each file are compared with the problems sent for the previous parse of this file and only the changed
+ * range of the list is sent, see {@link ProblemsDeltaMessage}.
+ */
+public class WorkerProblemsUpdater {
+
+    private final JavaParserWorker          worker;
+    /** key = file path, value = keys of the last problems sent for the file */
+    private final Map<String, List<String>> problems = new HashMap<>();
+
+    public WorkerProblemsUpdater(JavaParserWorker worker) {
+        this.worker = worker;
+    }
+
+    /**
+     * Sends changes of the problems of the file.
+     *
+     * @param id
+     *         id of the parse request
+     * @param path
+     *         path of the parsed file
+     * @param newProblems
+     *         all problems of the file
+     */
+    public void onProblemsChanged(String id, String path, IProblem[] newProblems) {
+        List<String> newKeys = new ArrayList<>(newProblems.length);
+        for (IProblem problem : newProblems) {
+            newKeys.add(getKey(problem));
+        }
+        List<String> oldKeys = problems.put(path, newKeys);
+
+        ProblemsDeltaMessage message = ProblemsDeltaMessage.make();
+        message.setId(id).setFilePath(path);
+        int prefix = 0;
+        int suffix = 0;
+        if (oldKeys == null) {
+            message.setFull(true);
+        } else {
+            int max = Math.min(oldKeys.size(), newKeys.size());
+            while (prefix < max && oldKeys.get(prefix).equals(newKeys.get(prefix))) {
+                prefix++;
+            }
+            while (suffix < max - prefix
+                   && oldKeys.get(oldKeys.size() - 1 - suffix).equals(newKeys.get(newKeys.size() - 1 - suffix))) {
+                suffix++;
+            }
+            message.setIndex(prefix).setRemoveCount(oldKeys.size() - prefix - suffix);
+        }
+        JsoArray<Problem> added = JsoArray.create();
+        for (int i = prefix; i < newProblems.length - suffix; i++) {
+            added.add(convertProblem(newProblems[i]));
+        }
+        message.setProblems(added);
+        // the message is sent even if nothing is changed, it completes the parse request
+        worker.sendMessage(message.serialize());
+    }
+
+    /** Forgets the problems of the closed file, next problems of this file will be sent in full. */
+    public void removeProblems(String path) {
+        problems.remove(path);
+    }
+
+    private static String getKey(IProblem problem) {
+        return problem.getID() + ":" + problem.getSourceStart() + ":" + problem.getSourceEnd() + ":" + problem.getSourceLineNumber()
+               + ":" + (problem.isError() ? 'E' : problem.isWarning() ? 'W' : 'I') + ":" + problem.getMessage();
+    }
+
+    private static MessagesImpls.ProblemImpl convertProblem(IProblem p) {
+        MessagesImpls.ProblemImpl problem = MessagesImpls.ProblemImpl.make();
+        DefaultProblem prop = (DefaultProblem)p;
+
+        problem.setOriginatingFileName(new String(prop.getOriginatingFileName()));
+        problem.setMessage(prop.getMessage());
+        problem.setId(prop.getID());
+        problem.setStringArguments(WorkerMessageHandler.from(prop.getArguments()));
+        problem.setSeverity(prop.getSeverity());
+        problem.setStartPosition(prop.getSourceStart());
+        problem.setEndPosition(prop.getSourceEnd());
+        problem.setLine(prop.getSourceLineNumber());
+        problem.setColumn(prop.getSourceColumnNumber());
+
+        return problem;
+    }
+}
@@ -30,6 +30,9 @@ public class WorkerProposalApplier {
     private JsoStringMap<JavaCompletionProposal> quickProposalMap = JsoStringMap.create();
     private Document caDocument;
     private Document   quickDocument;
+    /** Text typed after the code assist proposals were computed, it's replaced by the applied proposal. */
+    private int      caTypedOffset;
+    private int      caTypedLength;
 
 
     public WorkerProposalApplier(JavaParserWorker worker, MessageFilter messageFilter) {
@@ -45,15 +48,22 @@ public class WorkerProposalApplier {
     void handleApply(String id) {
         if (caProposalMap.containsKey(id)) {
             JavaCompletionProposal proposal = caProposalMap.get(id);
-            apply(id, proposal, caDocument);
+            JsoArray<Change> changes = JsoArray.create();
+            if (caTypedLength > 0) {
+                MessagesImpls.ChangeImpl change = MessagesImpls.ChangeImpl.make();
+                change.setOffset(caTypedOffset).setLength(caTypedLength).setText("");
+                changes.add(change);
+            }
+            apply(id, proposal, caDocument, changes);
+            // document is changed, proposals computed for it can't be reused anymore
+            caDocument = null;
         } else if (quickProposalMap.containsKey(id)) {
             JavaCompletionProposal proposal = quickProposalMap.get(id);
-            apply(id, proposal, quickDocument);
+            apply(id, proposal, quickDocument, JsoArray.<Change>create());
         }
     }
 
-    private void apply(String id, JavaCompletionProposal proposal, Document document) {
-        final JsoArray<Change> changes = JsoArray.create();
+    private void apply(String id, JavaCompletionProposal proposal, Document document, final JsoArray<Change> changes) {
         document.addDocumentListener(new DocumentListener() {
             @Override
             public void documentAboutToBeChanged(DocumentEvent event) {
@@ -83,6 +93,15 @@ public class WorkerProposalApplier {
         this.caDocument = caDocument;
     }
 
+    boolean isCaDocument(Document document) {
+        return caDocument == document;
+    }
+
+    void setCaTypedText(int offset, int length) {
+        this.caTypedOffset = offset;
+        this.caTypedLength = length;
+    }
+
     void setQuickDocument(Document quickDocument) {
         this.quickDocument = quickDocument;
     }
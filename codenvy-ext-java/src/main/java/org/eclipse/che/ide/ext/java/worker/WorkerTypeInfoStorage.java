@@ -10,17 +10,22 @@
  *******************************************************************************/
 package org.eclipse.che.ide.ext.java.worker;
 
+import org.eclipse.che.ide.collections.Jso;
 import org.eclipse.che.ide.collections.js.JsoArray;
 import org.eclipse.che.ide.ext.java.jdt.core.IType;
 import org.eclipse.che.ide.ext.java.jdt.core.Signature;
 import org.eclipse.che.ide.ext.java.jdt.core.search.Type;
 import org.eclipse.che.ide.ext.java.jdt.internal.compiler.env.IBinaryType;
 import org.eclipse.che.ide.ext.java.worker.env.BinaryType;
+import org.eclipse.che.ide.ext.java.worker.env.json.BinaryTypeJso;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author <a href="mailto:evidolob@codenvy.com">Evgen Vidolob</a>
@@ -31,7 +36,15 @@ public class WorkerTypeInfoStorage {
     private static WorkerTypeInfoStorage instance;
 
     private Map<String, IBinaryType> storage = new HashMap<String, IBinaryType>();
-    private String shortTypesInfo;
+    /** key = fqn of the type read from the {@link TypeInfoDatabase}, value = JSON of the type which isn't parsed yet */
+    private Map<String, String>      storedTypes = new HashMap<String, String>();
+    /** key = fqn of the type loaded from library jar, value = hash of the jar */
+    private Map<String, String>      typeJars = new HashMap<String, String>();
+    private String           shortTypesInfo;
+    private String           classpathFingerprint;
+    private TypeInfoDatabase database;
+    /** Types loaded from the server which aren't shared with the other workers yet. */
+    private JsoArray<Jso>    loadedTypes = JsoArray.create();
 
     public static WorkerTypeInfoStorage get() {
         if (instance == null) {
@@ -41,20 +54,125 @@ public class WorkerTypeInfoStorage {
     }
 
     public void putType(String key, IBinaryType type) {
+        storedTypes.remove(key);
         storage.put(key, type);
     }
 
+    /**
+     * Stores type received from RestNameEnvironment. Types loaded from library jars are also saved to
+     * {@link TypeInfoDatabase}, so they are available after reload without requests to the server.
+     */
+    public IBinaryType putType(String key, Jso json) {
+        BinaryType type = new BinaryType(json.<BinaryTypeJso>cast());
+        storedTypes.remove(key);
+        storage.put(key, type);
+        Jso loadedType = Jso.create();
+        loadedType.addField("key", key);
+        loadedType.addField("type", json);
+        loadedTypes.add(loadedType);
+        String jar = json.getStringField("jar");
+        if (jar != null) {
+            typeJars.put(key, jar);
+            if (database != null) {
+                database.put(jar, key, Jso.serialize(json));
+            }
+        }
+        return type;
+    }
+
+    /** Stores type loaded by another worker. It's already saved to the {@link TypeInfoDatabase} by that worker. */
+    public void putSharedType(String key, Jso json) {
+        if (storage.containsKey(key)) {
+            return;
+        }
+        storedTypes.remove(key);
+        storage.put(key, new BinaryType(json.<BinaryTypeJso>cast()));
+        String jar = json.getStringField("jar");
+        if (jar != null) {
+            typeJars.put(key, jar);
+        }
+    }
+
+    /** Returns types loaded from the server since the last call. */
+    public JsoArray<Jso> takeLoadedTypes() {
+        JsoArray<Jso> types = loadedTypes;
+        loadedTypes = JsoArray.create();
+        return types;
+    }
+
+    /**
+     * Updates storage to the current classpath of the project. Types of the jars which are not on the classpath anymore
+     * and types from the project sources are removed, types of the jars which are on the classpath are read from the
+     * {@link TypeInfoDatabase} and parsed when they are looked up for the first time. Stored types of the jars which
+     * aren't used by any project anymore are deleted from the database.
+     *
+     * @param projectPath
+     *         path of the project
+     * @param fingerprint
+     *         fingerprint of the classpath
+     * @param jarHashes
+     *         hashes of the library jars on the classpath
+     */
+    public void setClasspath(String projectPath, String fingerprint, JsoArray<String> jarHashes) {
+        Set<String> jars = new HashSet<String>();
+        for (String jar : jarHashes.asIterable()) {
+            jars.add(jar);
+        }
+        for (Iterator<String> iterator = storage.keySet().iterator(); iterator.hasNext(); ) {
+            String key = iterator.next();
+            String jar = typeJars.get(key);
+            if (jar == null || !jars.contains(jar)) {
+                iterator.remove();
+                typeJars.remove(key);
+            }
+        }
+        for (Iterator<String> iterator = storedTypes.keySet().iterator(); iterator.hasNext(); ) {
+            String key = iterator.next();
+            if (!jars.contains(typeJars.get(key))) {
+                iterator.remove();
+                typeJars.remove(key);
+            }
+        }
+        if (fingerprint.equals(classpathFingerprint)) {
+            return;
+        }
+        classpathFingerprint = fingerprint;
+        if (database == null) {
+            database = new TypeInfoDatabase();
+        }
+        database.setProjectJars(projectPath, jarHashes);
+        database.load(jarHashes, new TypeInfoDatabase.LoadCallback() {
+            @Override
+            public void onLoaded(String jarHash, String fqn, String json) {
+                if (!storage.containsKey(fqn) && !storedTypes.containsKey(fqn)) {
+                    storedTypes.put(fqn, json);
+                    typeJars.put(fqn, jarHash);
+                }
+            }
+        });
+    }
+
     public IBinaryType getType(String key) {
-        return storage.get(key);
+        IBinaryType type = storage.get(key);
+        if (type == null) {
+            String json = storedTypes.remove(key);
+            if (json != null) {
+                type = new BinaryType(Jso.deserialize(json).<BinaryTypeJso>cast());
+                storage.put(key, type);
+            }
+        }
+        return type;
     }
 
     public boolean containsKey(String key) {
-        return storage.containsKey(key);
+        return storage.containsKey(key) || storedTypes.containsKey(key);
     }
 
     public List<IBinaryType> getTypesByNamePrefix(String prefix, boolean fqnPart) {
         List<IBinaryType> res = new ArrayList<IBinaryType>();
-        for (String key : storage.keySet()) {
+        List<String> keys = new ArrayList<String>(storage.keySet());
+        keys.addAll(storedTypes.keySet());
+        for (String key : keys) {
             if (fqnPart && !key.startsWith(prefix)) {
                 continue;
             } else {
@@ -62,7 +180,7 @@ public class WorkerTypeInfoStorage {
                 if (simpleName.equals(key) || !simpleName.startsWith(prefix))
                     continue;
             }
-            res.add(storage.get(key));
+            res.add(getType(key));
         }
         return res;
     }
@@ -87,13 +205,23 @@ public class WorkerTypeInfoStorage {
                 fqnToRemove.add(key);
             }
         }
+        for (String key : storedTypes.keySet()) {
+            if (key.startsWith(fqn)) {
+                fqnToRemove.add(key);
+            }
+        }
 
         for (String key : fqnToRemove.asIterable()) {
             storage.remove(key);
+            storedTypes.remove(key);
+            typeJars.remove(key);
         }
     }
 
     public void clear() {
         storage.clear();
+        storedTypes.clear();
+        typeJars.clear();
+        classpathFingerprint = null;
     }
 }
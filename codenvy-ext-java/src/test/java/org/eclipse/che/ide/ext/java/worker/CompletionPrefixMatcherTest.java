@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.ext.java.client.BaseTest;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompletionPrefixMatcherTest extends BaseTest {
+
+    @Test
+    public void shouldRankPrefixBeforeCamelCaseAndSubstringMatches() throws Exception {
+        List<String> names = Arrays.asList("hashCode", "getClass", "getName", "GetterHelper", "targetName", "notify");
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), CompletionPrefixMatcher.filter("get", names));
+        assertEquals(Arrays.asList(2, 4), CompletionPrefixMatcher.filter("getN", names));
+        assertEquals(Arrays.asList(2), CompletionPrefixMatcher.filter("gN", names));
+    }
+
+    @Test
+    public void shouldKeepOrderOfRelevanceForSameRank() throws Exception {
+        List<String> names = Arrays.asList("toString", "toArray", "hashCode", "toList");
+
+        assertEquals(Arrays.asList(0, 1, 3), CompletionPrefixMatcher.filter("to", names));
+    }
+
+    @Test
+    public void shouldTakeNameFromDisplayString() throws Exception {
+        assertEquals("getName", CompletionPrefixMatcher.getName("getName() : String - Foo"));
+        assertEquals("ArrayList", CompletionPrefixMatcher.getName("ArrayList<span class=\"#FQN#\"> - java.util</span>"));
+    }
+
+    @Test
+    public void shouldAcceptOnlyIdentifierText() throws Exception {
+        assertTrue(CompletionPrefixMatcher.isIdentifierPart("Name_1$"));
+        assertFalse(CompletionPrefixMatcher.isIdentifierPart("a("));
+        assertFalse(CompletionPrefixMatcher.isIdentifierPart("a b"));
+    }
+}
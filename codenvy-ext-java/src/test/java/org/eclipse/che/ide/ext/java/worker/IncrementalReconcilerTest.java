@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.ext.java.client.BaseTest;
+import org.eclipse.che.ide.ext.java.jdt.core.compiler.IProblem;
+import org.eclipse.che.ide.ext.java.jdt.core.dom.AST;
+import org.eclipse.che.ide.ext.java.jdt.core.dom.ASTParser;
+import org.eclipse.che.ide.ext.java.jdt.core.dom.CompilationUnit;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.problem.DefaultProblem;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.problem.ProblemSeverities;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalReconcilerTest extends BaseTest {
+
+    private static final String PATH   = "/P/src/org/test/Foo.java";
+    private static final String SOURCE = "package org.test;\n" +
+                                         "public class Foo {\n" +
+                                         "    void first() {\n" +
+                                         "        int a = 1;\n" +
+                                         "    }\n" +
+                                         "    void second() {\n" +
+                                         "        int unused = 2;\n" +
+                                         "    }\n" +
+                                         "}\n";
+
+    private WorkerCuCache         cuCache;
+    private IncrementalReconciler reconciler;
+    private IProblem              unusedProblem;
+
+    @Before
+    public void setUp() throws Exception {
+        cuCache = new WorkerCuCache();
+        reconciler = new IncrementalReconciler(cuCache);
+        int start = SOURCE.indexOf("unused");
+        unusedProblem = new DefaultProblem(PATH.toCharArray(), "unused", IProblem.LocalVariableIsNeverUsed, new String[0],
+                                           ProblemSeverities.Warning, start, start + 5, 7, 13);
+        cuCache.putCompilationUnit(PATH, parse(SOURCE), SOURCE, new IProblem[]{unusedProblem}, false);
+    }
+
+    @Test
+    public void shouldLeaveOutBodiesOfNotEditedMethods() throws Exception {
+        String source = SOURCE.replace("int a = 1;", "int a = 100;\n        a++;");
+
+        IncrementalReconciler.Reconcile reconcile = reconciler.prepare(PATH, source);
+
+        assertNotNull(reconcile);
+        String parseSource = reconcile.getParseSource();
+        assertEquals(source.length(), parseSource.length());
+        assertTrue(parseSource.contains("int a = 100;\n        a++;"));
+        assertFalse(parseSource.contains("unused"));
+        assertTrue(parseSource.contains("throw null;"));
+    }
+
+    @Test
+    public void shouldShiftProblemsOfLeftOutBodies() throws Exception {
+        String source = SOURCE.replace("int a = 1;", "int a = 100;\n        a++;");
+
+        IProblem[] problems = reconciler.prepare(PATH, source).mergeProblems(Collections.<IProblem>emptyList());
+
+        assertEquals(1, problems.length);
+        assertEquals(source.indexOf("unused"), problems[0].getSourceStart());
+        assertEquals(8, problems[0].getSourceLineNumber());
+        assertEquals(13, ((DefaultProblem)problems[0]).getSourceColumnNumber());
+    }
+
+    @Test
+    public void shouldParseFullyWhenStructureIsChanged() throws Exception {
+        assertNull(reconciler.prepare(PATH, SOURCE.replace("int a = 1;", "int a = 1; }")));
+        assertNull(reconciler.prepare(PATH, SOURCE.replace("int a = 1;", "int a = 1; /*")));
+        assertNull(reconciler.prepare(PATH, SOURCE.replace("public class", "class")));
+    }
+
+    @Test
+    public void shouldParseFullyWhenSourceIsNotChanged() throws Exception {
+        assertNull(reconciler.prepare(PATH, SOURCE));
+    }
+
+    @Test
+    public void shouldParseFullyAfterInvalidation() throws Exception {
+        cuCache.invalidate();
+
+        assertNull(reconciler.prepare(PATH, SOURCE.replace("int a = 1;", "int a = 100;")));
+        assertTrue(cuCache.isPartial(PATH));
+    }
+
+    @Test
+    public void shouldParseFullyAfterManyIncrementalReconciles() throws Exception {
+        String source = SOURCE;
+        for (int i = 0; i < IncrementalReconciler.MAX_INCREMENTAL_RECONCILES; i++) {
+            String edited = source.replace("int a = " + (i + 1) + ";", "int a = " + (i + 2) + ";");
+            IncrementalReconciler.Reconcile reconcile = reconciler.prepare(PATH, edited);
+            assertNotNull(reconcile);
+            cuCache.putCompilationUnit(PATH, parse(reconcile.getParseSource()), edited,
+                                       reconcile.mergeProblems(Collections.<IProblem>emptyList()), true);
+            source = edited;
+        }
+
+        assertNull(reconciler.prepare(PATH, source.replace("int a = 21;", "int a = 22;")));
+    }
+
+    private static CompilationUnit parse(String source) {
+        ASTParser parser = ASTParser.newParser(AST.JLS4);
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setUnitName("Foo");
+        parser.setSource(source.toCharArray());
+        return (CompilationUnit)parser.createAST();
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.eclipse.che.ide.ext.java.client.BaseTest;
+import org.eclipse.che.ide.ext.java.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.che.ide.ext.java.jdt.internal.codeassist.ISearchRequestor;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.ClassFileConstants;
+import org.eclipse.che.ide.ext.java.jdt.internal.compiler.env.AccessRestriction;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TypeNameIndexTest extends BaseTest {
+
+    private TypeNameIndex index;
+    private Requestor     requestor;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new TypeNameIndex();
+        index.add("java.util", "Map", "", ClassFileConstants.AccPublic | ClassFileConstants.AccInterface);
+        index.add("java.util", "ArrayList", "", ClassFileConstants.AccPublic);
+        index.add("java.util", "Entry", "Map", ClassFileConstants.AccPublic | ClassFileConstants.AccInterface);
+        index.add("java.lang.annotation", "Retention", "", ClassFileConstants.AccPublic | ClassFileConstants.AccInterface
+                                                           | ClassFileConstants.AccAnnotation);
+        index.add("java.util", "AbstractList", "", ClassFileConstants.AccPublic | ClassFileConstants.AccAbstract);
+        index.add("java.awt", "List", "", ClassFileConstants.AccPublic);
+        index.add("java.util", "List", "", ClassFileConstants.AccPublic | ClassFileConstants.AccInterface);
+        index.add("java.util.concurrent", "TimeUnit", "", ClassFileConstants.AccPublic | ClassFileConstants.AccEnum);
+        requestor = new Requestor();
+    }
+
+    @Test
+    public void shouldFindTypesByPrefixIgnoringCase() throws Exception {
+        assertEquals(2, index.findTypes("a".toCharArray(), false, false, IJavaSearchConstants.TYPE, requestor));
+        assertEquals(Arrays.asList("java.util.AbstractList", "java.util.ArrayList"), requestor.types);
+    }
+
+    @Test
+    public void shouldFindTypesByCamelCase() throws Exception {
+        index.findTypes("AL".toCharArray(), false, true, IJavaSearchConstants.TYPE, requestor);
+
+        assertEquals(Arrays.asList("java.util.AbstractList", "java.util.ArrayList"), requestor.types);
+    }
+
+    @Test
+    public void shouldFindTypesInPackage() throws Exception {
+        index.findTypes("java.util.Li".toCharArray(), false, false, IJavaSearchConstants.TYPE, requestor);
+
+        assertEquals(Arrays.asList("java.util.List"), requestor.types);
+    }
+
+    @Test
+    public void shouldFindMemberTypesOnlyIfRequested() throws Exception {
+        index.findTypes("E".toCharArray(), false, false, IJavaSearchConstants.TYPE, requestor);
+        assertEquals(0, requestor.types.size());
+
+        index.findTypes("E".toCharArray(), true, false, IJavaSearchConstants.TYPE, requestor);
+        assertEquals(Arrays.asList("java.util.Map.Entry"), requestor.types);
+    }
+
+    @Test
+    public void shouldFilterTypesByKind() throws Exception {
+        index.findTypes("".toCharArray(), false, false, IJavaSearchConstants.CLASS_AND_ENUM, requestor);
+        assertEquals(Arrays.asList("java.util.AbstractList", "java.util.ArrayList", "java.awt.List", "java.util.concurrent.TimeUnit"),
+                     requestor.types);
+
+        requestor.types.clear();
+        index.findTypes("".toCharArray(), false, false, IJavaSearchConstants.INTERFACE_AND_ANNOTATION, requestor);
+        assertEquals(Arrays.asList("java.util.List", "java.util.Map", "java.lang.annotation.Retention"), requestor.types);
+    }
+
+    @Test
+    public void shouldFindExactTypes() throws Exception {
+        assertEquals(2, index.findExactTypes("List".toCharArray(), false, IJavaSearchConstants.TYPE, requestor));
+        assertEquals(Arrays.asList("java.awt.List", "java.util.List"), requestor.types);
+
+        requestor.types.clear();
+        assertEquals(0, index.findExactTypes("list".toCharArray(), false, IJavaSearchConstants.TYPE, requestor));
+    }
+
+    @Test
+    public void shouldFilterNamesOfTypesAndPackages() throws Exception {
+        BloomFilter filter = index.createNameFilter(0.01);
+
+        assertTrue(filter.mightContain("java.util.List"));
+        assertTrue(filter.mightContain("java.util.Map.Entry"));
+        assertTrue(filter.mightContain("java.util.Map$Entry"));
+        assertTrue(filter.mightContain("java.util.concurrent"));
+        assertTrue(filter.mightContain("java"));
+        assertFalse(filter.mightContain("java.lang.List"));
+    }
+
+    @Test
+    public void shouldFilterForbiddenTypesWithoutFindingThem() throws Exception {
+        index.addForbidden("sun.misc", "Unsafe", "", ClassFileConstants.AccPublic | ClassFileConstants.AccFinal);
+
+        assertEquals(0, index.findExactTypes("Unsafe".toCharArray(), false, IJavaSearchConstants.TYPE, requestor));
+        assertEquals(0, index.findTypes("Uns".toCharArray(), false, false, IJavaSearchConstants.TYPE, requestor));
+        BloomFilter filter = index.createNameFilter(0.01);
+        assertTrue(filter.mightContain("sun.misc.Unsafe"));
+        assertTrue(filter.mightContain("sun.misc"));
+    }
+
+    private static class Requestor implements ISearchRequestor {
+        private final List<String> types = new ArrayList<>();
+
+        @Override
+        public void acceptConstructor(int modifiers, char[] simpleTypeName, int parameterCount, char[] signature,
+                                      char[][] parameterTypes, char[][] parameterNames, int typeModifiers, char[] packageName,
+                                      int extraFlags, String path, AccessRestriction access) {
+        }
+
+        @Override
+        public void acceptType(char[] packageName, char[] typeName, char[][] enclosingTypeNames, int modifiers,
+                               AccessRestriction accessRestriction) {
+            StringBuilder name = new StringBuilder().append(packageName).append('.');
+            if (enclosingTypeNames != null) {
+                for (char[] enclosingTypeName : enclosingTypeNames) {
+                    name.append(enclosingTypeName).append('.');
+                }
+            }
+            types.add(name.append(typeName).toString());
+        }
+
+        @Override
+        public void acceptPackage(char[] packageName) {
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TypeReferenceCollectorTest {
+
+    private static final String SOURCE = "package org.test;\n" +
+                                         "import java.util.List;\n" +
+                                         "import java.io.*;\n" +
+                                         "import static java.util.Collections.emptyList;\n" +
+                                         "public class Foo extends Bar {\n" +
+                                         "    private List<String> list = emptyList();\n" +
+                                         "    private File file;\n" +
+                                         "    void m() { java.util.Map map = null; }\n" +
+                                         "}\n";
+
+    @Test
+    public void shouldCollectImports() throws Exception {
+        TypeReferenceCollector collector = new TypeReferenceCollector(SOURCE);
+        assertTrue(collector.getTypes().contains("java.util.List"));
+        assertTrue(collector.getTypes().contains("java.util.Collections"));
+        assertTrue(collector.getPackages().contains("java"));
+        assertTrue(collector.getPackages().contains("java.util"));
+        assertTrue(collector.getPackages().contains("java.io"));
+        assertTrue(collector.getPackages().contains("org.test"));
+    }
+
+    @Test
+    public void shouldGuessReferencedTypes() throws Exception {
+        TypeReferenceCollector collector = new TypeReferenceCollector(SOURCE);
+        assertTrue(collector.getTypes().contains("org.test.Bar"));
+        assertTrue(collector.getTypes().contains("java.lang.String"));
+        assertTrue(collector.getTypes().contains("java.io.File"));
+        assertFalse(collector.getTypes().contains("org.test.List"));
+        assertFalse(collector.getTypes().contains("org.test.Map"));
+    }
+
+    @Test
+    public void shouldNotGuessConstantsAndTypeParameters() throws Exception {
+        TypeReferenceCollector collector = new TypeReferenceCollector("package org.test;\n" +
+                                                                      "public class Foo<Key extends Comparable<Key>> {\n" +
+                                                                      "    private static final int MAX_X = 1;\n" +
+                                                                      "    public <Value> Value get(Key key) { return LOG.get(MAX_X); }\n" +
+                                                                      "}\n");
+        assertTrue(collector.getTypes().contains("java.lang.Comparable"));
+        assertFalse(collector.getTypes().contains("org.test.Key"));
+        assertFalse(collector.getTypes().contains("org.test.Value"));
+        assertFalse(collector.getTypes().contains("org.test.MAX_X"));
+        assertFalse(collector.getTypes().contains("org.test.LOG"));
+    }
+
+    @Test
+    public void shouldGuessNamesInTypePositionsOnly() throws Exception {
+        TypeReferenceCollector collector = new TypeReferenceCollector("package org.test;\n" +
+                                                                      "public class Foo {\n" +
+                                                                      "    Object m(Object o) throws Failure, Error {\n" +
+                                                                      "        call(Argument);\n" +
+                                                                      "        int i = count + Total;\n" +
+                                                                      "        return (Cast)new Created(Util.value());\n" +
+                                                                      "    }\n" +
+                                                                      "}\n");
+        assertTrue(collector.getTypes().contains("org.test.Failure"));
+        assertTrue(collector.getTypes().contains("java.lang.Error"));
+        assertTrue(collector.getTypes().contains("org.test.Cast"));
+        assertTrue(collector.getTypes().contains("org.test.Created"));
+        assertTrue(collector.getTypes().contains("org.test.Util"));
+        assertFalse(collector.getTypes().contains("org.test.Argument"));
+        assertFalse(collector.getTypes().contains("org.test.Total"));
+    }
+}
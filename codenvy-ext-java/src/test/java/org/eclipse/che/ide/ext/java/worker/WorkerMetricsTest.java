@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.ide.ext.java.worker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class WorkerMetricsTest {
+
+    @Test
+    public void shouldAggregateRecordedValues() throws Exception {
+        WorkerMetrics metrics = new WorkerMetrics();
+        metrics.record(WorkerMetrics.PARSE, 10);
+        metrics.record(WorkerMetrics.PARSE, 30);
+        metrics.record(WorkerMetrics.PARSE, 20);
+
+        assertEquals(3, metrics.getCount(WorkerMetrics.PARSE));
+        assertEquals(60, metrics.getTotal(WorkerMetrics.PARSE), 0);
+        assertEquals(30, metrics.getMax(WorkerMetrics.PARSE), 0);
+    }
+
+    @Test
+    public void shouldReturnZeroForOperationWithoutValues() throws Exception {
+        WorkerMetrics metrics = new WorkerMetrics();
+
+        assertEquals(0, metrics.getCount(WorkerMetrics.OUTLINE));
+        assertEquals(0, metrics.getTotal(WorkerMetrics.OUTLINE), 0);
+        assertEquals(0, metrics.getMax(WorkerMetrics.OUTLINE), 0);
+    }
+
+    @Test
+    public void shouldForgetValuesOnReset() throws Exception {
+        WorkerMetrics metrics = new WorkerMetrics();
+        metrics.record(WorkerMetrics.NAME_ENVIRONMENT_REQUEST, 100);
+
+        metrics.reset();
+
+        assertEquals(0, metrics.getCount(WorkerMetrics.NAME_ENVIRONMENT_REQUEST));
+    }
+}
@@ -39,6 +39,8 @@ import static java.nio.file.Files.exists;
  */
 public class MavenUtils {
     public static final Pattern MAVEN_LOGGER_PREFIX_REMOVER = Pattern.compile("(\\[INFO\\]|\\[WARNING\\]|\\[DEBUG\\]|\\[ERROR\\])\\s+(.*)");
+    /** Name of the file which lists the copied dependencies, result of the copy dependencies build. */
+    public static final String  DEPENDENCIES_MANIFEST_FILE  = "dependencies-manifest.json";
     @Inject
     @Named("packaging2file-extension")
     private static Map<String, String> packagingToFileExtensionMapping;
@@ -50,6 +50,8 @@ public class JavaReconcilerStrategy implements ReconcilingStrategy, JavaParserWo
     private Document document;
     private boolean first = true;
     private boolean sourceFromClass;
+    /** Problems shown in the editor, the worker returns the same array if they aren't changed. */
+    private Array<IProblem> reportedProblems;
 
     @AssistedInject
     public JavaReconcilerStrategy(@Assisted @NotNull final EmbeddedTextEditorPresenter<?> editor,
@@ -114,9 +116,10 @@ public class JavaReconcilerStrategy implements ReconcilingStrategy, JavaParserWo
             codeAssistProcessor.enableCodeAssistant();
         }
 
-        if (this.annotationModel == null) {
+        if (this.annotationModel == null || problems == reportedProblems) {
             return;
         }
+        reportedProblems = problems;
         IProblemRequestor problemRequestor;
         if (this.annotationModel instanceof IProblemRequestor) {
             problemRequestor = (IProblemRequestor)this.annotationModel;